@@ -1,5 +1,6 @@
 package model;
 
+import java.io.File;
 import java.nio.file.NoSuchFileException;
 
 // Represents an shortcut to an app, with a name and File object which is an executable
@@ -12,18 +13,39 @@ public class AppShortcut extends FilePath {
         setPath(path);
     }
 
+    // EFFECTS: creates AppShortcut with given name and path, without checking that the file exists
+    private AppShortcut(String name, File file) {
+        this.name = name;
+        this.file = file;
+    }
+
+    // EFFECTS: returns AppShortcut with given name and path without checking that the file exists, so that it can be
+    //          created without touching the file system; its status is UNCHECKED until checkStatus is called
+    //          throws NoSuchFileException if path is not to a file of extension .exe
+    public static AppShortcut uncheckedApp(String name, String path) throws NoSuchFileException {
+        if (!extensionOf(path).equals("exe")) {
+            throw new NoSuchFileException(path);
+        }
+        return new AppShortcut(name, new File(path));
+    }
+
     // EFFECTS: sets this path if it is valid and of extension .exe, otherwise throws NoSuchFileException
     @Override
     public void setPath(String path) throws NoSuchFileException {
-        FilePath tempAppShortcut = new FilePath(name, path);
-
-        if (tempAppShortcut.getFileExtension().equals("exe")) {
+        if (extensionOf(path).equals("exe")) {
             super.setPath(path);
         } else {
             throw new NoSuchFileException(path);
         }
     }
 
+    @Override
+    public AppShortcut renamed(String name) {
+        AppShortcut copy = new AppShortcut(name, file);
+        copy.setStatus(getStatus());
+        return copy;
+    }
+
     @Override
     public ResourceType getResourceType() {
         return ResourceType.APP;
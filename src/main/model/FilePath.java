@@ -11,6 +11,8 @@ import java.nio.file.NoSuchFileException;
 public class FilePath implements Resource {
     protected String name;
     protected File file;
+    private boolean dirty;
+    private Status status;
 
     // EFFECTS: initializes FilePath with given name and path, throws exception if path is not valid
     public FilePath(String name, String path) throws NoSuchFileException {
@@ -23,6 +25,16 @@ public class FilePath implements Resource {
     protected FilePath() {
         this.name = "";
         this.file = null;
+        this.status = Status.UNCHECKED;
+    }
+
+    // EFFECTS: returns FilePath with given name and path without checking that the file exists, so that it can be
+    //          created without touching the file system; its status is UNCHECKED until checkStatus is called
+    public static FilePath uncheckedFile(String name, String path) {
+        FilePath filePath = new FilePath();
+        filePath.name = name;
+        filePath.file = new File(path);
+        return filePath;
     }
 
     // EFFECTS: if system does not support opening files, throws SystemNotSupportedException
@@ -39,23 +51,52 @@ public class FilePath implements Resource {
     public void setPath(String path) throws NoSuchFileException {
         File newFile = new File(path);
         if (newFile.exists()) {
-            file = new File(path);
+            file = newFile;
+            dirty = true;
+            status = Status.OK;
         } else {
             throw new NoSuchFileException(path);
         }
     }
 
+    // EFFECTS: returns OK if file still exists, otherwise MISSING
+    @Override
+    public Status checkStatus() {
+        return file.exists() ? Status.OK : Status.MISSING;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public FilePath renamed(String name) {
+        FilePath copy = uncheckedFile(name, file.getPath());
+        copy.status = status;
+        return copy;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markClean() {
+        dirty = false;
+    }
+
     // EFFECTS: returns file's extension
     public String getFileExtension() {
-        int index = 0;
-        for (char c : file.getName().toCharArray()) {
-            if (c == '.') {
-                return file.getName().substring(index + 1);
-            }
-            index++;
-        }
+        return extensionOf(file.getName());
+    }
 
-        return "";
+    // EFFECTS: returns extension of file with given name or path, ie. everything after the first '.' in its name
+    protected static String extensionOf(String path) {
+        String name = new File(path).getName();
+        int index = name.indexOf('.');
+        return index >= 0 ? name.substring(index + 1) : "";
     }
 
     //getters
@@ -73,4 +114,9 @@ public class FilePath implements Resource {
     public ResourceType getResourceType() {
         return ResourceType.FILE;
     }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
 }
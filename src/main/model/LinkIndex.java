@@ -0,0 +1,177 @@
+package model;
+
+import model.exception.InvalidFormatException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Index from the canonical URL of every website link in a workspace to the spaces which link to it, kept up to date
+// by listening to the workspace's model events, so that a link which is already in the workspace is found with one
+// lookup rather than by going through every space
+// links are found by their canonical URI (see WebsiteLink.normalize), whose hash never looks up its host
+// a space which hasn't been loaded yet has its links indexed by the next lookup, which loads it, or by the first
+// lookup of loaded spaces only after it has been loaded elsewhere
+public class LinkIndex implements ModelListener {
+    private Map<URI, Map<Space, Integer>> spacesByLink;
+    private Map<Space, Map<Resource, URI>> links;
+    private Set<Space> pending;
+
+    // EFFECTS: creates an empty index
+    public LinkIndex() {
+        spacesByLink = new HashMap<>();
+        links = new IdentityHashMap<>();
+        pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces everything in this index with the links of given spaces
+    public void setSpaces(List<Space> spaces) {
+        spacesByLink.clear();
+        links.clear();
+        pending.clear();
+        for (Space s : spaces) {
+            addSpace(s);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds links of space to this index, or waits until the next lookup if it hasn't been loaded
+    public void addSpace(Space space) {
+        links.put(space, new IdentityHashMap<>());
+        if (space.isHydrated()) {
+            addLinks(space);
+        } else {
+            pending.add(space);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes space and its links from this index
+    public void removeSpace(Space space) {
+        pending.remove(space);
+        Map<Resource, URI> removed = links.remove(space);
+        if (removed != null) {
+            for (URI url : removed.values()) {
+                removeLink(space, url);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns spaces with a link to url, in the order they were indexed, after loading and indexing any
+    //          space which hasn't been loaded yet
+    public List<Space> getSpacesWithLink(URI url) {
+        indexPending(true);
+        return find(url);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns spaces with a link to url as getSpacesWithLink does, but without loading any space, so it never
+    //          waits on the disk; a space which hasn't been loaded yet is only found once it has been loaded elsewhere
+    public List<Space> getLoadedSpacesWithLink(URI url) {
+        indexPending(false);
+        return find(url);
+    }
+
+    // EFFECTS: returns indexed spaces with a link to url, in the order they were indexed
+    private List<Space> find(URI url) {
+        Map<Space, Integer> spaces = spacesByLink.get(url);
+        return spaces == null ? new ArrayList<>() : new ArrayList<>(spaces.keySet());
+    }
+
+    // EFFECTS: returns number of different links in this index
+    public int size() {
+        return spacesByLink.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates this index for a change to the workspace's spaces or the resources of one of them
+    @Override
+    public void modelChanged(ModelEvent e) {
+        if (e.getType() == ModelEvent.Type.SPACE_ADDED) {
+            addSpace((Space) e.getElement());
+        } else if (e.getType() == ModelEvent.Type.SPACE_REMOVED) {
+            removeSpace((Space) e.getElement());
+        } else if (e.getType() == ModelEvent.Type.SPACES_REPLACED) {
+            setSpaces(e.getElementList(Space.class));
+        } else if (e.getSource() instanceof Space && links.containsKey(e.getSource())
+                && !pending.contains(e.getSource())) {
+            resourcesChanged((Space) e.getSource(), e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates this index for a change to the resources of given indexed space
+    private void resourcesChanged(Space space, ModelEvent e) {
+        if (e.getType() == ModelEvent.Type.RESOURCE_ADDED) {
+            addLink(space, (Resource) e.getElement());
+        } else if (e.getType() == ModelEvent.Type.RESOURCE_REMOVED) {
+            URI url = links.get(space).remove((Resource) e.getElement());
+            if (url != null) {
+                removeLink(space, url);
+            }
+        } else if (e.getType() == ModelEvent.Type.RESOURCES_REPLACED) {
+            removeSpace(space);
+            addSpace(space);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the links of every space which hasn't had them indexed yet, first loading those which haven't
+    //          been loaded if load is true, or otherwise leaving them for a later lookup; a space which can't be
+    //          loaded is tried again on the next lookup
+    private void indexPending(boolean load) {
+        for (Iterator<Space> it = pending.iterator(); it.hasNext(); ) {
+            Space space = it.next();
+            if (!load && !space.isHydrated()) {
+                continue;
+            }
+            try {
+                space.hydrate();
+                it.remove();
+                addLinks(space);
+            } catch (IOException | InvalidFormatException expected) {
+                // the space's links can't be found until it loads
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes every website link of given space
+    private void addLinks(Space space) {
+        for (Resource r : space.getResources()) {
+            addLink(space, r);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes r under its URL as a link of space, if it is a website link
+    private void addLink(Space space, Resource r) {
+        if (r instanceof WebsiteLink) {
+            URI url = ((WebsiteLink) r).getUri();
+            links.get(space).put(r, url);
+            spacesByLink.computeIfAbsent(url, k -> new LinkedHashMap<>()).merge(space, 1, Integer::sum);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes one link of space to url from this index
+    private void removeLink(Space space, URI url) {
+        Map<Space, Integer> spaces = spacesByLink.get(url);
+        if (spaces != null && spaces.merge(space, -1, Integer::sum) == 0) {
+            spaces.remove(space);
+            if (spaces.isEmpty()) {
+                spacesByLink.remove(url);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+
+// represents a change made to a workspace, a space, or a to-do list
+public class ModelEvent extends EventObject {
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        SPACE_ADDED,
+        SPACE_REMOVED,
+        SPACES_REPLACED,
+        RESOURCE_ADDED,
+        RESOURCE_REMOVED,
+        RESOURCES_REPLACED,
+        TASK_ADDED,
+        TASK_REMOVED,
+        TASK_COMPLETED,
+        TASK_REOPENED,
+        TODO_REPLACED
+    }
+
+    private Type type;
+    private int index;
+    private Object element;
+
+    // EFFECTS: creates event for change of given type made to source, where element is the space, resource, task,
+    //          or list that was added, removed, or replaced, and index is its position (or -1 if not applicable)
+    public ModelEvent(Object source, Type type, int index, Object element) {
+        super(source);
+        this.type = type;
+        this.index = index;
+        this.element = element;
+    }
+
+    // getters
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Object getElement() {
+        return element;
+    }
+
+    // REQUIRES: element is a list whose elements are all of the given type
+    // EFFECTS: returns copy of element as a list of the given type
+    public <T> List<T> getElementList(Class<T> type) {
+        List<T> list = new ArrayList<>();
+        for (Object o : (List<?>) element) {
+            list.add(type.cast(o));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,8 @@
+package model;
+
+import java.util.EventListener;
+
+public interface ModelListener extends EventListener {
+
+    void modelChanged(ModelEvent e);
+}
@@ -0,0 +1,168 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// represents a list of elements with unique names, eg. the spaces of a workspace or the resources of a space
+// elements are kept in the order they were added, for display, and indexed by name in a hash map kept in sync with the
+// list, so looking an element up by name takes the same time however many elements there are
+// a snapshot shares the list and index with the list it was taken from, and whichever of them changes first copies
+// them, so taking one copies nothing; a named list is not synchronized, so its owner must not change it while a
+// snapshot is being taken on another thread
+public class NamedList<T> implements Iterable<T> {
+    private Function<T, String> nameOf;
+    private List<T> elements;
+    private Map<String, T> index;
+    private boolean shared;
+    private List<T> view;
+
+    // EFFECTS: creates an empty list whose elements are named by nameOf
+    public NamedList(Function<T, String> nameOf) {
+        this.nameOf = nameOf;
+        elements = new ArrayList<>();
+        index = new HashMap<>();
+        view = new View();
+    }
+
+    // EFFECTS: creates a list of the given elements in order, whose elements are named by nameOf; an element whose
+    //          name is already taken by an earlier element, eg. in a save made before names had to be unique, is kept
+    //          as rename returns it given the first name numbered like "name (2)" which isn't taken
+    public NamedList(Function<T, String> nameOf, Collection<? extends T> elements, BiFunction<T, String, T> rename) {
+        this(nameOf);
+        for (T element : elements) {
+            String name = nameOf.apply(element);
+            String unique = name;
+            for (int i = 2; index.containsKey(unique); i++) {
+                unique = name + " (" + i + ")";
+            }
+            add(unique.equals(name) ? element : rename.apply(element, unique));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds element to the end of this list and returns true, or returns false and does nothing if this list
+    //          already has an element of the same name
+    public boolean add(T element) {
+        return add(elements.size(), element);
+    }
+
+    // REQUIRES: 0 <= i <= size()
+    // MODIFIES: this
+    // EFFECTS: inserts element at position i of this list and returns true, or returns false and does nothing if this
+    //          list already has an element of the same name
+    public boolean add(int i, T element) {
+        String name = nameOf.apply(element);
+        if (index.containsKey(name)) {
+            return false;
+        }
+        copyIfShared();
+        index.put(name, element);
+        elements.add(i, element);
+        return true;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // MODIFIES: this
+    // EFFECTS: removes and returns element at position i
+    public T remove(int i) {
+        copyIfShared();
+        T removed = elements.remove(i);
+        index.remove(nameOf.apply(removed));
+        return removed;
+    }
+
+    // EFFECTS: returns position of element of given name, or -1 if there is no such element
+    public int indexOf(String name) {
+        T element = index.get(name);
+        if (element == null) {
+            return -1;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns element of given name, or null if there is no such element
+    public T get(String name) {
+        return index.get(name);
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns element at position i
+    public T get(int i) {
+        return elements.get(i);
+    }
+
+    // EFFECTS: returns true if this list has an element of given name
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    // EFFECTS: returns names of the elements of this list, in order
+    public List<String> names() {
+        List<String> names = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            names.add(nameOf.apply(element));
+        }
+        return names;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a list of the same elements, which later changes to this list don't affect and which doesn't
+    //          affect this list if it is changed
+    public NamedList<T> snapshot() {
+        shared = true;
+        NamedList<T> copy = new NamedList<>(nameOf);
+        copy.elements = elements;
+        copy.index = index;
+        copy.shared = true;
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives this list its own copy of its elements and index if they are shared with a snapshot
+    private void copyIfShared() {
+        if (shared) {
+            elements = new ArrayList<>(elements);
+            index = new HashMap<>(index);
+            shared = false;
+        }
+    }
+
+    // EFFECTS: returns read-only view of this list, which reflects later changes to it
+    public List<T> asList() {
+        return view;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return view.iterator();
+    }
+
+    // read-only view of the elements of this list
+    private class View extends AbstractList<T> {
+        @Override
+        public T get(int i) {
+            return elements.get(i);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+}
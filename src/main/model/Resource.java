@@ -15,6 +15,13 @@ public interface Resource {
         APP
     }
 
+    public enum Status {
+        UNCHECKED,
+        OK,
+        MISSING,
+        TIMED_OUT
+    }
+
     // EFFECTS: attempts to launch resource
     //          if system does not support launching this resource, throws SystemNotSupportedException
     //          if resource fails to launch, throws FailedToOpenException
@@ -26,10 +33,30 @@ public interface Resource {
     //          if path is invalid for resource type, throws appropriate exception
     public void setPath(String path) throws MalformedURLException, NoSuchFileException;
 
+    // EFFECTS: returns true if this resource has changed since it was created or last marked clean
+    public boolean isDirty();
+
+    // MODIFIES: this
+    // EFFECTS: marks this resource as saved, so it is not dirty until it next changes
+    public void markClean();
+
+    // EFFECTS: checks whether this resource can still be found and returns OK if so, otherwise MISSING
+    //          may block for a long time, eg. if resource is on a network share which is not responding
+    public Status checkStatus();
+
+    // MODIFIES: this
+    // EFFECTS: sets result of last check of this resource, eg. TIMED_OUT if checkStatus took too long
+    public void setStatus(Status status);
+
+    // EFFECTS: returns a copy of this resource with the same path and status, but given name
+    public Resource renamed(String name);
+
     //getters
     public String getName();
 
     public String getPath();
 
     public ResourceType getResourceType();
+
+    public Status getStatus();
 }
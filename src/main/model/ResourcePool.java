@@ -0,0 +1,122 @@
+package model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// a pool of resources shared between spaces, eg. the same course website added to several spaces, so that they hold
+// one object for it rather than one each; resources are the same if they have the same type, name, and path
+// the pool counts the references to each of its resources, and forgets a resource once nothing refers to it. a pooled
+// resource whose path is changed stays pooled, but is no longer found for resources with its old path
+public class ResourcePool {
+    private Map<Key, Entry> entries;
+    private Map<Resource, Entry> byResource;
+
+    // EFFECTS: creates an empty pool
+    public ResourcePool() {
+        entries = new HashMap<>();
+        byResource = new IdentityHashMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a reference to the pooled resource which is the same as r and returns it, or pools r itself with
+    //          one reference and returns it if there is no such resource
+    public synchronized Resource intern(Resource r) {
+        Entry entry = find(r);
+        if (entry == null) {
+            entry = byResource.get(r);
+        }
+        if (entry == null) {
+            entry = new Entry(r, new Key(r));
+            entries.put(entry.key, entry);
+            byResource.put(r, entry);
+        }
+        entry.references++;
+        return entry.resource;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes a reference to pooled resource r, and forgets r if nothing refers to it any more; does nothing
+    //          if r is not pooled
+    public synchronized void release(Resource r) {
+        Entry entry = byResource.get(r);
+        if (entry != null && --entry.references == 0) {
+            byResource.remove(r);
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    // EFFECTS: returns the pooled resource which is the same as r, or null if there is none
+    public synchronized Resource get(Resource r) {
+        Entry entry = find(r);
+        return entry == null ? null : entry.resource;
+    }
+
+    // EFFECTS: returns number of references to pooled resource r, or 0 if it is not pooled
+    public synchronized int getReferences(Resource r) {
+        Entry entry = byResource.get(r);
+        return entry == null ? 0 : entry.references;
+    }
+
+    // EFFECTS: returns number of resources in this pool
+    public synchronized int size() {
+        return byResource.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns entry of the pooled resource which is the same as r, or null if there is none; forgets the key
+    //          of an entry whose resource no longer matches it, since its path was changed
+    private Entry find(Resource r) {
+        Key key = new Key(r);
+        Entry entry = entries.get(key);
+        if (entry != null && !key.equals(new Key(entry.resource))) {
+            entries.remove(key);
+            entry.key = new Key(entry.resource);
+            entries.putIfAbsent(entry.key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // a pooled resource and the number of references to it
+    private static class Entry {
+        private Resource resource;
+        private Key key;
+        private int references;
+
+        // EFFECTS: creates entry for resource, found by key, with no references
+        Entry(Resource resource, Key key) {
+            this.resource = resource;
+            this.key = key;
+        }
+    }
+
+    // the type, name, and path which make two resources the same
+    private static class Key {
+        private Resource.ResourceType type;
+        private String name;
+        private String path;
+
+        // EFFECTS: creates key of given resource's type, name, and path as they are now
+        Key(Resource r) {
+            type = r.getResourceType();
+            name = r.getName();
+            path = r.getPath();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && Objects.equals(name, other.name) && Objects.equals(path, other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, name, path);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// Checks that many resources can still be found in one batch, running the checks concurrently and giving each path
+// a time limit, so that one missing or unresponsive path (eg. on an unmounted network share) can't hold up the rest
+// resources sharing a path are only checked once, and paths are grouped by their top level directory, share or
+// website, with the paths of each group checked one after another on one thread of a bounded pool; a group whose
+// check never returns therefore only ever holds up one thread, and the rest of its paths are not probed behind it
+// all paths in a batch share one deadline; a path still being checked when a later batch asks for it isn't checked
+// again, the later batch waits for the same check instead
+public class ResourceValidator {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+    public static final int MAX_THREADS = 4;
+
+    private ExecutorService executor;
+    private ExecutorService batches;
+    private Map<String, CompletableFuture<Resource.Status>> inFlight;
+    private long timeoutMillis;
+
+    // EFFECTS: creates validator which gives each path DEFAULT_TIMEOUT_MILLIS to be checked
+    public ResourceValidator() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // REQUIRES: timeoutMillis > 0
+    // EFFECTS: creates validator which gives each path timeoutMillis to be checked
+    public ResourceValidator(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        executor = Executors.newFixedThreadPool(MAX_THREADS, ResourceValidator::newDaemonThread);
+        batches = Executors.newSingleThreadExecutor(ResourceValidator::newDaemonThread);
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    // MODIFIES: resources
+    // EFFECTS: checks every resource concurrently and sets its status to OK, MISSING, or TIMED_OUT if its path could
+    //          not be checked in time; blocks until every path has been checked or timed out
+    //          returns number of resources whose status is not OK
+    public int validate(Collection<Resource> resources) {
+        Map<String, List<Resource>> byPath = new LinkedHashMap<>();
+        for (Resource r : resources) {
+            byPath.computeIfAbsent(r.getPath(), path -> new ArrayList<>()).add(r);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Map<String, Future<Resource.Status>> checks = startChecks(byPath);
+
+        int failed = 0;
+        for (Map.Entry<String, List<Resource>> sharingPath : byPath.entrySet()) {
+            Resource.Status status = await(checks.get(sharingPath.getKey()), deadline);
+            for (Resource r : sharingPath.getValue()) {
+                r.setStatus(status);
+                if (status != Resource.Status.OK) {
+                    failed++;
+                }
+            }
+        }
+        return failed;
+    }
+
+    // MODIFIES: resources
+    // EFFECTS: checks resources as validate does, but on a background thread, then runs validated on dispatcher with
+    //          the number of resources whose status is not OK; returns straight away
+    public void validateLater(Collection<Resource> resources, Consumer<Runnable> dispatcher, IntConsumer validated) {
+        List<Resource> batch = new ArrayList<>(resources);
+        batches.execute(() -> {
+            int failed = validate(batch);
+            dispatcher.accept(() -> validated.accept(failed));
+        });
+    }
+
+    // MODIFIES: spaces
+    // EFFECTS: checks the resources of every loaded space in one batch, see validate
+    public int validateSpaces(Collection<Space> spaces) {
+        List<Resource> resources = new ArrayList<>();
+        for (Space s : spaces) {
+            if (s.isHydrated()) {
+                resources.addAll(s.getResources());
+            }
+        }
+        return validate(resources);
+    }
+
+    // EFFECTS: stops the validator's threads once any checks still running have finished
+    public void shutdown() {
+        batches.shutdown();
+        executor.shutdown();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the check of each path in byPath, reusing any check of it still in flight, and queues one
+    //          task per group of the remaining paths to check them in turn
+    private Map<String, Future<Resource.Status>> startChecks(Map<String, List<Resource>> byPath) {
+        Map<String, Future<Resource.Status>> checks = new HashMap<>();
+        Map<String, Map<String, Resource>> byRoot = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Resource>> sharingPath : byPath.entrySet()) {
+            String path = sharingPath.getKey();
+            CompletableFuture<Resource.Status> check = new CompletableFuture<>();
+            CompletableFuture<Resource.Status> running = inFlight.putIfAbsent(path, check);
+            checks.put(path, running != null ? running : check);
+            if (running == null) {
+                byRoot.computeIfAbsent(rootOf(path), root -> new LinkedHashMap<>())
+                        .put(path, sharingPath.getValue().get(0));
+            }
+        }
+        for (Map<String, Resource> group : byRoot.values()) {
+            executor.execute(() -> checkAll(group));
+        }
+        return checks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks each path of group in turn, completing its check in flight with the status of its resource
+    private void checkAll(Map<String, Resource> group) {
+        for (Map.Entry<String, Resource> entry : group.entrySet()) {
+            Resource.Status status;
+            try {
+                status = entry.getValue().checkStatus();
+            } catch (RuntimeException e) {
+                status = Resource.Status.MISSING;
+            }
+            inFlight.remove(entry.getKey()).complete(status);
+        }
+    }
+
+    // EFFECTS: returns the top level directory or share of given file path, or the website of given URL, which
+    //          paths are grouped by so that an unresponsive drive or site only holds up its own paths
+    static String rootOf(String path) {
+        try {
+            URI uri = new URI(path);
+            if (uri.getScheme() != null && uri.getHost() != null) {
+                return uri.getScheme() + "://" + uri.getHost();
+            }
+        } catch (URISyntaxException e) {
+            // not a URL, eg. a Windows file path
+        }
+        try {
+            Path absolute = Paths.get(path).toAbsolutePath();
+            if (absolute.getNameCount() > 1) {
+                return absolute.getRoot().resolve(absolute.getName(0)).toString();
+            }
+            return String.valueOf(absolute.getRoot());
+        } catch (InvalidPathException e) {
+            return path;
+        }
+    }
+
+    // EFFECTS: returns a new daemon thread running r, so checks that never return don't keep the program running
+    private static Thread newDaemonThread(Runnable r) {
+        Thread thread = new Thread(r, "resource-validator");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // EFFECTS: waits until deadline for check to finish and returns its result
+    //          returns TIMED_OUT if it isn't finished by then, leaving it running for a later batch to wait for,
+    //          or MISSING if it failed
+    private static Resource.Status await(Future<Resource.Status> check, long deadline) {
+        try {
+            return check.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return Resource.Status.TIMED_OUT;
+        } catch (ExecutionException e) {
+            return Resource.Status.MISSING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Resource.Status.UNCHECKED;
+        }
+    }
+}
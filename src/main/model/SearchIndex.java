@@ -0,0 +1,519 @@
+package model;
+
+import model.exception.InvalidFormatException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Full-text index of the spaces of a workspace and the resources and tasks in them, kept up to date by listening to
+// the workspace's model events
+// space names, task descriptions, resource names, and the words of resource paths and links are split into lower
+// case tokens, and each token maps to the spaces, resources, and tasks containing it; a search term matches tokens
+// starting with it, found in a sorted map, and, if it is at least GRAM characters long, tokens containing it, found
+// through an index from each GRAM character sequence (trigram) to the tokens containing it
+// each entry has a number, and each token's posting is an array of the numbers of its entries, in the order they were
+// added; a search walks the postings of the query's rarest word, and checks each entry against the other words using
+// bitmaps of the entries matching them, so it only touches contiguous arrays of numbers
+// a space which hasn't been loaded yet only has its name indexed until the next search, which loads it, or until the
+// next search after it has been loaded elsewhere, for searches which mustn't wait on loading spaces
+public class SearchIndex implements ModelListener {
+    public static final int DEFAULT_LIMIT = 50;
+    private static final int GRAM = 3;
+    private static final int MAX_GATHERED_TOKENS = 1000;
+    private static final int MIN_RENUMBERED = 1024;
+
+    private TreeMap<String, Posting> postings;
+    private Map<String, Set<String>> trigrams;
+    private List<Entry> entries;
+    private Map<Space, Map<Object, Entry>> spaceEntries;
+    private Set<Space> pending;
+    private int size;
+
+    // indexed space, resource, or task, with its number and the tokens it is found by
+    private static class Entry {
+        private int id;
+        private SearchResult result;
+        private String[] tokens;
+
+        private Entry(int id, SearchResult result, Set<String> tokens) {
+            this.id = id;
+            this.result = result;
+            this.tokens = tokens.toArray(new String[0]);
+        }
+    }
+
+    // numbers of the entries with a token, in increasing order
+    private static class Posting {
+        private int[] ids = new int[1];
+        private int size;
+
+        // REQUIRES: id is greater than every number in this posting
+        // MODIFIES: this
+        // EFFECTS: adds id to the end of this posting
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes id from this posting, if it is in it
+        private void remove(int id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+            }
+        }
+    }
+
+    // EFFECTS: creates an empty index
+    public SearchIndex() {
+        postings = new TreeMap<>();
+        trigrams = new TreeMap<>();
+        entries = new ArrayList<>();
+        spaceEntries = new IdentityHashMap<>();
+        pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces everything in this index with the given spaces and their contents
+    public void setSpaces(List<Space> spaces) {
+        postings.clear();
+        trigrams.clear();
+        entries.clear();
+        spaceEntries.clear();
+        pending.clear();
+        size = 0;
+        for (Space s : spaces) {
+            addSpace(s);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds space to this index, along with its resources and tasks if it has been loaded
+    public void addSpace(Space space) {
+        spaceEntries.put(space, new IdentityHashMap<>());
+        add(space, new SearchResult(SearchResult.Kind.SPACE, space, space, space.getName()), space.getName());
+        if (space.isHydrated()) {
+            addContents(space);
+        } else {
+            pending.add(space);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes space and its resources and tasks from this index
+    public void removeSpace(Space space) {
+        Map<Object, Entry> removed = spaceEntries.remove(space);
+        pending.remove(space);
+        if (removed != null) {
+            for (Entry e : removed.values()) {
+                removeTokens(e);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns up to DEFAULT_LIMIT results matching query; see search(String, int)
+    public List<SearchResult> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns up to limit spaces, resources, and tasks with a token matching each word of query, where a
+    //          word matches tokens starting with it or, if it is at least GRAM characters long, containing it
+    //          results are found through the word with the fewest entries starting with it: those with a token
+    //          equal to that word come first, then those with a token starting with it, then the rest
+    //          first loads and indexes the contents of any space which hasn't been loaded yet
+    public List<SearchResult> search(String query, int limit) {
+        indexPending(true);
+        return find(query, limit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns results as search does, but without loading any space, so a space which hasn't been loaded
+    //          yet is only found by its name until it has been loaded elsewhere
+    public List<SearchResult> searchLoaded(String query, int limit) {
+        indexPending(false);
+        return find(query, limit);
+    }
+
+    // EFFECTS: returns up to limit results matching query, see search
+    private List<SearchResult> find(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        String driver = rarestTerm(terms);
+        terms.remove(driver);
+        Query q = new Query(terms, limit);
+        if (!q.collect(prefixTokens(driver)) && driver.length() >= GRAM) {
+            q.collect(substringTokens(driver));
+        }
+        return q.results;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates this index for a change to the workspace or one of its spaces
+    @Override
+    public void modelChanged(ModelEvent e) {
+        if (e.getType() == ModelEvent.Type.SPACE_ADDED) {
+            addSpace((Space) e.getElement());
+        } else if (e.getType() == ModelEvent.Type.SPACE_REMOVED) {
+            removeSpace((Space) e.getElement());
+        } else if (e.getType() == ModelEvent.Type.SPACES_REPLACED) {
+            setSpaces(e.getElementList(Space.class));
+        } else if (e.getSource() instanceof Space && spaceEntries.containsKey(e.getSource())
+                && !pending.contains(e.getSource())) {
+            spaceChanged((Space) e.getSource(), e);
+        }
+    }
+
+    // EFFECTS: returns number of spaces, resources, and tasks in this index
+    public int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates this index for a change to the resources or to-do list of given indexed space
+    private void spaceChanged(Space space, ModelEvent e) {
+        switch (e.getType()) {
+            case RESOURCE_ADDED:
+                addResource(space, (Resource) e.getElement());
+                break;
+            case TASK_ADDED:
+                addTask(space, (Task) e.getElement());
+                break;
+            case RESOURCE_REMOVED:
+            case TASK_REMOVED:
+                remove(space, e.getElement());
+                break;
+            case RESOURCES_REPLACED:
+                removeAll(space, SearchResult.Kind.RESOURCE);
+                for (Resource r : space.getResources()) {
+                    addResource(space, r);
+                }
+                break;
+            case TODO_REPLACED:
+                removeAll(space, SearchResult.Kind.TASK);
+                for (Task t : space.getTodo()) {
+                    addTask(space, t);
+                }
+                break;
+            default:
+                // completing a task doesn't change what it is found by
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the resources and tasks of every space which hasn't had them indexed yet, loading it first if
+    //          load is true, otherwise skipping it until it has been loaded; a space which can't be loaded is tried
+    //          again on the next search
+    private void indexPending(boolean load) {
+        for (Iterator<Space> it = pending.iterator(); it.hasNext(); ) {
+            Space space = it.next();
+            if (!load && !space.isHydrated()) {
+                continue;
+            }
+            try {
+                space.hydrate();
+                it.remove();
+                addContents(space);
+            } catch (IOException | InvalidFormatException expected) {
+                // only the space's name can be searched until it loads
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the resources and tasks of given space
+    private void addContents(Space space) {
+        for (Resource r : space.getResources()) {
+            addResource(space, r);
+        }
+        for (Task t : space.getTodo()) {
+            addTask(space, t);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes resource of space by its name and the words of its path
+    private void addResource(Space space, Resource r) {
+        add(r, new SearchResult(SearchResult.Kind.RESOURCE, space, r, r.getName()), r.getName() + " " + r.getPath());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes task of space by its description
+    private void addTask(Space space, Task t) {
+        add(t, new SearchResult(SearchResult.Kind.TASK, space, t, t.getDescription()), t.getDescription());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes element with given result under the tokens of text
+    private void add(Object element, SearchResult result, String text) {
+        if (entries.size() > 2 * size + MIN_RENUMBERED) {
+            renumber();
+        }
+        Entry entry = new Entry(entries.size(), result, tokenize(text));
+        entries.add(entry);
+        Entry replaced = spaceEntries.get(result.getSpace()).put(element, entry);
+        if (replaced != null) {
+            removeTokens(replaced);
+        }
+        for (String token : entry.tokens) {
+            Posting posting = postings.get(token);
+            if (posting == null) {
+                posting = new Posting();
+                postings.put(token, posting);
+                for (String gram : grams(token)) {
+                    trigrams.computeIfAbsent(gram, g -> new TreeSet<>()).add(token);
+                }
+            }
+            posting.add(entry.id);
+        }
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: numbers entries consecutively again, in the same order, so numbers of removed entries don't take up
+    //          space in the bitmaps of later searches
+    private void renumber() {
+        int[] renumbered = new int[entries.size()];
+        List<Entry> live = new ArrayList<>(size);
+        for (Entry e : entries) {
+            if (e != null) {
+                renumbered[e.id] = live.size();
+                e.id = live.size();
+                live.add(e);
+            }
+        }
+        entries = live;
+        for (Posting posting : postings.values()) {
+            for (int i = 0; i < posting.size; i++) {
+                posting.ids[i] = renumbered[posting.ids[i]];
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes element of space from this index, if it is in it
+    private void remove(Space space, Object element) {
+        Entry removed = spaceEntries.get(space).remove(element);
+        if (removed != null) {
+            removeTokens(removed);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every resource or task of space, as given by kind, from this index
+    private void removeAll(Space space, SearchResult.Kind kind) {
+        for (Iterator<Entry> it = spaceEntries.get(space).values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (e.result.getKind() == kind) {
+                it.remove();
+                removeTokens(e);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes entry from the postings of its tokens, and drops tokens which no longer have any entries
+    private void removeTokens(Entry entry) {
+        entries.set(entry.id, null);
+        for (String token : entry.tokens) {
+            Posting posting = postings.get(token);
+            posting.remove(entry.id);
+            if (posting.size == 0) {
+                postings.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> tokens = trigrams.get(gram);
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+        size--;
+    }
+
+    // EFFECTS: returns the term with the fewest entries with a token starting with it; longer terms are counted first,
+    //          since they are usually rarer, and counting a term stops once it has more entries than the rarest so far
+    private String rarestTerm(List<String> terms) {
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        terms.sort((a, b) -> b.length() - a.length());
+        String rarest = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String term : terms) {
+            int count = 0;
+            for (Iterator<String> it = prefixTokens(term).iterator(); it.hasNext() && count < fewest; ) {
+                count += postings.get(it.next()).size;
+            }
+            if (count < fewest) {
+                rarest = term;
+                fewest = count;
+            }
+        }
+        return rarest;
+    }
+
+    // EFFECTS: returns indexed tokens starting with term, in order, so term itself comes first if it is a token
+    private Iterable<String> prefixTokens(String term) {
+        return postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet();
+    }
+
+    // REQUIRES: term.length() >= GRAM
+    // EFFECTS: returns indexed tokens containing term but not starting with it, in order
+    private Iterable<String> substringTokens(String term) {
+        Set<String> candidates = null;
+        for (String gram : grams(term)) {
+            Set<String> tokens = trigrams.get(gram);
+            if (tokens == null) {
+                return Collections.emptyList();
+            } else if (candidates == null || tokens.size() < candidates.size()) {
+                candidates = tokens;
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String token : candidates) {
+            if (token.contains(term) && !token.startsWith(term)) {
+                matches.add(token);
+            }
+        }
+        return matches;
+    }
+
+    // EFFECTS: returns bitmap of the numbers of entries with a token matching term, or null if more than
+    //          MAX_GATHERED_TOKENS tokens match it, in which case scanning each entry's own tokens is quicker
+    private BitSet matchingEntries(String term) {
+        List<String> tokens = new ArrayList<>();
+        Iterator<String> prefixed = prefixTokens(term).iterator();
+        while (prefixed.hasNext() && tokens.size() <= MAX_GATHERED_TOKENS) {
+            tokens.add(prefixed.next());
+        }
+        if (term.length() >= GRAM) {
+            for (String token : substringTokens(term)) {
+                tokens.add(token);
+            }
+        }
+        if (tokens.size() > MAX_GATHERED_TOKENS) {
+            return null;
+        }
+
+        BitSet matching = new BitSet(entries.size());
+        for (String token : tokens) {
+            Posting posting = postings.get(token);
+            for (int i = 0; i < posting.size; i++) {
+                matching.set(posting.ids[i]);
+            }
+        }
+        return matching;
+    }
+
+    // EFFECTS: returns distinct lower case runs of letters and digits in text, in order
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // EFFECTS: returns distinct sequences of GRAM characters in token
+    private static Set<String> grams(String token) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // a search in progress: the words of the query other than the one whose tokens' postings are walked, with the
+    // entries matching each of them, and the results found so far
+    private class Query {
+        private List<String> terms;
+        private List<BitSet> termMatches;
+        private BitSet seen;
+        private List<SearchResult> results;
+        private int limit;
+
+        // EFFECTS: starts search for up to limit entries which also match all of terms
+        private Query(List<String> terms, int limit) {
+            this.terms = terms;
+            this.limit = limit;
+            termMatches = new ArrayList<>();
+            for (String term : terms) {
+                termMatches.add(matchingEntries(term));
+            }
+            seen = new BitSet(entries.size());
+            results = new ArrayList<>();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds results of entries of given tokens which match all terms and haven't been seen yet, until
+        //          there are limit results; returns true if limit was reached
+        private boolean collect(Iterable<String> tokens) {
+            for (String token : tokens) {
+                Posting posting = postings.get(token);
+                for (int i = 0; i < posting.size; i++) {
+                    int id = posting.ids[i];
+                    if (!seen.get(id) && matchesAll(id)) {
+                        results.add(entries.get(id).result);
+                        if (results.size() == limit) {
+                            return true;
+                        }
+                    }
+                    seen.set(id);
+                }
+            }
+            return false;
+        }
+
+        // EFFECTS: returns true if every term matches one of the tokens of entry with given number
+        private boolean matchesAll(int id) {
+            for (int t = 0; t < terms.size(); t++) {
+                BitSet matching = termMatches.get(t);
+                if (matching != null ? !matching.get(id) : !scanMatches(entries.get(id), terms.get(t))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // EFFECTS: returns true if one of entry's tokens matches term
+        private boolean scanMatches(Entry entry, String term) {
+            for (String token : entry.tokens) {
+                if (term.length() >= GRAM ? token.contains(term) : token.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+// represents something in a workspace which matched a search: a space, or a resource or task in a space
+public class SearchResult {
+
+    public enum Kind {
+        SPACE,
+        RESOURCE,
+        TASK
+    }
+
+    private Kind kind;
+    private Space space;
+    private Object element;
+    private String text;
+
+    // EFFECTS: creates result of given kind for element in space, where text is its name or description; element is
+    //          the space itself for a space
+    public SearchResult(Kind kind, Space space, Object element, String text) {
+        this.kind = kind;
+        this.space = space;
+        this.element = element;
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.SPACE ? text : text + " (" + kind.name().toLowerCase() + " in " + space.getName() + ")";
+    }
+
+    //getters
+    public Kind getKind() {
+        return kind;
+    }
+
+    // EFFECTS: returns space which matched, or space containing the resource or task which matched
+    public Space getSpace() {
+        return space;
+    }
+
+    // EFFECTS: returns space, resource, or task which matched
+    public Object getElement() {
+        return element;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -2,68 +2,180 @@ package model;
 
 import model.exception.FailedToOpenException;
 import model.exception.IndexOutOfBoundsException;
+import model.exception.InvalidFormatException;
 import model.exception.SystemNotSupportedException;
 
+import javax.swing.event.EventListenerList;
 import java.awt.*;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 // represents a space, which contains a list of resources and a to-do list
+// a space is changed by one thread, eg. the event dispatch thread, while other threads, eg. a background save, read
+// it through a snapshot; taking one only waits on a change in progress, never copies the resources or tasks, and
+// listeners are notified of each change after it has been made, outside the lock a snapshot waits on
+// a space in a workspace holds the workspace's pooled copy of each of its resources, see ResourcePool
 public class Space {
     private String name;
-    private List<Resource> resources;
+    private NamedList<Resource> resources;
     private ToDoList todo;
     private boolean timerRunning;
     private WorkTimer timer;
+    private EventListenerList listenerList;
+    private ModelListener todoListener;
+    private boolean dirty;
+    private volatile long version;
+    private volatile SpaceLoader loader;
+    private ResourcePool pool;
 
     // EFFECTS: initializes new space with given name, no resources, and empty to-do list
     public Space(String name) {
         this.name = name;
-        this.resources = new ArrayList<>();
-        this.todo = new ToDoList();
+        this.resources = new NamedList<>(Resource::getName);
+        listenerList = new EventListenerList();
+        todoListener = e -> fireModelEvent(e.getType(), e.getIndex(), e.getElement());
+        setTodo(new ToDoList());
         timerRunning = false;
+        dirty = true;
+    }
+
+    // EFFECTS: initializes saved space with given name, whose resources and to-do list are only loaded by loader
+    //          when they are first needed, so that opening a workspace doesn't have to check every resource
+    public Space(String name, SpaceLoader loader) {
+        this.name = name;
+        listenerList = new EventListenerList();
+        todoListener = e -> fireModelEvent(e.getType(), e.getIndex(), e.getElement());
+        timerRunning = false;
+        dirty = false;
+        this.loader = loader;
+    }
+
+    // EFFECTS: initializes detached copy of a space with given name, resources, to-do list, and version
+    private Space(String name, NamedList<Resource> resources, ToDoList todo, long version) {
+        this.name = name;
+        this.resources = resources;
+        this.todo = todo;
+        this.version = version;
+        listenerList = new EventListenerList();
+        todoListener = e -> fireModelEvent(e.getType(), e.getIndex(), e.getElement());
+        todo.addModelListener(todoListener);
+        dirty = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if this space hasn't been loaded yet, loads its resources and to-do list
+    //          throws IOException if they can't be read, or InvalidFormatException if they are not valid
+    public void hydrate() throws IOException, InvalidFormatException {
+        if (loader != null) {
+            load();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads this space's resources and to-do list with loader, unless another thread loaded them first
+    private synchronized void load() throws IOException, InvalidFormatException {
+        if (loader == null) {
+            return;
+        }
+
+        Space loaded = loader.loadSpace();
+        loaded.todo.removeModelListener(loaded.todoListener);
+        resources = intern(loaded.resources);
+        todo = loaded.todo;
+        todo.addModelListener(todoListener);
+        todo.markClean();
+        for (Resource r : resources) {
+            r.markClean();
+        }
+        loader = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces this space's resources and to-do list with those loaded by loader, eg. because another
+    //          program changed its saved data, and marks it clean; if this space hasn't been loaded yet, they are only
+    //          loaded once they are first needed
+    //          throws IOException if they can't be read, or InvalidFormatException if they are not valid
+    public void reload(SpaceLoader loader) throws IOException, InvalidFormatException {
+        synchronized (this) {
+            if (!isHydrated()) {
+                this.loader = loader;
+                return;
+            }
+        }
+
+        Space loaded = loader.loadSpace();
+        loaded.todo.removeModelListener(loaded.todoListener);
+        setResources(loaded.resources.asList());
+        setTodo(loaded.todo);
+        markClean();
+    }
+
+    // EFFECTS: returns true if this space's resources and to-do list have been loaded
+    public boolean isHydrated() {
+        return loader == null;
     }
 
     // MODIFIES: this
-    // EFFECTS: adds Resource r to this space
-    public void addResource(Resource r) {
-        resources.add(r);
+    // EFFECTS: adds Resource r to this space and returns true, or returns false and does nothing if this space
+    //          already has a resource of the same name
+    public boolean addResource(Resource r) {
+        return addResource(numResources(), r);
+    }
+
+    // REQUIRES: 0 <= index <= # resources
+    // MODIFIES: this
+    // EFFECTS: inserts Resource r at index of this space's resources and returns true, or returns false and does
+    //          nothing if this space already has a resource of the same name
+    public boolean addResource(int index, Resource r) {
+        ensureHydrated();
+        Resource added;
+        synchronized (this) {
+            if (resources.contains(r.getName())) {
+                return false;
+            }
+            added = pool == null ? r : pool.intern(r);
+            resources.add(index, added);
+        }
+        fireModelEvent(ModelEvent.Type.RESOURCE_ADDED, index, added);
+        return true;
     }
 
     // REQUIRES: 0 <= index < # resources
     // MODIFIES: this
     // EFFECTS: removes resource of index from this space's resources
     public void removeResource(int index) {
-        resources.remove(index);
+        ensureHydrated();
+        Resource removed;
+        synchronized (this) {
+            removed = resources.remove(index);
+            if (pool != null) {
+                pool.release(removed);
+            }
+        }
+        fireModelEvent(ModelEvent.Type.RESOURCE_REMOVED, index, removed);
     }
 
     // MODIFIES: this
     // EFFECTS: removes resource of name from this space's resources
     public void removeResource(String name) {
-        resources.removeIf(r -> r.getName().equals(name));
+        ensureHydrated();
+        int index = resources.indexOf(name);
+        if (index >= 0) {
+            removeResource(index);
+        }
     }
 
     // EFFECTS: returns resource with given name if it exists in this space,
     // otherwise returns null
     public Resource getResourceOfName(String name) {
-        for (Resource r : resources) {
-            if (r.getName().equals(name)) {
-                return r;
-            }
-        }
-
-        return null;
+        ensureHydrated();
+        return resources.get(name);
     }
 
     // EFFECTS: returns list of names of all resources in this space
     public List<String> getAllResourceNames() {
-        List<String> names = new ArrayList<>();
-
-        for (Resource r : resources) {
-            names.add(r.getName());
-        }
-
-        return names;
+        ensureHydrated();
+        return resources.names();
     }
 
     // EFFECTS: attempts to launch resource with given index
@@ -73,6 +185,7 @@ public class Space {
     //          otherwise, opens resource in appropriate application
     public void launchResource(int index) throws SystemNotSupportedException, FailedToOpenException,
             IndexOutOfBoundsException {
+        ensureHydrated();
         if (index >= 0 && index < numResources()) {
             resources.get(index).launch();
         } else {
@@ -84,6 +197,7 @@ public class Space {
     //          if resource fails to launch, throws FailedToOpenException
     //          otherwise, opens resource in appropriate application
     public void launchAllResources() throws SystemNotSupportedException, FailedToOpenException {
+        ensureHydrated();
         for (Resource r: resources) {
             r.launch();
         }
@@ -91,8 +205,9 @@ public class Space {
 
     // REQUIRES: hours >= 0, minutes >= 0
     // MODIFIES: this
-    // EFFECTS: starts a new timer
+    // EFFECTS: starts a new timer, cancelling the one running before it
     public void startTimer(int hours, int minutes) {
+        cancelTimer();
         timer = new WorkTimer(hours, minutes);
         timer.run();
         timerRunning = true;
@@ -120,8 +235,10 @@ public class Space {
     }
 
     //getters
+    // EFFECTS: returns read-only list of this space's resources, in the order they were added
     public List<Resource> getResources() {
-        return resources;
+        ensureHydrated();
+        return resources.asList();
     }
 
     public String getName() {
@@ -129,6 +246,7 @@ public class Space {
     }
 
     public ToDoList getTodo() {
+        ensureHydrated();
         return todo;
     }
 
@@ -137,15 +255,186 @@ public class Space {
     }
 
     public int numResources() {
+        ensureHydrated();
         return resources.size();
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds listener which is notified of every change to this space and its to-do list
+    public void addModelListener(ModelListener listener) {
+        listenerList.add(ModelListener.class, listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes given listener from this space
+    public void removeModelListener(ModelListener listener) {
+        listenerList.remove(ModelListener.class, listener);
+    }
+
+    // EFFECTS: returns true if this space, its to-do list, or any of its resources has changed since the space was
+    //          created or last marked clean; a space which hasn't been loaded yet can't have changed
+    public synchronized boolean isDirty() {
+        if (!isHydrated() || dirty) {
+            return dirty;
+        } else if (todo.isDirty()) {
+            return true;
+        }
+        for (Resource r : resources) {
+            if (r.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns number of changes made to this space and its to-do list so far, so that a save running on
+    //          another thread can tell whether the space changed while it was being written
+    public long getVersion() {
+        return version;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a detached copy of this space as it is now, with the same name, resources, tasks, and version,
+    //          for reading on another thread, eg. to save it, while this space goes on changing; later changes to this
+    //          space don't affect the copy. the copy shares this space's lists until either of them next changes, so
+    //          taking it copies nothing. loads this space first if it hasn't been loaded yet
+    //          throws IllegalStateException if it can't be loaded
+    public Space snapshot() {
+        ensureHydrated();
+        synchronized (this) {
+            return new Space(name, resources.snapshot(), todo.snapshot(), version);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this space as saved and returns true if it hasn't changed since it was at given version, eg. when
+    //          a snapshot at that version was saved; otherwise leaves it dirty and returns false
+    public synchronized boolean markClean(long savedVersion) {
+        if (version != savedVersion) {
+            return false;
+        }
+        markClean();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this space, its to-do list, and its resources as saved
+    public synchronized void markClean() {
+        dirty = false;
+        if (!isHydrated()) {
+            return;
+        }
+        todo.markClean();
+        for (Resource r : resources) {
+            r.markClean();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this space as dirty and notifies all listeners of a change of given type to element at index,
+    //          with this space as source
+    private void fireModelEvent(ModelEvent.Type type, int index, Object element) {
+        synchronized (this) {
+            dirty = true;
+            version++;
+        }
+        Object[] listeners = listenerList.getListenerList();
+        if (listeners.length == 0) {
+            return;
+        }
+
+        ModelEvent event = new ModelEvent(this, type, index, element);
+        for (int i = 0; i < listeners.length; i += 2) {
+            if (listeners[i] == ModelListener.class) {
+                ((ModelListener) listeners[i + 1]).modelChanged(event);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads this space if it hasn't been loaded yet
+    //          throws IllegalStateException if it can't be loaded, since callers expect its data to be available
+    private void ensureHydrated() {
+        try {
+            hydrate();
+        } catch (IOException | InvalidFormatException e) {
+            throw new IllegalStateException("Could not load space " + name, e);
+        }
+    }
+
     //setters
+    // MODIFIES: this
+    // EFFECTS: changes this space's name, marking it as changed so that the new name is saved, and returns it
+    synchronized Space renamed(String name) {
+        this.name = name;
+        dirty = true;
+        version++;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces this space's resources with given resources; a resource whose name is already taken by an
+    //          earlier one, eg. in a save made before names had to be unique, is replaced by a copy numbered like
+    //          "name (2)", so that it isn't lost
     public void setResources(List<Resource> resources) {
-        this.resources = resources;
+        ensureHydrated();
+        NamedList<Resource> replacement;
+        synchronized (this) {
+            release(this.resources);
+            replacement = intern(new NamedList<>(Resource::getName, resources, Resource::renamed));
+            this.resources = replacement;
+        }
+        fireModelEvent(ModelEvent.Type.RESOURCES_REPLACED, -1, replacement.asList());
+    }
+
+    // MODIFIES: this, pool
+    // EFFECTS: moves this space's resources into given pool, releasing them from the pool they were in, if any, so
+    //          that this space holds pool's copy of each of them; pool is null if this space no longer shares its
+    //          resources, eg. because it was removed from its workspace. a space which hasn't been loaded yet moves
+    //          its resources into pool once they are loaded
+    synchronized void setPool(ResourcePool pool) {
+        if (isHydrated()) {
+            release(resources);
+        }
+        this.pool = pool;
+        if (isHydrated()) {
+            resources = intern(resources);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns list of the same resources as given list, each replaced by its pooled copy, or given list if
+    //          this space has no pool
+    private NamedList<Resource> intern(NamedList<Resource> resources) {
+        if (pool == null) {
+            return resources;
+        }
+        NamedList<Resource> interned = new NamedList<>(Resource::getName);
+        for (Resource r : resources) {
+            interned.add(pool.intern(r));
+        }
+        return interned;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: releases every resource of given list from this space's pool, if it has one
+    private void release(NamedList<Resource> resources) {
+        if (pool != null && resources != null) {
+            for (Resource r : resources) {
+                pool.release(r);
+            }
+        }
     }
 
     public void setTodo(ToDoList todo) {
-        this.todo = todo;
+        ensureHydrated();
+        if (this.todo != null) {
+            this.todo.removeModelListener(todoListener);
+        }
+        synchronized (this) {
+            this.todo = todo;
+        }
+        todo.addModelListener(todoListener);
+        fireModelEvent(ModelEvent.Type.TODO_REPLACED, -1, todo);
     }
 }
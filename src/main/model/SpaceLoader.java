@@ -0,0 +1,13 @@
+package model;
+
+import model.exception.InvalidFormatException;
+
+import java.io.IOException;
+
+// Loads the resources and to-do list of a space which was created from its name only
+public interface SpaceLoader {
+
+    // EFFECTS: returns fully loaded space
+    //          throws IOException if it can't be read, or InvalidFormatException if its data is not valid
+    Space loadSpace() throws IOException, InvalidFormatException;
+}
@@ -4,6 +4,7 @@ package model;
 public class Task {
     private boolean complete;
     private String description;
+    private ToDoList owner;
 
     // EFFECTS: sets this task's description to given String,
     // sets task as incomplete
@@ -29,7 +30,27 @@ public class Task {
     }
 
     // setters
+    // MODIFIES: this
+    // EFFECTS: marks this task complete or incomplete; if it is in a to-do list, does so through that list so its
+    //          listeners are notified and it is marked dirty
     public void setComplete(boolean complete) {
+        ToDoList list = owner;
+        if (list == null || !list.setTaskComplete(this, complete)) {
+            markComplete(complete);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this task complete or incomplete without telling its to-do list, returns true if that changed it
+    boolean markComplete(boolean complete) {
+        boolean changed = this.complete != complete;
         this.complete = complete;
+        return changed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the to-do list this task is in, or null if it isn't in one
+    void setOwner(ToDoList owner) {
+        this.owner = owner;
     }
 }
@@ -0,0 +1,169 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// the tasks of a to-do list stored as parallel arrays rather than an object per task: every description is kept as
+// UTF-8 in a single arena, one after another, each position records where its description starts and how long it is,
+// and a task object is only kept for a position once one has been handed out or added, so a large list that is only
+// saved, shown, or counted takes eight bytes per task besides its description
+// removing a task leaves its bytes in the arena until more than half of the arena is unused, when the arena is
+// rebuilt; the arena is only ever written past its used length or replaced, so a copy can share it. a null
+// description is recorded by a length of -1
+class TaskTable {
+    private static final int MIN_CAPACITY = 8;
+    private static final int MIN_COMPACT_LENGTH = 1024;
+
+    private byte[] bytes;
+    private int used;
+    private int garbage;
+    private int[] starts;
+    private int[] lengths;
+    private Task[] handles;
+    private int size;
+
+    // EFFECTS: creates an empty table
+    TaskTable() {
+        bytes = new byte[0];
+        starts = new int[0];
+        lengths = new int[0];
+    }
+
+    // EFFECTS: returns number of tasks in this table
+    int size() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns description of task at index
+    String description(int index) {
+        return lengths[index] < 0 ? null : new String(bytes, starts[index], lengths[index], StandardCharsets.UTF_8);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns task object kept for index, or null if there is none
+    Task handle(int index) {
+        return handles == null ? null : handles[index];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // MODIFIES: this
+    // EFFECTS: keeps task as the object for index
+    void setHandle(int index, Task task) {
+        if (handles == null) {
+            handles = new Task[starts.length];
+        }
+        handles[index] = task;
+    }
+
+    // REQUIRES: 0 <= index <= size()
+    // MODIFIES: this
+    // EFFECTS: inserts task of given description, which may be null, at index, kept as handle, which may be null
+    void add(int index, String description, Task handle) {
+        if (size == starts.length) {
+            int capacity = Math.max(MIN_CAPACITY, size + (size >> 1));
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            handles = handles == null ? null : Arrays.copyOf(handles, capacity);
+        }
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(lengths, index, lengths, index + 1, size - index);
+        if (handles != null) {
+            System.arraycopy(handles, index, handles, index + 1, size - index);
+            handles[index] = null;
+        }
+        size++;
+
+        starts[index] = used;
+        lengths[index] = description == null ? -1 : append(description.getBytes(StandardCharsets.UTF_8));
+        if (handle != null) {
+            setHandle(index, handle);
+        }
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // MODIFIES: this
+    // EFFECTS: removes task at index
+    void remove(int index) {
+        garbage += Math.max(lengths[index], 0);
+        size--;
+        System.arraycopy(starts, index + 1, starts, index, size - index);
+        System.arraycopy(lengths, index + 1, lengths, index, size - index);
+        if (handles != null) {
+            System.arraycopy(handles, index + 1, handles, index, size - index);
+            handles[size] = null;
+        }
+        compactIfSparse();
+    }
+
+    // MODIFIES: this, removed
+    // EFFECTS: removes the tasks at the given positions in a single pass, adding them to removed in order, as their
+    //          handles or, for those without one, new tasks marked complete
+    void removeAll(BitSet positions, List<Task> removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (positions.get(i)) {
+                Task handle = handle(i);
+                removed.add(handle != null ? handle : new Task(description(i), true));
+                garbage += Math.max(lengths[i], 0);
+            } else {
+                starts[kept] = starts[i];
+                lengths[kept] = lengths[i];
+                if (handles != null) {
+                    handles[kept] = handles[i];
+                }
+                kept++;
+            }
+        }
+        if (handles != null) {
+            Arrays.fill(handles, kept, size, null);
+        }
+        size = kept;
+        compactIfSparse();
+    }
+
+    // EFFECTS: returns a copy of this table, sharing its arena
+    TaskTable copy() {
+        TaskTable copy = new TaskTable();
+        copy.bytes = bytes;
+        copy.used = used;
+        copy.garbage = garbage;
+        copy.starts = Arrays.copyOf(starts, size);
+        copy.lengths = Arrays.copyOf(lengths, size);
+        copy.handles = handles == null ? null : Arrays.copyOf(handles, size);
+        copy.size = size;
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends encoded description to the arena, growing it if needed, and returns its length
+    private int append(byte[] encoded) {
+        if (used + encoded.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(used + encoded.length, bytes.length + (bytes.length >> 1)));
+        }
+        System.arraycopy(encoded, 0, bytes, used, encoded.length);
+        used += encoded.length;
+        return encoded.length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if more than half of a large arena is unused, moves the descriptions into a new arena of their size
+    private void compactIfSparse() {
+        if (used < MIN_COMPACT_LENGTH || garbage * 2 <= used) {
+            return;
+        }
+        byte[] compacted = new byte[used - garbage];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            int length = Math.max(lengths[i], 0);
+            System.arraycopy(bytes, starts[i], compacted, next, length);
+            starts[i] = next;
+            next += length;
+        }
+        bytes = compacted;
+        used = next;
+        garbage = 0;
+    }
+}
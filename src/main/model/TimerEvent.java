@@ -2,13 +2,20 @@ package model;
 
 import model.WorkTimer;
 
+import java.nio.CharBuffer;
 import java.util.EventObject;
 
+// Passed to a TimerListener with the time left on a timer
+// a timer passes the same tick event to every tick, setting it to the new time in place, so a listener which hands
+// the time on to another thread should copy it, eg. with getSecondsLeft, before returning
 public class TimerEvent extends EventObject {
     int hours;
     int minutes;
     int seconds;
     String timeString;
+    private long secondsLeft;
+    private char[] time;
+    private CharBuffer timeText;
 
     // EFFECTS: creates timer event with given hours, minutes, and seconds as current time
     public TimerEvent(WorkTimer source, int hours, int minutes, int seconds, String timeString) {
@@ -16,6 +23,7 @@ public class TimerEvent extends EventObject {
         this.hours = hours;
         this.minutes = minutes;
         this.seconds = seconds;
+        this.secondsLeft = hours * 3600L + minutes * 60L + seconds;
         this.timeString = timeString;
     }
 
@@ -24,8 +32,55 @@ public class TimerEvent extends EventObject {
         this(source, 0, 0, 0, "0:00:00");
     }
 
+    // REQUIRES: time.length >= WorkTimer.MAX_TIME_LENGTH
+    // EFFECTS: creates timer event with 0 as time which formats the time it is set to into time
+    TimerEvent(WorkTimer source, char[] time) {
+        this(source);
+        this.time = time;
+        timeText = CharBuffer.wrap(time);
+        setSecondsLeft(0);
+    }
+
+    // REQUIRES: this event was created with a buffer to format the time into, secondsLeft >= 0
+    // MODIFIES: this
+    // EFFECTS: sets time of this event to given seconds left, formatting it in place
+    void setSecondsLeft(long secondsLeft) {
+        this.secondsLeft = secondsLeft;
+        hours = (int) (secondsLeft / 3600);
+        minutes = (int) (secondsLeft / 60 % 60);
+        seconds = (int) (secondsLeft % 60);
+        timeText.clear().limit(WorkTimer.formatTime(secondsLeft, time));
+        timeString = null;
+    }
+
     // getters
+    public int getHours() {
+        return hours;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public long getSecondsLeft() {
+        return secondsLeft;
+    }
+
+    // EFFECTS: returns time formatted as <hours>:<minutes>:<seconds>, which is only valid until the timer ticks
+    //          again; reading it doesn't allocate
+    public CharSequence getTimeText() {
+        return timeText == null ? timeString : timeText;
+    }
+
+    // EFFECTS: returns time formatted as <hours>:<minutes>:<seconds>
     public String getTimeString() {
+        if (timeString == null) {
+            timeString = timeText.toString();
+        }
         return timeString;
     }
 }
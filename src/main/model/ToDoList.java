@@ -3,61 +3,267 @@ package model;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import javax.swing.event.EventListenerList;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 // represents a to-do list, which contains a list of tasks
+// tasks are stored compactly in a TaskTable, as their descriptions, and a task object is only made for a task when
+// one is asked for, eg. by getTasks, and is then kept so the same task is always returned for it; reading the
+// descriptions and completion by position, as saving does, makes none. which tasks are complete is kept in a bitmap
+// by position, so counting, completing, and deleting completed tasks
+// only visits the tasks involved; tasks are found by description through an index from each description to the
+// positions of its tasks, which is built when first needed and dropped whenever tasks move
+// a to-do list is changed by one thread, but a snapshot of it can be taken from any thread; the snapshot shares the
+// tasks and bitmap with the list until one of them next changes, and its tasks always have the completion they had
+// when it was taken. listeners are notified after each change is made, outside the lock taking a snapshot waits on
 public class ToDoList implements Iterable<Task> {
     public static final String COMPLETED_TASK_PREFIX = "";
-    List<Task> tasks;
+    private TaskTable tasks;
+    private BitSet completed;
+    private boolean shared;
+    private boolean readOnly;
+    private Map<String, List<Integer>> positions;
+    private List<Task> view;
+    private List<String> descriptions;
+    private EventListenerList listenerList;
+    private volatile boolean dirty;
 
     // EFFECTS: creates new to-do list with no tasks
     public ToDoList() {
-        tasks = new ArrayList<>();
+        tasks = new TaskTable();
+        completed = new BitSet();
+        view = new TaskView();
+        descriptions = new DescriptionView();
+        listenerList = new EventListenerList();
+        dirty = true;
     }
 
-    // MODIFIES: this
+    // MODIFIES: this, task
     // EFFECTS: adds given task to to-do list
     public void addTask(Task task) {
-        tasks.add(task);
+        addTask(tasks.size(), task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task of given description and completion to to-do list, without making an object for it
+    public void addTask(String description, boolean complete) {
+        int index;
+        synchronized (this) {
+            copyIfShared();
+            index = tasks.size();
+            tasks.add(index, description, null);
+            completed.set(index, complete);
+            if (positions != null) {
+                positions.computeIfAbsent(description, d -> new ArrayList<>(1)).add(index);
+            }
+        }
+        fireModelEvent(ModelEvent.Type.TASK_ADDED, index, null);
+    }
+
+    // REQUIRES: 0 <= index <= # tasks in to-do list
+    // MODIFIES: this, task
+    // EFFECTS: inserts given task at index of to-do list
+    public void addTask(int index, Task task) {
+        synchronized (this) {
+            copyIfShared();
+            task.setOwner(this);
+            tasks.add(index, task.getDescription(), task);
+            shiftCompleted(index, 1);
+            completed.set(index, task.getComplete());
+            if (positions != null && index == tasks.size() - 1) {
+                positions.computeIfAbsent(task.getDescription(), d -> new ArrayList<>(1)).add(index);
+            } else {
+                positions = null;
+            }
+        }
+        fireModelEvent(ModelEvent.Type.TASK_ADDED, index, task);
     }
 
     // REQUIRES: 0 <= index < # tasks in to-do list
     // MODIFIES: this
     // EFFECTS: removes task of given index from to-do list
     public void removeTask(int index) {
-        tasks.remove(index);
+        Task removed;
+        synchronized (this) {
+            copyIfShared();
+            removed = tasks.handle(index);
+            if (removed != null) {
+                removed.setOwner(null);
+            } else if (hasListeners()) {
+                removed = new Task(tasks.description(index), completed.get(index));
+            }
+            tasks.remove(index);
+            shiftCompleted(index + 1, -1);
+            positions = null;
+        }
+        fireModelEvent(ModelEvent.Type.TASK_REMOVED, index, removed);
     }
 
     // MODIFIES: this
     // EFFECTS: removes task of given description from to-do list
     public void removeTask(String description) {
-        tasks.removeIf(t -> t.getDescription().equals(description));
+        List<Integer> matches = getPositions().get(description);
+        if (matches == null) {
+            return;
+        }
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            removeTask((int) matches.get(i));
+        }
     }
 
     // REQUIRES: 0 <= index < # tasks in to-do list
     // MODIFIES: this
     // EFFECTS: marks task of given index as complete in to-do list
     public void completeTask(int index) {
-        tasks.get(index).setComplete(true);
+        Task task;
+        synchronized (this) {
+            if (completed.get(index)) {
+                return;
+            }
+            copyIfShared();
+            task = tasks.handle(index);
+            completed.set(index);
+            if (task != null) {
+                task.markComplete(true);
+            }
+        }
+        fireModelEvent(ModelEvent.Type.TASK_COMPLETED, index, task);
+    }
+
+    // REQUIRES: 0 <= index < # tasks in to-do list
+    // MODIFIES: this
+    // EFFECTS: marks task of given index as incomplete in to-do list, eg. to undo completing it
+    public void reopenTask(int index) {
+        Task task;
+        synchronized (this) {
+            if (!completed.get(index)) {
+                return;
+            }
+            copyIfShared();
+            task = tasks.handle(index);
+            completed.clear(index);
+            if (task != null) {
+                task.markComplete(false);
+            }
+        }
+        fireModelEvent(ModelEvent.Type.TASK_REOPENED, index, task);
     }
 
     // MODIFIES: this
     // EFFECTS: marks task of given description as complete in to-do list
     //          if no task matching description exists, does nothing
     public void completeTask(String description) {
-        for (Task t : tasks) {
-            if (t.getDescription().equals(description)) {
-                t.setComplete(true);
+        List<Integer> matches = getPositions().get(description);
+        if (matches != null) {
+            for (int index : matches) {
+                completeTask(index);
             }
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: deletes all tasks which are complete
+    // EFFECTS: marks every task in to-do list as complete
+    public void completeAllTasks() {
+        for (int i = completed.nextClearBit(0); i < tasks.size(); i = completed.nextClearBit(i + 1)) {
+            completeTask(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes all tasks which are complete, moving the remaining tasks in a single pass, then notifies
+    //          listeners of each removal from last to first, so each index is that of the task before it was removed
     public void deleteCompletedTasks() {
-        tasks.removeIf(Task::getComplete);
+        List<Task> removed = new ArrayList<>();
+        BitSet removedPositions = removeCompleted(removed);
+        int n = removed.size() - 1;
+        for (int i = removedPositions.length() - 1; i >= 0; i = removedPositions.previousSetBit(i - 1)) {
+            fireModelEvent(ModelEvent.Type.TASK_REMOVED, i, removed.get(n--));
+        }
+    }
+
+    // MODIFIES: this, removed
+    // EFFECTS: removes all complete tasks, moving the remaining tasks in a single pass, adds them to removed in order,
+    //          and returns their positions before they were removed
+    private synchronized BitSet removeCompleted(List<Task> removed) {
+        if (completed.isEmpty()) {
+            return completed;
+        }
+        copyIfShared();
+        tasks.removeAll(completed, removed);
+        for (Task task : removed) {
+            task.setOwner(null);
+        }
+        BitSet removedPositions = completed;
+        completed = new BitSet();
+        positions = null;
+        return removedPositions;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a read-only copy of this to-do list with the same tasks, complete as they are now, and no
+    //          listeners, for reading on another thread while this list goes on changing; later changes to this list
+    //          don't affect the copy
+    public synchronized ToDoList snapshot() {
+        shared = true;
+        ToDoList copy = new ToDoList();
+        copy.tasks = tasks;
+        copy.completed = completed;
+        copy.shared = true;
+        copy.readOnly = true;
+        copy.dirty = dirty;
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener which is notified of every change to this to-do list
+    public void addModelListener(ModelListener listener) {
+        listenerList.add(ModelListener.class, listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes given listener from this to-do list
+    public void removeModelListener(ModelListener listener) {
+        listenerList.remove(ModelListener.class, listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this to-do list as saved, so it is not dirty until it next changes
+    public void markClean() {
+        dirty = false;
+    }
+
+    // EFFECTS: returns true if this to-do list has changed since it was created or last marked clean
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // EFFECTS: returns true if any listener is notified of changes to this to-do list
+    private boolean hasListeners() {
+        return listenerList.getListenerCount() > 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this to-do list as dirty and notifies all listeners of a change of given type to the task at
+    //          index, which is the task now at index if task is null
+    private void fireModelEvent(ModelEvent.Type type, int index, Task task) {
+        dirty = true;
+        Object[] listeners = listenerList.getListenerList();
+        if (listeners.length == 0) {
+            return;
+        }
+
+        ModelEvent event = new ModelEvent(this, type, index, task != null ? task : view.get(index));
+        for (int i = 0; i < listeners.length; i += 2) {
+            if (listeners[i] == ModelListener.class) {
+                ((ModelListener) listeners[i + 1]).modelChanged(event);
+            }
+        }
     }
 
     // EFFECTS: returns number of tasks in this to-do list
@@ -65,41 +271,178 @@ public class ToDoList implements Iterable<Task> {
         return tasks.size();
     }
 
+    // EFFECTS: returns number of complete tasks in this to-do list
+    public int getNumCompleted() {
+        return completed.cardinality();
+    }
+
+    // EFFECTS: returns number of incomplete tasks in this to-do list
+    public int getNumOpen() {
+        return tasks.size() - completed.cardinality();
+    }
+
     // EFFECTS: returns list of all task descriptions in this to-do list,
     // all completed tasks have a prefix of "*DONE*"
     public List<String> getAllTaskDescriptions() {
-        List<String> descriptions = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.getComplete()) {
-                descriptions.add(COMPLETED_TASK_PREFIX + t.getDescription());
-            } else {
-                descriptions.add(t.getDescription());
-            }
-        }
+        return new ArrayList<>(descriptions);
+    }
 
+    // EFFECTS: returns read-only view of the descriptions of the tasks in this to-do list, as returned by
+    //          getAllTaskDescriptions, which reflects later changes to it without copying them
+    public List<String> getTaskDescriptions() {
         return descriptions;
     }
 
+    // REQUIRES: 0 <= index < # tasks in to-do list
+    // EFFECTS: returns description of task at index, without making an object for the task
+    public String getDescription(int index) {
+        return tasks.description(index);
+    }
+
+    // REQUIRES: 0 <= index < # tasks in to-do list
+    // EFFECTS: returns true if task at index is complete, without making an object for the task
+    public boolean isComplete(int index) {
+        return completed.get(index);
+    }
+
     // EFFECTS: returns a JSON array containing all tasks in to-do list
     public JSONArray getListAsJson() {
         JSONArray tasksList = new JSONArray();
-        for (Task t : tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
             JSONObject taskDetails = new JSONObject();
-            taskDetails.put("description", t.getDescription());
-            taskDetails.put("complete?", t.getComplete());
+            taskDetails.put("description", tasks.description(i));
+            taskDetails.put("complete?", completed.get(i));
             tasksList.add(taskDetails);
         }
 
         return tasksList;
     }
 
+    // MODIFIES: this
+    // EFFECTS: completes or reopens given task of this to-do list, as completeTask or reopenTask does; returns
+    //          false if the task is no longer in this list
+    boolean setTaskComplete(Task task, boolean complete) {
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        if (complete) {
+            completeTask(index);
+        } else {
+            reopenTask(index);
+        }
+        return true;
+    }
+
+    // EFFECTS: returns position of given task in this to-do list, or -1 if it isn't in it
+    private synchronized int indexOf(Task task) {
+        List<Integer> matches = getPositions().get(task.getDescription());
+        if (matches != null) {
+            for (int index : matches) {
+                if (tasks.handle(index) == task) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives this list its own copy of its tasks and bitmap if they are shared with a snapshot
+    private void copyIfShared() {
+        if (shared) {
+            tasks = tasks.copy();
+            completed = (BitSet) completed.clone();
+            shared = false;
+        }
+    }
+
+    // REQUIRES: distance is 1 or -1
+    // MODIFIES: this
+    // EFFECTS: moves the completion bits of all tasks from position from onwards up or down by distance, eg. by -1
+    //          after the task before them was removed
+    private void shiftCompleted(int from, int distance) {
+        int start = Math.min(from, from + distance);
+        int last = completed.length();
+        if (start < last) {
+            BitSet moved = completed.get(from, last);
+            completed.clear(start, last);
+            for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+                completed.set(from + distance + i);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns index from each description to the positions of its tasks, in order, building it if needed
+    private Map<String, List<Integer>> getPositions() {
+        if (positions == null) {
+            positions = new HashMap<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                positions.computeIfAbsent(tasks.description(i), d -> new ArrayList<>(1)).add(i);
+            }
+        }
+        return positions;
+    }
+
     // getters
+    // EFFECTS: returns read-only list of the tasks in this to-do list
     public List<Task> getTasks() {
-        return tasks;
+        return view;
     }
 
     @Override
     public Iterator<Task> iterator() {
-        return tasks.iterator();
+        return view.iterator();
+    }
+
+    // REQUIRES: 0 <= index < # tasks in to-do list
+    // MODIFIES: this
+    // EFFECTS: returns task at index, making an object for it and keeping it if there isn't one yet; a snapshot
+    //          doesn't keep the objects it makes, so that it is never changed after it is taken
+    private synchronized Task materialize(int index) {
+        Task task = tasks.handle(index);
+        if (task == null) {
+            task = new Task(tasks.description(index), completed.get(index));
+            if (!readOnly) {
+                copyIfShared();
+                task.setOwner(this);
+                tasks.setHandle(index, task);
+            }
+        }
+        return task;
+    }
+
+    // read-only view of the tasks in this to-do list; a task whose completion was changed directly since a snapshot
+    // was taken is replaced in the snapshot by a copy with its completion from then
+    private class TaskView extends AbstractList<Task> {
+        @Override
+        public Task get(int index) {
+            Task task = tasks.handle(index);
+            if (task == null) {
+                return materialize(index);
+            }
+            boolean complete = completed.get(index);
+            return task.getComplete() == complete ? task : new Task(task.getDescription(), complete);
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+    }
+
+    // read-only view of the descriptions of the tasks in this to-do list
+    private class DescriptionView extends AbstractList<String> {
+        @Override
+        public String get(int index) {
+            String description = tasks.description(index);
+            return completed.get(index) ? COMPLETED_TASK_PREFIX + description : description;
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
     }
 }
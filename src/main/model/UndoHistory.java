@@ -0,0 +1,279 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// records the changes made to a workspace, its spaces, and their to-do lists, as its model events, so that they can
+// be undone and redone; each edit is a single change, or every change made between beginEdit and endEdit, eg. all
+// the tasks removed by deleting the completed tasks. at most a given number of changes are kept, and the oldest
+// edits are forgotten first, so a long session holds a bounded amount of history. replacing all of the spaces,
+// resources, or tasks at once, eg. by loading a save, can't be undone and clears the history
+// the latest edit to one space can also be undone on its own, eg. from that space's window, since later edits to
+// other spaces don't depend on it
+public class UndoHistory implements ModelListener {
+    public static final int DEFAULT_MAX_CHANGES = 1000;
+    private static final Map<ModelEvent.Type, ModelEvent.Type> INVERSES = new EnumMap<>(ModelEvent.Type.class);
+
+    private WorkspaceApp workspace;
+    private int maxChanges;
+    private Deque<List<ModelEvent>> undoable;
+    private Deque<List<ModelEvent>> redoable;
+    private int numChanges;
+    private List<ModelEvent> openEdit;
+    private int openEdits;
+    private boolean applying;
+
+    static {
+        addInverses(ModelEvent.Type.SPACE_ADDED, ModelEvent.Type.SPACE_REMOVED);
+        addInverses(ModelEvent.Type.RESOURCE_ADDED, ModelEvent.Type.RESOURCE_REMOVED);
+        addInverses(ModelEvent.Type.TASK_ADDED, ModelEvent.Type.TASK_REMOVED);
+        addInverses(ModelEvent.Type.TASK_COMPLETED, ModelEvent.Type.TASK_REOPENED);
+    }
+
+    // EFFECTS: creates empty history of changes to workspace, keeping up to DEFAULT_MAX_CHANGES changes
+    public UndoHistory(WorkspaceApp workspace) {
+        this(workspace, DEFAULT_MAX_CHANGES);
+    }
+
+    // REQUIRES: maxChanges > 0
+    // EFFECTS: creates empty history of changes to workspace, keeping up to maxChanges changes, except that the
+    //          latest edit is always kept however many changes it made
+    public UndoHistory(WorkspaceApp workspace, int maxChanges) {
+        this.workspace = workspace;
+        this.maxChanges = maxChanges;
+        undoable = new ArrayDeque<>();
+        redoable = new ArrayDeque<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records given change so it can be undone, and forgets changes which were undone, since they can no
+    //          longer be redone; clears the history if the change replaced all of the spaces, resources, or tasks
+    //          changes made by undoing or redoing are not recorded
+    @Override
+    public void modelChanged(ModelEvent e) {
+        if (applying) {
+            return;
+        } else if (!INVERSES.containsKey(e.getType())) {
+            clear();
+            return;
+        }
+
+        numChanges -= count(redoable);
+        redoable.clear();
+        if (openEdits > 0) {
+            openEdit.add(e);
+        } else {
+            List<ModelEvent> edit = new ArrayList<>(1);
+            edit.add(e);
+            record(edit);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an edit which groups every change made until the matching call to endEdit, so they are undone
+    //          and redone together; edits may be nested, in which case the outermost one groups all of the changes
+    public void beginEdit() {
+        if (openEdits++ == 0) {
+            openEdit = new ArrayList<>();
+        }
+    }
+
+    // REQUIRES: an edit was begun and hasn't been ended yet
+    // MODIFIES: this
+    // EFFECTS: ends the edit begun by the matching call to beginEdit, recording its changes if it is the outermost
+    public void endEdit() {
+        if (--openEdits == 0 && !openEdit.isEmpty()) {
+            record(openEdit);
+        }
+    }
+
+    // REQUIRES: no edit is open
+    // MODIFIES: this, workspace
+    // EFFECTS: undoes the latest edit which hasn't been undone, so that it can be redone, and returns true, or returns
+    //          false if there is no such edit
+    public boolean undo() {
+        return undo(undoable.peek());
+    }
+
+    // REQUIRES: no edit is open
+    // MODIFIES: this, workspace
+    // EFFECTS: undoes the latest edit to space which hasn't been undone, leaving later edits to other spaces as they
+    //          are, and returns true; returns false if there is no such edit, or if it also changed something other
+    //          than space, eg. added spaces, since undoing it could then undo part of another space's later edits
+    public boolean undo(Space space) {
+        return undo(latestEdit(undoable, space));
+    }
+
+    // REQUIRES: no edit is open
+    // MODIFIES: this, workspace
+    // EFFECTS: redoes the latest edit undone, so that it can be undone again, and returns true, or returns false if
+    //          there is no such edit, eg. because a change was made since it was undone
+    public boolean redo() {
+        return redo(redoable.peek());
+    }
+
+    // REQUIRES: no edit is open
+    // MODIFIES: this, workspace
+    // EFFECTS: redoes the latest edit to space undone, leaving other undone edits as they are, and returns true;
+    //          returns false if there is no such edit, or if it also changed something other than space
+    public boolean redo(Space space) {
+        return redo(latestEdit(redoable, space));
+    }
+
+    // MODIFIES: this, workspace
+    // EFFECTS: undoes edit, which is one of the undoable edits, and moves it to the top of the redoable edits;
+    //          returns false if edit is null
+    private boolean undo(List<ModelEvent> edit) {
+        if (edit == null) {
+            return false;
+        }
+        remove(undoable, edit);
+        applying = true;
+        try {
+            for (int i = edit.size() - 1; i >= 0; i--) {
+                apply(edit.get(i), INVERSES.get(edit.get(i).getType()));
+            }
+        } finally {
+            applying = false;
+        }
+        redoable.push(edit);
+        return true;
+    }
+
+    // MODIFIES: this, workspace
+    // EFFECTS: redoes edit, which is one of the redoable edits, and moves it to the top of the undoable edits;
+    //          returns false if edit is null
+    private boolean redo(List<ModelEvent> edit) {
+        if (edit == null) {
+            return false;
+        }
+        remove(redoable, edit);
+        applying = true;
+        try {
+            for (ModelEvent e : edit) {
+                apply(e, e.getType());
+            }
+        } finally {
+            applying = false;
+        }
+        undoable.push(edit);
+        return true;
+    }
+
+    // EFFECTS: returns the latest of edits which changed, added, or removed space, or null if there is none or it also
+    //          changed something else
+    private static List<ModelEvent> latestEdit(Deque<List<ModelEvent>> edits, Space space) {
+        for (List<ModelEvent> edit : edits) {
+            boolean changedSpace = false;
+            boolean changedOther = false;
+            for (ModelEvent e : edit) {
+                changedSpace |= e.getSource() == space || e.getElement() == space;
+                changedOther |= e.getSource() != space;
+            }
+            if (changedSpace) {
+                return changedOther ? null : edit;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: edits
+    // EFFECTS: removes given edit itself from edits
+    private static void remove(Deque<List<ModelEvent>> edits, List<ModelEvent> edit) {
+        for (Iterator<List<ModelEvent>> it = edits.iterator(); it.hasNext(); ) {
+            if (it.next() == edit) {
+                it.remove();
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every edit, so none can be undone or redone
+    public void clear() {
+        undoable.clear();
+        redoable.clear();
+        numChanges = 0;
+        if (openEdits > 0) {
+            openEdit.clear();
+        }
+    }
+
+    public boolean canUndo() {
+        return !undoable.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoable.isEmpty();
+    }
+
+    // EFFECTS: returns number of changes in the edits which can be undone or redone
+    public int getNumChanges() {
+        return numChanges;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records edit as the latest edit, then forgets the oldest edits until at most the maximum number of
+    //          changes are kept, or only this edit is left
+    private void record(List<ModelEvent> edit) {
+        undoable.push(edit);
+        numChanges += edit.size();
+        while (numChanges > maxChanges && undoable.size() > 1) {
+            numChanges -= undoable.removeLast().size();
+        }
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: makes change of given type to the space, resource, or task of e, at the index of e
+    private void apply(ModelEvent e, ModelEvent.Type type) {
+        if (type == ModelEvent.Type.SPACE_ADDED) {
+            workspace.addSpace(e.getIndex(), (Space) e.getElement());
+        } else if (type == ModelEvent.Type.SPACE_REMOVED) {
+            workspace.removeSpace(((Space) e.getElement()).getName());
+        } else if (type == ModelEvent.Type.RESOURCE_ADDED) {
+            ((Space) e.getSource()).addResource(e.getIndex(), (Resource) e.getElement());
+        } else if (type == ModelEvent.Type.RESOURCE_REMOVED) {
+            ((Space) e.getSource()).removeResource(e.getIndex());
+        } else {
+            applyToTodo(((Space) e.getSource()).getTodo(), type, e.getIndex(), (Task) e.getElement());
+        }
+    }
+
+    // MODIFIES: todo
+    // EFFECTS: makes change of given type to task at index of todo
+    private static void applyToTodo(ToDoList todo, ModelEvent.Type type, int index, Task task) {
+        switch (type) {
+            case TASK_ADDED:
+                todo.addTask(index, task);
+                break;
+            case TASK_REMOVED:
+                todo.removeTask(index);
+                break;
+            case TASK_COMPLETED:
+                todo.completeTask(index);
+                break;
+            default:
+                todo.reopenTask(index);
+        }
+    }
+
+    // EFFECTS: returns total number of changes in edits
+    private static int count(Deque<List<ModelEvent>> edits) {
+        int count = 0;
+        for (List<ModelEvent> edit : edits) {
+            count += edit.size();
+        }
+        return count;
+    }
+
+    // EFFECTS: records that changes of types a and b undo each other
+    private static void addInverses(ModelEvent.Type a, ModelEvent.Type b) {
+        INVERSES.put(a, b);
+        INVERSES.put(b, a);
+    }
+}
@@ -5,18 +5,27 @@ import model.exception.SystemNotSupportedException;
 import platformspecific.ResourceLauncher;
 
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
 
 // Represents a website link with a name and URL
+// the URL is kept as a canonical URI, so that links to the same page are written the same way: the scheme and host are
+// lower case, a port which is the default for the scheme is left out, dot segments are removed from the path, and
+// percent escapes have upper case hex digits, except for escapes of unreserved characters, which are decoded
+// unlike java.net.URL, comparing or hashing a URI never looks up its host
 public class WebsiteLink implements Resource {
     // source for valid url characters:
     // https://stackoverflow.com/questions/1547899/which-characters-make-a-url-invalid/1547940#1547940
-    private static Set<Character> VALID_URL_CHARS = new HashSet<>(
-            Arrays.asList('-','.','~','_',':','/','?','#','[',']','@',
-            '!','$','&','\'','(',')','*','+',',',';','%','='));
+    private static final String VALID_URL_SYMBOLS = "-.~_:/?#[]@!$&'()*+,;%=";
+    private static final String UNRESERVED_SYMBOLS = "-._~";
+    private static final boolean[] VALID_URL_CHARS = asciiTable(VALID_URL_SYMBOLS);
+    private static final boolean[] UNRESERVED_CHARS = asciiTable(UNRESERVED_SYMBOLS);
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
     private String name;
-    private URL url;
+    private URI url;
+    private boolean dirty;
+    private Status status;
 
     // EFFECTS: initializes object with given name and url, throws MalformedURLException if url is not valid
     public WebsiteLink(String name, String url) throws MalformedURLException {
@@ -24,6 +33,13 @@ public class WebsiteLink implements Resource {
         setPath(url);
     }
 
+    // EFFECTS: initializes object with given name, canonical url, and status
+    private WebsiteLink(String name, URI url, Status status) {
+        this.name = name;
+        this.url = url;
+        this.status = status;
+    }
+
     // EFFECTS: if system does not support launching websites, throws SystemNotSupportedException
     //          if website fails to launch, throws FailedToOpenException
     //          otherwise, opens url in default browser
@@ -32,22 +48,150 @@ public class WebsiteLink implements Resource {
         ResourceLauncher.openSite(url);
     }
 
-    // EFFECTS: returns true if url contains only valid characters and sets this url,
+    // EFFECTS: if url contains only valid characters, sets this url to its canonical form, see normalize,
     // otherwise throws exception and doesn't change this url
     @Override
     public void setPath(String url) throws MalformedURLException {
-        if (!(url.length() >= 7 && url.substring(0,7).equals("http://"))
-                && !(url.length() >= 8 && url.substring(0,8).equals("https://"))) {
+        this.url = normalize(url);
+        dirty = true;
+        status = Status.OK;
+    }
+
+    // EFFECTS: returns canonical form of url, assuming http:// if it doesn't start with http:// or https://
+    //          throws MalformedURLException if url contains a character which is not valid in a URL, or is not a
+    //          valid URL
+    public static URI normalize(String url) throws MalformedURLException {
+        String lower = url.toLowerCase(Locale.ROOT);
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
             url = "http://" + url;
         }
 
-        for (char c : url.toCharArray()) {
-            if (!VALID_URL_CHARS.contains(c) && !Character.isLetterOrDigit(c)) {
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c < VALID_URL_CHARS.length ? !VALID_URL_CHARS[c] : !Character.isLetterOrDigit(c)) {
                 throw new MalformedURLException("Contains invalid character " + c);
             }
         }
 
-        this.url = new URL(url);
+        try {
+            return canonical(new URI(escapeAfterAuthority(normalizeEscapes(url))));
+        } catch (URISyntaxException e) {
+            throw new MalformedURLException(e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns uri with lower case scheme and host, without the scheme's default port, and without dot
+    //          segments in its path
+    private static URI canonical(URI uri) throws URISyntaxException {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(scheme).append("://");
+        if (uri.getHost() == null) {
+            canonical.append(uri.getRawAuthority() == null ? "" : uri.getRawAuthority().toLowerCase(Locale.ROOT));
+        } else {
+            if (uri.getRawUserInfo() != null) {
+                canonical.append(uri.getRawUserInfo()).append('@');
+            }
+            canonical.append(uri.getHost().toLowerCase(Locale.ROOT));
+            int defaultPort = scheme.equals("https") ? 443 : 80;
+            if (uri.getPort() >= 0 && uri.getPort() != defaultPort) {
+                canonical.append(':').append(uri.getPort());
+            }
+        }
+        canonical.append(uri.getRawPath() == null ? "" : uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            canonical.append('?').append(uri.getRawQuery());
+        }
+        if (uri.getRawFragment() != null) {
+            canonical.append('#').append(uri.getRawFragment());
+        }
+        return new URI(canonical.toString()).normalize();
+    }
+
+    // EFFECTS: returns url with the hex digits of every percent escape in upper case, escapes of unreserved
+    //          characters decoded, and any % which doesn't start an escape escaped itself
+    private static String normalizeEscapes(String url) {
+        if (url.indexOf('%') < 0) {
+            return url;
+        }
+        StringBuilder normalized = new StringBuilder(url.length());
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            int hi = i + 2 < url.length() ? Character.digit(url.charAt(i + 1), 16) : -1;
+            int lo = hi >= 0 ? Character.digit(url.charAt(i + 2), 16) : -1;
+            if (c != '%') {
+                normalized.append(c);
+            } else if (lo < 0) {
+                normalized.append("%25");
+            } else if (isUnreserved((char) (hi * 16 + lo))) {
+                normalized.append((char) (hi * 16 + lo));
+                i += 2;
+            } else {
+                normalized.append('%').append(HEX_DIGITS[hi]).append(HEX_DIGITS[lo]);
+                i += 2;
+            }
+        }
+        return normalized.toString();
+    }
+
+    // EFFECTS: returns url with [ and ] escaped after its host, and # escaped after the one starting its fragment,
+    //          since a URI doesn't allow them there, though a browser does
+    private static String escapeAfterAuthority(String url) {
+        int start = url.indexOf("//") + 2;
+        while (start < url.length() && "/?#".indexOf(url.charAt(start)) < 0) {
+            start++;
+        }
+        StringBuilder escaped = new StringBuilder(url.substring(0, start));
+        boolean inFragment = false;
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '[' || c == ']' || c == '#' && inFragment) {
+                escaped.append('%').append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                escaped.append(c);
+            }
+            inFragment = inFragment || c == '#';
+        }
+        return escaped.toString();
+    }
+
+    // EFFECTS: returns true if c is a letter, digit, or symbol which never needs to be escaped in a URL
+    private static boolean isUnreserved(char c) {
+        return c < UNRESERVED_CHARS.length && UNRESERVED_CHARS[c];
+    }
+
+    // EFFECTS: returns table of the ASCII characters which are letters, digits, or one of symbols
+    private static boolean[] asciiTable(String symbols) {
+        boolean[] table = new boolean[128];
+        for (char c = 0; c < table.length; c++) {
+            table[c] = c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || symbols.indexOf(c) >= 0;
+        }
+        return table;
+    }
+
+    // EFFECTS: returns OK, since a link is only checked to be a valid url, not to be reachable
+    @Override
+    public Status checkStatus() {
+        return Status.OK;
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public WebsiteLink renamed(String name) {
+        return new WebsiteLink(name, url, status);
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markClean() {
+        dirty = false;
     }
 
     //getters
@@ -61,8 +205,17 @@ public class WebsiteLink implements Resource {
         return url.toString();
     }
 
+    public URI getUri() {
+        return url;
+    }
+
     @Override
     public ResourceType getResourceType() {
         return ResourceType.LINK;
     }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
 }
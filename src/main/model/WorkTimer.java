@@ -1,33 +1,172 @@
 package model;
 
 import javax.swing.event.EventListenerList;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+// A countdown timer which notifies its listeners once a second, and when its time is up
+// the ticks of every timer are run by one shared scheduler thread, so the number of threads stays the same however
+// many timers are running; the thread stops once no timer has been running for IDLE_SECONDS, and the next timer to
+// run starts it again
+// a running timer keeps the System.nanoTime at which its time is up, and works out the time left from it whenever it
+// is asked, so a tick which is late or missed (eg. during garbage collection) never makes the timer drift; each tick
+// is scheduled for the moment the seconds shown next change, and how late ticks run is recorded
+// System.nanoTime stops while the computer is suspended on some systems, so if the wall clock has moved on by more
+// than SUSPEND_THRESHOLD_MILLIS further than System.nanoTime between two ticks, the difference is taken off the time
+// left too; a wall clock set forward by hand looks the same, and is treated the same way
+// ticking doesn't allocate: ticks repeat at a fixed rate in step with the deadline, and each timer fires the same
+// TimerEvent, formatted in place, to its listeners, and only when the seconds left have changed
 public class WorkTimer {
     private static int UPDATE_DELAY = 1000;
-    private Timer timer;
-    private TimerTask task;
-    private int hours;
-    private int minutes;
-    private int seconds;
+    private static final long IDLE_SECONDS = 10;
+    private static final long SUSPEND_THRESHOLD_MILLIS = 2000;
+    static final int MAX_TIME_LENGTH = 24;
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+    private ScheduledFuture<?> task;
+    private int generation;
+    private boolean running;
+    private long remaining;
+    private long deadline;
+    private long due;
+    private long lastTickNanos;
+    private long lastTickMillis;
+    private int numTicks;
+    private long totalLateness;
+    private long maxLateness;
+    private long suspendedMillis;
+    private long firedSeconds;
+    private TimerEvent tickEvent;
     private int updateDelay;
+    private LongSupplier nanoClock;
+    private LongSupplier wallClock;
     private EventListenerList listenerList;
 
     // EFFECTS: creates new timer with given hours and minutes
     public WorkTimer(int hours, int minutes) {
         listenerList = new EventListenerList();
-        this.hours = hours;
-        this.minutes = minutes;
-        this.seconds = 0;
+        tickEvent = new TimerEvent(this, new char[MAX_TIME_LENGTH]);
         this.updateDelay = UPDATE_DELAY;
+        nanoClock = System::nanoTime;
+        wallClock = System::currentTimeMillis;
+        setTime(hours, minutes);
     }
 
-    // EFFECTS: runs the timer
-    public void run() {
-        timer = new Timer();
-        task = new Tick();
-        timer.scheduleAtFixedRate(task, 0, updateDelay);
+    // EFFECTS: returns scheduler with a single daemon thread which runs the ticks of every timer; cancelled ticks are
+    //          removed from its queue straight away, so timers which are started and cancelled repeatedly don't pile up
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "work-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setKeepAliveTime(IDLE_SECONDS, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        return scheduler;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the timer, ticking on the shared scheduler each time the seconds left change, or straight away if
+    //          there is no time left; if the timer is already running, starts its ticks again
+    public synchronized void run() {
+        cancelTimer();
+        long now = nanoClock.getAsLong();
+        deadline = now + remaining;
+        lastTickNanos = now;
+        lastTickMillis = wallClock.getAsLong();
+        firedSeconds = -1;
+        running = true;
+        schedule(now);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules ticks once a second, starting when the seconds left next change, or now if there is no time
+    //          left, in place of any ticks already scheduled
+    private void schedule(long now) {
+        long left = Math.max(0, deadline - now);
+        long untilChange = left == 0 ? 0 : (left - 1) % secondNanos() + 1;
+        int scheduled = generation;
+        due = now + untilChange;
+        if (task != null) {
+            task.cancel(false);
+        }
+        task = SCHEDULER.scheduleAtFixedRate(() -> tick(scheduled), untilChange, secondNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // EFFECTS: fires timerTick event with the time left if it has changed since the last tick, or stops the timer and
+    //          fires timeUp event if there is no time left
+    private void tick(int scheduled) {
+        long secondsLeft = advance(scheduled);
+        if (secondsLeft == 0) {
+            fireTimeUpEvent();
+        } else if (secondsLeft > 0) {
+            fireTickEvent(secondsLeft);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records how late this tick is and returns the seconds left, stopping the timer if there are none
+    //          after a suspend, or a tick more than a second late, ticks are scheduled again in step with the deadline
+    //          returns -1 if the seconds left haven't changed since the last tick, or if the timer has been cancelled
+    //          or run again since this tick was scheduled
+    private synchronized long advance(int scheduled) {
+        if (!running || scheduled != generation) {
+            return -1;
+        }
+        long now = nanoClock.getAsLong();
+        long lateness = now - due;
+        recordLateness(Math.max(0, lateness));
+        due += secondNanos();
+        boolean suspended = detectSuspend(now);
+        long secondsLeft = secondsLeft(now);
+        if (secondsLeft == 0) {
+            cancelTimer();
+        } else if (suspended || lateness > secondNanos()) {
+            schedule(now);
+        }
+        if (secondsLeft != 0 && secondsLeft == firedSeconds) {
+            return -1;
+        }
+        firedSeconds = secondsLeft;
+        return secondsLeft;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds lateness of a tick, in nanoseconds, to the lateness statistics
+    private void recordLateness(long lateness) {
+        numTicks++;
+        totalLateness += lateness;
+        maxLateness = Math.max(maxLateness, lateness);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the wall clock has moved on by more than SUSPEND_THRESHOLD_MILLIS further than the monotonic clock
+    //          since the last tick, takes the difference off the time left and returns true
+    private boolean detectSuspend(long now) {
+        long wall = wallClock.getAsLong();
+        long unseen = (wall - lastTickMillis) - TimeUnit.NANOSECONDS.toMillis(now - lastTickNanos);
+        lastTickNanos = now;
+        lastTickMillis = wall;
+        if (unseen > SUSPEND_THRESHOLD_MILLIS) {
+            deadline -= TimeUnit.MILLISECONDS.toNanos(unseen);
+            suspendedMillis += unseen;
+            return true;
+        }
+        return false;
+    }
+
+    // EFFECTS: returns whole seconds left at nanoTime now, rounded up, so the timer shows its full time when started
+    //          and reaches zero exactly when its time is up
+    private long secondsLeft(long now) {
+        long left = running ? Math.max(0, deadline - now) : remaining;
+        return (left + secondNanos() - 1) / secondNanos();
+    }
+
+    // EFFECTS: returns length of one second of this timer in nanoseconds
+    private long secondNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(updateDelay);
     }
 
     // MODIFIES: this
@@ -36,13 +175,17 @@ public class WorkTimer {
         listenerList.add(TimerListener.class, listener);
     }
 
-    // EFFECTS: fires a tick event to all TimerListeners
-    void fireTickEvent() {
+    // MODIFIES: this
+    // EFFECTS: fires this timer's tick event, set to given seconds left, to all TimerListeners
+    //          the event is only set if the timer has listeners, and is reused by the next tick
+    void fireTickEvent(long secondsLeft) {
         Object[] listeners = listenerList.getListenerList();
-        for (int i = 0; i < listeners.length; i++) {
+        if (listeners.length > 0) {
+            tickEvent.setSecondsLeft(secondsLeft);
+        }
+        for (int i = 0; i < listeners.length; i += 2) {
             if (listeners[i] == TimerListener.class) {
-                ((TimerListener) listeners[i + 1]).timerTick(
-                        new TimerEvent(this, hours, minutes, seconds, getTime()));
+                ((TimerListener) listeners[i + 1]).timerTick(tickEvent);
             }
         }
     }
@@ -58,77 +201,135 @@ public class WorkTimer {
     }
 
     //setters
-    public void setTime(int hours, int minutes) {
-        this.hours = hours;
-        this.minutes = minutes;
-        this.seconds = 0;
+    // MODIFIES: this
+    // EFFECTS: sets time left to given hours and minutes; if the timer is running, it keeps running from the new time
+    public synchronized void setTime(int hours, int minutes) {
+        boolean wasRunning = running;
+        cancelTimer();
+        remaining = (hours * 3600L + minutes * 60L) * secondNanos();
+        if (wasRunning) {
+            run();
+        }
     }
 
     //getters
     public int getHours() {
-        return hours;
+        return (int) (getSecondsLeft() / 3600);
     }
 
     public int getMinutes() {
-        return minutes;
+        return (int) (getSecondsLeft() / 60 % 60);
     }
 
     public int getSeconds() {
-        return seconds;
+        return (int) (getSecondsLeft() % 60);
+    }
+
+    // EFFECTS: returns whole seconds left on the timer, rounded up
+    public synchronized long getSecondsLeft() {
+        return secondsLeft(nanoClock.getAsLong());
     }
 
     // EFFECTS: returns time formatted as <hours>:<minutes>:<seconds>
     public String getTime() {
-        return String.format("%d:%02d:%02d", hours, minutes, seconds);
+        char[] time = new char[MAX_TIME_LENGTH];
+        return new String(time, 0, formatTime(getSecondsLeft(), time));
     }
 
-    // MODIFIES: this
-    // EFFECTS: cancels timer and fires timeUp event
-    private void timeUp() {
-        timer.cancel();
-        fireTimeUpEvent();
+    // REQUIRES: seconds >= 0, into.length >= MAX_TIME_LENGTH
+    // MODIFIES: into
+    // EFFECTS: writes given number of seconds into the start of into as <hours>:<minutes>:<seconds>, with two digit
+    //          minutes and seconds, and returns the number of characters written
+    static int formatTime(long seconds, char[] into) {
+        long hours = seconds / 3600;
+        int length = 1;
+        for (long h = hours; h >= 10; h /= 10) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            into[i] = (char) ('0' + hours % 10);
+            hours /= 10;
+        }
+        length = writeTwoDigits(seconds / 60 % 60, into, length);
+        return writeTwoDigits(seconds % 60, into, length);
+    }
+
+    // MODIFIES: into
+    // EFFECTS: writes a colon then value as two digits into into at index, and returns the index after them
+    private static int writeTwoDigits(long value, char[] into, int index) {
+        into[index] = ':';
+        into[index + 1] = (char) ('0' + value / 10);
+        into[index + 2] = (char) ('0' + value % 10);
+        return index + 3;
+    }
+
+    // EFFECTS: returns number of ticks this timer has run
+    public synchronized int getNumTicks() {
+        return numTicks;
+    }
+
+    // EFFECTS: returns the most milliseconds any tick has run after it was due
+    public synchronized double getMaxLatenessMillis() {
+        return maxLateness / 1e6;
+    }
+
+    // EFFECTS: returns the average milliseconds ticks have run after they were due, or 0 if none have run
+    public synchronized double getAverageLatenessMillis() {
+        return numTicks == 0 ? 0 : totalLateness / 1e6 / numTicks;
+    }
+
+    // EFFECTS: returns milliseconds the computer was found to be suspended while this timer was running, which were
+    //          taken off its time
+    public synchronized long getSuspendedMillis() {
+        return suspendedMillis;
     }
 
     // MODIFIES: this
-    // EFFECTS: cancels timer without event
-    public void cancelTimer() {
-        timer.cancel();
+    // EFFECTS: cancels timer without event, if it is running, keeping the time it has left
+    public synchronized void cancelTimer() {
+        if (running) {
+            remaining = Math.max(0, deadline - nanoClock.getAsLong());
+            running = false;
+        }
+        generation++;
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: adds to timer the given number of minutes
-    public void addTime(int minutes) {
-        this.minutes += minutes;
+    public synchronized void addTime(int minutes) {
+        long added = minutes * 60L * secondNanos();
+        if (running) {
+            deadline += added;
+        } else {
+            remaining += added;
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: for testing purposes only, changes update delay
-    public void setDelayForTesting(int milliseconds) {
+    // EFFECTS: for testing purposes only, changes update delay, which is how long one second of the timer lasts
+    public synchronized void setDelayForTesting(int milliseconds) {
+        remaining = remaining / updateDelay * milliseconds;
         updateDelay = milliseconds;
     }
 
-    private class Tick extends TimerTask {
-        // EFFECTS: ticks the timer down by 1 second and fires timerTick event
-        @Override
-        public void run() {
-            if (seconds == 0 && minutes == 0 && hours == 0) {
-                timeUp();
-            } else {
-                if (seconds == 0) {
-                    if (minutes == 0) {
-                        hours--;
-                        minutes = 59;
-                        seconds = 59;
-                    } else {
-                        minutes--;
-                        seconds = 59;
-                    }
-                } else {
-                    seconds--;
-                }
-            }
-
-            fireTickEvent();
+    // EFFECTS: for testing purposes only, runs the timer's next tick straight away on the calling thread
+    void tickForTesting() {
+        int current;
+        synchronized (this) {
+            current = generation;
         }
+        tick(current);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: for testing purposes only, replaces the monotonic clock in nanoseconds and the wall clock in
+    //          milliseconds which the timer is measured by
+    synchronized void setClocksForTesting(LongSupplier nanoClock, LongSupplier wallClock) {
+        this.nanoClock = nanoClock;
+        this.wallClock = wallClock;
     }
 }
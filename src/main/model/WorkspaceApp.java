@@ -3,123 +3,612 @@ package model;
 import model.exception.InvalidFormatException;
 import model.exception.NoBackupFoundException;
 import network.DatabaseTool;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
+import persistence.AutosaveService;
+import persistence.ChangeJournal;
+import persistence.ExternalChanges;
+import persistence.JsonCodec;
 import persistence.Reader;
+import persistence.SaveCodec;
+import persistence.SaveVersion;
+import persistence.SaveWatcher;
 import persistence.Saveable;
+import persistence.SegmentedStore;
+import persistence.SnapshotStore;
+import persistence.VersionDiff;
 import persistence.Writer;
 
+import javax.swing.event.EventListenerList;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 // represents the workspace app, containing a list of spaces
+// the workspace is changed by one thread, eg. the event dispatch thread, while saves may run on another; a save
+// writes snapshots of the spaces (see Space.snapshot), so it never sees a change half made and never holds up the
+// thread making changes for longer than it takes to take a snapshot
+// the spaces of a workspace share a resource pool, so a resource which is in several spaces is held once, and an
+// index of the spaces with each website link, so a link which is already in the workspace is found straight away
 public class WorkspaceApp implements Saveable {
+    public static final String WORKSPACE_DIRECTORY = "./data/workspace";
     public static final String WORKSPACE_FILE = "./data/spaces.json";
 
-    List<Space> spaces;
+    private NamedList<Space> spaces;
+    private final Object spacesLock = new Object();
+    private EventListenerList listenerList;
+    private ModelListener spaceListener;
+    private ChangeJournal journal;
+    private AutosaveService autosave;
+    private SaveWatcher watcher;
+    private SegmentedStore store;
+    private SnapshotStore history;
+    private boolean keepHistory;
+    private SaveCodec saveCodec;
+    private int recoveredChanges;
+    private ResourceValidator validator;
+    private SearchIndex searchIndex;
+    private UndoHistory undoHistory;
+    private ResourcePool resourcePool;
+    private LinkIndex linkIndex;
 
     // EFFECTS: creates a new workspace app with no spaces
     public WorkspaceApp() {
-        spaces = new ArrayList<>();
+        spaces = new NamedList<>(Space::getName);
+        listenerList = new EventListenerList();
+        spaceListener = this::fireModelEvent;
+        saveCodec = new JsonCodec();
+        validator = new ResourceValidator();
+        undoHistory = new UndoHistory(this);
+        addModelListener(undoHistory);
+        resourcePool = new ResourcePool();
+        linkIndex = new LinkIndex();
+        addModelListener(linkIndex);
     }
 
     // EFFECTS: returns list of names of all spaces
     public List<String> getAllSpaceNames() {
-        List<String> names = new ArrayList<>();
+        return spaces.names();
+    }
 
-        for (Space s : spaces) {
-            names.add(s.getName());
+    // EFFECTS: returns space with given name, if no such space exists, returns null
+    public Space getSpaceOfName(String name) {
+        return spaces.get(name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes space with given name from this workspace app
+    public void removeSpace(String name) {
+        int index = spaces.indexOf(name);
+        if (index >= 0) {
+            Space removed;
+            synchronized (spacesLock) {
+                removed = spaces.remove(index);
+            }
+            removed.setPool(null);
+            removed.removeModelListener(spaceListener);
+            fireModelEvent(new ModelEvent(this, ModelEvent.Type.SPACE_REMOVED, index, removed));
         }
+    }
 
-        return names;
+    // MODIFIES: this
+    // EFFECTS: adds given space to workspace app and returns true, or returns false and does nothing if workspace app
+    //          already has a space of the same name
+    public boolean addSpace(Space space) {
+        return addSpace(spaces.size(), space);
     }
 
-    // EFFECTS: returns space with given name, if no such space exists, returns null
-    public Space getSpaceOfName(String name) {
-        for (Space s : spaces) {
-            if (s.getName().equals(name)) {
-                return s;
+    // REQUIRES: 0 <= index <= # spaces
+    // MODIFIES: this
+    // EFFECTS: inserts given space at index of workspace app's spaces and returns true, or returns false and does
+    //          nothing if workspace app already has a space of the same name
+    public boolean addSpace(int index, Space space) {
+        synchronized (spacesLock) {
+            if (!spaces.add(index, space)) {
+                return false;
             }
         }
+        space.setPool(resourcePool);
+        space.addModelListener(spaceListener);
+        fireModelEvent(new ModelEvent(this, ModelEvent.Type.SPACE_ADDED, index, space));
+        return true;
+    }
 
-        return null;
+    // MODIFIES: this
+    // EFFECTS: returns up to SearchIndex.DEFAULT_LIMIT spaces, resources, and tasks matching query
+    public List<SearchResult> search(String query) {
+        return search(query, SearchIndex.DEFAULT_LIMIT);
     }
 
     // MODIFIES: this
-    // EFFECTS: removes space with given name from this workspace app
-    public void removeSpace(String name) {
-        spaces.remove(getSpaceOfName(name));
+    // EFFECTS: returns up to limit spaces, resources, and tasks matching query, as described in SearchIndex.search
+    //          the index is built by the first search, which loads every space, then kept up to date as this
+    //          workspace changes
+    public List<SearchResult> search(String query, int limit) {
+        return getSearchIndex().search(query, limit);
     }
 
-    // REQUIRES: space with this name is not already part of this workspace app
     // MODIFIES: this
-    // EFFECTS: adds given space to workspace app
-    public void addSpace(Space space) {
-        spaces.add(space);
+    // EFFECTS: returns up to limit spaces, resources, and tasks matching query, as search does, but without loading
+    //          any space, so it never waits on the disk; spaces which haven't been loaded yet are only found by name
+    //          until they are loaded, eg. by loadSpacesLater
+    public List<SearchResult> searchLoaded(String query, int limit) {
+        return getSearchIndex().searchLoaded(query, limit);
     }
 
-    // source for saving to JSON file: https://howtodoinjava.com/library/json-simple-read-write-json-examples/
-    @Override
-    public void save(PrintWriter writer) {
-        JSONArray spacesList = new JSONArray();
-        for (Space s : spaces) {
-            JSONObject spaceDetails = new JSONObject();
-            JSONArray resources = new JSONArray();
-            JSONArray tasks = s.getTodo().getListAsJson();
-
-            spaceDetails.put("name", s.getName());
-            for (Resource r : s.getResources()) {
-                JSONObject resourceDetails = new JSONObject();
-                resourceDetails.put("type", r.getResourceType().name());
-                resourceDetails.put("name", r.getName());
-                resourceDetails.put("path", r.getPath());
-                resources.add(resourceDetails);
+    // MODIFIES: this
+    // EFFECTS: returns search index of this workspace, building it if this is the first search
+    private SearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex();
+            searchIndex.setSpaces(spaces.asList());
+            addModelListener(searchIndex);
+        }
+        return searchIndex;
+    }
+
+    // EFFECTS: loads every space which hasn't been loaded yet on a background thread, then runs loaded on
+    //          dispatcher; returns straight away. a space which can't be loaded is left unloaded
+    public void loadSpacesLater(Consumer<Runnable> dispatcher, Runnable loaded) {
+        List<Space> toLoad = listSpaces();
+        Thread loader = new Thread(() -> {
+            for (Space s : toLoad) {
+                try {
+                    s.hydrate();
+                } catch (IOException | InvalidFormatException expected) {
+                    // the space stays unloaded, and reports the failure when it is opened
+                }
             }
+            dispatcher.accept(loaded);
+        }, "space-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener which is notified of every change to this workspace, its spaces, and their to-do lists
+    public void addModelListener(ModelListener listener) {
+        listenerList.add(ModelListener.class, listener);
+    }
 
-            spaceDetails.put("resources", resources);
-            spaceDetails.put("tasks", tasks);
-            spacesList.add(spaceDetails);
+    // MODIFIES: this
+    // EFFECTS: removes given listener from this workspace
+    public void removeModelListener(ModelListener listener) {
+        listenerList.remove(ModelListener.class, listener);
+    }
+
+    // EFFECTS: notifies all listeners of given event
+    private void fireModelEvent(ModelEvent event) {
+        Object[] listeners = listenerList.getListenerList();
+        for (int i = 0; i < listeners.length; i += 2) {
+            if (listeners[i] == ModelListener.class) {
+                ((ModelListener) listeners[i + 1]).modelChanged(event);
+            }
         }
+    }
 
-        String data = spacesList.toString();
-        writer.write(data);
+    // EFFECTS: writes a snapshot of every space, resource, and task to out in the format of this workspace's save
+    //          codec; throws IOException if out fails
+    @Override
+    public void save(OutputStream out) throws IOException {
+        saveCodec.encode(snapshotSpaces(), out);
+    }
+
+    // EFFECTS: returns snapshots of this workspace's spaces, see Space.snapshot, each as it was when it was taken
+    //          throws IllegalStateException if a space which hasn't been loaded yet can't be loaded
+    public List<Space> snapshotSpaces() {
+        List<Space> snapshots = new ArrayList<>();
+        for (Space s : listSpaces()) {
+            snapshots.add(s.snapshot());
+        }
+        return snapshots;
+    }
+
+    // EFFECTS: returns this workspace's spaces as they are now, in a list which later changes to them don't affect,
+    //          so that it can be read on another thread
+    private List<Space> listSpaces() {
+        synchronized (spacesLock) {
+            return spaces.snapshot().asList();
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: loads spaces from WORKSPACE_FILE, if that file exists;
+    // EFFECTS: loads spaces from given segmented save directory or single JSON file, if it exists, then replays any
+    //          changes recorded in its journal since it was last saved; stops journaling, autosaving, and watching for
+    //          changes until they are started again
     //          otherwise throws IOException if file does not exist, or InvalidFormatException
     public void loadSpaces(String filePath) throws IOException, InvalidFormatException {
-        List<Space> spaces = Reader.readSpaces(new File(filePath));
-        this.spaces = spaces;
+        List<Space> spaces;
+        SegmentedStore loadedStore = null;
+        if (SegmentedStore.isSegmented(filePath)) {
+            loadedStore = new SegmentedStore(new File(filePath));
+            spaces = loadedStore.load();
+        } else {
+            spaces = Reader.readSpaces(new File(filePath));
+            for (Space s : spaces) {
+                s.markClean();
+            }
+        }
+        stopJournal();
+        stopAutosave();
+        stopWatching();
+        store = loadedStore;
+        setSpaces(spaces);
+        recoveredChanges = ChangeJournal.replay(this, filePath);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks that the resources of every loaded space can still be found, in one concurrent batch with a
+    //          time limit on each path, and sets each resource's status; spaces which haven't been loaded yet are
+    //          checked when they are opened instead. returns number of resources which are missing or timed out
+    public int validateResources() {
+        return validator.validateSpaces(spaces.asList());
+    }
+
+    // MODIFIES: space
+    // EFFECTS: checks that the resources of given space can still be found and sets each resource's status
+    //          returns number of resources which are missing or timed out
+    public int validateResources(Space space) {
+        return validator.validate(space.getResources());
+    }
+
+    // MODIFIES: space
+    // EFFECTS: checks that the resources of given space can still be found on a background thread, setting each
+    //          resource's status, then runs validated on dispatcher with the number which are missing or timed out
+    public void validateResourcesLater(Space space, Consumer<Runnable> dispatcher, IntConsumer validated) {
+        validator.validateLater(space.getResources(), dispatcher, validated);
     }
 
     // EFFECTS: throws IOException if there is an error writing to file
-    //          saves state of all spaces in workspace to WORKSPACE_FILE
+    //          saves state of all spaces in workspace to WORKSPACE_DIRECTORY
     public void saveSpaces() throws IOException {
-        saveSpaces(WORKSPACE_FILE);
+        saveSpaces(WORKSPACE_DIRECTORY);
     }
 
     // EFFECTS: throws IOException if there is an error writing to file
-    //          saves state of all spaces in workspace to given file
-    public void saveSpaces(String file) throws IOException {
+    //          if file is a segmented save directory, rewrites only the spaces which changed since they were last
+    //          loaded from or saved to it; otherwise saves state of all spaces to given file
+    //          spaces are written in the format of this workspace's save codec
+    //          the previous save is replaced only once the new one has been completely written;
+    //          if the journal records changes to that file, moves the changes recorded so far aside before taking
+    //          snapshots and deletes them once the save is written, keeping any change made while it runs
+    //          saves are synchronized, so that an autosave and a save made by the user never overlap, and write
+    //          snapshots of the spaces, so that they can run on another thread while the spaces go on changing
+    //          if keeping history, records the save as a new version in the history of file
+    public synchronized void saveSpaces(String file) throws IOException {
+        ChangeJournal saving = journal != null && journal.isJournalFor(file) ? journal : null;
+        if (saving != null) {
+            saving.rotate();
+        }
+        boolean segmented = SegmentedStore.isSegmented(file);
+        List<Space> saved;
+        if (segmented) {
+            if (store == null || !store.isStoreFor(new File(file))) {
+                store = new SegmentedStore(new File(file));
+            }
+            saved = listSpaces();
+            store.save(saved, saveCodec);
+        } else {
+            saved = writeFile(file);
+        }
+
+        if (keepHistory) {
+            getHistory(file).snapshot(saved, segmented ? store : null);
+        }
+
+        if (saving != null) {
+            saving.rotationSaved();
+        }
+    }
+
+    // EFFECTS: returns every version in the save history of given file, oldest first
+    //          throws IOException if the history can't be read, or InvalidFormatException if it is not valid
+    public List<SaveVersion> listVersions(String file) throws IOException, InvalidFormatException {
+        return getHistory(file).listVersions();
+    }
+
+    // EFFECTS: returns the spaces added, removed, and changed between two versions in the save history of given
+    //          file, see VersionDiff; throws IOException if a version can't be read, or InvalidFormatException
+    public VersionDiff diffVersions(String file, int from, int to) throws IOException, InvalidFormatException {
+        return getHistory(file).diff(from, to);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces spaces with those of given version in the save history of given file and saves them to file,
+    //          so that the restore itself is recorded as the newest version and can be undone in turn
+    //          throws IOException if the version can't be read or saved, or InvalidFormatException if it is not valid
+    public synchronized void restoreVersion(String file, int version) throws IOException, InvalidFormatException {
+        setSpaces(getHistory(file).readSpaces(version));
+        saveSpaces(file);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns store holding the save history of given file
+    private SnapshotStore getHistory(String file) {
+        File directory = SnapshotStore.historyFor(file);
+        if (history == null || !history.isStoreFor(directory)) {
+            history = new SnapshotStore(directory);
+        }
+        return history;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves snapshots of all spaces to given single file, then marks spaces which didn't change meanwhile
+    //          clean; returns the snapshots saved
+    private List<Space> writeFile(String file) throws IOException {
+        List<Space> live = listSpaces();
+        hydrateSpaces(live);
+        List<Space> snapshots = new ArrayList<>(live.size());
+        for (Space s : live) {
+            snapshots.add(s.snapshot());
+        }
+
         Writer writer = new Writer(new File(file));
-        writer.write(this);
-        writer.close();
+        try {
+            writer.write(out -> saveCodec.encode(snapshots, out));
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+        for (int i = 0; i < live.size(); i++) {
+            live.get(i).markClean(snapshots.get(i).getVersion());
+        }
+        return snapshots;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies changes another program saved to given file since this workspace last loaded or saved it:
+    //          adds spaces which were added, replaces the resources and to-do list of spaces which changed, and
+    //          removes spaces which were removed, notifying listeners of each change as it is made; only spaces which
+    //          changed are read, and only if they are loaded or a segmented save was not used
+    //          changes to spaces with unsaved changes are not applied, and are listed as conflicts instead
+    //          returns the changes; throws IOException if file can't be read, or InvalidFormatException
+    public synchronized ExternalChanges reloadChanges(String file) throws IOException, InvalidFormatException {
+        if (!SegmentedStore.isSegmented(file)) {
+            return applyChanges(readFileChanges(file), null);
+        } else if (store != null && store.isStoreFor(new File(file))) {
+            return applyChanges(store.readChanges(), store);
+        }
+        return new ExternalChanges();
+    }
+
+    // EFFECTS: returns spaces in given single file save which differ from those in this workspace, and spaces in
+    //          this workspace with no unsaved changes which are no longer in the file
+    private ExternalChanges readFileChanges(String file) throws IOException, InvalidFormatException {
+        ExternalChanges changes = new ExternalChanges();
+        Set<String> names = new HashSet<>();
+        for (Space saved : Reader.readSpaces(new File(file))) {
+            names.add(saved.getName());
+            Space s = getSpaceOfName(saved.getName());
+            if (s == null || !s.isHydrated() || !Arrays.equals(encode(s), encode(saved))) {
+                changes.addUpdated(saved.getName(), () -> saved);
+            }
+        }
+        for (Space s : spaces) {
+            if (!names.contains(s.getName()) && !s.isDirty()) {
+                changes.addRemoved(s.getName());
+            }
+        }
+        return changes;
+    }
+
+    // MODIFIES: this, changedStore
+    // EFFECTS: applies changes to this workspace, recording spaces with unsaved changes as conflicts, and keeps track
+    //          of the segments of changed spaces in changedStore if it isn't null; returns changes
+    private ExternalChanges applyChanges(ExternalChanges changes, SegmentedStore changedStore)
+            throws IOException, InvalidFormatException {
+        for (String name : changes.getRemoved()) {
+            Space s = getSpaceOfName(name);
+            if (s != null && s.isDirty()) {
+                changes.addConflict(name);
+            } else if (s != null) {
+                removeSpace(name);
+                if (changedStore != null) {
+                    changedStore.forget(s);
+                }
+            }
+        }
+        for (Map.Entry<String, SpaceLoader> entry : changes.getUpdated().entrySet()) {
+            Space s = getSpaceOfName(entry.getKey());
+            if (s != null && s.isDirty()) {
+                changes.addConflict(entry.getKey());
+            } else {
+                applyUpdate(s, entry.getKey(), entry.getValue(), changedStore);
+            }
+        }
+        return changes;
+    }
+
+    // MODIFIES: this, space, changedStore
+    // EFFECTS: reloads given space from loader, or adds a space of given name loaded by loader if space is null,
+    //          and keeps track of its new segment in changedStore if it isn't null
+    private void applyUpdate(Space space, String name, SpaceLoader loader, SegmentedStore changedStore)
+            throws IOException, InvalidFormatException {
+        if (space == null) {
+            space = new Space(name, loader);
+            addSpace(space);
+        } else {
+            space.reload(loader);
+        }
+        if (changedStore != null) {
+            changedStore.adopt(space);
+        }
+    }
+
+    // EFFECTS: returns given space encoded as JSON
+    private static byte[] encode(Space space) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonCodec().encode(Collections.singletonList(space), out);
+        return out.toByteArray();
+    }
+
+    // MODIFIES: spaces
+    // EFFECTS: loads every given space which hasn't been loaded yet, throws IOException if one can't be loaded
+    private static void hydrateSpaces(List<Space> spaces) throws IOException {
+        for (Space s : spaces) {
+            try {
+                s.hydrate();
+            } catch (InvalidFormatException e) {
+                throw new IOException("Could not load space " + s.getName(), e);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: from now on, appends every change to the journal of given save file so that changes made since the
+    //          last save are not lost if the app is closed without saving
+    //          throws IOException if journal can't be opened
+    public void startJournal(String filePath) throws IOException {
+        stopJournal();
+        journal = new ChangeJournal(this, filePath);
+        addModelListener(journal);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording changes to the journal, if one is open
+    public void stopJournal() {
+        if (journal != null) {
+            removeModelListener(journal);
+            journal.close();
+            journal = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops journaling and deletes all changes recorded since the last save, so they won't be recovered
+    //          throws IOException if journal can't be cleared
+    public void discardJournal() throws IOException {
+        if (journal != null) {
+            ChangeJournal discarded = journal;
+            stopJournal();
+            discarded.discard();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: from now on, saves changes to given save file in the background shortly after they are made
+    //          see AutosaveService
+    public void startAutosave(String filePath) {
+        stopAutosave();
+        autosave = new AutosaveService(this, filePath);
+        addModelListener(autosave);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving changes in the background, if autosave is running; changes which haven't been saved
+    //          yet are left unsaved
+    public void stopAutosave() {
+        if (autosave != null) {
+            removeModelListener(autosave);
+            autosave.close();
+            autosave = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: from now on, watches given save file for changes made by another program and reloads them, see
+    //          SaveWatcher; throws IOException if file can't be watched
+    public void startWatching(String filePath, Consumer<Runnable> dispatcher, Consumer<ExternalChanges> listener)
+            throws IOException {
+        stopWatching();
+        watcher = new SaveWatcher(this, filePath, dispatcher, listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the save file for changes, if it is being watched
+    public void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
     }
 
     //getters
+    // EFFECTS: returns read-only list of this workspace's spaces, in the order they were added
     public List<Space> getSpaces() {
-        return spaces;
+        return spaces.asList();
+    }
+
+    // EFFECTS: returns history of the changes made to this workspace, which can undo and redo them
+    public UndoHistory getUndoHistory() {
+        return undoHistory;
+    }
+
+    public ResourcePool getResourcePool() {
+        return resourcePool;
+    }
+
+    public LinkIndex getLinkIndex() {
+        return linkIndex;
+    }
+
+    public boolean isJournaling() {
+        return journal != null;
+    }
+
+    public boolean isKeepingHistory() {
+        return keepHistory;
+    }
+
+    public boolean isWatching() {
+        return watcher != null;
+    }
+
+    public boolean isAutosaving() {
+        return autosave != null;
+    }
+
+    // EFFECTS: returns service saving this workspace in the background, or null if autosave isn't running
+    public AutosaveService getAutosave() {
+        return autosave;
+    }
+
+    // EFFECTS: returns number of unsaved changes recovered from journal by the last call to loadSpaces
+    public int getRecoveredChanges() {
+        return recoveredChanges;
+    }
+
+    public SaveCodec getSaveCodec() {
+        return saveCodec;
     }
 
     //setters
+    // MODIFIES: this
+    // EFFECTS: sets whether every save is recorded as a version in the save file's history
+    public void setKeepHistory(boolean keepHistory) {
+        this.keepHistory = keepHistory;
+    }
+
+    public void setSaveCodec(SaveCodec saveCodec) {
+        this.saveCodec = saveCodec;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces this workspace's spaces with given spaces; a space whose name is already taken by an earlier
+    //          one, eg. in a save made before names had to be unique, is renamed like "name (2)", so that it isn't lost
     public void setSpaces(List<Space> spaces) {
-        this.spaces = spaces;
+        for (Space s : this.spaces) {
+            s.setPool(null);
+            s.removeModelListener(spaceListener);
+        }
+        NamedList<Space> replacement = new NamedList<>(Space::getName, spaces, Space::renamed);
+        synchronized (spacesLock) {
+            this.spaces = replacement;
+        }
+        for (Space s : replacement) {
+            s.setPool(resourcePool);
+            s.addModelListener(spaceListener);
+        }
+        fireModelEvent(new ModelEvent(this, ModelEvent.Type.SPACES_REPLACED, -1, replacement.asList()));
     }
 }
@@ -5,34 +5,33 @@ import model.exception.InvalidFormatException;
 import model.exception.NoBackupFoundException;
 import org.json.simple.JSONArray;
 import org.json.simple.parser.ParseException;
-import persistence.Reader;
-import persistence.Writer;
+import persistence.ChangeJournal;
+import persistence.SegmentedStore;
 
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 
-import static model.WorkspaceApp.WORKSPACE_FILE;
+import static model.WorkspaceApp.WORKSPACE_DIRECTORY;
 
-// Backs up and restores data stored in WORKSPACE_FILE to online database
+// Backs up and restores data stored in WORKSPACE_DIRECTORY to online database
 public class DatabaseBackupManager {
 
     // EFFECTS: stores saved data in database, or displays error message if unable
     public static void backupData(Account account) throws SQLException, IOException, ParseException {
         DatabaseTool databaseTool = new DatabaseTool();
-        JSONArray data = Reader.readFile(new File(WORKSPACE_FILE));
+        JSONArray data = new SegmentedStore(new File(WORKSPACE_DIRECTORY)).readJson();
         databaseTool.backupData(account, data);
     }
 
     // MODIFIES: this
-    // EFFECTS: overwrites local save data with backed up data
+    // EFFECTS: overwrites local save data with backed up data, discarding changes journaled against the old data
     public static void restoreBackup(Account account) throws IOException, SQLException,
             NoBackupFoundException {
         DatabaseTool databaseTool = new DatabaseTool();
         JSONArray data = databaseTool.retrieveBackup(account);
 
-        Writer writer = new Writer(new File(WORKSPACE_FILE));
-        writer.write(data.toString());
-        writer.close();
+        new SegmentedStore(new File(WORKSPACE_DIRECTORY)).replace(data);
+        ChangeJournal.delete(WORKSPACE_DIRECTORY);
     }
 }
@@ -7,8 +7,12 @@ import model.exception.UsernameAlreadyExistsException;
 import org.json.simple.JSONArray;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import persistence.GzipCodec;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.Base64;
 
 public class DatabaseTool {
     private static final String SQL_URL = "jdbc:mysql://34.95.8.137:3306/workspace";
@@ -21,9 +25,11 @@ public class DatabaseTool {
     private static final String BACKUPS_TABLE = "backups";
     private static final String BACKUPS_ID_COLUMN = "userid";
     private static final String BACKUPS_DATA_COLUMN = "json_backup";
+    private static final String COMPRESSED_PREFIX = "gzip:";
     Connection connection;
     Statement statement;
     ResultSet resultSet;
+    private int compressionLevel = GzipCodec.DEFAULT_LEVEL;
 
     // EFFECTS: creates connection to google cloud sql server instance
     //          throws SQLException if connection fails
@@ -90,8 +96,7 @@ public class DatabaseTool {
             backupAlreadyExists = false;
         }
 
-        String dataString = data.toString().replace("\\/", "/");
-        dataString = dataString.replace("'", "\\'");
+        String dataString = encodeBackup(data, compressionLevel);
 
         if (backupAlreadyExists) {
             statement.execute("UPDATE " + BACKUPS_TABLE + " SET " + BACKUPS_DATA_COLUMN + " = '"
@@ -117,20 +122,51 @@ public class DatabaseTool {
                 + BACKUPS_ID_COLUMN + " in(" + account.getId() + ")");
 
         if (resultSet.next()) {
-            JSONParser jsonParser = new JSONParser();
-            String result = resultSet.getString(BACKUPS_DATA_COLUMN);
-            JSONArray jsonArray = null;
-            try {
-                jsonArray = (JSONArray) jsonParser.parse(result);
-            } catch (ParseException e) {
-                throw new NoBackupFoundException();
-            }
-            return jsonArray;
+            return decodeBackup(resultSet.getString(BACKUPS_DATA_COLUMN));
         } else {
             throw new NoBackupFoundException();
         }
     }
 
+    // REQUIRES: level is GzipCodec.DEFAULT_LEVEL, or 0 <= level <= 9
+    // MODIFIES: this
+    // EFFECTS: sets how much backups are compressed before being sent to the database; 0 stores them as plain JSON
+    public void setCompressionLevel(int level) {
+        compressionLevel = level;
+    }
+
+    // EFFECTS: returns data as text to be stored in the backups table, quoted for use in an SQL string
+    //          unless level is 0, the JSON is compressed and stored as base 64 after COMPRESSED_PREFIX, since save data
+    //          repeats the same keys and URLs many times over and is sent over the network on every backup
+    static String encodeBackup(JSONArray data, int level) {
+        String json = data.toString().replace("\\/", "/");
+        if (level == 0) {
+            return json.replace("'", "\\'");
+        }
+
+        try {
+            byte[] compressed = GzipCodec.compress(json.getBytes(StandardCharsets.UTF_8), level);
+            return COMPRESSED_PREFIX + Base64.getEncoder().encodeToString(compressed);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not compress backup", e);
+        }
+    }
+
+    // EFFECTS: returns JSON array stored in backup, which may be plain JSON or compressed by encodeBackup
+    //          throws NoBackupFoundException if backup is not valid
+    static JSONArray decodeBackup(String backup) throws NoBackupFoundException {
+        try {
+            String json = backup;
+            if (backup.startsWith(COMPRESSED_PREFIX)) {
+                byte[] compressed = Base64.getDecoder().decode(backup.substring(COMPRESSED_PREFIX.length()));
+                json = new String(GzipCodec.decompress(compressed), StandardCharsets.UTF_8);
+            }
+            return (JSONArray) new JSONParser().parse(json);
+        } catch (ParseException | IOException | IllegalArgumentException | ClassCastException e) {
+            throw new NoBackupFoundException();
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: closes database connection
     //          note: use this when done with database connection
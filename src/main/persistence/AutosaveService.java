@@ -0,0 +1,204 @@
+package persistence;
+
+import model.ModelEvent;
+import model.ModelListener;
+import model.WorkspaceApp;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Saves a workspace on a background thread shortly after it changes, so that work is kept without the user having
+// to save, and the thread making the changes never waits on the disk
+// changes made within the debounce window of each other are saved together, but a save is never put off for longer
+// than the maximum delay after the first unsaved change, so a steady stream of edits is still saved regularly
+// saves write snapshots of the spaces, so changes made while a save is running don't disturb it and are saved next
+// a save which fails, eg. because the disk is full, is retried after the debounce window; every save runs on the same
+// thread, so saves never overlap
+public class AutosaveService implements ModelListener {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 2000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+
+    private WorkspaceApp workspace;
+    private String savePath;
+    private long debounceNanos;
+    private long maxDelayNanos;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> pending;
+    private boolean unsaved;
+    private long firstUnsavedChange;
+
+    private long saveCount;
+    private long failedSaveCount;
+    private long lastSaveLag;
+    private long maxSaveLag;
+    private long lastSaveDuration;
+    private long totalSaveDuration;
+    private Exception lastError;
+
+    // EFFECTS: creates service which saves workspace to savePath with the default debounce window and maximum delay
+    public AutosaveService(WorkspaceApp workspace, String savePath) {
+        this(workspace, savePath, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    // REQUIRES: 0 <= debounceMillis <= maxDelayMillis
+    // EFFECTS: creates service which saves workspace to savePath once it has gone debounceMillis without changing,
+    //          or maxDelayMillis after its first unsaved change, whichever is sooner
+    public AutosaveService(WorkspaceApp workspace, String savePath, long debounceMillis, long maxDelayMillis) {
+        this.workspace = workspace;
+        this.savePath = savePath;
+        debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules a save for when the debounce window after this change ends, replacing any save already
+    //          scheduled, but no later than the maximum delay after the first unsaved change
+    @Override
+    public synchronized void modelChanged(ModelEvent e) {
+        long now = System.nanoTime();
+        if (!unsaved) {
+            unsaved = true;
+            firstUnsavedChange = now;
+        }
+        schedule(Math.min(debounceNanos, firstUnsavedChange + maxDelayNanos - now));
+    }
+
+    // REQUIRES: this service has not been closed
+    // MODIFIES: this
+    // EFFECTS: saves any unsaved changes straight away and waits for the save to finish
+    //          throws IOException if the save failed
+    public void flush() throws IOException {
+        try {
+            executor.submit(this::save).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Autosave failed", e.getCause());
+        }
+        synchronized (this) {
+            if (unsaved && lastError != null) {
+                throw new IOException("Autosave failed", lastError);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels any scheduled save and stops the service once a save already running has finished;
+    //          changes which haven't been saved yet are not saved
+    public void close() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules a save after delay, replacing any save already scheduled
+    private void schedule(long delayNanos) {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        if (!executor.isShutdown()) {
+            pending = executor.schedule(this::save, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves workspace if it has unsaved changes and records how long the save took and how long the
+    //          oldest change waited to be saved; if it fails, keeps the changes unsaved and retries later
+    private void save() {
+        long changedAt;
+        synchronized (this) {
+            if (!unsaved) {
+                return;
+            }
+            changedAt = firstUnsavedChange;
+            unsaved = false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            workspace.saveSpaces(savePath);
+            recordSave(changedAt, start);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(changedAt, e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a save which started at start and saved changes made since changedAt
+    private synchronized void recordSave(long changedAt, long start) {
+        long end = System.nanoTime();
+        saveCount++;
+        lastSaveDuration = end - start;
+        totalSaveDuration += lastSaveDuration;
+        lastSaveLag = end - changedAt;
+        maxSaveLag = Math.max(maxSaveLag, lastSaveLag);
+        lastError = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a failed save of changes made since changedAt and schedules another attempt
+    private synchronized void recordFailure(long changedAt, Exception e) {
+        failedSaveCount++;
+        lastError = e;
+        if (!unsaved || changedAt < firstUnsavedChange) {
+            firstUnsavedChange = changedAt;
+        }
+        unsaved = true;
+        schedule(debounceNanos);
+    }
+
+    //getters
+    public synchronized boolean hasUnsavedChanges() {
+        return unsaved;
+    }
+
+    public synchronized long getSaveCount() {
+        return saveCount;
+    }
+
+    public synchronized long getFailedSaveCount() {
+        return failedSaveCount;
+    }
+
+    // EFFECTS: returns time from the oldest change saved by the last save to the end of that save, in milliseconds
+    public synchronized long getLastSaveLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastSaveLag);
+    }
+
+    // EFFECTS: returns longest time any change has waited to be saved so far, in milliseconds
+    public synchronized long getMaxSaveLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxSaveLag);
+    }
+
+    public synchronized long getLastSaveDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastSaveDuration);
+    }
+
+    // EFFECTS: returns average time taken by successful saves so far in milliseconds, or 0 if there were none
+    public synchronized double getAverageSaveDurationMillis() {
+        return saveCount == 0 ? 0 : totalSaveDuration / 1e6 / saveCount;
+    }
+
+    // EFFECTS: returns exception thrown by the last save if it failed, otherwise null
+    public synchronized Exception getLastError() {
+        return lastError;
+    }
+}
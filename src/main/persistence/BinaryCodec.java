@@ -0,0 +1,72 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Saves spaces in a compact binary format, which starts with a magic header so it can be told apart from JSON
+// all counts and lengths are varints, resource types are single byte tags, and every string is written once and
+// referred to by its index in a string table afterwards; paths are split after their last separator so that
+// resources sharing a folder or URL prefix share that prefix in the table
+public class BinaryCodec implements SaveCodec {
+    public static final String FILE_EXTENSION = ".wsb";
+    static final byte[] MAGIC = {'W', 'S', 'B', 1};
+    private static final int READ_CHUNK = 8192;
+
+    @Override
+    public String getFileExtension() {
+        return FILE_EXTENSION;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes magic header followed by spaces to out
+    @Override
+    public void encode(List<Space> spaces, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+        buffered.write(MAGIC);
+        new BinarySpaceWriter(buffered).writeSpaces(spaces);
+        buffered.flush();
+    }
+
+    // EFFECTS: checks magic header, then reads spaces passing each one to consumer once it has been read
+    @Override
+    public void decode(InputStream in, Consumer<Space> consumer) throws IOException, InvalidFormatException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        if (!hasMagic(readUpTo(buffered, MAGIC.length))) {
+            throw new InvalidFormatException();
+        }
+        new BinarySpaceReader(buffered).readSpaces(consumer);
+    }
+
+    // EFFECTS: returns true if header starts with the magic bytes of this format
+    static boolean hasMagic(byte[] header) {
+        return header.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }
+
+    // REQUIRES: length >= 0
+    // EFFECTS: reads up to length bytes from in and returns them, returning fewer if in ends first
+    //          the array grows as bytes arrive, so a corrupt length doesn't allocate more than in holds
+    static byte[] readUpTo(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[Math.min(length, READ_CHUNK)];
+        int read = 0;
+        while (read < length) {
+            if (read == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int n = in.read(bytes, read, bytes.length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        return read == bytes.length ? bytes : Arrays.copyOf(bytes, read);
+    }
+}
@@ -0,0 +1,149 @@
+package persistence;
+
+import model.Resource;
+import model.Space;
+import model.ToDoList;
+import model.exception.InvalidFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static persistence.BinarySpaceWriter.FIRST_TABLE_INDEX;
+import static persistence.BinarySpaceWriter.NEW_STRING;
+import static persistence.BinarySpaceWriter.NULL_STRING;
+import static persistence.BinarySpaceWriter.REPEATED_RESOURCE;
+
+// Reads spaces in the binary save format, rebuilding the string table as new strings are read
+// every resource read is kept, so that a resource which is repeated, eg. in another space, is the same object
+class BinarySpaceReader {
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final Resource.ResourceType[] TYPES = Resource.ResourceType.values();
+
+    private InputStream in;
+    private List<String> table;
+    private List<Resource> resources;
+
+    // EFFECTS: creates reader which reads from in, starting with an empty string table
+    BinarySpaceReader(InputStream in) {
+        this.in = in;
+        table = new ArrayList<>();
+        resources = new ArrayList<>();
+    }
+
+    // EFFECTS: reads number of spaces followed by each space, passing each one to consumer once it has been read
+    //          throws InvalidFormatException if data is truncated, invalid, or followed by anything else
+    void readSpaces(Consumer<Space> consumer) throws IOException, InvalidFormatException {
+        int numSpaces = readVarint();
+        for (int i = 0; i < numSpaces; i++) {
+            consumer.accept(readSpace());
+        }
+        if (in.read() != -1) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // EFFECTS: reads space name, then its resources and tasks
+    private Space readSpace() throws IOException, InvalidFormatException {
+        Space space = new Space(readString());
+        int numResources = readVarint();
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < numResources; i++) {
+            resources.add(readResource());
+        }
+
+        int numTasks = readVarint();
+        ToDoList todo = new ToDoList();
+        for (int i = 0; i < numTasks; i++) {
+            int complete = readByte();
+            if (complete > 1) {
+                throw new InvalidFormatException();
+            }
+            todo.addTask(readString(), complete == 1);
+        }
+
+        space.setResources(resources);
+        space.setTodo(todo);
+        return space;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads resource type tag, name, and path and returns resource, or reads a reference to a resource read
+    //          before and returns that resource
+    //          throws InvalidFormatException if type is unknown, path is not valid for type, or reference is not to a
+    //          resource read before
+    private Resource readResource() throws IOException, InvalidFormatException {
+        int tag = readByte();
+        if (tag == REPEATED_RESOURCE) {
+            int index = readVarint();
+            if (index >= resources.size()) {
+                throw new InvalidFormatException();
+            }
+            return resources.get(index);
+        } else if (tag > REPEATED_RESOURCE) {
+            throw new InvalidFormatException();
+        }
+        String name = readString();
+        String prefix = readString();
+        String path = prefix == null ? null : prefix + readString();
+
+        try {
+            resources.add(Reader.createResource(TYPES[tag].name(), name, path));
+        } catch (Exception e) {
+            throw new InvalidFormatException();
+        }
+        return resources.get(resources.size() - 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a new string and adds it to the string table, or looks up a string already in the table
+    private String readString() throws IOException, InvalidFormatException {
+        int reference = readVarint();
+        if (reference == NULL_STRING) {
+            return null;
+        } else if (reference == NEW_STRING) {
+            int length = readVarint();
+            if (length < 0) {
+                throw new InvalidFormatException();
+            }
+            byte[] bytes = BinaryCodec.readUpTo(in, length);
+            if (bytes.length < length) {
+                throw new InvalidFormatException();
+            }
+            String string = new String(bytes, StandardCharsets.UTF_8);
+            table.add(string);
+            return string;
+        } else if (reference - FIRST_TABLE_INDEX < table.size()) {
+            return table.get(reference - FIRST_TABLE_INDEX);
+        }
+        throw new InvalidFormatException();
+    }
+
+    // EFFECTS: reads a non-negative int written 7 bits at a time, lowest bits first
+    private int readVarint() throws IOException, InvalidFormatException {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+            int b = readByte();
+            value |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new InvalidFormatException();
+                }
+                return value;
+            }
+        }
+        throw new InvalidFormatException();
+    }
+
+    // EFFECTS: returns next byte, throws InvalidFormatException if there is none
+    private int readByte() throws IOException, InvalidFormatException {
+        int b = in.read();
+        if (b < 0) {
+            throw new InvalidFormatException();
+        }
+        return b;
+    }
+}
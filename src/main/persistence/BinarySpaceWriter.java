@@ -0,0 +1,123 @@
+package persistence;
+
+import model.Resource;
+import model.ResourcePool;
+import model.Space;
+import model.ToDoList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes spaces in the binary save format, adding every new string to the string table as it is written
+// a resource which is the same as one already written, eg. in another space, is written as a reference to it, so
+// that it is only written once and is shared by the spaces it is in when read
+class BinarySpaceWriter {
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+    static final int FIRST_TABLE_INDEX = 2;
+    static final int REPEATED_RESOURCE = Resource.ResourceType.values().length;
+
+    private OutputStream out;
+    private Map<String, Integer> table;
+    private ResourcePool pool;
+    private Map<Resource, Integer> written;
+
+    // EFFECTS: creates writer which writes to out, starting with an empty string table
+    BinarySpaceWriter(OutputStream out) {
+        this.out = out;
+        table = new HashMap<>();
+        pool = new ResourcePool();
+        written = new IdentityHashMap<>();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes number of spaces followed by each space
+    void writeSpaces(List<Space> spaces) throws IOException {
+        writeVarint(spaces.size());
+        for (Space s : spaces) {
+            writeSpace(s);
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes space name, then its resources and tasks, each preceded by their count
+    private void writeSpace(Space space) throws IOException {
+        writeString(space.getName());
+        writeVarint(space.numResources());
+        for (Resource r : space.getResources()) {
+            writeResource(r);
+        }
+        ToDoList todo = space.getTodo();
+        writeVarint(todo.getNumToDos());
+        for (int i = 0; i < todo.getNumToDos(); i++) {
+            out.write(todo.isComplete(i) ? 1 : 0);
+            writeString(todo.getDescription(i));
+        }
+    }
+
+    // MODIFIES: this, out
+    // EFFECTS: writes a reference to the resource written before which is the same as r if there is one, otherwise
+    //          writes r's type tag, name, and path
+    private void writeResource(Resource r) throws IOException {
+        Resource pooled = pool.intern(r);
+        Integer index = written.get(pooled);
+        if (index != null) {
+            out.write(REPEATED_RESOURCE);
+            writeVarint(index);
+            return;
+        }
+        written.put(pooled, written.size());
+        out.write(r.getResourceType().ordinal());
+        writeString(r.getName());
+        writePath(r.getPath());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes path as two strings, split after its last separator, or a single null string if path is null
+    private void writePath(String path) throws IOException {
+        if (path == null) {
+            writeString(null);
+            return;
+        }
+        int split = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+        writeString(path.substring(0, split));
+        writeString(path.substring(split));
+    }
+
+    // MODIFIES: this, out
+    // EFFECTS: writes a reference to string if it is already in the string table,
+    //          otherwise writes it as UTF-8 preceded by its length and adds it to the table
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarint(NULL_STRING);
+            return;
+        }
+
+        Integer index = table.get(string);
+        if (index != null) {
+            writeVarint(FIRST_TABLE_INDEX + index);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(NEW_STRING);
+            writeVarint(bytes.length);
+            out.write(bytes);
+            table.put(string, table.size());
+        }
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: out
+    // EFFECTS: writes value 7 bits at a time, lowest bits first, setting the high bit of every byte but the last
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
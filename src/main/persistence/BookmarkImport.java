@@ -0,0 +1,285 @@
+package persistence;
+
+import model.Resource;
+import model.Space;
+import model.UndoHistory;
+import model.WebsiteLink;
+import model.WorkspaceApp;
+import model.exception.InvalidFormatException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Bookmarks imported from a browser's bookmark export, a CSV file, or a Markdown list of links (see BookmarkParser),
+// as website links grouped by the space they will be added to, one for each bookmark folder
+// the file is read one bookmark at a time, and each chunk of CHUNK_SIZE bookmarks is validated on a fork/join pool as
+// soon as it has been read, so checking links overlaps with reading the rest of the file; bookmarks keep the order
+// they have in the file. validated chunks are collected while the file is still being read, so progress is reported
+// as the import goes, and reading waits for validation rather than queueing more chunks than the pool can check
+// reading an import doesn't touch the workspace, so it can run on any thread; only addTo changes the workspace
+public class BookmarkImport {
+    public static final int CHUNK_SIZE = 512;
+    private static final Pattern SCHEME = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]*):(?![0-9])");
+
+    // notified as bookmarks are validated
+    public interface Progress {
+        // EFFECTS: called after each chunk of bookmarks is validated, with the number of bookmarks validated so far
+        //          and the number read from the file so far
+        void progress(int validated, int total);
+
+        // EFFECTS: returns true if the import should stop, eg. because the user cancelled it
+        default boolean isCanceled() {
+            return false;
+        }
+    }
+
+    private ForkJoinPool pool;
+    private Progress progress;
+    private List<BookmarkParser.Bookmark> chunk;
+    private List<List<BookmarkParser.Bookmark>> chunks;
+    private List<ForkJoinTask<WebsiteLink[]>> checks;
+    private Map<String, List<WebsiteLink>> folders;
+    private int numBookmarks;
+    private int numValidated;
+    private int numInvalid;
+    private int numDuplicates;
+
+    // EFFECTS: creates an empty import which validates bookmarks on pool, notifying progress
+    private BookmarkImport(Progress progress, ForkJoinPool pool) {
+        this.progress = progress;
+        this.pool = pool;
+        chunk = new ArrayList<>();
+        chunks = new ArrayList<>();
+        checks = new ArrayList<>();
+        folders = new LinkedHashMap<>();
+    }
+
+    // EFFECTS: reads bookmarks from file, validating them on the common fork/join pool, see below
+    public static BookmarkImport read(File file, String defaultFolder, Progress progress) throws IOException {
+        return read(file, defaultFolder, progress, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: reads bookmarks from file in the format its extension names (.csv, .md, or HTML for anything else),
+    //          putting bookmarks which aren't in a folder in defaultFolder, and validates them on pool, notifying
+    //          progress on this thread as each chunk is validated, while the rest of the file is read
+    //          bookmarks which aren't valid http(s) links are counted but not imported
+    //          throws IOException if file can't be read
+    //          throws CancellationException if progress is cancelled before every bookmark has been validated
+    public static BookmarkImport read(File file, String defaultFolder, Progress progress, ForkJoinPool pool)
+            throws IOException {
+        BookmarkImport bookmarks = new BookmarkImport(progress, pool);
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            new BookmarkParser(in, defaultFolder, bookmarks::add).read(BookmarkParser.Format.forFile(file));
+            bookmarks.submitChunk();
+            bookmarks.collect(0);
+        } catch (IOException | RuntimeException e) {
+            bookmarks.cancel();
+            throw e;
+        }
+        return bookmarks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds bookmark to the chunk being read, and starts validating the chunk once it is full, first
+    //          collecting any chunks already validated and waiting for one if the pool has as many as it can check
+    //          throws CancellationException if progress has been cancelled
+    private void add(BookmarkParser.Bookmark bookmark) {
+        chunk.add(bookmark);
+        numBookmarks++;
+        if (chunk.size() == CHUNK_SIZE) {
+            collect(pool.getParallelism() - 1);
+            submitChunk();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts validating the chunk being read on pool, if it has any bookmarks, and starts a new one
+    private void submitChunk() {
+        if (!chunk.isEmpty()) {
+            List<BookmarkParser.Bookmark> submitted = chunk;
+            chunks.add(submitted);
+            checks.add(pool.submit(() -> validate(submitted)));
+            chunk = new ArrayList<>();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: groups the links of validated chunks by folder in the order the chunks were read, notifying progress
+    //          after each one, while more than maxPending chunks are being validated or the oldest of them is done,
+    //          waiting for it if need be
+    //          throws CancellationException if progress has been cancelled
+    private void collect(int maxPending) {
+        checkCanceled();
+        while (!checks.isEmpty() && (checks.size() > maxPending || checks.get(0).isDone())) {
+            List<BookmarkParser.Bookmark> bookmarks = chunks.remove(0);
+            WebsiteLink[] links = checks.remove(0).join();
+            for (int j = 0; j < links.length; j++) {
+                if (links[j] == null) {
+                    numInvalid++;
+                } else {
+                    folders.computeIfAbsent(bookmarks.get(j).folder, k -> new ArrayList<>()).add(links[j]);
+                }
+            }
+            numValidated += links.length;
+            progress.progress(numValidated, numBookmarks);
+            checkCanceled();
+        }
+    }
+
+    // EFFECTS: throws CancellationException if progress has been cancelled
+    private void checkCanceled() {
+        if (progress.isCanceled()) {
+            throw new CancellationException();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops validating chunks which haven't been collected
+    private void cancel() {
+        for (ForkJoinTask<WebsiteLink[]> check : checks) {
+            check.cancel(true);
+        }
+        chunks.clear();
+        checks.clear();
+    }
+
+    // EFFECTS: returns a website link for each bookmark, named by its title or by its url if it has none, or null
+    //          for a bookmark which isn't a valid http(s) link
+    private static WebsiteLink[] validate(List<BookmarkParser.Bookmark> bookmarks) {
+        WebsiteLink[] links = new WebsiteLink[bookmarks.size()];
+        for (int i = 0; i < links.length; i++) {
+            BookmarkParser.Bookmark bookmark = bookmarks.get(i);
+            boolean untitled = bookmark.title == null || bookmark.title.isEmpty();
+            try {
+                if (isWebUrl(bookmark.url)) {
+                    links[i] = new WebsiteLink(untitled ? bookmark.url : bookmark.title, bookmark.url);
+                }
+            } catch (MalformedURLException expected) {
+                // an invalid bookmark is left out of the import
+            }
+        }
+        return links;
+    }
+
+    // EFFECTS: returns true if url is an http(s) url or has no scheme, so that a website link can be made of it
+    static boolean isWebUrl(String url) {
+        Matcher matcher = SCHEME.matcher(url);
+        return !matcher.find() || matcher.group(1).equalsIgnoreCase("http")
+                || matcher.group(1).equalsIgnoreCase("https");
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: adds the links of each folder to the space of the same name, creating it if workspace doesn't have
+    //          one; a link already in the space is skipped, and a link whose name is taken is numbered, eg. "Home (2)"
+    //          the whole import is undone as one edit; returns number of links added
+    //          throws IOException or InvalidFormatException if an existing space can't be loaded
+    public int addTo(WorkspaceApp workspace) throws IOException, InvalidFormatException {
+        UndoHistory history = workspace.getUndoHistory();
+        history.beginEdit();
+        try {
+            int added = 0;
+            for (Map.Entry<String, List<WebsiteLink>> folder : folders.entrySet()) {
+                added += addFolder(workspace, folder.getKey(), folder.getValue());
+            }
+            return added;
+        } finally {
+            history.endEdit();
+        }
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: adds links which the space of given name doesn't already have to it, creating the space if it has any
+    //          and workspace doesn't have one; returns number of links added
+    private int addFolder(WorkspaceApp workspace, String name, List<WebsiteLink> links)
+            throws IOException, InvalidFormatException {
+        Space space = workspace.getSpaceOfName(name);
+        boolean isNew = space == null;
+        if (isNew) {
+            space = new Space(name);
+        } else {
+            space.hydrate();
+        }
+        List<Resource> added = newLinks(space, links);
+        if (isNew && !added.isEmpty()) {
+            space.setResources(added);
+            workspace.addSpace(space);
+        } else if (!isNew) {
+            for (Resource r : added) {
+                space.addResource(r);
+            }
+        }
+        return added.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns links whose url isn't already in space or earlier in links, renamed if their name is taken
+    private List<Resource> newLinks(Space space, List<WebsiteLink> links) throws MalformedURLException {
+        Set<URI> urls = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Resource r : space.getResources()) {
+            names.add(r.getName());
+            if (r instanceof WebsiteLink) {
+                urls.add(((WebsiteLink) r).getUri());
+            }
+        }
+        List<Resource> added = new ArrayList<>();
+        for (WebsiteLink link : links) {
+            if (urls.add(link.getUri())) {
+                added.add(uniquelyNamed(link, names));
+            } else {
+                numDuplicates++;
+            }
+        }
+        return added;
+    }
+
+    // MODIFIES: names
+    // EFFECTS: returns link, or a copy of it numbered so its name isn't in names, and adds the name to names
+    private static WebsiteLink uniquelyNamed(WebsiteLink link, Set<String> names) throws MalformedURLException {
+        String name = link.getName();
+        for (int i = 2; !names.add(name); i++) {
+            name = link.getName() + " (" + i + ")";
+        }
+        return name.equals(link.getName()) ? link : new WebsiteLink(name, link.getPath());
+    }
+
+    // EFFECTS: returns links to import grouped by the name of the space they will be added to, in the order their
+    //          folders appear in the file
+    public Map<String, List<WebsiteLink>> getFolders() {
+        return Collections.unmodifiableMap(folders);
+    }
+
+    // EFFECTS: returns number of bookmarks read from the file
+    public int getNumBookmarks() {
+        return numBookmarks;
+    }
+
+    // EFFECTS: returns number of bookmarks which weren't valid http(s) links
+    public int getNumInvalid() {
+        return numInvalid;
+    }
+
+    // EFFECTS: returns number of links skipped by addTo because their space already had them
+    public int getNumDuplicates() {
+        return numDuplicates;
+    }
+}
@@ -0,0 +1,310 @@
+package persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reads bookmarks one at a time from a browser's bookmark export, a CSV file, or a Markdown list of links, passing
+// each one to a consumer as soon as it has been read, without holding the file in memory
+// HTML (the Netscape bookmark format every browser exports): each <A HREF> is a bookmark in the folder named by the
+//     <H3> heading before the <DL> list containing it
+// CSV: each row is a title, URL, and optionally a folder; a header row with a "url" column can put them in any order
+// Markdown: each [title](url), <url>, or bare http(s) URL (less any punctuation after it) is a bookmark in the folder
+//     named by the heading before it
+// bookmarks which aren't in a folder are put in the default folder
+class BookmarkParser {
+    private static final Pattern ATTRIBUTE = Pattern.compile("\\s([a-zA-Z-]+)\\s*=\\s*(\"[^\"]*\"|'[^']*'|[^\\s>]+)");
+    private static final Pattern ENTITY = Pattern.compile("&(#[0-9]+|#[xX][0-9a-fA-F]+|[a-zA-Z]+);");
+    private static final Pattern MARKDOWN_LINK = Pattern.compile(
+            "\\[([^\\]]*)\\]\\(\\s*<?([^)\\s>]+)>?(?:\\s+\"[^\"]*\")?\\s*\\)|<(https?://[^>\\s]+)>"
+                    + "|(?<![(<\\w])(https?://[^\\s)>\\]]*[^\\s)>\\].,;:!?'\"])");
+    private static final String[] TITLE_COLUMNS = {"title", "name"};
+    private static final String[] URL_COLUMNS = {"url", "link", "href"};
+    private static final String[] FOLDER_COLUMNS = {"folder", "space"};
+
+    // the formats bookmarks can be read from
+    enum Format {
+        HTML, CSV, MARKDOWN;
+
+        // EFFECTS: returns format of file judging by its extension; files which aren't CSV or Markdown are HTML
+        static Format forFile(File file) {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            return name.endsWith(".md") || name.endsWith(".markdown") ? MARKDOWN : HTML;
+        }
+    }
+
+    // a bookmark's folder, title, and URL as they are written in the file
+    static class Bookmark {
+        final String folder;
+        final String title;
+        final String url;
+
+        Bookmark(String folder, String title, String url) {
+            this.folder = folder;
+            this.title = title;
+            this.url = url;
+        }
+    }
+
+    private BufferedReader in;
+    private String defaultFolder;
+    private Consumer<Bookmark> consumer;
+    private Deque<String> folders;
+    private String heading;
+    private String href;
+    private StringBuilder text;
+
+    // EFFECTS: creates parser which reads bookmarks from in and passes them to consumer, putting bookmarks which
+    //          aren't in a folder in defaultFolder
+    BookmarkParser(BufferedReader in, String defaultFolder, Consumer<Bookmark> consumer) {
+        this.in = in;
+        this.defaultFolder = defaultFolder;
+        this.consumer = consumer;
+    }
+
+    // EFFECTS: reads every bookmark in the given format, throws IOException if in can't be read
+    void read(Format format) throws IOException {
+        if (format == Format.CSV) {
+            readCsv();
+        } else if (format == Format.MARKDOWN) {
+            readMarkdown();
+        } else {
+            readHtml();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads bookmark HTML one tag at a time, collecting the text of headings and links
+    private void readHtml() throws IOException {
+        folders = new ArrayDeque<>();
+        folders.push(defaultFolder);
+        text = null;
+        int c;
+        while ((c = in.read()) >= 0) {
+            if (c == '<') {
+                String tag = readTag();
+                handleTag(tagName(tag), tag);
+            } else if (text != null) {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the current folder for a heading or list, or passes on a link once it has ended
+    private void handleTag(String name, String tag) {
+        if (name.equals("h3") || name.equals("a")) {
+            href = name.equals("a") ? attribute(tag, "href") : href;
+            text = new StringBuilder();
+        } else if (name.equals("/h3") && text != null) {
+            heading = unescape(text.toString()).trim();
+            text = null;
+        } else if (name.equals("dl")) {
+            folders.push(heading == null || heading.isEmpty() ? folders.peek() : heading);
+            heading = null;
+        } else if (name.equals("/dl") && folders.size() > 1) {
+            folders.pop();
+        } else if (name.equals("/a") && text != null) {
+            if (href != null) {
+                emit(folders.peek(), unescape(text.toString()), unescape(href));
+            }
+            href = null;
+            text = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a tag after its <, up to the > ending it, and returns its contents
+    //          a > inside a quoted attribute does not end a tag, and a comment is read up to its -->
+    private String readTag() throws IOException {
+        StringBuilder tag = new StringBuilder();
+        int quote = 0;
+        int c;
+        while ((c = in.read()) >= 0) {
+            boolean comment = tag.length() >= 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-';
+            boolean commentEnded = tag.length() >= 5 && tag.lastIndexOf("--") == tag.length() - 2;
+            if (c == '>' && quote == 0 && (!comment || commentEnded)) {
+                break;
+            }
+            if (!comment && (c == '"' || c == '\'')) {
+                quote = quote == 0 ? c : quote == c ? 0 : quote;
+            }
+            tag.append((char) c);
+        }
+        return tag.toString();
+    }
+
+    // EFFECTS: returns lower case name of tag, with a leading / if it is an end tag
+    private static String tagName(String tag) {
+        int end = 0;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '>') {
+            end++;
+        }
+        return tag.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    // EFFECTS: returns value of the named attribute of tag, without quotes, or null if tag doesn't have it
+    private static String attribute(String tag, String name) {
+        Matcher matcher = ATTRIBUTE.matcher(tag);
+        while (matcher.find()) {
+            if (matcher.group(1).equalsIgnoreCase(name)) {
+                String value = matcher.group(2);
+                boolean quoted = value.charAt(0) == '"' || value.charAt(0) == '\'';
+                return quoted ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns text with HTML character references replaced by the characters they stand for; references
+    //          which aren't known are left as they are
+    static String unescape(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        Matcher matcher = ENTITY.matcher(text);
+        StringBuffer unescaped = new StringBuffer();
+        while (matcher.find()) {
+            String entity = matcher.group(1);
+            String replacement;
+            if (entity.charAt(0) == '#') {
+                boolean hex = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X');
+                int code = Integer.parseInt(entity.substring(hex ? 2 : 1), hex ? 16 : 10);
+                replacement = Character.isValidCodePoint(code) ? new String(Character.toChars(code)) : matcher.group();
+            } else {
+                replacement = namedEntity(entity, matcher.group());
+            }
+            matcher.appendReplacement(unescaped, Matcher.quoteReplacement(replacement));
+        }
+        return matcher.appendTail(unescaped).toString();
+    }
+
+    // EFFECTS: returns character the named entity stands for, or reference if it isn't one of the common ones
+    private static String namedEntity(String name, String reference) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "amp":
+                return "&";
+            case "lt":
+                return "<";
+            case "gt":
+                return ">";
+            case "quot":
+                return "\"";
+            case "apos":
+                return "'";
+            case "nbsp":
+                return " ";
+            default:
+                return reference;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads CSV rows, using the columns named by a header row if the first row is one
+    private void readCsv() throws IOException {
+        int[] columns = {0, 1, 2};
+        boolean first = true;
+        List<String> row;
+        while ((row = readCsvRow()) != null) {
+            if (first && column(row, URL_COLUMNS) >= 0) {
+                columns = new int[] {column(row, TITLE_COLUMNS), column(row, URL_COLUMNS), column(row, FOLDER_COLUMNS)};
+            } else if (row.size() == 1) {
+                emit(defaultFolder, null, row.get(0));
+            } else {
+                emit(field(row, columns[2]), field(row, columns[0]), field(row, columns[1]));
+            }
+            first = false;
+        }
+    }
+
+    // EFFECTS: returns index of the first field of header row with one of the given names, or -1 if there is none
+    private static int column(List<String> header, String[] names) {
+        for (int i = 0; i < header.size(); i++) {
+            for (String name : names) {
+                if (header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns field of row at index, or null if row has no such field
+    private static String field(List<String> row, int index) {
+        return index >= 0 && index < row.size() ? row.get(index) : null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the fields of the next row which isn't blank, where a quoted field may contain commas, line
+    //          breaks, and quotes written twice; returns null if there are no more rows
+    private List<String> readCsvRow() throws IOException {
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int previous = -1;
+        int c;
+        while ((c = in.read()) >= 0) {
+            if (c == '"') {
+                field.append(!quoted && previous == '"' ? "\"" : "");
+                quoted = !quoted;
+            } else if (!quoted && c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (!quoted && c == '\n' && (!row.isEmpty() || field.length() > 0)) {
+                break;
+            } else if (quoted || c != '\r' && c != '\n') {
+                field.append((char) c);
+            }
+            previous = c;
+        }
+        if (c < 0 && row.isEmpty() && field.length() == 0) {
+            return null;
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads Markdown one line at a time, taking each heading as the folder of the links after it
+    private void readMarkdown() throws IOException {
+        String folder = defaultFolder;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("#")) {
+                String name = trimmed.replaceFirst("^#+", "").trim();
+                folder = name.isEmpty() ? defaultFolder : name;
+                continue;
+            }
+            Matcher matcher = MARKDOWN_LINK.matcher(trimmed);
+            while (matcher.find()) {
+                if (matcher.group(2) != null) {
+                    emit(folder, matcher.group(1), matcher.group(2));
+                } else {
+                    emit(folder, null, matcher.group(3) != null ? matcher.group(3) : matcher.group(4));
+                }
+            }
+        }
+    }
+
+    // EFFECTS: passes bookmark to consumer, in the default folder if folder is blank, unless url is blank
+    private void emit(String folder, String title, String url) {
+        if (url == null || url.trim().isEmpty()) {
+            return;
+        }
+        boolean noFolder = folder == null || folder.trim().isEmpty();
+        consumer.accept(new Bookmark(noFolder ? defaultFolder : folder.trim(), title == null ? null : title.trim(),
+                url.trim()));
+    }
+}
@@ -0,0 +1,312 @@
+package persistence;
+
+import model.*;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONAware;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// An append-only log of the changes made to a workspace since it was last saved to a file
+// each change is written as one line of JSON next to the save file, so that frequent edits only cost a small append,
+// and are replayed on top of the save file the next time it is loaded
+// changes may be recorded on one thread while a save running on another rotates the journal: before the save takes
+// its snapshots, the changes recorded so far are moved aside into a rotated journal, which is deleted once the save
+// holding them is written, so a change recorded while the save runs is kept whether or not the save includes it
+public class ChangeJournal implements ModelListener {
+    public static final String JOURNAL_SUFFIX = ".journal";
+    static final String ROTATED_SUFFIX = ".saving";
+    private static final String OP = "op";
+    private static final String SPACE = "space";
+    private static final String INDEX = "index";
+    private static final String DATA = "data";
+
+    private WorkspaceApp workspace;
+    private File file;
+    private java.io.Writer writer;
+
+    // EFFECTS: opens journal of given save file for appending changes made to workspace
+    //          throws IOException if journal can't be opened
+    public ChangeJournal(WorkspaceApp workspace, String savePath) throws IOException {
+        this.workspace = workspace;
+        this.file = journalFile(savePath);
+        writer = open(true);
+    }
+
+    // EFFECTS: returns true if this journal records changes to given save file
+    public boolean isJournalFor(String savePath) {
+        return journalFile(savePath).equals(file);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends change to journal and flushes it to the operating system
+    //          if it can't be written, closes the journal so that no later change is recorded without this one
+    @Override
+    public synchronized void modelChanged(ModelEvent e) {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.write(JSONValue.toJSONString(toEntry(e)));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException ex) {
+            close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the changes recorded so far aside, to be called before a save takes its snapshots, and goes on
+    //          recording later changes in an empty journal; changes already moved aside by a save which failed are
+    //          kept ahead of them. throws IOException if the journal can't be rotated, recording no more changes
+    public synchronized void rotate() throws IOException {
+        close();
+        File rotated = rotatedFile(file);
+        if (!file.exists()) {
+            rotated.createNewFile();
+        } else if (rotated.exists()) {
+            try (OutputStream out = new FileOutputStream(rotated, true)) {
+                Files.copy(file.toPath(), out);
+            }
+        } else {
+            Files.move(file.toPath(), rotated.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        writer = open(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the changes moved aside by the last rotate, to be called once the save which followed it has
+    //          been written; changes recorded since then are kept
+    public synchronized void rotationSaved() {
+        rotatedFile(file).delete();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes journal and deletes every change it recorded, so they won't be recovered
+    //          throws IOException if journal can't be deleted
+    public synchronized void discard() throws IOException {
+        close();
+        for (File f : new File[] {file, rotatedFile(file)}) {
+            if (f.exists() && !f.delete()) {
+                throw new IOException("Could not delete " + f);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes journal, no more changes will be recorded
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException expected) {
+                // everything written so far has already been flushed
+            }
+            writer = null;
+        }
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: applies changes recorded in journal of given save file to workspace and returns how many were applied
+    //          stops at the first entry which is incomplete (eg. the app was killed while writing it) or which does
+    //          not fit the workspace; throws IOException if journal exists but can't be read
+    //          changes moved aside by a save which didn't finish are applied first
+    public static int replay(WorkspaceApp workspace, String savePath) throws IOException {
+        File file = journalFile(savePath);
+        List<String> entries = new ArrayList<>();
+        readEntries(rotatedFile(file), entries);
+        readEntries(file, entries);
+
+        int applied = 0;
+        JSONParser parser = new JSONParser();
+        for (String entry : entries) {
+            try {
+                apply(workspace, (JSONObject) parser.parse(entry));
+                applied++;
+            } catch (Exception e) {
+                break;
+            }
+        }
+        return applied;
+    }
+
+    // MODIFIES: entries
+    // EFFECTS: adds each line of given journal file to entries, if it exists
+    //          throws IOException if file exists but can't be read
+    private static void readEntries(File file, List<String> entries) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                entries.add(line);
+            }
+        }
+    }
+
+    // EFFECTS: deletes journal of given save file, to be called when that file is replaced from elsewhere
+    public static void delete(String savePath) {
+        File file = journalFile(savePath);
+        file.delete();
+        rotatedFile(file).delete();
+    }
+
+    // EFFECTS: returns file which changes in given journal file are moved aside into while a save runs
+    private static File rotatedFile(File journal) {
+        return new File(journal.getPath() + ROTATED_SUFFIX);
+    }
+
+    // EFFECTS: returns journal file for given save file
+    private static File journalFile(String savePath) {
+        return new File(savePath + JOURNAL_SUFFIX).toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    // EFFECTS: opens journal for writing, appending to it if append is true, otherwise truncating it
+    private java.io.Writer open(boolean append) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append)));
+    }
+
+    // EFFECTS: returns journal entry describing given change
+    private Map<String, Object> toEntry(ModelEvent e) throws IOException {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put(OP, e.getType().name());
+        entry.put(INDEX, e.getIndex());
+        if (e.getSource() instanceof Space) {
+            entry.put(SPACE, workspace.getSpaces().indexOf(e.getSource()));
+        }
+        entry.put(DATA, toData(e));
+        return entry;
+    }
+
+    // EFFECTS: returns JSON for the space(s), resource(s), or task(s) added by given change, or null if none were
+    private Object toData(ModelEvent e) throws IOException {
+        switch (e.getType()) {
+            case SPACE_ADDED:
+                return toJson(Collections.singletonList((Space) e.getElement()));
+            case SPACES_REPLACED:
+                return toJson(e.getElementList(Space.class));
+            case RESOURCE_ADDED:
+                return toJson((Resource) e.getElement());
+            case RESOURCES_REPLACED:
+                List<Object> resources = new ArrayList<>();
+                for (Resource r : e.getElementList(Resource.class)) {
+                    resources.add(toJson(r));
+                }
+                return resources;
+            case TASK_ADDED:
+                return toJson((Task) e.getElement());
+            case TODO_REPLACED:
+                return ((ToDoList) e.getElement()).getListAsJson();
+            default:
+                return null;
+        }
+    }
+
+    // EFFECTS: returns spaces as JSON, written in the same format as the save file
+    private static JSONAware toJson(List<Space> spaces) throws IOException {
+        StringWriter json = new StringWriter();
+        new SpaceJsonWriter(json).writeSpaces(spaces);
+        return json::toString;
+    }
+
+    // EFFECTS: returns resource as JSON, in the same format as the save file
+    private static Map<String, Object> toJson(Resource resource) {
+        Map<String, Object> json = new HashMap<>();
+        json.put("type", resource.getResourceType().name());
+        json.put("name", resource.getName());
+        json.put("path", resource.getPath());
+        return json;
+    }
+
+    // EFFECTS: returns task as JSON, in the same format as the save file
+    private static Map<String, Object> toJson(Task task) {
+        Map<String, Object> json = new HashMap<>();
+        json.put("description", task.getDescription());
+        json.put("complete?", task.getComplete());
+        return json;
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: applies change described by entry to workspace
+    private static void apply(WorkspaceApp workspace, JSONObject entry) throws Exception {
+        ModelEvent.Type type = ModelEvent.Type.valueOf((String) entry.get(OP));
+        int index = ((Long) entry.get(INDEX)).intValue();
+        Object data = entry.get(DATA);
+
+        if (type == ModelEvent.Type.SPACE_ADDED) {
+            workspace.addSpace(index, Reader.parseContent((JSONArray) data).get(0));
+        } else if (type == ModelEvent.Type.SPACE_REMOVED) {
+            workspace.removeSpace(workspace.getSpaces().get(index).getName());
+        } else if (type == ModelEvent.Type.SPACES_REPLACED) {
+            workspace.setSpaces(Reader.parseContent((JSONArray) data));
+        } else {
+            applyToSpace(workspace.getSpaces().get(((Long) entry.get(SPACE)).intValue()), type, index, data);
+        }
+    }
+
+    // MODIFIES: space
+    // EFFECTS: applies change of given type to the resource or task at index in space
+    private static void applyToSpace(Space space, ModelEvent.Type type, int index, Object data) throws Exception {
+        switch (type) {
+            case RESOURCE_ADDED:
+                space.addResource(index, Reader.parseResources(toArray(data)).get(0));
+                break;
+            case RESOURCE_REMOVED:
+                space.removeResource(index);
+                break;
+            case RESOURCES_REPLACED:
+                space.setResources(Reader.parseResources((JSONArray) data));
+                break;
+            case TODO_REPLACED:
+                space.setTodo(Reader.parseTodo((JSONArray) data));
+                break;
+            default:
+                applyToTodo(space.getTodo(), type, index, data);
+        }
+    }
+
+    // MODIFIES: todo
+    // EFFECTS: applies change of given type to the task at index in todo
+    private static void applyToTodo(ToDoList todo, ModelEvent.Type type, int index, Object data) throws Exception {
+        switch (type) {
+            case TASK_ADDED:
+                todo.addTask(index, Reader.parseTodo(toArray(data)).getTasks().get(0));
+                break;
+            case TASK_REMOVED:
+                todo.removeTask(index);
+                break;
+            case TASK_COMPLETED:
+                todo.completeTask(index);
+                break;
+            default:
+                todo.reopenTask(index);
+        }
+    }
+
+    // EFFECTS: returns JSON array containing only the given object
+    @SuppressWarnings("unchecked") // JSONArray is a raw list
+    private static JSONArray toArray(Object data) {
+        JSONArray array = new JSONArray();
+        array.add(data);
+        return array;
+    }
+}
@@ -0,0 +1,64 @@
+package persistence;
+
+import model.SpaceLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// represents the changes another program saved to a workspace's save file since the workspace last loaded or saved
+// it: the spaces which were added or changed, each with a loader for its new contents, and the names of the spaces
+// which were removed
+// changes to a space which also has unsaved changes in the workspace are not applied, and are listed as conflicts
+public class ExternalChanges {
+    private Map<String, SpaceLoader> updated;
+    private List<String> removed;
+    private List<String> conflicts;
+
+    // EFFECTS: creates an empty set of changes
+    public ExternalChanges() {
+        updated = new LinkedHashMap<>();
+        removed = new ArrayList<>();
+        conflicts = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that space of given name was added or changed, and can now be loaded by loader
+    public void addUpdated(String name, SpaceLoader loader) {
+        updated.put(name, loader);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that space of given name was removed
+    public void addRemoved(String name) {
+        removed.add(name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that changes to space of given name were not applied, since it has unsaved changes
+    public void addConflict(String name) {
+        conflicts.add(name);
+    }
+
+    // EFFECTS: returns true if no space was added, changed, or removed
+    public boolean isEmpty() {
+        return updated.isEmpty() && removed.isEmpty();
+    }
+
+    //getters
+    // EFFECTS: returns names of spaces which were added or changed, in the order they are saved in, mapped to loaders
+    //          for their new contents
+    public Map<String, SpaceLoader> getUpdated() {
+        return Collections.unmodifiableMap(updated);
+    }
+
+    public List<String> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+}
@@ -0,0 +1,109 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+// Compresses another save format with gzip as it is written, and decompresses it as it is read, so that neither the
+// compressed nor the uncompressed data has to be held in memory
+// save data repeats the same keys, URL hosts, and folders many times over, so it compresses well; the level trades
+// save time for size, from BEST_SPEED (1) to BEST_COMPRESSION (9)
+// compressed files are recognised by the gzip magic header, and the format inside is detected when it is read, so
+// any codec's compressed files can be read whichever codec they were written with
+public class GzipCodec implements SaveCodec {
+    public static final String FILE_EXTENSION = ".gz";
+    public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    private static final byte[] MAGIC = {(byte) 0x1f, (byte) 0x8b};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private SaveCodec codec;
+    private int level;
+
+    // EFFECTS: creates codec which compresses data written by codec at the default compression level
+    public GzipCodec(SaveCodec codec) {
+        this(codec, DEFAULT_LEVEL);
+    }
+
+    // REQUIRES: level is DEFAULT_LEVEL, or 0 <= level <= 9
+    // EFFECTS: creates codec which compresses data written by codec at given compression level
+    public GzipCodec(SaveCodec codec, int level) {
+        this.codec = codec;
+        this.level = level;
+    }
+
+    // EFFECTS: returns extension of the compressed format followed by .gz, eg. .json.gz
+    @Override
+    public String getFileExtension() {
+        return codec.getFileExtension() + FILE_EXTENSION;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes spaces to out in the compressed format, compressing them as they are encoded
+    @Override
+    public void encode(List<Space> spaces, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzipStream(out, level);
+        codec.encode(spaces, compressed);
+        compressed.finish();
+    }
+
+    // EFFECTS: decompresses in as it is read and decodes the spaces inside, in whichever format they were saved in
+    //          throws InvalidFormatException if in is not complete gzip data holding spaces in a known format
+    @Override
+    public void decode(InputStream in, Consumer<Space> consumer) throws IOException, InvalidFormatException {
+        try {
+            InputStream decompressed = new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+            Reader.detectCodec(decompressed).decode(decompressed, consumer);
+        } catch (ZipException | EOFException e) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // EFFECTS: returns data compressed with gzip at given level
+    public static byte[] compress(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream compressed = gzipStream(out, level);
+        compressed.write(data);
+        compressed.finish();
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns data decompressed from gzip data, throws IOException if it is not valid gzip data
+    public static byte[] decompress(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns true if header starts with the magic bytes of gzip data
+    static boolean hasMagic(byte[] header) {
+        return header.length >= MAGIC.length && header[0] == MAGIC[0] && header[1] == MAGIC[1];
+    }
+
+    // EFFECTS: returns stream which compresses everything written to it at given level and writes it to out
+    private static GZIPOutputStream gzipStream(OutputStream out, int level) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
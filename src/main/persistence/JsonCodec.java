@@ -0,0 +1,46 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Saves spaces as UTF-8 JSON text, in the same format as json-simple
+public class JsonCodec implements SaveCodec {
+    public static final String FILE_EXTENSION = ".json";
+
+    @Override
+    public String getFileExtension() {
+        return FILE_EXTENSION;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes spaces to out as a JSON array
+    @Override
+    public void encode(List<Space> spaces, OutputStream out) throws IOException {
+        java.io.Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        new SpaceJsonWriter(writer).writeSpaces(spaces);
+        writer.flush();
+    }
+
+    // EFFECTS: parses JSON array of spaces one token at a time, passing each space to consumer once it has been read
+    @Override
+    public void decode(InputStream in, Consumer<Space> consumer) throws IOException, InvalidFormatException {
+        try {
+            java.io.Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            new JSONParser().parse(reader, new SpaceContentHandler(consumer));
+        } catch (ParseException e) {
+            throw new InvalidFormatException();
+        }
+    }
+}
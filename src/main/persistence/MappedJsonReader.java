@@ -0,0 +1,559 @@
+package persistence;
+
+import model.Resource;
+import model.Space;
+import model.ToDoList;
+import model.exception.InvalidFormatException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Parses a JSON save file directly from a memory-mapped buffer of its UTF-8 bytes, without first decoding the
+// whole file into characters
+// keys are matched against the save format's field names byte by byte, and only the values of those fields are
+// decoded into strings; values of any other field are skipped over without being decoded
+// resources shared by several spaces are written once in a pool before the spaces; the pool is read first, and the
+// same resource is given to every space which refers to it
+class MappedJsonReader {
+    static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+    private static final byte[][] SPACE_KEYS = keys("name", "resources", "tasks");
+    private static final byte[][] POOL_KEYS = keys(SpaceJsonWriter.POOL_KEY);
+    private static final byte[][] RESOURCE_KEYS = keys("name", "type", "path", SpaceJsonWriter.REF_KEY);
+    private static final byte[][] TASK_KEYS = keys("description", "complete?");
+    private static final int NAME = 0;
+    private static final int RESOURCES = 1;
+    private static final int TYPE = 1;
+    private static final int PATH = 2;
+    private static final int REF = 3;
+    private static final int DESCRIPTION = 0;
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private ByteBuffer buffer;
+    private ByteBuffer view;
+    private int pos;
+    private int limit;
+    private byte[] scratch;
+    private List<Resource> pool;
+
+    // EFFECTS: creates reader which parses the bytes of buffer from its position to its limit
+    MappedJsonReader(ByteBuffer buffer) {
+        this(buffer, new ArrayList<>());
+    }
+
+    // EFFECTS: creates reader which parses the bytes of buffer from its position to its limit, where references to
+    //          pooled resources refer into pool
+    private MappedJsonReader(ByteBuffer buffer, List<Resource> pool) {
+        this.buffer = buffer;
+        this.pool = pool;
+        view = buffer.duplicate();
+        pos = buffer.position();
+        limit = buffer.limit();
+        scratch = new byte[256];
+    }
+
+    // EFFECTS: parses a JSON array of spaces, passing each space to consumer as soon as it has been read
+    //          throws InvalidFormatException if buffer does not hold a JSON array of spaces and nothing else
+    void readSpaces(Consumer<Space> consumer) throws InvalidFormatException {
+        expect('[');
+        if (readPool()) {
+            expect(',');
+        } else if (consume(']')) {
+            expectEnd();
+            return;
+        }
+        do {
+            consumer.accept(readSpace());
+        } while (consume(','));
+        expect(']');
+        expectEnd();
+    }
+
+    // EFFECTS: finds the extent of every space in a JSON array of spaces and returns a builder which parses each one
+    //          from its own view of the buffer, so that they can be parsed independently of each other
+    //          throws InvalidFormatException if buffer does not hold a JSON array of values and nothing else; each
+    //          builder throws InvalidFormatException if its value is not a valid space
+    List<SpaceBuilder<InvalidFormatException>> splitSpaces() throws InvalidFormatException {
+        List<SpaceBuilder<InvalidFormatException>> builders = new ArrayList<>();
+        expect('[');
+        if (readPool()) {
+            expect(',');
+        } else if (consume(']')) {
+            expectEnd();
+            return builders;
+        }
+        do {
+            skipWhitespace();
+            int start = pos;
+            skipValue();
+            ByteBuffer space = buffer.duplicate();
+            space.limit(pos);
+            space.position(start);
+            builders.add(() -> new MappedJsonReader(space, pool).readOnlySpace());
+        } while (consume(','));
+        expect(']');
+        expectEnd();
+        return builders;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the next value is a {"pool": [resources...]} object, parses it into pool and returns true;
+    //          otherwise returns false without moving past anything but whitespace
+    private boolean readPool() throws InvalidFormatException {
+        skipWhitespace();
+        int start = pos;
+        if (!consume('{') || consume('}') || readKey(POOL_KEYS) < 0) {
+            pos = start;
+            return false;
+        }
+        pool = readResources();
+        expect('}');
+        return true;
+    }
+
+    // EFFECTS: parses a space object which must be the only value in the buffer
+    private Space readOnlySpace() throws InvalidFormatException {
+        Space space = readSpace();
+        expectEnd();
+        return space;
+    }
+
+    // EFFECTS: parses a space object, skipping fields which are not part of the save format
+    private Space readSpace() throws InvalidFormatException {
+        String name = null;
+        List<Resource> resources = null;
+        ToDoList todo = null;
+
+        expect('{');
+        if (!consume('}')) {
+            do {
+                int key = readKey(SPACE_KEYS);
+                if (key == NAME) {
+                    name = readNullableString();
+                } else if (key == RESOURCES) {
+                    resources = readResources();
+                } else if (key < 0) {
+                    skipValue();
+                } else {
+                    todo = readTasks();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+
+        if (resources == null || todo == null) {
+            throw new InvalidFormatException();
+        }
+        Space space = new Space(name);
+        space.setResources(resources);
+        space.setTodo(todo);
+        return space;
+    }
+
+    // EFFECTS: parses an array of resource objects
+    private List<Resource> readResources() throws InvalidFormatException {
+        List<Resource> resources = new ArrayList<>();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                resources.add(readResource());
+            } while (consume(','));
+            expect(']');
+        }
+        return resources;
+    }
+
+    // EFFECTS: parses a resource object, throws InvalidFormatException if its fields are missing or invalid
+    //          a {"ref": position} object is parsed as the pooled resource at that position
+    private Resource readResource() throws InvalidFormatException {
+        String[] fields = new String[RESOURCE_KEYS.length];
+        int ref = -1;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                int key = readKey(RESOURCE_KEYS);
+                if (key == REF) {
+                    ref = readIndex();
+                } else if (key < 0) {
+                    skipValue();
+                } else {
+                    fields[key] = readNullableString();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+
+        try {
+            if (ref >= 0) {
+                return Reader.pooledResource(pool, ref);
+            }
+            return Reader.createResource(fields[TYPE], fields[NAME], fields[PATH]);
+        } catch (Exception e) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // EFFECTS: parses an array of task objects into a to-do list
+    private ToDoList readTasks() throws InvalidFormatException {
+        ToDoList todo = new ToDoList();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                readTask(todo);
+            } while (consume(','));
+            expect(']');
+        }
+        return todo;
+    }
+
+    // MODIFIES: todo
+    // EFFECTS: parses a task object and adds it to todo, throws InvalidFormatException if its fields are missing or
+    //          invalid
+    private void readTask(ToDoList todo) throws InvalidFormatException {
+        String description = null;
+        Boolean complete = null;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                int key = readKey(TASK_KEYS);
+                if (key == DESCRIPTION) {
+                    description = readNullableString();
+                } else if (key < 0) {
+                    skipValue();
+                } else {
+                    complete = readNullableBoolean();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+
+        if (complete == null) {
+            throw new InvalidFormatException();
+        }
+        todo.addTask(description, complete);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses an object key and the colon after it, and returns its index in keys, or -1 if it is not one
+    //          keys without escapes are compared as raw bytes, without being decoded
+    private int readKey(byte[][] keys) throws InvalidFormatException {
+        skipWhitespace();
+        int start = pos + 1;
+        int key = -1;
+        if (skipString()) {
+            pos = start - 1;
+            byte[] bytes = readString().getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < keys.length && key < 0; i++) {
+                key = Arrays.equals(keys[i], bytes) ? i : -1;
+            }
+        } else {
+            for (int i = 0; i < keys.length && key < 0; i++) {
+                key = matches(keys[i], start, pos - 1) ? i : -1;
+            }
+        }
+        expect(':');
+        return key;
+    }
+
+    // EFFECTS: returns true if the bytes from start to end are equal to key
+    private boolean matches(byte[] key, int start, int end) {
+        if (key.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: parses a string, or null
+    private String readNullableString() throws InvalidFormatException {
+        skipWhitespace();
+        if (pos < limit && buffer.get(pos) == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        return readString();
+    }
+
+    // EFFECTS: parses a non-negative integer
+    private int readIndex() throws InvalidFormatException {
+        skipWhitespace();
+        int start = pos;
+        skipPrimitive();
+        try {
+            int index = Integer.parseInt(decode(start, pos));
+            if (index >= 0) {
+                return index;
+            }
+        } catch (NumberFormatException expected) {
+            // not an integer, so not a valid index
+        }
+        throw new InvalidFormatException();
+    }
+
+    // EFFECTS: parses true, false, or null
+    private Boolean readNullableBoolean() throws InvalidFormatException {
+        skipWhitespace();
+        byte c = pos < limit ? buffer.get(pos) : 0;
+        if (c == 't') {
+            expectLiteral("true");
+            return true;
+        } else if (c == 'f') {
+            expectLiteral("false");
+            return false;
+        }
+        expectLiteral("null");
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses a string, decoding its UTF-8 bytes and any escape sequences
+    private String readString() throws InvalidFormatException {
+        skipWhitespace();
+        int start = pos + 1;
+        boolean escaped = skipString();
+        int end = pos - 1;
+        if (!escaped) {
+            return decode(start, end);
+        }
+
+        StringBuilder builder = new StringBuilder(end - start);
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '\\') {
+                builder.append(decode(runStart, i));
+                i = appendEscape(builder, i + 1);
+                runStart = i + 1;
+            }
+        }
+        return builder.append(decode(runStart, end)).toString();
+    }
+
+    // EFFECTS: appends the character of the escape sequence starting at index (after its backslash) to builder,
+    //          and returns index of its last byte
+    private int appendEscape(StringBuilder builder, int index) throws InvalidFormatException {
+        byte c = buffer.get(index);
+        switch (c) {
+            case 'b':
+                builder.append('\b');
+                return index;
+            case 'f':
+                builder.append('\f');
+                return index;
+            case 'n':
+                builder.append('\n');
+                return index;
+            case 'r':
+                builder.append('\r');
+                return index;
+            case 't':
+                builder.append('\t');
+                return index;
+            case 'u':
+                builder.append(readHex(index + 1));
+                return index + 4;
+            default:
+                builder.append((char) c);
+                return index;
+        }
+    }
+
+    // EFFECTS: returns character with the 4 hex digit code starting at index
+    private char readHex(int index) throws InvalidFormatException {
+        if (index + 4 > limit) {
+            throw new InvalidFormatException();
+        }
+        int code = 0;
+        for (int i = index; i < index + 4; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                throw new InvalidFormatException();
+            }
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+
+    // EFFECTS: returns the bytes from start to end decoded as UTF-8
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        view.position(start);
+        view.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past a string starting at pos, and returns true if it contains any escape sequences
+    //          throws InvalidFormatException if there is no string at pos or it is not terminated
+    private boolean skipString() throws InvalidFormatException {
+        if (pos >= limit || buffer.get(pos) != '"') {
+            throw new InvalidFormatException();
+        }
+        boolean escaped = false;
+        for (pos++; pos < limit; pos++) {
+            byte c = buffer.get(pos);
+            if (c == '"') {
+                pos++;
+                return escaped;
+            } else if (c == '\\') {
+                escaped = true;
+                pos++;
+            }
+        }
+        throw new InvalidFormatException();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past a value of any type without decoding it, checking that brackets are balanced
+    private void skipValue() throws InvalidFormatException {
+        byte[] open = new byte[16];
+        int depth = 0;
+        do {
+            skipWhitespace();
+            byte c = pos < limit ? buffer.get(pos) : 0;
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                }
+                open[depth++] = c == '{' ? (byte) '}' : (byte) ']';
+                pos++;
+            } else if ((c == '}' || c == ']') && depth > 0 && open[depth - 1] == c) {
+                depth--;
+                pos++;
+            } else if (depth > 0 && (c == ',' || c == ':')) {
+                pos++;
+            } else {
+                skipPrimitive();
+            }
+        } while (depth > 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past a number, true, false, or null, throws InvalidFormatException if there is none at pos
+    private void skipPrimitive() throws InvalidFormatException {
+        int start = pos;
+        while (pos < limit && isPrimitiveByte(buffer.get(pos))) {
+            pos++;
+        }
+        String token = decode(start, pos);
+        boolean literal = token.equals("true") || token.equals("false") || token.equals("null");
+        if (!literal && !NUMBER.matcher(token).matches()) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // EFFECTS: returns true if c can be part of a number, true, false, or null
+    private static boolean isPrimitiveByte(byte c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past literal, throws InvalidFormatException if it is not next
+    private void expectLiteral(String literal) throws InvalidFormatException {
+        skipWhitespace();
+        for (int i = 0; i < literal.length(); i++, pos++) {
+            if (pos >= limit || buffer.get(pos) != literal.charAt(i)) {
+                throw new InvalidFormatException();
+            }
+        }
+        if (pos < limit && isPrimitiveByte(buffer.get(pos))) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past any whitespace, throws InvalidFormatException if anything else follows it
+    private void expectEnd() throws InvalidFormatException {
+        skipWhitespace();
+        if (pos != limit) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past c, throws InvalidFormatException if it is not the next non-whitespace byte
+    private void expect(char c) throws InvalidFormatException {
+        if (!consume(c)) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past c and returns true if it is the next non-whitespace byte, otherwise returns false
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (pos < limit && buffer.get(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves past any whitespace
+    private void skipWhitespace() {
+        while (pos < limit) {
+            byte c = buffer.get(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    // EFFECTS: returns given field names as UTF-8 bytes
+    private static byte[][] keys(String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return keys;
+    }
+
+    // EFFECTS: releases the memory mapping of buffer straight away rather than when it is garbage collected, so the
+    //          file can be replaced or deleted on platforms which don't allow that while it is mapped (eg. Windows);
+    //          does nothing if the runtime allows neither the Java 9+ nor the Java 8 way of doing so
+    //          buffer and every view of it must not be used afterwards
+    static void unmap(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), buffer);
+        } catch (NoSuchMethodException e) {
+            cleanDirectly(buffer);
+        } catch (ReflectiveOperationException | RuntimeException expected) {
+            // the mapping is released once buffer is garbage collected instead
+        }
+    }
+
+    // EFFECTS: releases the memory mapping of buffer through its own cleaner, as runtimes before Java 9 require;
+    //          does nothing if the runtime doesn't allow it
+    private static void cleanDirectly(ByteBuffer buffer) {
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException expected) {
+            // the mapping is released once buffer is garbage collected instead
+        }
+    }
+}
@@ -7,98 +7,285 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
-// allows reading a list of spaces from a JSON file
+// allows reading a list of spaces from a save file, in JSON or any other save codec
 // general format taken from TellerApp
 public class Reader {
 
     // EFFECTS: if file can't be found, throws IOException
-    //          if file is not in correct JSON format, throws InvalidFormatException
-    //          otherwise, returns a list of spaces parsed from JSON file
+    //          if file is not in a correct save format, throws InvalidFormatException
+    //          otherwise, returns a list of spaces parsed from file, building them in parallel on the common pool
     public static List<Space> readSpaces(File file) throws IOException, InvalidFormatException {
-        JSONArray fileContent;
-        try {
-            fileContent = readFile(file);
-        } catch (ParseException e) {
-            throw new InvalidFormatException();
-        }
+        return readSpaces(file, ForkJoinPool.commonPool());
+    }
 
-        List<Space> spaces;
-        try {
-            spaces = parseContent(fileContent);
-        } catch (Exception e) {
-            throw new InvalidFormatException();
+    // EFFECTS: if file can't be found, throws IOException
+    //          if file is not in a correct save format, throws InvalidFormatException
+    //          otherwise, returns a list of spaces parsed from file, in order
+    //          JSON files which can be memory-mapped are split into their spaces, which are then parsed and built
+    //          concurrently on pool, since checking each resource's path can block on the file system; other files
+    //          are read one space at a time; a mapped file is unmapped before returning, so it can then be replaced
+    //          or deleted on any platform
+    public static List<Space> readSpaces(File file, ForkJoinPool pool) throws IOException, InvalidFormatException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() <= MappedJsonReader.MAX_MAPPED_SIZE) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                try {
+                    if (!hasMagic(buffer)) {
+                        return buildSpaces(new MappedJsonReader(buffer).splitSpaces(), pool,
+                                InvalidFormatException.class);
+                    }
+                } finally {
+                    MappedJsonReader.unmap(buffer);
+                }
+            }
         }
 
+        List<Space> spaces = new ArrayList<>();
+        readSpaces(file, spaces::add);
         return spaces;
     }
 
+    // EFFECTS: if file can't be found, throws IOException
+    //          if file is not in a correct save format, throws InvalidFormatException
+    //          otherwise, parses the file one token at a time and passes each space to consumer as soon as it has
+    //          been read, without first building the whole document in memory
+    //          the file's format is detected from its first bytes, so it may be JSON or any other save codec, and
+    //          may be compressed; uncompressed JSON files are memory-mapped and parsed straight from their bytes,
+    //          unless they are too large to map
+    public static void readSpaces(File file, Consumer<Space> consumer) throws IOException, InvalidFormatException {
+        if (!readMappedSpaces(file, consumer)) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                detectCodec(in).decode(in, consumer);
+            }
+        }
+    }
+
+    // EFFECTS: if file is JSON and small enough to map into memory in one region, parses spaces from the mapped
+    //          bytes, passes each space to consumer, and returns true; otherwise returns false without reading it
+    private static boolean readMappedSpaces(File file, Consumer<Space> consumer)
+            throws IOException, InvalidFormatException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > MappedJsonReader.MAX_MAPPED_SIZE) {
+                return false;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                if (hasMagic(buffer)) {
+                    return false;
+                }
+                new MappedJsonReader(buffer).readSpaces(consumer);
+                return true;
+            } finally {
+                MappedJsonReader.unmap(buffer);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if buffer starts with the header of a binary or compressed save, ie. is not JSON
+    private static boolean hasMagic(ByteBuffer buffer) {
+        byte[] header = new byte[Math.min(BinaryCodec.MAGIC.length, buffer.limit())];
+        buffer.duplicate().get(header);
+        return BinaryCodec.hasMagic(header) || GzipCodec.hasMagic(header);
+    }
+
+    // EFFECTS: runs builders concurrently on pool and returns the spaces they build, in the same order as builders
+    //          waits for every builder to finish, then if any failed, throws the exception of the first one in order
+    //          that failed, so that the result is the same as building the spaces one at a time
+    //          builds spaces on the calling thread if there is only one, or pool only has one thread
+    //          failureType is the checked exception builders throw
+    static <E extends Exception> List<Space> buildSpaces(List<SpaceBuilder<E>> builders, ForkJoinPool pool,
+                                                         Class<E> failureType) throws E {
+        if (builders.size() < 2 || pool.getParallelism() < 2) {
+            List<Space> spaces = new ArrayList<>(builders.size());
+            for (SpaceBuilder<E> builder : builders) {
+                spaces.add(builder.build());
+            }
+            return spaces;
+        }
+        return buildConcurrently(builders, pool, failureType);
+    }
+
+    // EFFECTS: runs every builder as its own task on pool, then returns their spaces in order or throws the
+    //          exception of the first one that failed; never returns or throws before every task has finished, so
+    //          the buffer the builders read can be unmapped afterwards
+    private static <E extends Exception> List<Space> buildConcurrently(List<SpaceBuilder<E>> builders,
+                                                                       ForkJoinPool pool, Class<E> failureType)
+            throws E {
+        Space[] spaces = new Space[builders.size()];
+        Exception[] failures = new Exception[builders.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(builders.size());
+        for (int i = 0; i < builders.size(); i++) {
+            int index = i;
+            tasks.add(pool.submit(() -> {
+                try {
+                    spaces[index] = builders.get(index).build();
+                } catch (Exception e) {
+                    failures[index] = e;
+                }
+            }));
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            task.quietlyJoin();
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        for (Exception failure : failures) {
+            if (failure != null) {
+                throw rethrow(failure, failureType);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(spaces));
+    }
+
+    // EFFECTS: throws failure if it is unchecked or of the type builders may throw; otherwise returns it wrapped in
+    //          an unchecked exception, since no builder should have thrown it
+    private static <E extends Exception> RuntimeException rethrow(Exception failure, Class<E> failureType)
+            throws E {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failureType.isInstance(failure)) {
+            throw failureType.cast(failure);
+        }
+        return new IllegalStateException(failure);
+    }
+
+    // REQUIRES: in supports mark and reset
+    // EFFECTS: returns codec for the format in is saved in, judging by its magic header, without consuming any bytes
+    //          compressed data is decompressed by the returned codec, and the format inside detected as it is read
+    //          data without a known header is assumed to be JSON
+    public static SaveCodec detectCodec(InputStream in) throws IOException {
+        in.mark(BinaryCodec.MAGIC.length);
+        byte[] header = BinaryCodec.readUpTo(in, BinaryCodec.MAGIC.length);
+        in.reset();
+        if (GzipCodec.hasMagic(header)) {
+            return new GzipCodec(new JsonCodec());
+        }
+        return BinaryCodec.hasMagic(header) ? new BinaryCodec() : new JsonCodec();
+    }
+
     // EFFECTS: returns JSON array read from file
     //          if file can't be found, throws IOException
     //          if file is not in correct JSON format, throws InvalidFormatException
     // source for reading from JSON file: https://howtodoinjava.com/library/json-simple-read-write-json-examples/
     public static JSONArray readFile(File file) throws IOException, ParseException {
-        FileReader fileReader = new FileReader(file);
-        JSONParser parser = new JSONParser();
-        Object contentObject = parser.parse(fileReader);
-        return (JSONArray) contentObject;
+        try (java.io.Reader fileReader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            JSONParser parser = new JSONParser();
+            Object contentObject = parser.parse(fileReader);
+            return (JSONArray) contentObject;
+        }
     }
 
-    // EFFECTS: parses content for space data and returns list of spaces
-    private static List<Space> parseContent(JSONArray contentArray) throws MalformedURLException, NoSuchFileException {
-        List<Space> spaces = new ArrayList<>();
+    // EFFECTS: parses content for space data and returns list of spaces, building them in parallel on the common
+    //          pool; throws MalformedURLException or NoSuchFileException if a resource is not valid
+    //          resources shared by several spaces, which are written once in a pool before the spaces, are parsed
+    //          once and the same resource is given to each of those spaces
+    //          note: builds every space from a fully parsed JSON document, so readSpaces should be preferred
+    static List<Space> parseContent(JSONArray contentArray) throws IOException {
+        List<Resource> pool = new ArrayList<>();
+        List<SpaceBuilder<IOException>> builders = new ArrayList<>();
         for (Object object : contentArray) {
             JSONObject jsonSpaceObject = (JSONObject) object;
-            Space space = new Space((String) jsonSpaceObject.get("name"));
+            if (builders.isEmpty() && pool.isEmpty() && jsonSpaceObject.containsKey(SpaceJsonWriter.POOL_KEY)) {
+                pool = parseResources((JSONArray) jsonSpaceObject.get(SpaceJsonWriter.POOL_KEY));
+                continue;
+            }
+            List<Resource> shared = pool;
+            builders.add(() -> parseSpace(jsonSpaceObject, shared));
+        }
 
-            List<Resource> resources = parseResources((JSONArray) jsonSpaceObject.get("resources"));
-            ToDoList todo = parseTodo((JSONArray) jsonSpaceObject.get("tasks"));
+        return buildSpaces(builders, ForkJoinPool.commonPool(), IOException.class);
+    }
 
-            space.setResources(resources);
-            space.setTodo(todo);
-            spaces.add(space);
-        }
+    // EFFECTS: returns space parsed from its JSON object, whose references to pooled resources refer into pool
+    private static Space parseSpace(JSONObject jsonSpaceObject, List<Resource> pool)
+            throws MalformedURLException, NoSuchFileException {
+        Space space = new Space((String) jsonSpaceObject.get("name"));
+        space.setResources(parseResources((JSONArray) jsonSpaceObject.get("resources"), pool));
+        space.setTodo(parseTodo((JSONArray) jsonSpaceObject.get("tasks")));
+        return space;
+    }
 
-        return spaces;
+    // EFFECTS: returns resource of given type, name, and path
+    //          files and apps are not checked to exist, so that loading never waits on the file system and a missing
+    //          file doesn't stop the rest of the workspace from loading; see ResourceValidator
+    //          throws MalformedURLException if resource is a site with invalid url
+    //          throws NoSuchFileException if resource is an app whose path is not to an executable
+    static Resource createResource(String type, String name, String path)
+            throws MalformedURLException, NoSuchFileException {
+        if (type.equals(Resource.ResourceType.LINK.toString())) {
+            return new WebsiteLink(name, path);
+        } else if (type.equals(Resource.ResourceType.FILE.toString())) {
+            return FilePath.uncheckedFile(name, path);
+        } else {
+            return AppShortcut.uncheckedApp(name, path);
+        }
     }
 
     // EFFECTS: returns list of resources from JSONArray containing resources
     //          throws MalformedURLException if resource is a site with invalid url
     //          throws NoSuchFileException if resource is a file or app file that can't be found
-    private static List<Resource> parseResources(JSONArray jsonResourceArray)
+    static List<Resource> parseResources(JSONArray jsonResourceArray)
             throws MalformedURLException, NoSuchFileException {
+        return parseResources(jsonResourceArray, new ArrayList<>());
+    }
 
+    // EFFECTS: returns list of resources from JSONArray containing resources, where a {"ref": position} object is the
+    //          resource at that position in pool
+    //          throws MalformedURLException if resource is a site with invalid url, or a reference is not in pool
+    //          throws NoSuchFileException if resource is a file or app file that can't be found
+    private static List<Resource> parseResources(JSONArray jsonResourceArray, List<Resource> pool)
+            throws MalformedURLException, NoSuchFileException {
         List<Resource> resources = new ArrayList<>();
         for (Object resourceObject : jsonResourceArray) {
             JSONObject jsonResourceObject = (JSONObject) resourceObject;
+            if (jsonResourceObject.containsKey(SpaceJsonWriter.REF_KEY)) {
+                resources.add(pooledResource(pool, jsonResourceObject.get(SpaceJsonWriter.REF_KEY)));
+                continue;
+            }
             String name = (String) jsonResourceObject.get("name");
             String type = (String) jsonResourceObject.get("type");
             String path = (String) jsonResourceObject.get("path");
 
-            Resource resource;
-            if (type.equals(Resource.ResourceType.LINK.toString())) {
-                resource = new WebsiteLink(name, path);
-            } else if (type.equals(Resource.ResourceType.FILE.toString())) {
-                resource = new FilePath(name, path);
-            } else {
-                resource = new AppShortcut(name, path);
-            }
-
-            resources.add(resource);
+            resources.add(createResource(type, name, path));
         }
 
         return resources;
     }
 
+    // EFFECTS: returns resource at position ref of pool
+    //          throws MalformedURLException if ref is not a position in pool
+    static Resource pooledResource(List<Resource> pool, Object ref) throws MalformedURLException {
+        if (!(ref instanceof Number) || ((Number) ref).longValue() < 0 || ((Number) ref).longValue() >= pool.size()) {
+            throw new MalformedURLException("Reference to a resource which is not in the pool: " + ref);
+        }
+        return pool.get(((Number) ref).intValue());
+    }
+
     // EFFECTS: returns to-do list from JSONArray containing tasks
-    private static ToDoList parseTodo(JSONArray jsonTaskArray) {
+    static ToDoList parseTodo(JSONArray jsonTaskArray) {
         ToDoList todo = new ToDoList();
 
         for (Object taskObject : jsonTaskArray) {
@@ -106,10 +293,7 @@ public class Reader {
             String description = (String) jsonTaskObject.get("description");
             Boolean complete = (Boolean) jsonTaskObject.get("complete?");
 
-            Task task = new Task(description);
-            task.setComplete(complete);
-
-            todo.addTask(task);
+            todo.addTask(description, complete);
         }
 
         return todo;
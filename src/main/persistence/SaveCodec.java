@@ -0,0 +1,25 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+// A file format which lists of spaces can be saved in and loaded from
+public interface SaveCodec {
+
+    // EFFECTS: returns file extension used for files in this format, including the leading dot
+    String getFileExtension();
+
+    // MODIFIES: out
+    // EFFECTS: writes spaces to out in this format, throws IOException if out can't be written to
+    void encode(List<Space> spaces, OutputStream out) throws IOException;
+
+    // EFFECTS: reads spaces in this format from in and passes each one to consumer as soon as it has been read
+    //          throws IOException if in can't be read, or InvalidFormatException if data is not in this format
+    void decode(InputStream in, Consumer<Space> consumer) throws IOException, InvalidFormatException;
+}
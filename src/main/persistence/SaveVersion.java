@@ -0,0 +1,53 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// represents one version in a workspace's save history: the time it was saved, and the name of each space in it
+// alongside the hash of the chunk holding that space's contents
+public class SaveVersion {
+    private int number;
+    private long time;
+    private List<String> spaceNames;
+    private List<String> chunks;
+
+    // REQUIRES: spaceNames and chunks are the same size
+    // EFFECTS: creates version with given number and time in milliseconds, holding the space of each name in
+    //          spaceNames stored in the chunk of the same index in chunks
+    public SaveVersion(int number, long time, List<String> spaceNames, List<String> chunks) {
+        this.number = number;
+        this.time = time;
+        this.spaceNames = new ArrayList<>(spaceNames);
+        this.chunks = new ArrayList<>(chunks);
+    }
+
+    // EFFECTS: returns hash of the chunk holding space of given name in this version, or null if there is none
+    public String getChunk(String spaceName) {
+        int index = spaceNames.indexOf(spaceName);
+        return index < 0 ? null : chunks.get(index);
+    }
+
+    // EFFECTS: returns true if this version holds the same spaces in the same order with the same contents as other
+    public boolean hasSameContents(SaveVersion other) {
+        return spaceNames.equals(other.spaceNames) && chunks.equals(other.chunks);
+    }
+
+    //getters
+    public int getNumber() {
+        return number;
+    }
+
+    // EFFECTS: returns time this version was saved, in milliseconds since the epoch
+    public long getTime() {
+        return time;
+    }
+
+    public List<String> getSpaceNames() {
+        return Collections.unmodifiableList(spaceNames);
+    }
+
+    public List<String> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+}
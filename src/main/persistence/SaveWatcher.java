@@ -0,0 +1,127 @@
+package persistence;
+
+import model.WorkspaceApp;
+import model.exception.InvalidFormatException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Watches a workspace's save file for changes made by another program, eg. a second instance of the app, and applies
+// them to the workspace so they aren't overwritten by its next save; see WorkspaceApp.reloadChanges
+// a segmented save is watched through its manifest, which is always written last, and only the spaces whose segments
+// changed are read again; a single file save is read again in full
+// saves replace the file in several steps, so changes are only reloaded once the file has gone a short quiet period
+// without changing; this workspace's own saves are seen too, but reloading them finds nothing to change
+public class SaveWatcher {
+    public static final long DEFAULT_QUIET_MILLIS = 250;
+
+    private WorkspaceApp workspace;
+    private String savePath;
+    private String watchedName;
+    private long quietMillis;
+    private Consumer<Runnable> dispatcher;
+    private Consumer<ExternalChanges> listener;
+    private WatchService watchService;
+    private Thread thread;
+
+    // EFFECTS: starts watching save file at savePath for changes, which are reloaded into workspace by a task passed
+    //          to dispatcher (eg. to run it on the thread which owns the workspace) and then passed to listener if
+    //          anything changed; throws IOException if save file can't be watched
+    public SaveWatcher(WorkspaceApp workspace, String savePath, Consumer<Runnable> dispatcher,
+                       Consumer<ExternalChanges> listener) throws IOException {
+        this(workspace, savePath, dispatcher, listener, DEFAULT_QUIET_MILLIS);
+    }
+
+    // REQUIRES: quietMillis >= 0
+    // EFFECTS: starts watching save file at savePath, reloading changes once it has gone quietMillis without changing
+    public SaveWatcher(WorkspaceApp workspace, String savePath, Consumer<Runnable> dispatcher,
+                       Consumer<ExternalChanges> listener, long quietMillis) throws IOException {
+        this.workspace = workspace;
+        this.savePath = savePath;
+        this.dispatcher = dispatcher;
+        this.listener = listener;
+        this.quietMillis = quietMillis;
+
+        File file = new File(savePath).getAbsoluteFile();
+        File directory = SegmentedStore.isSegmented(savePath) ? file : file.getParentFile();
+        watchedName = SegmentedStore.isSegmented(savePath) ? SegmentedStore.MANIFEST_FILE : file.getName();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::watch, "save-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the save file; a reload which has already been dispatched still runs
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException expected) {
+            // the watch service is closed either way
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: waits for the save file to change, then for it to go quiet, and dispatches a reload, until closed
+    private void watch() {
+        try {
+            while (true) {
+                if (isSaveChanged(watchService.take())) {
+                    WatchKey key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+                    while (key != null) {
+                        isSaveChanged(key);
+                        key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+                    }
+                    dispatcher.accept(this::reload);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException expected) {
+            // watcher was closed
+        }
+    }
+
+    // MODIFIES: key
+    // EFFECTS: returns true if any of the events of key are for the save file, or some events were lost, then
+    //          resets key so it receives further events
+    private boolean isSaveChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || ((Path) event.context()).getFileName().toString().equals(watchedName)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    // MODIFIES: workspace
+    // EFFECTS: applies changes to the save file to workspace and passes them to listener if there were any
+    //          a save which can't be read, eg. because it is still being written, is left until it next changes
+    private void reload() {
+        try {
+            ExternalChanges changes = workspace.reloadChanges(savePath);
+            if (!changes.isEmpty()) {
+                listener.accept(changes);
+            }
+        } catch (IOException | InvalidFormatException expected) {
+            // the save is read again the next time it changes
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package persistence;
 
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface Saveable {
 
-    // MODIFIES: file
-    // EFFECTS: writes the saveable to print writer
-    void save(PrintWriter writer);
+    // MODIFIES: out
+    // EFFECTS: writes the saveable to out using its save codec, throws IOException if out fails
+    void save(OutputStream out) throws IOException;
 }
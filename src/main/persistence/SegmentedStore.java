@@ -0,0 +1,431 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Saves a workspace as a directory holding a manifest plus one segment file per space, so that a save only rewrites
+// the spaces that changed since they were last read or written
+// the manifest lists each space's name alongside its segment, so loading only has to read the manifest; a space's
+// segment is read the first time the space is opened or otherwise needs its resources and tasks
+// changed spaces are always written to new segment files and the manifest listing them is replaced last, so a save
+// interrupted part way through leaves the previous manifest and every segment it lists intact
+// several programs may save to the same directory: a new segment's name is reserved by creating its file, so no two
+// stores ever write the same segment, a save is refused if another program replaced the manifest since this store
+// last read or wrote it, and a store only deletes segments it wrote itself or listed in the manifest it replaced
+// since each segment holds a single space, a resource shared by several spaces is written once in each of their
+// segments rather than once for the whole save: pooling it across segments would mean rewriting unchanged segments,
+// or reading unloaded ones, whenever the resources shared between spaces change. shared resources are still only
+// held once in memory, since the workspace pools the resources of the spaces it loads
+public class SegmentedStore {
+    public static final String MANIFEST_FILE = "manifest.json";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_KEY = "segment";
+    private static final String NAME_KEY = "name";
+    private static final String SEGMENT_PATTERN = SEGMENT_PREFIX + "[0-9]+(\\.[a-z]+)+";
+
+    private File directory;
+    private Map<Space, String> segments;
+    private Map<String, String> pending;
+    private Map<String, String> listed;
+    private Set<String> ownSegments;
+    private int nextSegment;
+
+    // EFFECTS: creates store which saves to and loads from given directory
+    public SegmentedStore(File directory) {
+        this.directory = directory.toPath().toAbsolutePath().normalize().toFile();
+        segments = new IdentityHashMap<>();
+        pending = new HashMap<>();
+        ownSegments = new HashSet<>();
+        updateNextSegment();
+    }
+
+    // EFFECTS: returns true if save path should be saved as a segmented directory rather than a single file,
+    //          ie. if it is an existing directory, or it does not exist and is not named with a file extension
+    public static boolean isSegmented(String path) {
+        File file = new File(path);
+        return file.isDirectory() || !file.exists() && file.getName().lastIndexOf('.') <= 0;
+    }
+
+    // EFFECTS: returns true if given directory contains a segmented save
+    public static boolean exists(File directory) {
+        return new File(directory, MANIFEST_FILE).isFile();
+    }
+
+    // EFFECTS: returns true if this store saves to given directory
+    public boolean isStoreFor(File directory) {
+        return this.directory.equals(directory.toPath().toAbsolutePath().normalize().toFile());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns spaces listed in manifest, in order, and marks them clean
+    //          spaces whose name is in the manifest are returned unloaded, and their segment is only read once the
+    //          space is first needed; other segments are read straight away
+    //          throws IOException if manifest or a segment can't be found or read
+    //          throws InvalidFormatException if manifest or a segment is not in the correct format
+    public List<Space> load() throws IOException, InvalidFormatException {
+        segments.clear();
+        List<Space> spaces = new ArrayList<>();
+        listed = readManifest();
+        for (Map.Entry<String, String> entry : listed.entrySet()) {
+            String segment = entry.getKey();
+            String name = entry.getValue();
+            if (name != null) {
+                Space space = new Space(name, () -> readSegment(segment, name));
+                segments.put(space, segment);
+                spaces.add(space);
+            } else {
+                spaces.addAll(loadSegment(segment));
+            }
+        }
+        return spaces;
+    }
+
+    // MODIFIES: this, spaces
+    // EFFECTS: saves spaces with JSON codec and returns number of segments written
+    public int save(List<Space> spaces) throws IOException {
+        return save(spaces, new JsonCodec());
+    }
+
+    // MODIFIES: this, spaces
+    // EFFECTS: writes a new segment in the format of codec for every space which is dirty or not yet stored here,
+    //          then replaces the manifest with one listing given spaces in order, marks spaces clean, and deletes
+    //          segments no longer listed; segments of unchanged spaces are kept in whichever format they were in
+    //          each segment is written from a snapshot of its space (see Space.snapshot), and a space which changes
+    //          while the save is running (eg. from another thread) is left dirty, so that it is written again by the
+    //          next save
+    //          returns number of segments written; throws IOException if save could not be completed, or if another
+    //          program has replaced the manifest since this store last read or wrote it, in which case the save is
+    //          abandoned and its changes have to be merged with the other program's, eg. by readChanges, first
+    public int save(List<Space> spaces, SaveCodec codec) throws IOException {
+        directory.mkdirs();
+        Map<Space, String> saved = new IdentityHashMap<>();
+        Map<Space, Long> versions = new IdentityHashMap<>();
+        Map<String, String> manifest = new LinkedHashMap<>();
+        int written = 0;
+
+        for (Space s : spaces) {
+            long version = s.getVersion();
+            String segment = segments.get(s);
+            if (segment == null || s.isDirty()) {
+                Space snapshot = s.snapshot();
+                version = snapshot.getVersion();
+                segment = writeSegment(out -> codec.encode(Collections.singletonList(snapshot), out), codec);
+                written++;
+            }
+            versions.put(s, version);
+            saved.put(s, segment);
+            manifest.put(segment, s.getName());
+        }
+
+        commit(manifest, true);
+        for (Map.Entry<Space, Long> entry : versions.entrySet()) {
+            entry.getKey().markClean(entry.getValue());
+        }
+        segments = saved;
+        return written;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces stored spaces with the JSON array of spaces in given data, written as a single segment
+    //          throws IOException if data could not be written
+    public void replace(JSONArray data) throws IOException {
+        directory.mkdirs();
+        String segment = writeSegment(out -> out.write(data.toJSONString().getBytes(UTF_8)), new JsonCodec());
+        commit(Collections.singletonMap(segment, null), false);
+        segments.clear();
+    }
+
+    // EFFECTS: returns all stored spaces as one JSON array, in the same format as a single file save
+    //          throws IOException if a file can't be read, or ParseException if one is not valid JSON
+    @SuppressWarnings("unchecked") // JSONArray is a raw list
+    public JSONArray readJson() throws IOException, ParseException {
+        JSONArray spaces = new JSONArray();
+        try {
+            for (String segment : readManifest().keySet()) {
+                File file = new File(directory, segment);
+                if (segment.endsWith(JsonCodec.FILE_EXTENSION)) {
+                    spaces.addAll(readJsonSegment(file));
+                } else {
+                    spaces.addAll(toJson(Reader.readSpaces(file)));
+                }
+            }
+        } catch (InvalidFormatException e) {
+            throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, MANIFEST_FILE);
+        }
+        return spaces;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns changes saved to this directory by another program since this store last loaded or saved,
+    //          ie. spaces listed in the manifest with a segment this store didn't read or write, and spaces this
+    //          store read or wrote which are no longer listed; only the manifest is read, and a changed space's
+    //          segment is only read once its loader is used
+    //          throws IOException if manifest can't be read, or InvalidFormatException if it is not valid
+    public ExternalChanges readChanges() throws IOException, InvalidFormatException {
+        Map<String, String> known = knownSegments();
+        ExternalChanges changes = new ExternalChanges();
+        Set<String> names = new HashSet<>();
+        pending.clear();
+        listed = readManifest();
+        for (Map.Entry<String, String> entry : listed.entrySet()) {
+            String segment = entry.getKey();
+            String name = entry.getValue();
+            if (known.containsKey(segment)) {
+                names.add(known.get(segment));
+            } else if (name != null) {
+                names.add(name);
+                pending.put(name, segment);
+                changes.addUpdated(name, () -> readSegment(segment, name));
+            } else {
+                readSharedSegment(segment, changes, names);
+            }
+        }
+        for (String name : known.values()) {
+            if (!names.contains(name)) {
+                changes.addRemoved(name);
+            }
+        }
+        updateNextSegment();
+        return changes;
+    }
+
+    // EFFECTS: returns segments of spaces this store has read or written, mapped to their spaces' names
+    private Map<String, String> knownSegments() {
+        Map<String, String> known = new HashMap<>();
+        for (Map.Entry<Space, String> entry : segments.entrySet()) {
+            known.put(entry.getValue(), entry.getKey().getName());
+        }
+        return known;
+    }
+
+    // MODIFIES: changes, listed
+    // EFFECTS: reads every space in given segment holding several spaces, adds each one to changes, and adds its
+    //          name to listed
+    private void readSharedSegment(String segment, ExternalChanges changes, Set<String> listed)
+            throws IOException, InvalidFormatException {
+        for (Space s : Reader.readSpaces(new File(directory, segment))) {
+            listed.add(s.getName());
+            changes.addUpdated(s.getName(), () -> s);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that given space now holds the contents of the changed segment of the same name found by the
+    //          last call to readChanges, so it isn't rewritten until it changes again
+    public void adopt(Space space) {
+        String segment = pending.remove(space.getName());
+        if (segment != null) {
+            segments.put(space, segment);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops keeping track of where given space is stored, eg. because another program removed it
+    public void forget(Space space) {
+        segments.remove(space);
+    }
+
+    // EFFECTS: returns file holding given space as it was last loaded or saved, or null if it isn't stored here in a
+    //          segment of its own
+    public File getSegmentFile(Space space) {
+        String segment = segments.get(space);
+        return segment == null ? null : new File(directory, segment);
+    }
+
+    // EFFECTS: returns spaces in given segment, marked clean
+    private List<Space> loadSegment(String segment) throws IOException, InvalidFormatException {
+        List<Space> segmentSpaces = Reader.readSpaces(new File(directory, segment));
+        for (Space s : segmentSpaces) {
+            s.markClean();
+            if (segmentSpaces.size() == 1) {
+                segments.put(s, segment);
+            }
+        }
+        return segmentSpaces;
+    }
+
+    // EFFECTS: returns the only space in given segment, which the manifest lists as the space of given name
+    //          throws InvalidFormatException if segment does not contain exactly one space, or it has another name
+    private Space readSegment(String segment, String name) throws IOException, InvalidFormatException {
+        List<Space> segmentSpaces = Reader.readSpaces(new File(directory, segment));
+        if (segmentSpaces.size() != 1 || !segmentSpaces.get(0).getName().equals(name)) {
+            throw new InvalidFormatException();
+        }
+        return segmentSpaces.get(0);
+    }
+
+    // EFFECTS: returns segments listed in manifest, in order, mapped to the name of the space each one holds
+    //          a segment is mapped to null if its space's name isn't known, eg. if it holds several spaces
+    //          throws IOException if manifest can't be read, or InvalidFormatException if it is not a list of
+    //          segment names or {"segment": name, "name": space name} entries
+    private Map<String, String> readManifest() throws IOException, InvalidFormatException {
+        Map<String, String> manifest = new LinkedHashMap<>();
+        try (FileReader reader = new FileReader(new File(directory, MANIFEST_FILE))) {
+            for (Object entry : (JSONArray) new JSONParser().parse(reader)) {
+                Object segment = entry instanceof JSONObject ? ((JSONObject) entry).get(SEGMENT_KEY) : entry;
+                Object name = entry instanceof JSONObject ? ((JSONObject) entry).get(NAME_KEY) : null;
+                if (!isSegmentName(segment)) {
+                    throw new InvalidFormatException();
+                }
+                manifest.put((String) segment, (String) name);
+            }
+        } catch (ParseException | ClassCastException e) {
+            throw new InvalidFormatException();
+        }
+        return manifest;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: atomically replaces manifest with given segments and the names of their spaces, then deletes the
+    //          segments which this store wrote or which the replaced manifest listed, if they aren't listed any more
+    //          if checked is true and this store has read or written the manifest, throws IOException without
+    //          replacing it if another program replaced it since, deleting the segments this store wrote for it
+    private void commit(Map<String, String> manifest, boolean checked) throws IOException {
+        Map<String, String> current = readCurrentManifest();
+        if (checked && listed != null && !listed.equals(current)) {
+            Set<String> added = new HashSet<>(manifest.keySet());
+            added.retainAll(ownSegments);
+            deleteSegments(added, current.keySet());
+            throw new IOException("The workspace was saved by another program since it was last read");
+        }
+
+        writeManifest(manifest);
+        Set<String> superseded = new HashSet<>(ownSegments);
+        superseded.addAll(current.keySet());
+        deleteSegments(superseded, manifest.keySet());
+        ownSegments.retainAll(manifest.keySet());
+        listed = new LinkedHashMap<>(manifest);
+    }
+
+    // EFFECTS: atomically replaces manifest with given segments and the names of their spaces
+    private void writeManifest(Map<String, String> manifest) throws IOException {
+        List<Object> entries = new ArrayList<>();
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            if (entry.getValue() == null) {
+                entries.add(entry.getKey());
+            } else {
+                Map<String, Object> json = new HashMap<>();
+                json.put(SEGMENT_KEY, entry.getKey());
+                json.put(NAME_KEY, entry.getValue());
+                entries.add(json);
+            }
+        }
+
+        Writer writer = new Writer(new File(directory, MANIFEST_FILE));
+        try {
+            writer.write(JSONValue.toJSONString(entries));
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+    }
+
+    // EFFECTS: returns segments listed in manifest as readManifest does, or an empty map if there is no manifest
+    //          or it isn't valid
+    private Map<String, String> readCurrentManifest() {
+        try {
+            return readManifest();
+        } catch (IOException | InvalidFormatException e) {
+            return new LinkedHashMap<>();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes each of given segments which isn't in kept
+    private void deleteSegments(Set<String> segmentNames, Set<String> kept) {
+        for (String segment : segmentNames) {
+            if (!kept.contains(segment)) {
+                new File(directory, segment).delete();
+                ownSegments.remove(segment);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes content to a new segment file named for the format of codec and returns its name; the name is
+    //          reserved by creating the file first, so a segment another program has just written is never replaced
+    private String writeSegment(Saveable content, SaveCodec codec) throws IOException {
+        String segment = SEGMENT_PREFIX + nextSegment++ + codec.getFileExtension();
+        while (!new File(directory, segment).createNewFile()) {
+            segment = SEGMENT_PREFIX + nextSegment++ + codec.getFileExtension();
+        }
+        ownSegments.add(segment);
+        Writer writer = new Writer(new File(directory, segment));
+        try {
+            writer.write(content);
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+        return segment;
+    }
+
+    // EFFECTS: returns the spaces in given JSON segment as a JSON array with every resource written in each space
+    //          which has it, so that it can be joined with the spaces of other segments
+    private static JSONArray readJsonSegment(File file) throws IOException, ParseException {
+        JSONArray json = Reader.readFile(file);
+        boolean pooled = !json.isEmpty() && ((JSONObject) json.get(0)).containsKey(SpaceJsonWriter.POOL_KEY);
+        return pooled ? toJson(Reader.parseContent(json)) : json;
+    }
+
+    // EFFECTS: returns given spaces as a JSON array, with every resource written in each space which has it
+    private static JSONArray toJson(List<Space> spaces) throws IOException, ParseException {
+        StringWriter json = new StringWriter();
+        new SpaceJsonWriter(json, false).writeSpaces(spaces);
+        return (JSONArray) new JSONParser().parse(json.toString());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: numbers new segments after every segment in directory, including any written by another program
+    private void updateNextSegment() {
+        for (String segment : listSegments()) {
+            nextSegment = Math.max(nextSegment, segmentNumber(segment) + 1);
+        }
+    }
+
+    // EFFECTS: returns names of all segment files in directory
+    private List<String> listSegments() {
+        List<String> names = new ArrayList<>();
+        String[] files = directory.list();
+        if (files != null) {
+            for (String name : files) {
+                if (isSegmentName(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    // EFFECTS: returns true if object is the name of a segment file
+    private static boolean isSegmentName(Object name) {
+        return name instanceof String && ((String) name).matches(SEGMENT_PATTERN);
+    }
+
+    // REQUIRES: isSegmentName(segment)
+    // EFFECTS: returns number of given segment
+    private static int segmentNumber(String segment) {
+        return Integer.parseInt(segment.substring(SEGMENT_PREFIX.length(), segment.indexOf('.')));
+    }
+}
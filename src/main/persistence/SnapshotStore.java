@@ -0,0 +1,290 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps a history of the versions of a workspace save, so that a bad edit or restore can be undone
+// each space is stored as a chunk named by the SHA-256 hash of its contents, and each version is a small manifest
+// listing the chunk of every space in it, so a space which didn't change between versions is only stored once and
+// the history only grows by the spaces which actually changed
+// the chunk of a space saved in a segmented save is the space's segment file itself, hard linked into the history
+// where the file system allows it, so unchanged spaces are never re-encoded or read again; chunks are otherwise
+// written in JSON
+// once there are more than the maximum number of versions, the oldest are deleted along with any chunk which no
+// remaining version lists
+public class SnapshotStore {
+    public static final String HISTORY_SUFFIX = ".history";
+    public static final int DEFAULT_MAX_VERSIONS = 100;
+    private static final String CHUNK_DIRECTORY = "chunks";
+    private static final String VERSION_PREFIX = "version-";
+    private static final String VERSION_PATTERN = VERSION_PREFIX + "[0-9]+\\.json";
+    private static final String TIME_KEY = "time";
+    private static final String SPACES_KEY = "spaces";
+    private static final String NAME_KEY = "name";
+    private static final String CHUNK_KEY = "chunk";
+    private static final String CHUNK_PATTERN = "[0-9a-f]{64}";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private File directory;
+    private File chunkDirectory;
+    private int maxVersions;
+    private Map<String, String> segmentChunks;
+
+    // EFFECTS: creates store which keeps up to DEFAULT_MAX_VERSIONS versions in given directory
+    public SnapshotStore(File directory) {
+        this(directory, DEFAULT_MAX_VERSIONS);
+    }
+
+    // REQUIRES: maxVersions > 0
+    // EFFECTS: creates store which keeps up to maxVersions versions in given directory
+    public SnapshotStore(File directory, int maxVersions) {
+        this.directory = directory.toPath().toAbsolutePath().normalize().toFile();
+        chunkDirectory = new File(this.directory, CHUNK_DIRECTORY);
+        this.maxVersions = maxVersions;
+        segmentChunks = new HashMap<>();
+    }
+
+    // EFFECTS: returns directory holding the history of given save file or directory
+    public static File historyFor(String savePath) {
+        return new File(savePath + HISTORY_SUFFIX).toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    // EFFECTS: returns true if this store keeps history in given directory
+    public boolean isStoreFor(File directory) {
+        return this.directory.equals(directory.toPath().toAbsolutePath().normalize().toFile());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records spaces as they were just saved as a new version and returns it, unless they are the same
+    //          as the latest version, in which case returns the latest version without recording another
+    //          the chunk of a space with a segment in store is its segment file; other spaces are encoded as JSON
+    //          deletes the oldest versions if there are more than the maximum
+    //          throws IOException if the version could not be recorded
+    public SaveVersion snapshot(List<Space> spaces, SegmentedStore store) throws IOException {
+        chunkDirectory.mkdirs();
+        List<String> names = new ArrayList<>();
+        List<String> chunks = new ArrayList<>();
+        for (Space s : spaces) {
+            File segment = store == null ? null : store.getSegmentFile(s);
+            names.add(s.getName());
+            chunks.add(segment == null ? storeChunk(s) : storeChunk(segment));
+        }
+
+        List<Integer> numbers = listVersionNumbers();
+        int number = numbers.isEmpty() ? 1 : numbers.get(numbers.size() - 1) + 1;
+        SaveVersion version = new SaveVersion(number, System.currentTimeMillis(), names, chunks);
+        SaveVersion latest = numbers.isEmpty() ? null : readLatest(number - 1);
+        if (latest != null && latest.hasSameContents(version)) {
+            return latest;
+        }
+
+        writeVersion(version);
+        numbers.add(number);
+        prune(numbers);
+        return version;
+    }
+
+    // EFFECTS: returns every recorded version, oldest first
+    //          throws IOException if a version can't be read, or InvalidFormatException if one is not valid
+    public List<SaveVersion> listVersions() throws IOException, InvalidFormatException {
+        List<SaveVersion> versions = new ArrayList<>();
+        for (int number : listVersionNumbers()) {
+            versions.add(getVersion(number));
+        }
+        return versions;
+    }
+
+    // EFFECTS: returns version of given number
+    //          throws IOException if there is no such version, or InvalidFormatException if it is not valid or lists
+    //          a chunk which isn't named by a hash
+    public SaveVersion getVersion(int number) throws IOException, InvalidFormatException {
+        try (FileReader reader = new FileReader(versionFile(number))) {
+            JSONObject json = (JSONObject) new JSONParser().parse(reader);
+            List<String> names = new ArrayList<>();
+            List<String> chunks = new ArrayList<>();
+            for (Object entry : (JSONArray) json.get(SPACES_KEY)) {
+                String chunk = (String) ((JSONObject) entry).get(CHUNK_KEY);
+                if (!chunk.matches(CHUNK_PATTERN)) {
+                    throw new InvalidFormatException();
+                }
+                names.add((String) ((JSONObject) entry).get(NAME_KEY));
+                chunks.add(chunk);
+            }
+            return new SaveVersion(number, (Long) json.get(TIME_KEY), names, chunks);
+        } catch (ParseException | ClassCastException | NullPointerException e) {
+            throw new InvalidFormatException();
+        }
+    }
+
+    // EFFECTS: returns the differences between the versions of given numbers, without reading any space
+    //          throws IOException if either version can't be read, or InvalidFormatException if one is not valid
+    public VersionDiff diff(int from, int to) throws IOException, InvalidFormatException {
+        return new VersionDiff(getVersion(from), getVersion(to));
+    }
+
+    // EFFECTS: returns the spaces of the version of given number, in order, as they were when it was saved
+    //          throws IOException if the version or one of its chunks can't be read, or InvalidFormatException if
+    //          one is not valid
+    public List<Space> readSpaces(int number) throws IOException, InvalidFormatException {
+        List<Space> spaces = new ArrayList<>();
+        for (String chunk : getVersion(number).getChunks()) {
+            spaces.addAll(Reader.readSpaces(new File(chunkDirectory, chunk)));
+        }
+        return spaces;
+    }
+
+    // EFFECTS: stores space encoded as JSON as a chunk, if it isn't stored already, and returns its hash
+    private String storeChunk(Space space) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonCodec().encode(Collections.singletonList(space), out);
+        byte[] data = out.toByteArray();
+        String hash = hash(data);
+        File chunk = new File(chunkDirectory, hash);
+        if (!chunk.exists()) {
+            Writer writer = new Writer(chunk);
+            try {
+                writer.write(o -> o.write(data));
+                writer.close();
+            } finally {
+                writer.abort();
+            }
+        }
+        return hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores contents of segment as a chunk, if it isn't stored already, and returns its hash
+    //          segments are never changed once written, so each one is only read the first time it is stored
+    private String storeChunk(File segment) throws IOException {
+        String key = segment.getPath() + ":" + segment.length() + ":" + segment.lastModified();
+        String hash = segmentChunks.get(key);
+        if (hash != null && new File(chunkDirectory, hash).exists()) {
+            return hash;
+        }
+
+        hash = hash(Files.readAllBytes(segment.toPath()));
+        File chunk = new File(chunkDirectory, hash);
+        if (!chunk.exists()) {
+            try {
+                Files.createLink(chunk.toPath(), segment.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(segment.toPath(), chunk.toPath());
+            }
+        }
+        segmentChunks.put(key, hash);
+        return hash;
+    }
+
+    // EFFECTS: returns version of given number, or null if it is not valid
+    private SaveVersion readLatest(int number) throws IOException {
+        try {
+            return getVersion(number);
+        } catch (InvalidFormatException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: writes manifest of given version
+    private void writeVersion(SaveVersion version) throws IOException {
+        List<Object> entries = new ArrayList<>();
+        for (int i = 0; i < version.getSpaceNames().size(); i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put(NAME_KEY, version.getSpaceNames().get(i));
+            entry.put(CHUNK_KEY, version.getChunks().get(i));
+            entries.add(entry);
+        }
+        Map<String, Object> json = new HashMap<>();
+        json.put(TIME_KEY, version.getTime());
+        json.put(SPACES_KEY, entries);
+
+        Writer writer = new Writer(versionFile(version.getNumber()));
+        try {
+            writer.write(JSONValue.toJSONString(json));
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+    }
+
+    // REQUIRES: numbers are the numbers of every version, in ascending order
+    // EFFECTS: deletes the oldest versions while there are more than the maximum, then deletes every chunk which
+    //          no remaining version lists
+    private void prune(List<Integer> numbers) throws IOException {
+        if (numbers.size() <= maxVersions) {
+            return;
+        }
+        for (int number : numbers.subList(0, numbers.size() - maxVersions)) {
+            versionFile(number).delete();
+        }
+
+        Set<String> listed = new HashSet<>();
+        try {
+            for (SaveVersion version : listVersions()) {
+                listed.addAll(version.getChunks());
+            }
+        } catch (InvalidFormatException e) {
+            return;
+        }
+        String[] chunks = chunkDirectory.list();
+        for (String chunk : chunks == null ? new String[0] : chunks) {
+            if (!listed.contains(chunk)) {
+                new File(chunkDirectory, chunk).delete();
+            }
+        }
+    }
+
+    // EFFECTS: returns numbers of all recorded versions, in ascending order
+    private List<Integer> listVersionNumbers() {
+        List<Integer> numbers = new ArrayList<>();
+        String[] files = directory.list();
+        if (files != null) {
+            for (String name : files) {
+                if (name.matches(VERSION_PATTERN)) {
+                    numbers.add(Integer.parseInt(name.substring(VERSION_PREFIX.length(), name.indexOf('.'))));
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    // EFFECTS: returns manifest file of version of given number
+    private File versionFile(int number) {
+        return new File(directory, VERSION_PREFIX + number + JsonCodec.FILE_EXTENSION);
+    }
+
+    // EFFECTS: returns SHA-256 hash of data, in hexadecimal
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
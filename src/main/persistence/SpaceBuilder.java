@@ -0,0 +1,11 @@
+package persistence;
+
+import model.Space;
+
+// Builds one space from save data which has already been located, so that spaces can be built independently of
+// each other, eg. on different threads
+interface SpaceBuilder<E extends Exception> {
+
+    // EFFECTS: returns the space, throws E if its data is not valid
+    Space build() throws E;
+}
@@ -0,0 +1,288 @@
+package persistence;
+
+import model.Resource;
+import model.Space;
+import model.ToDoList;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.ParseException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Receives tokens from a streaming JSON parser and builds each space as soon as its JSON object has been parsed,
+// so that only one space is held in memory by the parser at a time
+// resources shared by several spaces are written once in a pool object before the spaces, which is kept while the
+// spaces which refer to it are built
+class SpaceContentHandler implements ContentHandler {
+    private static final int SPACES_DEPTH = 1;
+    private static final int SPACE_DEPTH = 2;
+    private static final int SECTION_DEPTH = 3;
+    private static final int ENTRY_DEPTH = 4;
+    private static final String RESOURCES_KEY = "resources";
+    private static final String TASKS_KEY = "tasks";
+    private static final String NAME_KEY = "name";
+    private static final List<String> ENTRY_KEYS = Arrays.asList(NAME_KEY, "type", "path", "description",
+            "complete?", SpaceJsonWriter.REF_KEY);
+
+    private Consumer<Space> consumer;
+    private boolean foundSpaces;
+    private int depth;
+    private int skipDepth;
+    private String spaceKey;
+    private String entryKey;
+    private String section;
+    private List<Resource> pool;
+    private boolean pooled;
+    private int numObjects;
+
+    private String spaceName;
+    private List<Resource> resources;
+    private ToDoList todo;
+    private String entryName;
+    private String entryType;
+    private String entryPath;
+    private String entryDescription;
+    private Object entryComplete;
+    private Object entryRef;
+
+    // EFFECTS: creates handler which passes every parsed space to consumer
+    SpaceContentHandler(Consumer<Space> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void startJSON() {
+        foundSpaces = false;
+        depth = 0;
+        skipDepth = 0;
+        pool = new ArrayList<>();
+        numObjects = 0;
+    }
+
+    // EFFECTS: throws ParseException if file did not contain a list of spaces
+    @Override
+    public void endJSON() throws ParseException {
+        if (!foundSpaces) {
+            throw invalid("spaces");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new space or a new resource/task, depending on depth
+    //          throws ParseException if an object appears where the save format does not allow one
+    @Override
+    public boolean startObject() throws ParseException {
+        depth++;
+        if (skipping()) {
+            return true;
+        }
+
+        if (depth == SPACE_DEPTH) {
+            spaceKey = null;
+            spaceName = null;
+            resources = null;
+            todo = null;
+            pooled = false;
+        } else if (depth == ENTRY_DEPTH && section != null) {
+            entryKey = null;
+            entryName = null;
+            entryType = null;
+            entryPath = null;
+            entryDescription = null;
+            entryComplete = null;
+            entryRef = null;
+        } else {
+            startNestedValue("{");
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes the current resource, task, or space
+    @Override
+    public boolean endObject() throws ParseException {
+        if (!skipping()) {
+            if (depth == ENTRY_DEPTH) {
+                endEntry();
+            } else if (depth == SPACE_DEPTH) {
+                endSpace();
+            }
+        }
+        depth--;
+        stopSkippingIfDone();
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        if (depth == SPACE_DEPTH) {
+            spaceKey = key;
+        } else if (depth == ENTRY_DEPTH) {
+            entryKey = key;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the list of spaces, or a space's list of resources or tasks
+    //          throws ParseException if an array appears where the save format does not allow one
+    @Override
+    public boolean startArray() throws ParseException {
+        depth++;
+        if (skipping()) {
+            return true;
+        }
+
+        if (depth == SPACES_DEPTH && !foundSpaces) {
+            foundSpaces = true;
+        } else if (depth == SECTION_DEPTH && isSectionKey(spaceKey)) {
+            startSection();
+        } else {
+            startNestedValue("[");
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        if (!skipping() && depth == SECTION_DEPTH) {
+            section = null;
+        }
+        depth--;
+        stopSkippingIfDone();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the value of the current space, resource, or task field
+    //          throws ParseException if value has the wrong type or is somewhere the save format does not allow
+    @Override
+    public boolean primitive(Object value) throws ParseException {
+        if (skipping()) {
+            return true;
+        }
+
+        try {
+            if (depth == SPACE_DEPTH && NAME_KEY.equals(spaceKey)) {
+                spaceName = (String) value;
+            } else if (depth == ENTRY_DEPTH && section != null) {
+                setEntryField(value);
+            } else if (depth != SPACE_DEPTH || isSectionKey(spaceKey)) {
+                throw invalid(value);
+            }
+        } catch (ClassCastException e) {
+            throw invalid(value);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores value in the field of the current resource or task named by entryKey
+    private void setEntryField(Object value) {
+        if (NAME_KEY.equals(entryKey)) {
+            entryName = (String) value;
+        } else if ("type".equals(entryKey)) {
+            entryType = (String) value;
+        } else if ("path".equals(entryKey)) {
+            entryPath = (String) value;
+        } else if ("description".equals(entryKey)) {
+            entryDescription = (String) value;
+        } else if ("complete?".equals(entryKey)) {
+            entryComplete = value;
+        } else if (SpaceJsonWriter.REF_KEY.equals(entryKey)) {
+            entryRef = value;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates an empty list for the section that is starting; a pool is a list of resources
+    private void startSection() {
+        section = spaceKey;
+        if (section.equals(TASKS_KEY)) {
+            todo = new ToDoList();
+        } else {
+            resources = new ArrayList<>();
+            pooled = pooled || section.equals(SpaceJsonWriter.POOL_KEY);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if nested value belongs to a field used by the save format, throws ParseException
+    //          otherwise, skips over the value
+    private void startNestedValue(String token) throws ParseException {
+        boolean usedField = depth == SECTION_DEPTH && (isSectionKey(spaceKey) || NAME_KEY.equals(spaceKey))
+                || depth == ENTRY_DEPTH + 1 && ENTRY_KEYS.contains(entryKey);
+
+        if (usedField || depth < SECTION_DEPTH || depth == ENTRY_DEPTH) {
+            throw invalid(token);
+        }
+        skipDepth = depth;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: builds resource or task from the fields of the entry that just ended
+    //          throws ParseException if fields are missing or invalid
+    private void endEntry() throws ParseException {
+        try {
+            if (section.equals(TASKS_KEY)) {
+                todo.addTask(entryDescription, (Boolean) entryComplete);
+            } else if (entryRef != null) {
+                resources.add(Reader.pooledResource(pool, entryRef));
+            } else {
+                resources.add(Reader.createResource(entryType, entryName, entryPath));
+            }
+        } catch (Exception e) {
+            throw invalid(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: builds space from the object that just ended and passes it to consumer, or if it is the pool object
+    //          which comes before the spaces, keeps its resources as the pool
+    //          throws ParseException if space is missing its resources or tasks, or pool is not the first object
+    private void endSpace() throws ParseException {
+        boolean first = numObjects++ == 0;
+        if (pooled && first && spaceName == null && todo == null) {
+            pool = resources;
+            return;
+        }
+        if (pooled || resources == null || todo == null) {
+            throw invalid("}");
+        }
+
+        Space space = new Space(spaceName);
+        space.setResources(resources);
+        space.setTodo(todo);
+        consumer.accept(space);
+    }
+
+    // EFFECTS: returns true if key names a list of resources or tasks
+    private boolean isSectionKey(String key) {
+        return RESOURCES_KEY.equals(key) || TASKS_KEY.equals(key) || SpaceJsonWriter.POOL_KEY.equals(key);
+    }
+
+    // EFFECTS: returns true if currently inside a value which the save format does not use
+    private boolean skipping() {
+        return skipDepth != 0 && depth >= skipDepth;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops skipping once parser has left the skipped value
+    private void stopSkippingIfDone() {
+        if (skipDepth != 0 && depth < skipDepth) {
+            skipDepth = 0;
+        }
+    }
+
+    // EFFECTS: returns exception describing unexpected token
+    private ParseException invalid(Object unexpected) {
+        return new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, unexpected);
+    }
+}
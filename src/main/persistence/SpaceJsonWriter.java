@@ -0,0 +1,197 @@
+package persistence;
+
+import model.Resource;
+import model.ResourcePool;
+import model.Space;
+import model.ToDoList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes spaces as JSON straight to an output stream while walking the model, producing the same text as
+// json-simple's JSONArray.toString without first building the whole document in memory
+// a resource which is in more than one space is written once, in a {"pool": [resources...]} object before the
+// spaces, and each space refers to it by its position in the pool, as {"ref": position}; spaces with no resources in
+// common are written exactly as before
+public class SpaceJsonWriter {
+    static final String POOL_KEY = "pool";
+    static final String REF_KEY = "ref";
+
+    private java.io.Writer out;
+    private boolean pooling;
+    private ResourcePool shared;
+    private Map<Resource, Integer> positions;
+
+    // EFFECTS: creates json writer that writes to given output, writing shared resources once
+    public SpaceJsonWriter(java.io.Writer out) {
+        this(out, true);
+    }
+
+    // EFFECTS: creates json writer that writes to given output, writing shared resources once if pooling is true, or
+    //          in every space they are in otherwise, eg. so that arrays of spaces from several files can be joined
+    public SpaceJsonWriter(java.io.Writer out, boolean pooling) {
+        this.out = out;
+        this.pooling = pooling;
+        positions = new IdentityHashMap<>();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes given spaces as a JSON array, throws IOException if output can't be written to
+    public void writeSpaces(List<Space> spaces) throws IOException {
+        out.write('[');
+        List<Resource> pool = pooling ? findShared(spaces) : new ArrayList<>();
+        if (!pool.isEmpty()) {
+            out.write("{\"" + POOL_KEY + "\":[");
+            for (int i = 0; i < pool.size(); i++) {
+                out.write(i > 0 ? "," : "");
+                writeResource(pool.get(i));
+            }
+            out.write("]}");
+        }
+        boolean first = pool.isEmpty();
+        for (Space s : spaces) {
+            if (!first) {
+                out.write(',');
+            }
+            writeSpace(s);
+            first = false;
+        }
+        out.write(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the resources which are in more than one of spaces, in the order they first appear, and records
+    //          the position of each one so that spaces can refer to it
+    private List<Resource> findShared(List<Space> spaces) {
+        shared = new ResourcePool();
+        positions.clear();
+        for (Space s : spaces) {
+            for (Resource r : s.getResources()) {
+                shared.intern(r);
+            }
+        }
+
+        List<Resource> pool = new ArrayList<>();
+        for (Space s : spaces) {
+            for (Resource r : s.getResources()) {
+                Resource pooled = shared.get(r);
+                if (shared.getReferences(pooled) > 1 && !positions.containsKey(pooled)) {
+                    positions.put(pooled, pool.size());
+                    pool.add(pooled);
+                }
+            }
+        }
+        return pool;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes given space as a JSON object
+    public void writeSpace(Space space) throws IOException {
+        out.write("{\"name\":");
+        writeString(space.getName());
+        out.write(",\"resources\":[");
+        boolean first = true;
+        for (Resource r : space.getResources()) {
+            if (!first) {
+                out.write(',');
+            }
+            Integer position = shared == null ? null : positions.get(shared.get(r));
+            if (position == null) {
+                writeResource(r);
+            } else {
+                out.write("{\"" + REF_KEY + "\":" + position + "}");
+            }
+            first = false;
+        }
+        out.write("],\"tasks\":[");
+        ToDoList todo = space.getTodo();
+        for (int i = 0; i < todo.getNumToDos(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeTask(todo.getDescription(i), todo.isComplete(i));
+        }
+        out.write("]}");
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes given resource as a JSON object
+    private void writeResource(Resource resource) throws IOException {
+        out.write("{\"path\":");
+        writeString(resource.getPath());
+        out.write(",\"name\":");
+        writeString(resource.getName());
+        out.write(",\"type\":");
+        writeString(resource.getResourceType().name());
+        out.write('}');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes task of given description and completion as a JSON object
+    private void writeTask(String description, boolean complete) throws IOException {
+        out.write("{\"complete?\":");
+        out.write(complete ? "true" : "false");
+        out.write(",\"description\":");
+        writeString(description);
+        out.write('}');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes string as a quoted JSON string, escaped the same way as json-simple's JSONValue.escape
+    //          writes null if string is null
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            out.write("null");
+            return;
+        }
+
+        out.write('"');
+        int runStart = 0;
+        for (int i = 0; i < string.length(); i++) {
+            String escaped = escape(string.charAt(i));
+            if (escaped != null) {
+                out.write(string, runStart, i - runStart);
+                out.write(escaped);
+                runStart = i + 1;
+            }
+        }
+        out.write(string, runStart, string.length() - runStart);
+        out.write('"');
+    }
+
+    // EFFECTS: returns escape sequence for given character, or null if character does not need escaping
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '/':
+                return "\\/";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                return escapeControl(c);
+        }
+    }
+
+    // EFFECTS: returns unicode escape sequence for control characters, or null for any other character
+    private static String escapeControl(char c) {
+        if (c <= 0x1F || c >= 0x7F && c <= 0x9F || c >= 0x2000 && c <= 0x20FF) {
+            String hex = Integer.toHexString(c).toUpperCase();
+            return "\\u" + "0000".substring(hex.length()) + hex;
+        }
+        return null;
+    }
+}
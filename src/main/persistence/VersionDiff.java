@@ -0,0 +1,52 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// represents the differences between two versions in a workspace's save history, by space name
+// a space is changed if it is in both versions but its contents differ
+public class VersionDiff {
+    private List<String> added;
+    private List<String> removed;
+    private List<String> changed;
+
+    // EFFECTS: compares spaces in from with spaces in to
+    //          spaces are compared by the hash of their contents, so no space has to be read
+    public VersionDiff(SaveVersion from, SaveVersion to) {
+        added = new ArrayList<>();
+        removed = new ArrayList<>();
+        changed = new ArrayList<>();
+        for (String name : to.getSpaceNames()) {
+            String chunk = from.getChunk(name);
+            if (chunk == null) {
+                added.add(name);
+            } else if (!chunk.equals(to.getChunk(name))) {
+                changed.add(name);
+            }
+        }
+        for (String name : from.getSpaceNames()) {
+            if (to.getChunk(name) == null) {
+                removed.add(name);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if no space was added, removed, or changed
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    //getters
+    public List<String> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<String> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public List<String> getChanged() {
+        return Collections.unmodifiableList(changed);
+    }
+}
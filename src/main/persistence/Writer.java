@@ -1,33 +1,98 @@
 package persistence;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
-// allows saving a list of spaces to a JSON file
+// allows saving a list of spaces to a file
+// data is written to a temporary file which only replaces the target file once it is complete and on disk,
+// so a crash part way through a save leaves the previous file untouched; callers abort the writer in a finally
+// block so a save that fails part way leaves no temporary file behind
 // general format taken from TellerApp
 public class Writer {
-    private PrintWriter printWriter;
+    private File file;
+    private File tempFile;
+    private FileOutputStream fileStream;
+    private OutputStream stream;
+    private boolean finished;
 
     // EFFECTS: constructs Writer that will write to given file
+    //          throws IOException if file's directory can't be written to
     public Writer(File file) throws IOException {
-        printWriter = new PrintWriter(file);
+        this.file = file;
+        tempFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        fileStream = new FileOutputStream(tempFile);
+        stream = new BufferedOutputStream(fileStream);
     }
 
-    // EFFECTS: writes saveable to file
-    public void write(Saveable saveable) {
-        saveable.save(printWriter);
+    // EFFECTS: writes saveable to file, throws IOException if it can't be written
+    public void write(Saveable saveable) throws IOException {
+        saveable.save(stream);
     }
 
-    // EFFECTS: writes given string to file
-    public void write(String string) {
-        printWriter.write(string);
+    // EFFECTS: writes given string to file as UTF-8, throws IOException if it can't be written
+    public void write(String string) throws IOException {
+        stream.write(string.getBytes(StandardCharsets.UTF_8));
     }
 
     // MODIFIES: this
-    // EFFECTS: closes file writer
-    public void close() {
-        printWriter.close();
+    // EFFECTS: flushes written data to disk and atomically replaces file with it
+    //          throws IOException if data could not be written, in which case file is left unchanged
+    public void close() throws IOException {
+        try {
+            stream.flush();
+            fileStream.getFD().sync();
+            stream.close();
+            moveIntoPlace();
+            finished = true;
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if close hasn't completed, closes the temporary file and deletes it, leaving file unchanged;
+    //          otherwise does nothing, so it can always be called once writing is over
+    public void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            fileStream.close();
+        } catch (IOException expected) {
+            // the temporary file is deleted below either way
+        }
+        tempFile.delete();
+    }
+
+    // EFFECTS: renames temp file to file, atomically if file system supports it
+    private void moveIntoPlace() throws IOException {
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+    }
+
+    // EFFECTS: flushes the rename to disk, on platforms which allow opening a directory
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(file.getAbsoluteFile().getParentFile().toPath(),
+                StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException expected) {
+            // not supported on all platforms; the rename itself is still atomic
+        }
     }
 }
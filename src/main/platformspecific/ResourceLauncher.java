@@ -5,7 +5,7 @@ import model.exception.SystemNotSupportedException;
 
 import java.awt.*;
 import java.io.File;
-import java.net.URL;
+import java.net.URI;
 
 // On supported platforms, launches external applications
 public class ResourceLauncher {
@@ -30,13 +30,13 @@ public class ResourceLauncher {
 
     /// EFFECTS: if desktop is supported, opens given site and returns true if successful
     // or prints error if desktop is not supported
-    public static void openSite(URL url) throws SystemNotSupportedException, FailedToOpenException {
+    public static void openSite(URI url) throws SystemNotSupportedException, FailedToOpenException {
         Desktop desktop;
         if (Desktop.isDesktopSupported()) {
             desktop = Desktop.getDesktop();
             if (desktop.isSupported(Desktop.Action.OPEN)) {
                 try {
-                    desktop.browse(url.toURI());
+                    desktop.browse(url);
                     return;
                 } catch (Exception e) {
                     throw new FailedToOpenException();
@@ -8,7 +8,12 @@ import model.exception.NoBackupFoundException;
 import network.DatabaseBackupManager;
 import network.DatabaseTool;
 import org.json.simple.JSONArray;
+import persistence.BookmarkImport;
+import persistence.ChangeJournal;
+import persistence.ExternalChanges;
 import persistence.Reader;
+import persistence.SaveVersion;
+import persistence.SegmentedStore;
 import persistence.Writer;
 
 import java.io.File;
@@ -16,10 +21,14 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
+import static model.WorkspaceApp.WORKSPACE_DIRECTORY;
 import static model.WorkspaceApp.WORKSPACE_FILE;
 
 public abstract class WorkspaceAppUI {
+    public static final String BOOKMARKS_SPACE = "Bookmarks";
+
     public WorkspaceApp workspace;
 
     // EFFECTS: displays a message to the user, depends on ui being used
@@ -31,33 +40,109 @@ public abstract class WorkspaceAppUI {
     // EFFECTS: refreshes the ui to display any changes in the list of spaces
     protected abstract void refresh();
 
-    // EFFECTS: initializes the workspace application with a workspace
+    // EFFECTS: runs task on the thread which makes changes to the workspace; by default, runs it straight away
+    protected void dispatch(Runnable task) {
+        task.run();
+    }
+
+    // EFFECTS: shows that validated of total bookmarks being imported have been checked; by default, does nothing
+    protected void importProgress(int validated, int total) {
+    }
+
+    // EFFECTS: returns true if the user has cancelled the bookmark import; by default, an import can't be cancelled
+    protected boolean isImportCanceled() {
+        return false;
+    }
+
+    // EFFECTS: initializes the workspace application with a workspace which keeps a history of its saves
     public WorkspaceAppUI() {
         workspace = new WorkspaceApp();
+        workspace.setKeepHistory(true);
     }
 
-    // EFFECTS: saves state of all spaces in workspace to WORKSPACE_FILE and displays feedback messages
+    // MODIFIES: space
+    // EFFECTS: loads space's resources and tasks if they haven't been loaded yet, checks that its resources can still
+    //          be found, then runs the ui for it; displays an error message instead if they can't be loaded
+    public void openSpace(Space space) {
+        try {
+            space.hydrate();
+            runSpace(space);
+        } catch (IOException | InvalidFormatException e) {
+            displayMessage("Could not load space " + space.getName()
+                    + ". Its saved data is missing or not in the correct format.");
+        }
+    }
+
+    // EFFECTS: saves state of all spaces in workspace to WORKSPACE_DIRECTORY and displays feedback messages
+    //          from then on, changes are journaled so they can be recovered if the app closes without saving, and
+    //          are saved automatically in the background; changes saved by other programs are reloaded
     public void saveSpaces() {
         try {
             workspace.saveSpaces();
-            displayMessage("Workspace data saved to file " + WORKSPACE_FILE);
+            displayMessage("Workspace data saved to " + WORKSPACE_DIRECTORY);
+            if (!workspace.isJournaling()) {
+                workspace.startJournal(WORKSPACE_DIRECTORY);
+            }
+            if (!workspace.isAutosaving()) {
+                workspace.startAutosave(WORKSPACE_DIRECTORY);
+            }
+            if (!workspace.isWatching()) {
+                watchForChanges(WORKSPACE_DIRECTORY);
+            }
         } catch (IOException e) {
-            displayMessage("File error: Unable to save to " + WORKSPACE_FILE);
+            displayMessage("File error: Unable to save to " + WORKSPACE_DIRECTORY);
+        }
+    }
+
+    // EFFECTS: discards changes made since the last save so they won't be recovered on the next load
+    public void discardChanges() {
+        try {
+            workspace.stopWatching();
+            workspace.stopAutosave();
+            workspace.discardJournal();
+        } catch (IOException e) {
+            displayMessage("File error: Unable to discard unsaved changes in " + WORKSPACE_DIRECTORY
+                    + ChangeJournal.JOURNAL_SUFFIX);
         }
     }
 
     // MODIFIES: this
     // EFFECTS: initializes workspace with saved space data and displays feedback messages
+    //          if there is no save in WORKSPACE_DIRECTORY yet but there is a single-file save at WORKSPACE_FILE,
+    //          imports that file and saves it to WORKSPACE_DIRECTORY
     public void loadSaveData() {
-        loadSaveData(WORKSPACE_FILE);
+        if (!SegmentedStore.exists(new File(WORKSPACE_DIRECTORY)) && new File(WORKSPACE_FILE).exists()) {
+            loadSaveData(WORKSPACE_FILE);
+            if (!workspace.getSpaces().isEmpty()) {
+                saveSpaces();
+                ChangeJournal.delete(WORKSPACE_FILE);
+            }
+        } else {
+            loadSaveData(WORKSPACE_DIRECTORY);
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: initializes workspace with saved space data and displays feedback messages
+    //          if loaded from WORKSPACE_DIRECTORY, recovers unsaved changes from its journal, keeps journaling, saves
+    //          changes to it in the background from then on, and reloads changes other programs save to it
     public void loadSaveData(String filePath) {
         try {
             workspace.loadSpaces(filePath);
             refresh();
+            int unavailable = workspace.validateResources();
+            if (unavailable > 0) {
+                displayMessage(unavailable + " resource(s) could not be found and are marked as unavailable.");
+            }
+            if (workspace.getRecoveredChanges() > 0) {
+                displayMessage("Recovered " + workspace.getRecoveredChanges() + " unsaved change(s) from "
+                        + filePath + ChangeJournal.JOURNAL_SUFFIX);
+            }
+            if (filePath.equals(WORKSPACE_DIRECTORY)) {
+                workspace.startJournal(filePath);
+                workspace.startAutosave(filePath);
+                watchForChanges(filePath);
+            }
         } catch (IOException e) {
             displayMessage("Could not find previous save file " + filePath + ". No saved spaces were loaded.");
         } catch (InvalidFormatException e) {
@@ -66,6 +151,55 @@ public abstract class WorkspaceAppUI {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: from now on, reloads changes other programs save to given save file as they are made
+    private void watchForChanges(String filePath) {
+        try {
+            workspace.startWatching(filePath, this::dispatch, this::changesReloaded);
+        } catch (IOException expected) {
+            // the save can't be watched on this file system, so changes made elsewhere are only seen on the next load
+        }
+    }
+
+    // EFFECTS: tells the user about spaces which another program changed, but which also have unsaved changes here
+    private void changesReloaded(ExternalChanges changes) {
+        if (!changes.getConflicts().isEmpty()) {
+            displayMessage("Another program changed " + String.join(", ", changes.getConflicts())
+                    + ", which also changed here. Saving will replace the other program's changes.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads bookmarks from the bookmark export, CSV, or Markdown file at path, then adds them to spaces
+    //          named after their folders on the thread which makes changes to the workspace, and displays feedback
+    //          message; bookmarks which aren't in a folder are added to BOOKMARKS_SPACE
+    //          reading doesn't change the workspace, so this can be called on a background thread
+    public void importBookmarks(String path) {
+        try {
+            BookmarkImport bookmarks = BookmarkImport.read(new File(path), BOOKMARKS_SPACE, new ImportProgress());
+            dispatch(() -> addBookmarks(bookmarks));
+        } catch (IOException e) {
+            dispatch(() -> displayMessage("Could not read bookmarks from " + path + ". No bookmarks were imported."));
+        } catch (CancellationException e) {
+            dispatch(() -> displayMessage("Bookmark import cancelled. No bookmarks were imported."));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds imported bookmarks to the workspace's spaces and displays feedback message
+    private void addBookmarks(BookmarkImport bookmarks) {
+        try {
+            int added = bookmarks.addTo(workspace);
+            refresh();
+            displayMessage("Imported " + added + " of " + bookmarks.getNumBookmarks() + " bookmark(s) into "
+                    + bookmarks.getFolders().size() + " space(s). " + bookmarks.getNumDuplicates()
+                    + " were already in their space and " + bookmarks.getNumInvalid() + " were not valid links.");
+        } catch (IOException | InvalidFormatException e) {
+            refresh();
+            displayMessage("Could not import bookmarks into a space whose saved data is missing or not valid.");
+        }
+    }
+
     // EFFECTS: stores workspace data in database, or displays error message if unable
     public void backupData(Account account) {
         try {
@@ -76,14 +210,41 @@ public abstract class WorkspaceAppUI {
             e.printStackTrace();
             displayMessage("Failed to communicate with database to backup data.");
         } catch (Exception e) {
-            displayMessage("Could not find valid save data at " + WORKSPACE_FILE);
+            displayMessage("Could not find valid save data at " + WORKSPACE_DIRECTORY);
+        }
+    }
+
+    // EFFECTS: returns every saved version of the workspace, oldest first, or an empty list if they can't be read
+    public List<SaveVersion> listVersions() {
+        try {
+            return workspace.listVersions(WORKSPACE_DIRECTORY);
+        } catch (IOException | InvalidFormatException e) {
+            displayMessage("Could not read the save history of " + WORKSPACE_DIRECTORY);
+            return new ArrayList<>();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces spaces with those of given saved version and displays feedback message
+    public void restoreVersion(int version) {
+        try {
+            workspace.restoreVersion(WORKSPACE_DIRECTORY, version);
+            refresh();
+            displayMessage("Restored version " + version + ". The previous spaces can still be restored from history.");
+        } catch (IOException | InvalidFormatException e) {
+            displayMessage("Could not restore version " + version + ". Its saved data is missing or not valid.");
         }
     }
 
     // MODIFES: this
     // EFFECTS: overwrites local save data with backed up data and displays feedback message
+    //          the workspace is saved first, so that it can be restored from history if the backup is not wanted
     public void restoreBackup(Account account) {
         try {
+            saveSpaces();
+            workspace.stopWatching();
+            workspace.stopAutosave();
+            workspace.stopJournal();
             DatabaseBackupManager.restoreBackup(account);
             loadSaveData();
         } catch (SQLException e) {
@@ -91,7 +252,20 @@ public abstract class WorkspaceAppUI {
         } catch (NoBackupFoundException e) {
             displayMessage("No backup found for this account.");
         } catch (IOException ex) {
-            displayMessage("Failed to save retrieved data to " + WORKSPACE_FILE + ". Data was not restored.");
+            displayMessage("Failed to save retrieved data to " + WORKSPACE_DIRECTORY + ". Data was not restored.");
+        }
+    }
+
+    // Reports the progress of a bookmark import to this ui, and stops it if the user cancels it
+    private class ImportProgress implements BookmarkImport.Progress {
+        @Override
+        public void progress(int validated, int total) {
+            importProgress(validated, total);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return isImportCanceled();
         }
     }
 }
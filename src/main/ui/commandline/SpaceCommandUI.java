@@ -12,6 +12,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.List;
 
 // Command line UI within a space
@@ -34,11 +35,13 @@ public class SpaceCommandUI {
     private static final String CANCEL_TIMER_CMD = "CANCEL TIMER";
 
     private Space space;
+    private LinkIndex links;
     private BufferedReader userInput;
 
-    // EFFECTS: initializes and runs the ui for a space
-    public SpaceCommandUI(Space space) {
+    // EFFECTS: initializes and runs the ui for a space, checking new links against those in links
+    public SpaceCommandUI(Space space, LinkIndex links) {
         this.space = space;
+        this.links = links;
         runSpaceUI();
     }
 
@@ -96,17 +99,32 @@ public class SpaceCommandUI {
     // EFFECTS: if this space has resources, displays them in a numbered table
     private void displayResources() {
         if (space.getResources().size() > 0) {
-            displayNumberedTable("Resources", space.getAllResourceNames());
+            displayNumberedTable("Resources", getResourceRows());
         } else {
             System.out.println("You don't have any resources yet.");
         }
         System.out.println();
     }
 
+    // EFFECTS: returns names of this space's resources, marking those which could not be found
+    private List<String> getResourceRows() {
+        List<String> rows = new ArrayList<>();
+        for (Resource r : space.getResources()) {
+            if (r.getStatus() == Resource.Status.MISSING) {
+                rows.add(r.getName() + " (missing)");
+            } else if (r.getStatus() == Resource.Status.TIMED_OUT) {
+                rows.add(r.getName() + " (not responding)");
+            } else {
+                rows.add(r.getName());
+            }
+        }
+        return rows;
+    }
+
     // EFFECTS: if this space has tasks in its to-do list, displays tasks in a numbered table
     private void displayTodo() {
         if (space.getTodo().getNumToDos() > 0) {
-            displayNumberedTable("To-Do", space.getTodo().getAllTaskDescriptions());
+            displayNumberedTable("To-Do", space.getTodo().getTaskDescriptions());
         } else {
             System.out.println("You don't have any tasks in your to-do list yet.");
         }
@@ -281,13 +299,32 @@ public class SpaceCommandUI {
                 } else {
                     newResource = new AppShortcut(name, path);
                 }
-                space.addResource(newResource);
+                addResource(newResource);
             } catch (Exception e) {
                 System.out.println("Invalid link or filepath.");
             }
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds resource to space, unless space has a resource of the same name or resource is a link space
+    //          already has; if resource is a link other spaces have, prints which
+    private void addResource(Resource resource) {
+        List<Space> linked = resource instanceof WebsiteLink
+                ? links.getSpacesWithLink(((WebsiteLink) resource).getUri()) : new ArrayList<>();
+        if (linked.contains(space)) {
+            System.out.println("This space already has a link to " + resource.getPath() + ".");
+        } else if (!space.addResource(resource)) {
+            System.out.println("A resource with that name already exists.");
+        } else if (!linked.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (Space s : linked) {
+                names.add(s.getName());
+            }
+            System.out.println("This link is also in " + String.join(", ", names) + ".");
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: processes user input to add a task, adds it to space to-do list
     private void addTask() throws IOException {
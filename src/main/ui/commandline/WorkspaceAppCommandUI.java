@@ -1,6 +1,9 @@
 package ui.commandline;
 
+import model.SearchResult;
 import model.Space;
+import persistence.SaveVersion;
+import persistence.VersionDiff;
 import ui.WorkspaceAppUI;
 
 import java.util.*;
@@ -13,6 +16,12 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
     private static final String CANCEL_CMD = "CANCEL";
     private static final String CONFIRM_CMD = "YES";
     private static final String HELP_CMD = "HELP";
+    private static final String HISTORY_CMD = "HISTORY";
+    private static final String SEARCH_CMD = "SEARCH";
+    private static final String UNDO_CMD = "UNDO";
+    private static final String REDO_CMD = "REDO";
+    private static final String IMPORT_CMD = "IMPORT";
+    private static final int MAX_SEARCH_RESULTS = 20;
 
     private static Set<String> COMMANDS;
 
@@ -22,7 +31,8 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
     public WorkspaceAppCommandUI() {
         super();
         COMMANDS = new HashSet<>(
-                Arrays.asList(ADD_SPACE_CMD, DELETE_SPACE_CMD, EXIT_CMD, CANCEL_CMD, CONFIRM_CMD, HELP_CMD));
+                Arrays.asList(ADD_SPACE_CMD, DELETE_SPACE_CMD, EXIT_CMD, CANCEL_CMD, CONFIRM_CMD, HELP_CMD,
+                        HISTORY_CMD, SEARCH_CMD, UNDO_CMD, REDO_CMD, IMPORT_CMD));
         runWorkspaceAppUI();
     }
 
@@ -88,8 +98,19 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
             deleteSpace();
         } else if (input.equals(HELP_CMD)) {
             helpMenu();
-        } else if (workspace.getAllSpaceNames().contains(input)) {
-            runSpace(workspace.getSpaceOfName(input));
+        } else if (input.equals(HISTORY_CMD)) {
+            history();
+        } else if (input.equals(SEARCH_CMD)) {
+            search();
+        } else if (input.equals(IMPORT_CMD)) {
+            System.out.println("Enter the path of a browser's bookmarks export, or a CSV or Markdown list of links.");
+            importBookmarks(userInput.nextLine().trim());
+        } else if (input.equals(UNDO_CMD)) {
+            System.out.println(workspace.getUndoHistory().undo() ? "Undid the last change." : "Nothing to undo.");
+        } else if (input.equals(REDO_CMD)) {
+            System.out.println(workspace.getUndoHistory().redo() ? "Redid the last change." : "Nothing to redo.");
+        } else if (workspace.getSpaceOfName(input) != null) {
+            openSpace(workspace.getSpaceOfName(input));
         } else {
             System.out.println("Command was not recognized.");
         }
@@ -99,9 +120,75 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
     private void helpMenu() {
         System.out.println("\"" + ADD_SPACE_CMD + "\": Create a new space.");
         System.out.println("\"" + DELETE_SPACE_CMD + "\": Delete a space.");
+        System.out.println("\"" + HISTORY_CMD + "\": View saved versions and restore one.");
+        System.out.println("\"" + SEARCH_CMD + "\": Find spaces, resources, and tasks.");
+        System.out.println("\"" + IMPORT_CMD + "\": Import bookmarks into spaces named after their folders.");
+        System.out.println("\"" + UNDO_CMD + "\": Undo the last change to your spaces.");
+        System.out.println("\"" + REDO_CMD + "\": Redo the last change undone.");
         System.out.println("\"" + EXIT_CMD + "\": Exit app and save data locally.");
     }
 
+    // MODIFIES: this
+    // EFFECTS: lists saved versions with the spaces changed by each, then restores the version the user enters
+    private void history() {
+        List<SaveVersion> versions = listVersions();
+        if (versions.isEmpty()) {
+            System.out.println("There are no saved versions yet.");
+            return;
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            SaveVersion version = versions.get(i);
+            System.out.println("  " + version.getNumber() + ": " + new Date(version.getTime())
+                    + (i == 0 ? "" : describeChanges(new VersionDiff(versions.get(i - 1), version))));
+        }
+
+        System.out.println("Enter the number of a version to restore (or enter \"" + CANCEL_CMD + "\" to cancel).");
+        String input = userInput.nextLine().toUpperCase();
+        try {
+            restoreVersion(Integer.parseInt(input));
+        } catch (NumberFormatException e) {
+            System.out.println("No version was restored.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lists spaces, resources, and tasks matching the words the user enters, then opens the space of the
+    //          result the user picks
+    private void search() {
+        System.out.println("Enter words to search for.");
+        List<SearchResult> results = workspace.search(userInput.nextLine(), MAX_SEARCH_RESULTS);
+        if (results.isEmpty()) {
+            System.out.println("Nothing was found.");
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            System.out.println("  " + (i + 1) + ": " + results.get(i));
+        }
+
+        System.out.println("Enter the number of a result to open its space (or enter \"" + CANCEL_CMD
+                + "\" to cancel).");
+        try {
+            openSpace(results.get(Integer.parseInt(userInput.nextLine()) - 1).getSpace());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.out.println("No space was opened.");
+        }
+    }
+
+    // EFFECTS: returns summary of spaces added, removed, and changed in diff
+    private String describeChanges(VersionDiff diff) {
+        StringBuilder description = new StringBuilder();
+        for (String name : diff.getAdded()) {
+            description.append(" +").append(name);
+        }
+        for (String name : diff.getRemoved()) {
+            description.append(" -").append(name);
+        }
+        for (String name : diff.getChanged()) {
+            description.append(" ~").append(name);
+        }
+        return description.toString();
+    }
+
     // MODIFIES: this
     // EFFECTS: creates a new space and adds it to the workspace app, as long as space name is valid
     private void addSpace() {
@@ -138,7 +225,7 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
 
             if (input.equals(CANCEL_CMD)) {
                 run = false;
-            } else if (workspace.getAllSpaceNames().contains(input)) {
+            } else if (workspace.getSpaceOfName(input) != null) {
                 String spaceName = input.toUpperCase();
                 System.out.println("Are you sure you want to delete " + spaceName + " space?");
                 System.out.println("Enter \"" + CONFIRM_CMD + "\" to continue, or enter anything else to cancel.");
@@ -160,7 +247,7 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
 
     // EFFECTS: returns true if name is not an existing space name and not a command keyword, otherwise returns false
     private boolean checkValidSpaceName(String name) {
-        return (!(COMMANDS.contains(name)) && !(workspace.getAllSpaceNames().contains(name)));
+        return (!(COMMANDS.contains(name)) && workspace.getSpaceOfName(name) == null);
     }
 
     // EFFECTS: outputs the given message to console
@@ -169,8 +256,9 @@ public class WorkspaceAppCommandUI extends WorkspaceAppUI {
     }
 
     // MODIFIES: this
-    // EFFECTS: enters a space
+    // EFFECTS: checks the space's resources can still be found, then enters the space
     protected void runSpace(Space space) {
-        new SpaceCommandUI(space);
+        workspace.validateResources(space);
+        new SpaceCommandUI(space, workspace.getLinkIndex());
     }
 }
@@ -4,17 +4,19 @@ import javax.swing.*;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
+// a list of check-boxes under a header, with a toolbar below; check-boxes can be added, removed, and selected by
+// position, so that the panel can be kept in step with the list it shows one change at a time
 public class ChecklistPanel extends JPanel implements GuiComponent {
     private static final Color PANEL_COLOUR = MAIN_COLOUR;
     private static final String NORMAL_TOOLBAR = "Normal";
     private static final String DELETE_TOOLBAR = "Delete";
     private static final String CANCEL = "Done";
 
-    private Set<JCheckBox> checkBoxes;
+    private List<JCheckBox> checkBoxes;
     private JPanel toolbar;
     private CardLayout toolbarLayout;
     private JPanel listPanel;
@@ -27,7 +29,7 @@ public class ChecklistPanel extends JPanel implements GuiComponent {
                    ChecklistListener checklistListener) {
         super(new BorderLayout());
         this.checklistListener = checklistListener;
-        checkBoxes = new HashSet<>();
+        checkBoxes = new ArrayList<>();
         deleteMode = false;
 
         init(title, checklist, normalToolbar);
@@ -130,12 +132,38 @@ public class ChecklistPanel extends JPanel implements GuiComponent {
     // MODIFIES: this
     // EFFECTS: adds a checkbox with the given text string
     public void addElement(String text) {
+        addElement(checkBoxes.size(), text);
+    }
+
+    // REQUIRES: 0 <= index <= # check-boxes
+    // MODIFIES: this
+    // EFFECTS: inserts a checkbox with the given text string at index, and returns it
+    public JCheckBox addElement(int index, String text) {
         JCheckBox checkBox = new JCheckBox(text);
         formatCheckBox(checkBox);
+        checkBox.setEnabled(!deleteMode);
         checkBox.addItemListener(new CheckboxItemListener(checkBox));
         checkBox.addMouseListener(new CheckboxMouseAdapter(checkBox));
-        checkBoxes.add(checkBox);
-        listPanel.add(checkBox);
+        checkBoxes.add(index, checkBox);
+        listPanel.add(checkBox, index);
+        listChanged();
+        return checkBox;
+    }
+
+    // REQUIRES: 0 <= index < # check-boxes
+    // MODIFIES: this
+    // EFFECTS: removes the checkbox at index
+    public void removeElement(int index) {
+        checkBoxes.remove(index);
+        listPanel.remove(index);
+        listChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lays out and repaints the list after check-boxes were added or removed
+    private void listChanged() {
+        listPanel.revalidate();
+        listPanel.repaint();
     }
 
     // MODIFIES: this
@@ -166,28 +194,9 @@ public class ChecklistPanel extends JPanel implements GuiComponent {
         checkBox.setFont(MEDIUM_FONT);
     }
 
-    // MODIFIES: this
-    // EFFECTS: removes all checkboxes that are currently selected
-    public void deleteSelected() {
-        for (JCheckBox checkBox : checkBoxes) {
-            if (checkBox.isSelected()) {
-                listPanel.remove(checkBox);
-            }
-        }
-    }
-
-    // MODIFIES: this
-    // EFFECTS: sets the checkbox with given text as selected
-    public void setSelected(String text) {
-        for (JCheckBox checkBox : checkBoxes) {
-            if (checkBox.getText().equals(text)) {
-                checkBox.setSelected(true);
-            }
-        }
-    }
-
     // getters
-    public Collection<JCheckBox> getCheckBoxes() {
+    // EFFECTS: returns the check-boxes of this panel, in order
+    public List<JCheckBox> getCheckBoxes() {
         return checkBoxes;
     }
 
@@ -199,13 +208,11 @@ public class ChecklistPanel extends JPanel implements GuiComponent {
             this.checkBox = checkBox;
         }
 
-        // MODIFIES: this
-        // EFFECTS: removes clicked checkbox from checklist, calls given delete handler
+        // EFFECTS: calls given delete handler for clicked checkbox, which removes it by removing its element
         @Override
         public void mousePressed(MouseEvent e) {
             if (deleteMode) {
                 checkBox.setFocusable(false);
-                listPanel.remove(checkBox);
                 checklistListener.elementDeleted(checkBox.getText());
             }
         }
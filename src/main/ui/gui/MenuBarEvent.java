@@ -6,8 +6,11 @@ public class MenuBarEvent {
     public enum EventType {
         SAVE_SPACES,
         LOAD_SAVE_DATA,
+        IMPORT_BOOKMARKS,
         BACKUP_DATA,
-        RESTORE_BACKUP;
+        RESTORE_BACKUP,
+        UNDO,
+        REDO;
     }
 
     private EventType eventType;
@@ -10,8 +10,12 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 
 // Graphic interface for a space, within a Workspace app
+// the resource and task lists follow the space's model events, so each change, whether made here, by undoing or
+// redoing, or by another program, updates only the check-box it affects
 public class SpaceGUI implements GuiComponent {
 
     // Button names/tooltips and action commands
@@ -22,18 +26,28 @@ public class SpaceGUI implements GuiComponent {
     private static final String DELETE_COMPLETED_TASKS = "Delete completed";
     private static final String ADD_TASK = "Add task";
     private static final String DELETE_TASK = "Delete task";
+    private static final String UNDO = "Undo";
+    private static final String REDO = "Redo";
 
     private static final Color PANEL_COLOUR = MAIN_COLOUR;
+    private static final Color COMPLETED_COLOUR = new Color(230, 230, 230);
 
     private Space space;
+    private UndoHistory history;
+    private LinkIndex links;
     private GuiFrame guiFrame;
     private ChecklistPanel taskPanel;
     private ChecklistPanel resourcePanel;
     private TimerPanel timerPanel;
+    private JSplitPane listsPane;
+    private ModelListener spaceListener;
 
-    // EFFECTS: creates new gui frame for space and displays space info
-    public SpaceGUI(Space space, GuiFrame parent) {
+    // EFFECTS: creates new gui frame for space of workspace and displays space info, where changes can be undone and
+    //          redone with the workspace's history
+    public SpaceGUI(Space space, GuiFrame parent, WorkspaceApp workspace) {
         this.space = space;
+        history = workspace.getUndoHistory();
+        links = workspace.getLinkIndex();
         guiFrame = new GuiFrame("Workspace");
 
         init(parent);
@@ -45,20 +59,105 @@ public class SpaceGUI implements GuiComponent {
         guiFrame.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
+                space.removeModelListener(spaceListener);
                 parent.refresh();
             }
         });
         addSplitPanes();
+        addUndoKeys();
+        spaceListener = this::spaceChanged;
+        space.addModelListener(spaceListener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: binds ctrl-Z to undo and ctrl-Y to redo the latest change to this space, leaving other spaces alone
+    private void addUndoKeys() {
+        JRootPane root = guiFrame.getRootPane();
+        int ctrl = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, ctrl), UNDO);
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, ctrl), REDO);
+        root.getActionMap().put(UNDO, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                history.undo(space);
+            }
+        });
+        root.getActionMap().put(REDO, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                history.redo(space);
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the check-box of the resource or task which was added, removed, completed, or reopened, or
+    //          rebuilds the resource or task panel if all of the space's resources or tasks were replaced, eg.
+    //          because another program changed them
+    private void spaceChanged(ModelEvent e) {
+        switch (e.getType()) {
+            case RESOURCE_ADDED:
+                markIfUnavailable(resourcePanel.addElement(e.getIndex(), ((Resource) e.getElement()).getName()));
+                break;
+            case RESOURCE_REMOVED:
+                resourcePanel.removeElement(e.getIndex());
+                break;
+            case TASK_ADDED:
+                taskAdded(e.getIndex(), (Task) e.getElement());
+                break;
+            case TASK_REMOVED:
+                taskPanel.removeElement(e.getIndex());
+                break;
+            case TASK_COMPLETED:
+            case TASK_REOPENED:
+                showCompletion(taskPanel.getCheckBoxes().get(e.getIndex()), ((Task) e.getElement()).getComplete());
+                break;
+            default:
+                listsReplaced(e.getType());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds check-box of task added at index, selected if the task is complete
+    private void taskAdded(int index, Task task) {
+        JCheckBox checkBox = taskPanel.addElement(index, task.getDescription());
+        if (task.getComplete()) {
+            showCompletion(checkBox, true);
+        }
+    }
+
+    // MODIFIES: checkBox
+    // EFFECTS: selects and greys out checkBox of a complete task, or clears and restores checkBox of an incomplete one
+    private void showCompletion(JCheckBox checkBox, boolean complete) {
+        if (checkBox.isSelected() != complete) {
+            checkBox.setSelected(complete);
+        }
+        checkBox.setEnabled(!complete);
+        checkBox.setForeground(complete ? COMPLETED_COLOUR : WHITE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the resource panel if resources were replaced, or the task panel if the to-do list was
+    private void listsReplaced(ModelEvent.Type type) {
+        if (type == ModelEvent.Type.RESOURCES_REPLACED) {
+            listsPane.setLeftComponent(createResourcePanel());
+        } else if (type == ModelEvent.Type.TODO_REPLACED) {
+            listsPane.setRightComponent(createTaskPanel());
+        } else {
+            return;
+        }
+        listsPane.setDividerLocation((int) (WIDTH / 2));
+        guiFrame.getContentPane().revalidate();
+        guiFrame.repaint();
     }
 
     // MODIFIES: this
     // EFFECTS: adds split panes including timer, resources, and tasks to frame
     private void addSplitPanes() {
-        JSplitPane splitPane1 = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, createResourcePanel(),
-                createTaskPanel());
-        splitPane1.setDividerLocation((int) (WIDTH / 2));
+        listsPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, createResourcePanel(), createTaskPanel());
+        listsPane.setDividerLocation((int) (WIDTH / 2));
 
-        JSplitPane splitPane2 = new JSplitPane(JSplitPane.VERTICAL_SPLIT, createTimerPanel(), splitPane1);
+        JSplitPane splitPane2 = new JSplitPane(JSplitPane.VERTICAL_SPLIT, createTimerPanel(), listsPane);
         splitPane2.setDividerLocation((int) HEIGHT / 4);
 
         guiFrame.getContentPane().add(splitPane2, BorderLayout.CENTER);
@@ -72,7 +171,6 @@ public class SpaceGUI implements GuiComponent {
                     @Override
                     public void elementDeleted(String name) {
                         space.removeResource(name);
-                        guiFrame.refresh();
                     }
 
                     @Override
@@ -81,9 +179,31 @@ public class SpaceGUI implements GuiComponent {
                     }
                 });
 
+        resourcesValidated();
         return resourcePanel;
     }
 
+    // MODIFIES: this
+    // EFFECTS: greys out every resource which could not be found, once the space's resources have been checked
+    public void resourcesValidated() {
+        for (JCheckBox checkBox : resourcePanel.getCheckBoxes()) {
+            markIfUnavailable(checkBox);
+        }
+    }
+
+    // MODIFIES: checkBox
+    // EFFECTS: greys out checkBox if its resource could not be found, with a tooltip explaining why
+    private void markIfUnavailable(JCheckBox checkBox) {
+        Resource r = space.getResourceOfName(checkBox.getText());
+        if (r != null && r.getStatus() == Resource.Status.MISSING) {
+            checkBox.setForeground(GREY);
+            checkBox.setToolTipText("Could not find " + r.getPath());
+        } else if (r != null && r.getStatus() == Resource.Status.TIMED_OUT) {
+            checkBox.setForeground(GREY);
+            checkBox.setToolTipText("Timed out while looking for " + r.getPath());
+        }
+    }
+
     // EFFECTS: creates and returns toolbar with buttons for resource pane in normal mode
     private JPanel createNormalResourceToolbar() {
         JPanel resourceToolbar = new JPanel();
@@ -111,37 +231,36 @@ public class SpaceGUI implements GuiComponent {
 
     // EFFECTS: creates and returns task panel with list of tasks
     private JPanel createTaskPanel() {
-        taskPanel = new ChecklistPanel("To-Do", space.getTodo().getAllTaskDescriptions(),
+        taskPanel = new ChecklistPanel("To-Do", space.getTodo().getTaskDescriptions(),
                 createNormalTaskToolbar(),
                 new ChecklistListener() {
                     @Override
                     public void elementDeleted(String name) {
+                        history.beginEdit();
                         space.getTodo().removeTask(name);
-                        guiFrame.refresh();
+                        history.endEdit();
                     }
 
                     @Override
                     public void elementSelected(JCheckBox checkBox) {
-                        checkBox.setEnabled(false);
-                        checkBox.setForeground(new Color(230, 230, 230));
-                        space.getTodo().completeTask(checkBox.getText());
+                        space.getTodo().completeTask(taskPanel.getCheckBoxes().indexOf(checkBox));
                     }
                 });
 
-        for (Task t : space.getTodo()) {
-            if (t.getComplete()) {
-                taskPanel.setSelected(t.getDescription());
+        for (int i = 0; i < space.getTodo().getNumToDos(); i++) {
+            if (space.getTodo().isComplete(i)) {
+                showCompletion(taskPanel.getCheckBoxes().get(i), true);
             }
         }
         return taskPanel;
     }
 
     // MODIFIES: this
-    // EFFECTS: deletes all tasks whose check-boxes are selected
+    // EFFECTS: deletes all tasks whose check-boxes are selected, as a single change to undo
     private void deleteSelectedTasks() {
+        history.beginEdit();
         space.getTodo().deleteCompletedTasks();
-        taskPanel.deleteSelected();
-        guiFrame.refresh();
+        history.endEdit();
     }
 
     // EFFECTS: creates and returns toolbar for task pane in normal mode
@@ -184,8 +303,6 @@ public class SpaceGUI implements GuiComponent {
         }
 
         space.getTodo().addTask(new Task(taskDescription));
-        taskPanel.addElement(taskDescription);
-        guiFrame.refresh();
     }
 
     // MODIFIES: this
@@ -280,7 +397,9 @@ public class SpaceGUI implements GuiComponent {
     // REQUIRES: type is one of the possible Resource.ResourceTypes
     // MODIFIES: this
     // EFFECTS: attempts to add a new resource of given type, name, and path.
-    //          if resource is not valid, displays an error message
+    //          if resource is not valid, this space already has a resource of that name, or resource is a link this
+    //          space already has, displays an error message; if resource is a link other spaces have, says which
+    //          of them that have been loaded have it, so adding a resource never waits on loading other spaces
     private void addResource(String type, String name, String path) {
         try {
             Resource r;
@@ -291,14 +410,29 @@ public class SpaceGUI implements GuiComponent {
             } else {
                 r = new FilePath(name, path);
             }
-            space.addResource(r);
-            resourcePanel.addElement(r.getName());
-            guiFrame.refresh();
+            List<Space> linked = r instanceof WebsiteLink ? links.getLoadedSpacesWithLink(((WebsiteLink) r).getUri())
+                    : Collections.<Space>emptyList();
+            if (linked.contains(space)) {
+                GuiFrame.displayMessage("This space already has a link to " + r.getPath() + ".");
+            } else if (!space.addResource(r)) {
+                GuiFrame.displayMessage("A resource named " + name + " already exists.");
+            } else if (!linked.isEmpty()) {
+                GuiFrame.displayMessage("This link is also in " + spaceNames(linked) + ".");
+            }
         } catch (Exception e) {
             guiFrame.displayMessage("Failed to create resource.");
         }
     }
 
+    // EFFECTS: returns names of given spaces, separated by commas
+    private static String spaceNames(List<Space> spaces) {
+        StringBuilder names = new StringBuilder();
+        for (Space s : spaces) {
+            names.append(names.length() > 0 ? ", " : "").append(s.getName());
+        }
+        return names.toString();
+    }
+
     // MODIFIES: this
     // EFFECTS: processes button clicks
     private void actionPerformed(ActionEvent e) {
@@ -320,11 +454,13 @@ public class SpaceGUI implements GuiComponent {
     }
 
     // EFFECTS: opens resources whose checkboxes are selected, or displays popup error message if unable
+    //          each resource is looked up by name in the space's index, so this takes time linear in # resources
     private void openSelectedResources() {
         for (JCheckBox resourceCheckBox : resourcePanel.getCheckBoxes()) {
-            if (resourceCheckBox.isSelected()) {
+            Resource r = space.getResourceOfName(resourceCheckBox.getText());
+            if (resourceCheckBox.isSelected() && r != null) {
                 try {
-                    space.getResourceOfName(resourceCheckBox.getText()).launch();
+                    r.launch();
                 } catch (SystemNotSupportedException e) {
                     GuiFrame.displayMessage("System does not support launching resources.");
                 } catch (FailedToOpenException ee) {
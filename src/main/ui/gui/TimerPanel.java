@@ -18,6 +18,7 @@ import java.awt.event.ComponentEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 // JPanel that displays a timer and buttons for controlling the timer
 public class TimerPanel extends JPanel implements GuiComponent {
@@ -42,6 +43,9 @@ public class TimerPanel extends JPanel implements GuiComponent {
     private String spaceName;
     private SystemTrayTool trayTool;
     private boolean isTraySupported;
+    private long shownSeconds;
+    private AtomicLong pendingSeconds;
+    private Runnable showPendingTime;
 
     // EFFECTS: constructs new timerPanel with timer not running
     TimerPanel(String title) {
@@ -49,6 +53,9 @@ public class TimerPanel extends JPanel implements GuiComponent {
         timer = new WorkTimer(0, DEFAULT_TIME);
         spaceName = title;
         isTraySupported = true;
+        shownSeconds = -1;
+        pendingSeconds = new AtomicLong(-1);
+        showPendingTime = this::showPendingTime;
 
         init(title);
     }
@@ -102,11 +109,23 @@ public class TimerPanel extends JPanel implements GuiComponent {
     }
 
     // MODIFIES: this
-    // EFFECTS: updates label with current time
+    // EFFECTS: updates label with current time, if it has changed since the label was last updated
     private void updateTimerLabel() {
-        timeLabel.setText(timer.getTime());
-        timeLabel.repaint();
-        timeLabel.setVisible(true);
+        long secondsLeft = timer.getSecondsLeft();
+        if (secondsLeft != shownSeconds) {
+            shownSeconds = secondsLeft;
+            timeLabel.setText(timer.getTime());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the latest time the timer ticked to in the label and tray icon tooltip
+    private void showPendingTime() {
+        pendingSeconds.set(-1);
+        updateTimerLabel();
+        if (isTraySupported && trayTool != null) {
+            trayTool.changeTooltip(spaceName + " : " + timeLabel.getText());
+        }
     }
 
     // EFFECTS: creates toolbar with timer control buttons
@@ -255,30 +274,39 @@ public class TimerPanel extends JPanel implements GuiComponent {
     }
 
     // MODIFIES: this
-    // EFFECTS: creates and adds listener to timer
+    // EFFECTS: creates and adds listener to timer, which updates this panel on the event dispatch thread, since the
+    //          timer notifies it from a thread of its own; if the event dispatch thread is busy, ticks it hasn't
+    //          caught up with are combined into one update
     private void addTimerListener() {
         timer.addTimerListener(new TimerListener() {
             @Override
             public void timerTick(TimerEvent e) {
-                trayTool.changeTooltip(spaceName + " : " + e.getTimeString());
-                updateTimerLabel();
+                if (pendingSeconds.getAndSet(e.getSecondsLeft()) < 0) {
+                    SwingUtilities.invokeLater(showPendingTime);
+                }
             }
 
             @Override
             public void timeUp(TimerEvent e) {
-                if (isTraySupported) {
-                    trayTool.showPopup("Time up!", "Your timer for " + spaceName + " has finished.");
-                    trayTool.deleteTrayIcon();
-                }
-
-                playChime();
-                timer.setTime(0, DEFAULT_TIME);
-                toolbarLayout.show(toolbar, NOT_RUNNING_TOOLBAR);
-                updateTimerLabel();
+                SwingUtilities.invokeLater(() -> finishTimer());
             }
         });
     }
 
+    // MODIFIES: this
+    // EFFECTS: tells user that time is up and resets timer
+    private void finishTimer() {
+        if (isTraySupported) {
+            trayTool.showPopup("Time up!", "Your timer for " + spaceName + " has finished.");
+            trayTool.deleteTrayIcon();
+        }
+
+        playChime();
+        timer.setTime(0, DEFAULT_TIME);
+        toolbarLayout.show(toolbar, NOT_RUNNING_TOOLBAR);
+        updateTimerLabel();
+    }
+
     // EFFECTS: loads and returns tray icon. If file can't be found, creates generic image.
     private Image loadTrayIcon() {
         Image icon;
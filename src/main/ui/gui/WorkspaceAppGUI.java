@@ -1,11 +1,15 @@
 package ui.gui;
 
 import model.Account;
+import model.ModelEvent;
+import model.SearchResult;
 import model.Space;
 import model.exception.CancelledException;
 import ui.WorkspaceAppUI;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.WindowAdapter;
@@ -21,6 +25,8 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
     private static final String ADD_SPACE_BUTTON = "Add space";
     private static final String DELETE_SPACE_BUTTON = "Delete space";
     private static final String CANCEL_BUTTON = "Done";
+    private static final String SEARCH_TOOLTIP = "Search spaces, resources, and tasks";
+    private static final int MAX_SEARCH_RESULTS = 15;
 
     private static final String DELETE_TOOLBAR_NAME = "delete";
     private static final String EDIT_TOOLBAR_NAME = "edit";
@@ -29,9 +35,13 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
 
     private GuiFrame guiFrame;
     private JPanel spacesPanel;
+    private JTextField searchField;
+    private JPopupMenu searchResults;
+    private boolean searchLoading;
     private JPanel toolbar;
     private CardLayout toolbarLayout;
     private boolean deleteMode;
+    private volatile ProgressMonitor importMonitor;
 
     public WorkspaceAppGUI() {
         super();
@@ -52,24 +62,89 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
     // MODIFIES: this
     // EFFECTS: initializes workspace and gui
     private void init() {
+        workspace.addModelListener(this::spacesChanged);
         WorkspaceMenuBar menuBar = new WorkspaceMenuBar(guiFrame);
         menuBar.addObserver(this);
         guiFrame.setJMenuBar(menuBar.getMenuBar());
         guiFrame.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                if (GuiFrame.popupQuestionYesNo("Would you like to save your changes?")) {
+                if (workspace.isAutosaving()) {
                     saveSpaces();
+                } else if (GuiFrame.popupQuestionYesNo("Would you like to save your changes?")) {
+                    saveSpaces();
+                } else {
+                    discardChanges();
                 }
             }
         });
 
         loadSaveData();
+        createSearchBox();
         createSpacesPanel();
         createToolbar();
         enterNormalSpaceMode();
     }
 
+    // MODIFIES: this
+    // EFFECTS: creates search box above the spaces, which lists matching spaces, resources, and tasks as user types
+    private void createSearchBox() {
+        searchField = new JTextField();
+        searchField.setFont(LABEL_FONT);
+        searchField.setToolTipText(SEARCH_TOOLTIP);
+        searchField.getDocument().addDocumentListener(createSearchListener());
+        searchResults = new JPopupMenu();
+        searchResults.setFocusable(false);
+
+        JPanel searchPanel = GuiFrame.formatPanel(new JPanel(new BorderLayout()));
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        guiFrame.getContentPane().add(searchPanel, BorderLayout.NORTH);
+    }
+
+    // EFFECTS: returns listener which updates search results whenever the text in the search box changes
+    private DocumentListener createSearchListener() {
+        return new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                showSearchResults();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                showSearchResults();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                showSearchResults();
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lists results for the text in the search box below it, each of which opens its space when clicked
+    //          the first search starts loading spaces which haven't been loaded yet in the background, and searches
+    //          again once they have, so that typing never waits on the disk
+    private void showSearchResults() {
+        if (!searchLoading && !searchField.getText().trim().isEmpty()) {
+            searchLoading = true;
+            workspace.loadSpacesLater(this::dispatch, this::showSearchResults);
+        }
+        searchResults.setVisible(false);
+        searchResults.removeAll();
+        for (SearchResult result : workspace.searchLoaded(searchField.getText(), MAX_SEARCH_RESULTS)) {
+            JMenuItem item = new JMenuItem(result.toString());
+            item.addActionListener(e -> {
+                searchField.setText("");
+                openSpace(result.getSpace());
+            });
+            searchResults.add(item);
+        }
+        if (searchResults.getComponentCount() > 0 && searchField.isShowing()) {
+            searchResults.show(searchField, 0, searchField.getHeight());
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: displays this workspace's spaces as buttons on screen
     private void createSpacesPanel() {
@@ -83,11 +158,7 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
         spacesPanel.setLayout(new GridLayout(0, 1, 0, 10));
 
         for (Space s : workspace.getSpaces()) {
-            JButton button = new FormattedJButton(s.getName());
-            button.setToolTipText("Open " + s.getName());
-            button.setActionCommand(s.getName());
-            button.addActionListener(this::actionPerformed);
-            spacesPanel.add(button);
+            spacesPanel.add(createSpaceButton(s));
         }
 
         if (deleteMode) {
@@ -95,6 +166,38 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
         }
     }
 
+    // EFFECTS: returns button which opens given space, or deletes it in delete mode
+    private JButton createSpaceButton(Space space) {
+        JButton button = new FormattedJButton(space.getName());
+        button.setToolTipText((deleteMode ? "Delete " : "Open ") + space.getName());
+        button.setActionCommand(space.getName());
+        button.addActionListener(this::actionPerformed);
+        if (deleteMode) {
+            button.setBackground(ACCENT_2);
+        }
+        return button;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds or removes the button of a space which was added to or removed from the workspace, leaving the
+    //          buttons of other spaces as they are, or rebuilds all of the buttons if the spaces were replaced
+    private void spacesChanged(ModelEvent e) {
+        if (spacesPanel == null || e.getSource() != workspace) {
+            return;
+        }
+        if (e.getType() == ModelEvent.Type.SPACE_ADDED) {
+            spacesPanel.add(createSpaceButton((Space) e.getElement()), e.getIndex());
+        } else if (e.getType() == ModelEvent.Type.SPACE_REMOVED) {
+            spacesPanel.remove(e.getIndex());
+        } else if (e.getType() == ModelEvent.Type.SPACES_REPLACED) {
+            createSpacesPanel();
+        } else {
+            return;
+        }
+        spacesPanel.revalidate();
+        spacesPanel.repaint();
+    }
+
     // MODIFIES: this
     // EFFECTS: updates space buttons to delete mode
     private void spaceButtonsDeleteMode() {
@@ -203,11 +306,9 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
         } else {
             if (deleteMode) {
                 deleteSpace(e.getActionCommand());
-                createSpacesPanel();
                 guiFrame.refresh();
             } else {
-                guiFrame.setVisible(false);
-                runSpace(workspace.getSpaceOfName(e.getActionCommand()));
+                openSpace(workspace.getSpaceOfName(e.getActionCommand()));
             }
         }
     }
@@ -215,6 +316,7 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
     // MODIFIES:
     // MODIFIES: this
     // EFFECTS: asks user for new space name and adds it, or does nothing if the user cancels
+    //          if a space of that name already exists, displays an error message
     private void addSpace() {
         String spaceName;
 
@@ -224,8 +326,10 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
             return;
         }
 
-        workspace.addSpace(new Space(spaceName));
-        refresh();
+        if (!workspace.addSpace(new Space(spaceName))) {
+            displayMessage("A space named " + spaceName + " already exists.");
+        }
+        guiFrame.refresh();
     }
 
     @Override
@@ -250,14 +354,56 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
         deleteMode = false;
     }
 
+    // EFFECTS: runs task on the event dispatch thread, which makes every change to the workspace in this gui
+    @Override
+    protected void dispatch(Runnable task) {
+        SwingUtilities.invokeLater(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: imports bookmarks from the file at path on a background thread, showing how many have been checked,
+    //          so the gui stays responsive while a large export is read
+    private void importInBackground(String path) {
+        ProgressMonitor monitor = new ProgressMonitor(guiFrame, "Importing bookmarks", null, 0, 1);
+        importMonitor = monitor;
+        Thread importer = new Thread(() -> {
+            importBookmarks(path);
+            SwingUtilities.invokeLater(monitor::close);
+        }, "bookmark-import");
+        importer.setDaemon(true);
+        importer.start();
+    }
+
+    // EFFECTS: shows progress of the import on the event dispatch thread
+    @Override
+    protected void importProgress(int validated, int total) {
+        ProgressMonitor monitor = importMonitor;
+        SwingUtilities.invokeLater(() -> {
+            monitor.setMaximum(total);
+            monitor.setProgress(validated);
+        });
+    }
+
+    // EFFECTS: returns true if the user has cancelled the import from its progress dialog
+    @Override
+    protected boolean isImportCanceled() {
+        return importMonitor.isCanceled();
+    }
+
     @Override
     protected void displayMessage(String message) {
         GuiFrame.displayMessage(message);
     }
 
+    // MODIFIES: this
+    // EFFECTS: hides the workspace window and shows space in its own window, which shows the workspace again when
+    //          it is closed; only called once space has loaded, so a space which fails to load leaves it showing
+    //          the space's resources are checked in the background, and marked in its window once they have been
     @Override
     protected void runSpace(Space space) {
-        new SpaceGUI(space, guiFrame);
+        guiFrame.setVisible(false);
+        SpaceGUI spaceGUI = new SpaceGUI(space, guiFrame, workspace);
+        workspace.validateResourcesLater(space, this::dispatch, unavailable -> spaceGUI.resourcesValidated());
     }
 
     // MODIFIES: this
@@ -270,8 +416,14 @@ public class WorkspaceAppGUI extends WorkspaceAppUI implements GuiComponent, Obs
                 saveSpaces();
             } else if (argument.getEventType().equals(MenuBarEvent.EventType.LOAD_SAVE_DATA)) {
                 loadSaveData((String) argument.getObject());
+            } else if (argument.getEventType().equals(MenuBarEvent.EventType.IMPORT_BOOKMARKS)) {
+                importInBackground((String) argument.getObject());
             } else if (argument.getEventType().equals(MenuBarEvent.EventType.BACKUP_DATA)) {
                 backupData((Account) argument.getObject());
+            } else if (argument.getEventType().equals(MenuBarEvent.EventType.UNDO)) {
+                workspace.getUndoHistory().undo();
+            } else if (argument.getEventType().equals(MenuBarEvent.EventType.REDO)) {
+                workspace.getUndoHistory().redo();
             } else {
                 restoreBackup((Account) argument.getObject());
             }
@@ -10,19 +10,23 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.io.File;
 import java.sql.SQLException;
 import java.util.Observable;
 
-// a menu bar for a workspace app; UI for data backups and retrieval
+// a menu bar for a workspace app; UI for data backups and retrieval, and for undoing and redoing changes
 public class WorkspaceMenuBar extends Observable implements GuiComponent {
     private JMenuBar menuBar;
     private JMenu saveMenu;
     private JMenu loadMenu;
+    private JMenu editMenu;
     private JMenuItem backup;
     private JMenuItem restore;
     private JMenuItem load;
     private JMenuItem save;
+    private JMenuItem undo;
+    private JMenuItem redo;
     JFrame parentFrame;
 
     // EFFECTS: constructs MenuBar for workspace
@@ -45,12 +49,34 @@ public class WorkspaceMenuBar extends Observable implements GuiComponent {
         saveMenu.add(backup);
         loadMenu.add(load);
         loadMenu.add(restore);
+        loadMenu.add(new JMenuItem("Import bookmarks")).addActionListener(e -> chooseBookmarksFile());
 
         menuBar.add(saveMenu);
         JLabel separator = new JLabel();
         separator.setPreferredSize(new Dimension(MARGIN, MARGIN));
         menuBar.add(separator);
         menuBar.add(loadMenu);
+        createEditMenu();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds menu to undo and redo changes, with the usual shortcut keys
+    private void createEditMenu() {
+        int ctrl = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
+        editMenu = new JMenu("Edit");
+        undo = new JMenuItem("Undo");
+        redo = new JMenuItem("Redo");
+        undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, ctrl));
+        redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, ctrl));
+        undo.addActionListener(this::actionPerformed);
+        redo.addActionListener(this::actionPerformed);
+        editMenu.add(undo);
+        editMenu.add(redo);
+
+        JLabel separator = new JLabel();
+        separator.setPreferredSize(new Dimension(MARGIN, MARGIN));
+        menuBar.add(separator);
+        menuBar.add(editMenu);
     }
 
     // MODIFIES: this
@@ -79,6 +105,9 @@ public class WorkspaceMenuBar extends Observable implements GuiComponent {
         } else if (e.getSource() == save) {
             notifyObservers(new MenuBarEvent(MenuBarEvent.EventType.SAVE_SPACES,
                     null));
+        } else if (e.getSource() == undo || e.getSource() == redo) {
+            notifyObservers(new MenuBarEvent(e.getSource() == undo ? MenuBarEvent.EventType.UNDO
+                    : MenuBarEvent.EventType.REDO, null));
         }
     }
 
@@ -206,6 +235,20 @@ public class WorkspaceMenuBar extends Observable implements GuiComponent {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: prompts user to choose a file of bookmarks exported from a browser, or a CSV or Markdown list of
+    //          links, and imports it; if user cancels, does nothing
+    private void chooseBookmarksFile() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("BOOKMARK FILES", "html", "htm", "csv", "md"));
+
+        if (fileChooser.showOpenDialog(parentFrame) == JFileChooser.APPROVE_OPTION) {
+            setChanged();
+            notifyObservers(new MenuBarEvent(MenuBarEvent.EventType.IMPORT_BOOKMARKS,
+                    fileChooser.getSelectedFile().getPath()));
+        }
+    }
+
     // getters
     public JMenuBar getMenuBar() {
         return menuBar;
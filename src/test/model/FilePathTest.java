@@ -48,6 +48,27 @@ class FilePathTest {
         assertEquals(Resource.ResourceType.FILE, filePath.getResourceType());
     }
 
+    @Test
+    public void testUnchecked() throws Exception {
+        assertEquals(Resource.Status.OK, filePath.getStatus());
+
+        FilePath missing = FilePath.uncheckedFile("Missing", "./TestDirectory/missing.txt");
+        assertEquals("Missing", missing.getName());
+        assertEquals(Resource.Status.UNCHECKED, missing.getStatus());
+        assertEquals(Resource.Status.MISSING, missing.checkStatus());
+        assertEquals(Resource.Status.OK, FilePath.uncheckedFile("TestFile", TEST_FILE).checkStatus());
+
+        AppShortcut app = AppShortcut.uncheckedApp("App", "./TestDirectory/missing.exe");
+        assertEquals(Resource.ResourceType.APP, app.getResourceType());
+        assertEquals(Resource.Status.UNCHECKED, app.getStatus());
+        try {
+            AppShortcut.uncheckedApp("Not an app", TEST_FILE);
+            fail("No exception thrown for app which is not an executable.");
+        } catch (java.nio.file.NoSuchFileException e) {
+            // Expected to be thrown
+        }
+    }
+
     @Test
     public void testEmptyConstructor() {
         filePath = new FilePath();
@@ -0,0 +1,97 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkIndexTest {
+    WorkspaceApp workspace;
+    LinkIndex index;
+    Space math;
+    Space chem;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        workspace = new WorkspaceApp();
+        index = workspace.getLinkIndex();
+        math = new Space("MATH 101");
+        math.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca/"));
+        math.addResource(new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/"));
+        chem = new Space("CHEM 121");
+        chem.addResource(new WebsiteLink("Canvas", "HTTPS://CANVAS.UBC.CA:443/"));
+        chem.addResource(new FilePath("Notes", "./data/test_file.txt"));
+        workspace.addSpace(math);
+        workspace.addSpace(chem);
+    }
+
+    @Test
+    public void testFindLink() throws Exception {
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList(math, chem),
+                index.getSpacesWithLink(WebsiteLink.normalize("https://Canvas.ubc.ca/")));
+        assertEquals(Arrays.asList(math),
+                index.getSpacesWithLink(WebsiteLink.normalize("https://www.math.ubc.ca/~CLP/")));
+        assertTrue(index.getSpacesWithLink(WebsiteLink.normalize("https://canvas.ubc.ca/courses")).isEmpty());
+    }
+
+    @Test
+    public void testResourceChanges() throws Exception {
+        chem.addResource(new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/"));
+        chem.addResource(new WebsiteLink("Canvas again", "https://canvas.ubc.ca:443/"));
+        assertEquals(Arrays.asList(math, chem),
+                index.getSpacesWithLink(WebsiteLink.normalize("https://www.math.ubc.ca/~CLP/")));
+
+        math.removeResource("Canvas");
+        chem.removeResource("Canvas");
+        assertEquals(Arrays.asList(chem), index.getSpacesWithLink(WebsiteLink.normalize("https://canvas.ubc.ca/")));
+        chem.removeResource("Notes");
+        assertEquals(2, index.size());
+
+        math.setResources(new ArrayList<>());
+        assertEquals(Arrays.asList(chem),
+                index.getSpacesWithLink(WebsiteLink.normalize("https://www.math.ubc.ca/~CLP/")));
+    }
+
+    @Test
+    public void testSpaceChanges() throws Exception {
+        workspace.removeSpace("MATH 101");
+        assertEquals(Arrays.asList(chem), index.getSpacesWithLink(WebsiteLink.normalize("https://canvas.ubc.ca/")));
+        assertEquals(1, index.size());
+
+        Space phys = new Space("PHYS 117");
+        phys.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca/"));
+        workspace.setSpaces(new ArrayList<>(Collections.singletonList(phys)));
+        assertEquals(Arrays.asList(phys), index.getSpacesWithLink(WebsiteLink.normalize("https://canvas.ubc.ca/")));
+    }
+
+    @Test
+    public void testUnloadedSpace() throws Exception {
+        Space loaded = new Space("BIO 112");
+        loaded.addResource(new WebsiteLink("Lab", "https://bio.ubc.ca/lab"));
+        workspace.addSpace(new Space("BIO 112", () -> loaded));
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getSpacesWithLink(WebsiteLink.normalize("https://bio.ubc.ca/lab")).size());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testLoadedSpacesWithLinkDoesNotLoad() throws Exception {
+        Space loaded = new Space("BIO 112");
+        loaded.addResource(new WebsiteLink("Lab", "https://bio.ubc.ca/lab"));
+        Space lazy = new Space("BIO 112", () -> loaded);
+        workspace.addSpace(lazy);
+        URI lab = WebsiteLink.normalize("https://bio.ubc.ca/lab");
+
+        assertTrue(index.getLoadedSpacesWithLink(lab).isEmpty());
+        assertFalse(lazy.isHydrated());
+        lazy.hydrate();
+        assertEquals(Arrays.asList(lazy), index.getLoadedSpacesWithLink(lab));
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares looking up every resource of a space by name, as the space gui does when opening the selected resources,
+// using a linear scan of the resource list against the space's name index
+// usage: java model.NameLookupBenchmark [numbers of resources...]   (default: 100 1000 10000 100000)
+public class NameLookupBenchmark {
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"100", "1000", "10000", "100000"};
+
+        System.out.printf("%-10s %16s %16s %18s%n", "resources", "scan (ms)", "index (ms)", "index (ns/lookup)");
+        for (String size : sizes) {
+            int n = Integer.parseInt(size);
+            Space space = createSpace(n);
+            List<String> names = space.getAllResourceNames();
+
+            long scan = best(() -> lookUpByScan(space, names));
+            long index = best(() -> lookUpByIndex(space, names));
+            System.out.printf("%-10d %16.1f %16.3f %18.1f%n", n, scan / 1e6, index / 1e6, index / (double) n);
+        }
+    }
+
+    // EFFECTS: returns space with n generated resources
+    private static Space createSpace(int n) throws Exception {
+        List<Resource> resources = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            resources.add(new WebsiteLink("Resource " + i, "https://canvas.ubc.ca/courses/1/files/" + i));
+        }
+        Space space = new Space("BENCHMARK");
+        space.setResources(resources);
+        return space;
+    }
+
+    // EFFECTS: looks up each name by scanning space's resources, as getResourceOfName used to
+    private static void lookUpByScan(Space space, List<String> names) {
+        for (String name : names) {
+            for (Resource r : space.getResources()) {
+                if (r.getName().equals(name)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // EFFECTS: looks up each name in space's name index
+    private static void lookUpByIndex(Space space, List<String> names) {
+        for (String name : names) {
+            space.getResourceOfName(name);
+        }
+    }
+
+    // EFFECTS: returns fastest time of up to RUNS runs of task in nanoseconds, running it only once if that takes over
+    //          a minute
+    private static long best(Runnable task) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i == 0 || i < RUNS && best < 60_000_000_000L; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
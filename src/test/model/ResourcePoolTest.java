@@ -0,0 +1,78 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourcePoolTest {
+    ResourcePool pool;
+    Resource textbook;
+
+    @BeforeEach
+    public void setUp() throws MalformedURLException {
+        pool = new ResourcePool();
+        textbook = new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP2/");
+    }
+
+    @Test
+    public void testInternSameResource() throws MalformedURLException {
+        Resource copy = new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP2/");
+        assertSame(textbook, pool.intern(textbook));
+        assertSame(textbook, pool.intern(copy));
+        assertSame(textbook, pool.intern(textbook));
+
+        assertEquals(1, pool.size());
+        assertEquals(3, pool.getReferences(textbook));
+        assertEquals(0, pool.getReferences(copy));
+        assertSame(textbook, pool.get(copy));
+    }
+
+    @Test
+    public void testInternDifferentResources() throws MalformedURLException {
+        Resource otherName = new WebsiteLink("Notes", "https://www.math.ubc.ca/~CLP/CLP2/");
+        Resource otherPath = new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP3/");
+        pool.intern(textbook);
+
+        assertSame(otherName, pool.intern(otherName));
+        assertSame(otherPath, pool.intern(otherPath));
+        assertEquals(3, pool.size());
+        assertNull(pool.get(new WebsiteLink("Syllabus", "https://www.ubc.ca")));
+    }
+
+    @Test
+    public void testRelease() {
+        pool.intern(textbook);
+        pool.intern(textbook);
+
+        pool.release(textbook);
+        assertEquals(1, pool.getReferences(textbook));
+        assertSame(textbook, pool.get(textbook));
+        pool.release(textbook);
+        assertEquals(0, pool.getReferences(textbook));
+        assertNull(pool.get(textbook));
+        assertEquals(0, pool.size());
+
+        pool.release(textbook);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testPathChanged() throws Exception {
+        Resource copy = new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP2/");
+        pool.intern(textbook);
+        textbook.setPath("https://www.math.ubc.ca/~CLP/CLP3/");
+
+        assertSame(copy, pool.intern(copy));
+        assertEquals(2, pool.size());
+        assertSame(textbook, pool.intern(new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP3/")));
+        assertEquals(2, pool.getReferences(textbook));
+
+        pool.release(textbook);
+        pool.release(textbook);
+        assertEquals(1, pool.size());
+        assertSame(copy, pool.get(copy));
+    }
+}
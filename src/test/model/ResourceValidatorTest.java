@@ -0,0 +1,186 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceValidatorTest {
+    private static final String TEST_FILE = "./data/test_validator_file.txt";
+
+    private ResourceValidator validator;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        validator = new ResourceValidator(500);
+        new File(TEST_FILE).createNewFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        validator.shutdown();
+        new File(TEST_FILE).delete();
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        Resource found = FilePath.uncheckedFile("found", TEST_FILE);
+        Resource missing = FilePath.uncheckedFile("missing", "./data/no_such_file.txt");
+        Resource link = new WebsiteLink("link", "https://www.ubc.ca");
+
+        assertEquals(1, validator.validate(Arrays.asList(found, missing, link)));
+        assertEquals(Resource.Status.OK, found.getStatus());
+        assertEquals(Resource.Status.MISSING, missing.getStatus());
+        assertEquals(Resource.Status.OK, link.getStatus());
+
+        new File(TEST_FILE).delete();
+        assertEquals(1, validator.validate(Collections.singletonList(found)));
+        assertEquals(Resource.Status.MISSING, found.getStatus());
+    }
+
+    @Test
+    public void testValidateChecksEachPathOnce() {
+        AtomicInteger checks = new AtomicInteger();
+        Resource first = new CountingFilePath("first", TEST_FILE, checks);
+        Resource second = new CountingFilePath("second", TEST_FILE, checks);
+
+        assertEquals(0, validator.validate(Arrays.asList(first, second)));
+        assertEquals(1, checks.get());
+        assertEquals(Resource.Status.OK, second.getStatus());
+    }
+
+    @Test
+    public void testValidateTimesOut() {
+        CountDownLatch hung = new CountDownLatch(1);
+        Resource slow = new HungFilePath("slow", "//unmounted/share/notes.txt", new AtomicInteger(), hung);
+        Resource found = FilePath.uncheckedFile("found", TEST_FILE);
+
+        long start = System.currentTimeMillis();
+        assertEquals(1, validator.validate(Arrays.asList(slow, found)));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(Resource.Status.TIMED_OUT, slow.getStatus());
+        assertEquals(Resource.Status.OK, found.getStatus());
+        hung.countDown();
+    }
+
+    @Test
+    public void testValidateDoesNotRecheckPathInFlight() throws Exception {
+        CountDownLatch hung = new CountDownLatch(1);
+        AtomicInteger checks = new AtomicInteger();
+        Resource slow = new HungFilePath("slow", "//unmounted/share/notes.txt", checks, hung);
+
+        assertEquals(1, validator.validate(Collections.singletonList(slow)));
+        assertEquals(1, validator.validate(Collections.singletonList(slow)));
+        assertEquals(1, checks.get());
+        assertEquals(Resource.Status.TIMED_OUT, slow.getStatus());
+
+        hung.countDown();
+        assertEquals(0, validator.validate(Collections.singletonList(slow)));
+        assertEquals(Resource.Status.OK, slow.getStatus());
+    }
+
+    @Test
+    public void testValidateSkipsPathsBehindHungPathOfSameShare() {
+        CountDownLatch hung = new CountDownLatch(1);
+        AtomicInteger checks = new AtomicInteger();
+        Resource slow = new HungFilePath("slow", "//unmounted/share/notes.txt", checks, hung);
+        Resource other = new CountingFilePath("other", "//unmounted/share/slides.pdf", checks);
+        Resource found = FilePath.uncheckedFile("found", TEST_FILE);
+
+        assertEquals(2, validator.validate(Arrays.asList(slow, other, found)));
+        assertEquals(1, checks.get());
+        assertEquals(Resource.Status.TIMED_OUT, other.getStatus());
+        assertEquals(Resource.Status.OK, found.getStatus());
+        hung.countDown();
+    }
+
+    @Test
+    public void testRootOf() {
+        assertEquals(ResourceValidator.rootOf("//unmounted/share/notes.txt"),
+                ResourceValidator.rootOf("//unmounted/other/slides.pdf"));
+        assertNotEquals(ResourceValidator.rootOf("/media/usb/notes.txt"),
+                ResourceValidator.rootOf("/home/notes.txt"));
+        assertEquals("https://www.ubc.ca", ResourceValidator.rootOf("https://www.ubc.ca/about"));
+    }
+
+    @Test
+    public void testValidateSpacesSkipsUnloadedSpaces() throws Exception {
+        Space loaded = new Space("loaded");
+        loaded.addResource(FilePath.uncheckedFile("missing", "./data/no_such_file.txt"));
+        Space unloaded = new Space("unloaded", () -> {
+            throw new IOException();
+        });
+
+        assertEquals(1, validator.validateSpaces(Arrays.asList(loaded, unloaded)));
+        assertFalse(unloaded.isHydrated());
+    }
+
+    @Test
+    public void testValidateLater() throws Exception {
+        Resource missing = FilePath.uncheckedFile("missing", "./data/no_such_file.txt");
+        List<Resource> resources = new ArrayList<>(Collections.singletonList(missing));
+        BlockingQueue<Runnable> dispatched = new LinkedBlockingQueue<>();
+        AtomicInteger unavailable = new AtomicInteger(-1);
+
+        validator.validateLater(resources, dispatched::add, unavailable::set);
+        resources.clear();
+        Runnable validated = dispatched.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(validated);
+        assertEquals(-1, unavailable.get());
+        validated.run();
+        assertEquals(1, unavailable.get());
+        assertEquals(Resource.Status.MISSING, missing.getStatus());
+    }
+
+    // A file path which counts how many times it has been checked
+    private static class CountingFilePath extends FilePath {
+        private AtomicInteger checks;
+
+        CountingFilePath(String name, String path, AtomicInteger checks) {
+            this.name = name;
+            this.file = new File(path);
+            this.checks = checks;
+        }
+
+        @Override
+        public Status checkStatus() {
+            checks.incrementAndGet();
+            return super.checkStatus();
+        }
+    }
+
+    // A file path whose check doesn't return until hung is counted down, like one on an unresponsive share
+    private static class HungFilePath extends CountingFilePath {
+        private CountDownLatch hung;
+
+        HungFilePath(String name, String path, AtomicInteger checks, CountDownLatch hung) {
+            super(name, path, checks);
+            this.hung = hung;
+        }
+
+        @Override
+        public Status checkStatus() {
+            super.checkStatus();
+            try {
+                hung.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Status.OK;
+        }
+    }
+}
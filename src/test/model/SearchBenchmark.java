@@ -0,0 +1,90 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Measures search latency over a generated workspace, with prefix, substring, multi-word, and unmatched queries, and
+// the time to build the index and update it for a change
+// usage: java model.SearchBenchmark [numbers of indexed items...]   (default: 10000 100000)
+public class SearchBenchmark {
+    private static final int ITEMS_PER_SPACE = 1000;
+    private static final int QUERIES = 2000;
+    private static final String[] WORDS = {"assignment", "midterm", "lecture", "notes", "reading", "lab", "report",
+            "essay", "quiz", "problem", "set", "review", "chapter", "slides", "textbook", "canvas", "webwork",
+            "project", "proposal", "draft", "final", "exam", "study", "group", "tutorial", "worksheet", "summary"};
+    private static final String[] QUERIES_TO_RUN = {"midterm", "mid", "ter", "work", "lab report 7", "chapter 4",
+            "canvas", "zebra", "a", "report a", "course 12 lab"};
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"10000", "100000"};
+
+        for (String size : sizes) {
+            WorkspaceApp workspace = createWorkspace(Integer.parseInt(size));
+            long start = System.nanoTime();
+            workspace.search("");
+            System.out.printf("%s items: built index in %d ms%n", size, (System.nanoTime() - start) / 1000000);
+
+            System.out.printf("  %-14s %8s %12s %12s%n", "query", "results", "mean (us)", "max (us)");
+            for (String query : QUERIES_TO_RUN) {
+                run(workspace, query);
+            }
+
+            Space space = workspace.getSpaces().get(0);
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                space.getTodo().addTask(new Task("extra task " + i));
+            }
+            System.out.printf("  update: %.1f us per added task%n", (System.nanoTime() - start) / 1e3 / QUERIES);
+        }
+    }
+
+    // EFFECTS: runs query QUERIES times, after warming up, and prints number of results and mean and max latency
+    private static void run(WorkspaceApp workspace, String query) {
+        int results = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            results = workspace.search(query).size();
+        }
+
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            workspace.search(query);
+            long nanos = System.nanoTime() - start;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+        System.out.printf("  %-14s %8d %12.1f %12.1f%n", query, results, total / 1e3 / QUERIES, max / 1e3);
+    }
+
+    // EFFECTS: returns workspace with about the given number of spaces, resources, and tasks, half of the items in
+    //          each space being resources and half tasks, named with random words and numbers
+    private static WorkspaceApp createWorkspace(int items) throws Exception {
+        Random random = new Random(1);
+        WorkspaceApp workspace = new WorkspaceApp();
+        for (int s = 0; s * ITEMS_PER_SPACE < items; s++) {
+            Space space = new Space("COURSE " + s);
+            List<Resource> resources = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_SPACE / 2; i++) {
+                resources.add(new WebsiteLink(phrase(random) + " " + i,
+                        "https://canvas.ubc.ca/courses/" + s + "/" + WORDS[random.nextInt(WORDS.length)] + i));
+                space.getTodo().addTask(new Task(phrase(random) + " " + random.nextInt(10)));
+            }
+            space.setResources(resources);
+            workspace.addSpace(space);
+        }
+        return workspace;
+    }
+
+    // EFFECTS: returns two or three random words
+    private static String phrase(Random random) {
+        List<String> words = new ArrayList<>(Arrays.asList(WORDS[random.nextInt(WORDS.length)],
+                WORDS[random.nextInt(WORDS.length)]));
+        if (random.nextBoolean()) {
+            words.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return String.join(" ", words);
+    }
+}
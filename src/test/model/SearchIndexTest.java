@@ -0,0 +1,161 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+    WorkspaceApp workspace;
+    Space math;
+    Space english;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        workspace = new WorkspaceApp();
+        math = new Space("MATH 101");
+        math.addResource(new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP2/"));
+        math.getTodo().addTask(new Task("Webwork assignment"));
+        math.getTodo().addTask(new Task("Study for midterm"));
+        english = new Space("ENGL 110");
+        english.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca/courses/110"));
+        english.getTodo().addTask(new Task("Read the Secret Agent"));
+        workspace.addSpace(math);
+        workspace.addSpace(english);
+    }
+
+    @Test
+    public void testPrefixSearch() {
+        assertEquals(Arrays.asList("MATH 101", "Textbook"), texts(workspace.search("math")));
+        assertEquals(Arrays.asList("Study for midterm"), texts(workspace.search("MID")));
+        assertEquals(Arrays.asList("Textbook", "Canvas"), texts(workspace.search("ubc")));
+        assertTrue(workspace.search("").isEmpty());
+        assertTrue(workspace.search("chemistry").isEmpty());
+    }
+
+    @Test
+    public void testSubstringSearch() {
+        assertEquals(Arrays.asList("Webwork assignment"), texts(workspace.search("work")));
+        assertEquals(Arrays.asList("Read the Secret Agent"), texts(workspace.search("cret")));
+        assertTrue(workspace.search("or").isEmpty());
+    }
+
+    @Test
+    public void testAllWordsMustMatch() {
+        assertEquals(Arrays.asList("Canvas"), texts(workspace.search("ubc courses")));
+        assertEquals(Arrays.asList("Study for midterm"), texts(workspace.search("for stu")));
+        assertTrue(workspace.search("study agent").isEmpty());
+    }
+
+    @Test
+    public void testExactMatchesFirst() {
+        math.getTodo().addTask(new Task("Reading quiz"));
+        english.getTodo().addTask(new Task("Read poem"));
+
+        List<SearchResult> results = workspace.search("read");
+        assertEquals("Read the Secret Agent", results.get(0).getText());
+        assertEquals("Read poem", results.get(1).getText());
+        assertEquals("Reading quiz", results.get(2).getText());
+        assertSame(math, results.get(2).getSpace());
+        assertEquals(SearchResult.Kind.TASK, results.get(2).getKind());
+        assertEquals(2, workspace.search("read", 2).size());
+    }
+
+    @Test
+    public void testIndexUpdatedByChanges() throws Exception {
+        assertEquals(7, searchIndex().size());
+        assertTrue(workspace.search("problem").isEmpty());
+        math.getTodo().addTask(new Task("Problem set"));
+        assertEquals(1, workspace.search("problem").size());
+        math.getTodo().removeTask("Problem set");
+        assertTrue(workspace.search("problem").isEmpty());
+
+        english.setResources(new ArrayList<>(Arrays.asList(new WebsiteLink("Essay guide", "https://owl.edu/"))));
+        assertTrue(workspace.search("canvas").isEmpty());
+        assertEquals(Arrays.asList("Essay guide"), texts(workspace.search("owl")));
+
+        workspace.removeSpace("MATH 101");
+        assertTrue(workspace.search("webwork").isEmpty());
+        workspace.setSpaces(new ArrayList<>(Arrays.asList(math)));
+        assertEquals(1, workspace.search("webwork").size());
+        assertTrue(workspace.search("essay").isEmpty());
+    }
+
+    @Test
+    public void testManyChanges() {
+        workspace.search("");
+        for (int i = 0; i < 6000; i++) {
+            math.getTodo().addTask(new Task("Practice problem " + i));
+            if (i % 3 != 0) {
+                math.getTodo().removeTask(math.getTodo().getNumToDos() - 1);
+            }
+        }
+
+        assertEquals(2000, workspace.search("practice", 5000).size());
+        assertEquals(Arrays.asList("Practice problem 5997"), texts(workspace.search("problem 5997")));
+        assertTrue(workspace.search("problem 5998").isEmpty());
+        assertEquals(Arrays.asList("Study for midterm"), texts(workspace.search("midterm")));
+    }
+
+    @Test
+    public void testUnloadedSpaceIndexedOnSearch() {
+        Space saved = new Space("CHEM 121");
+        saved.getTodo().addTask(new Task("Lab report"));
+        Space lazy = new Space("CHEM 121", () -> saved);
+        SearchIndex index = new SearchIndex();
+        index.setSpaces(Arrays.asList(lazy));
+
+        assertEquals(1, index.size());
+        assertFalse(lazy.isHydrated());
+        assertEquals(Arrays.asList("Lab report"), texts(index.search("lab")));
+        assertTrue(lazy.isHydrated());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testSearchLoadedDoesNotLoad() throws Exception {
+        Space saved = new Space("CHEM 121");
+        saved.getTodo().addTask(new Task("Lab report"));
+        Space lazy = new Space("CHEM 121", () -> saved);
+        workspace.addSpace(lazy);
+
+        assertTrue(workspace.searchLoaded("lab", 10).isEmpty());
+        assertEquals(Arrays.asList("CHEM 121"), texts(workspace.searchLoaded("chem", 10)));
+        assertFalse(lazy.isHydrated());
+
+        BlockingQueue<Runnable> dispatched = new LinkedBlockingQueue<>();
+        workspace.loadSpacesLater(dispatched::add, () -> { });
+        assertNotNull(dispatched.poll(5, TimeUnit.SECONDS));
+        assertTrue(lazy.isHydrated());
+        assertEquals(Arrays.asList("Lab report"), texts(workspace.searchLoaded("lab", 10)));
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("https", "canvas", "ubc", "ca", "courses", "110"),
+                new ArrayList<>(SearchIndex.tokenize("https://canvas.ubc.ca/courses/110 Canvas")));
+    }
+
+    // EFFECTS: returns a new search index of workspace's spaces
+    private SearchIndex searchIndex() {
+        SearchIndex index = new SearchIndex();
+        index.setSpaces(workspace.getSpaces());
+        return index;
+    }
+
+    // EFFECTS: returns texts of results, in order
+    private static List<String> texts(List<SearchResult> results) {
+        List<String> texts = new ArrayList<>();
+        for (SearchResult r : results) {
+            texts.add(r.getText());
+        }
+        return texts;
+    }
+}
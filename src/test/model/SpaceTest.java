@@ -8,6 +8,7 @@ import platformspecific.ResourceLauncher;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -94,6 +95,25 @@ public class SpaceTest {
         assertTrue(space.getResources().contains(googleLink));
     }
 
+    @Test
+    public void testDuplicateResourceName() throws Exception {
+        Resource otherTextbook = new WebsiteLink("Textbook", "https://www.google.com/");
+        assertTrue(space.addResource(textbookLink));
+        assertFalse(space.addResource(otherTextbook));
+        assertEquals(1, space.numResources());
+        assertSame(textbookLink, space.getResourceOfName("Textbook"));
+
+        space.setResources(new ArrayList<>(Arrays.asList(otherTextbook, googleLink, textbookLink)));
+        assertEquals(Arrays.asList("Textbook", "Google", "Textbook (2)"), space.getAllResourceNames());
+        assertSame(otherTextbook, space.getResourceOfName("Textbook"));
+        assertEquals(textbookLink.getPath(), space.getResourceOfName("Textbook (2)").getPath());
+
+        space.removeResource("Textbook");
+        assertNull(space.getResourceOfName("Textbook"));
+        assertTrue(space.addResource(textbookLink));
+        assertEquals(Arrays.asList("Google", "Textbook (2)", "Textbook"), space.getAllResourceNames());
+    }
+
     @Test
     public void testGetAllResources() {
         space.setResources(testResources);
@@ -148,4 +168,112 @@ public class SpaceTest {
             assertFalse(successfulLaunch);
         }
     }
+
+    @Test
+    public void testDirtyTracking() throws Exception {
+        assertTrue(space.isDirty());
+        space.setResources(testResources);
+        space.markClean();
+        assertFalse(space.isDirty());
+        assertFalse(textbookLink.isDirty());
+
+        textbookLink.setPath("https://www.math.ubc.ca/");
+        assertTrue(space.isDirty());
+        space.markClean();
+
+        space.getTodo().addTask(new Task("homework"));
+        assertTrue(space.getTodo().isDirty());
+        assertTrue(space.isDirty());
+        space.markClean();
+
+        space.getTodo().getTasks().get(0).setComplete(true);
+        assertTrue(space.isDirty());
+        space.markClean();
+
+        space.removeResource(0);
+        assertTrue(space.isDirty());
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        space.setResources(testResources);
+        space.getTodo().addTask(new Task("homework"));
+        space.getTodo().addTask(new Task("reading"));
+        Space snapshot = space.snapshot();
+        assertEquals(space.getVersion(), snapshot.getVersion());
+
+        space.removeResource("Google");
+        space.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca/"));
+        space.getTodo().completeTask(0);
+        space.getTodo().getTasks().get(1).setComplete(true);
+        space.getTodo().addTask(new Task("quiz"));
+
+        assertEquals(Arrays.asList("Textbook", "Google"), snapshot.getAllResourceNames());
+        assertSame(googleLink, snapshot.getResourceOfName("Google"));
+        assertEquals(2, snapshot.getTodo().getNumToDos());
+        assertEquals(0, snapshot.getTodo().getNumCompleted());
+        assertFalse(snapshot.getTodo().getTasks().get(1).getComplete());
+        assertEquals(Arrays.asList("Textbook", "Canvas"), space.getAllResourceNames());
+        assertEquals(2, space.getTodo().getNumCompleted());
+        assertTrue(space.getTodo().getTasks().get(1).getComplete());
+
+        snapshot.getTodo().addTask(new Task("not in space"));
+        assertEquals(3, space.getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testMarkCleanAtVersion() {
+        long version = space.getVersion();
+        assertTrue(space.markClean(version));
+        assertFalse(space.isDirty());
+
+        space.getTodo().addTask(new Task("homework"));
+        assertFalse(space.markClean(version));
+        assertTrue(space.isDirty());
+    }
+
+    @Test
+    public void testLazySpace() throws Exception {
+        Space saved = new Space("MATH");
+        saved.setResources(testResources);
+        saved.getTodo().addTask(new Task("homework"));
+        int[] loads = {0};
+        Space lazy = new Space("MATH", () -> {
+            loads[0]++;
+            return saved;
+        });
+
+        assertFalse(lazy.isHydrated());
+        assertFalse(lazy.isDirty());
+        assertEquals("MATH", lazy.getName());
+        assertEquals(0, loads[0]);
+
+        assertEquals(2, lazy.numResources());
+        assertTrue(lazy.isHydrated());
+        assertFalse(lazy.isDirty());
+        lazy.hydrate();
+        assertEquals(1, loads[0]);
+
+        List<ModelEvent> events = new ArrayList<>();
+        lazy.addModelListener(events::add);
+        lazy.getTodo().completeTask(0);
+        assertEquals(1, events.size());
+        assertEquals(lazy, events.get(0).getSource());
+        assertTrue(lazy.isDirty());
+    }
+
+    @Test
+    public void testLazySpaceFailsToLoad() {
+        Space lazy = new Space("MATH", () -> {
+            throw new NoSuchFileException("segment-0.json");
+        });
+
+        try {
+            lazy.getTodo();
+            fail("IllegalStateException was not thrown.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFalse(lazy.isHydrated());
+    }
 }
@@ -0,0 +1,81 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Compares the heap taken by a to-do list of generated tasks stored compactly, as loading a save stores them, against
+// the same list holding an object for every task, as it does once every task has been handed out, and a plain list of
+// task objects, as the to-do list used to store them
+// usage: java model.TaskFootprintBenchmark [numbers of tasks...]   (default: 100000 1000000)
+public class TaskFootprintBenchmark {
+    // holds the object being measured, so it can't be collected before it has been measured
+    private static volatile Object held;
+
+    public static void main(String[] args) {
+        String[] sizes = args.length > 0 ? args : new String[] {"100000", "1000000"};
+
+        System.out.printf("%-10s %16s %16s %16s%n", "tasks", "compact (B/task)", "objects (B/task)",
+                "list (B/task)");
+        for (String size : sizes) {
+            int n = Integer.parseInt(size);
+            long compact = footprint(() -> createCompact(n));
+            long objects = footprint(() -> materialize(createCompact(n)));
+            long list = footprint(() -> createList(n));
+            System.out.printf("%-10d %16.1f %16.1f %16.1f%n", n, compact / (double) n, objects / (double) n,
+                    list / (double) n);
+        }
+    }
+
+    // EFFECTS: returns to-do list of n generated tasks, every third complete, added without task objects
+    private static ToDoList createCompact(int n) {
+        ToDoList todo = new ToDoList();
+        for (int i = 0; i < n; i++) {
+            todo.addTask(description(i), i % 3 == 0);
+        }
+        return todo;
+    }
+
+    // MODIFIES: todo
+    // EFFECTS: makes an object for every task of todo, and returns todo
+    private static ToDoList materialize(ToDoList todo) {
+        for (Task t : todo) {
+            t.getComplete();
+        }
+        return todo;
+    }
+
+    // EFFECTS: returns list of n generated task objects, every third complete
+    private static List<Task> createList(int n) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tasks.add(new Task(description(i), i % 3 == 0));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns description of generated task i, like an issue imported from a tracker
+    private static String description(int i) {
+        return "ISSUE-" + i + ": fix layout of panel " + (i % 97);
+    }
+
+    // EFFECTS: returns bytes of heap held by the object create returns, measured after collecting garbage
+    private static long footprint(Supplier<Object> create) {
+        long before = usedHeap();
+        held = create.get();
+        long after = usedHeap();
+        held = null;
+        return after - before;
+    }
+
+    // EFFECTS: returns bytes of heap in use after collecting garbage
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Measures the time and heap allocated per tick of a running WorkTimer, from working out the time left through to
+// every listener being handed the formatted time, against formatting the time with String.format and creating a new
+// event for each listener, as ticks used to; the timer's clock is simulated, so ticks run back to back on this thread
+// usage: java model.TimerTickBenchmark [number of ticks] [number of listeners]   (default: 200000 3)
+public class TimerTickBenchmark {
+    private static final int SECOND_MILLIS = 100000;
+    private static final int RUNS = 5;
+    private static long checksum;
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int numListeners = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.printf("%-10s %10s %14s %14s%n", "path", "ticks", "ns / tick", "bytes / tick");
+        for (int i = 0; i < RUNS; i++) {
+            measure("formatted", ticks, () -> formattedTick(ticks, numListeners));
+            measure("timer", ticks, () -> timerTicks(ticks, numListeners));
+        }
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    // EFFECTS: runs ticks and prints time and heap allocated per tick
+    private static void measure(String name, int ticks, Runnable run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-10s %10d %14.1f %14.1f%n", name, ticks, (double) elapsed / ticks,
+                (double) allocated / ticks);
+    }
+
+    // EFFECTS: runs given number of ticks of a timer with given number of listeners, advancing its simulated clock by
+    //          one second before each; the time taken to set up the timer is counted in the first few ticks
+    private static void timerTicks(int ticks, int numListeners) {
+        AtomicLong nanos = new AtomicLong(0);
+        WorkTimer timer = new WorkTimer(0, 0);
+        timer.setDelayForTesting(SECOND_MILLIS);
+        timer.setTime(ticks / 3600 + 1, 0);
+        timer.setClocksForTesting(nanos::get, () -> 0);
+        for (int i = 0; i < numListeners; i++) {
+            timer.addTimerListener(new ChecksumListener());
+        }
+
+        timer.run();
+        long second = TimeUnit.MILLISECONDS.toNanos(SECOND_MILLIS);
+        for (int i = 0; i < ticks; i++) {
+            nanos.addAndGet(second);
+            timer.tickForTesting();
+        }
+        timer.cancelTimer();
+    }
+
+    // EFFECTS: runs given number of ticks the way they used to run: formatting the time with String.format and
+    //          creating an event for each listener
+    private static void formattedTick(int ticks, int numListeners) {
+        WorkTimer source = new WorkTimer(0, 0);
+        TimerListener listener = new ChecksumListener();
+        long secondsLeft = ticks + 1;
+        for (int i = 0; i < ticks; i++) {
+            secondsLeft--;
+            int hours = (int) (secondsLeft / 3600);
+            int minutes = (int) (secondsLeft / 60 % 60);
+            int seconds = (int) (secondsLeft % 60);
+            for (int j = 0; j < numListeners; j++) {
+                listener.timerTick(new TimerEvent(source, hours, minutes, seconds,
+                        String.format("%d:%02d:%02d", hours, minutes, seconds)));
+            }
+        }
+    }
+
+    // a listener which reads the formatted time of every tick without allocating
+    private static class ChecksumListener implements TimerListener {
+        @Override
+        public void timerTick(TimerEvent e) {
+            CharSequence time = e.getTimeText();
+            for (int i = 0; i < time.length(); i++) {
+                checksum += time.charAt(i);
+            }
+        }
+
+        @Override
+        public void timeUp(TimerEvent e) {
+            checksum++;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static model.ToDoList.COMPLETED_TASK_PREFIX;
@@ -66,6 +68,192 @@ public class ToDoListTest {
         assertTrue(todo.getTasks().get(0).getComplete());
     }
 
+    @Test
+    public void testDuplicateDescriptions() {
+        addTwoTestTasks();
+        todo.addTask(new Task("Todo 1"));
+        todo.removeTask(1);
+
+        todo.completeTask("Todo 1");
+        assertEquals(2, todo.getNumCompleted());
+        todo.addTask(new Task("Todo 1"));
+        todo.removeTask("Todo 1");
+        assertEquals(0, todo.getNumToDos());
+    }
+
+    @Test
+    public void testCountTasks() {
+        addTwoTestTasks();
+        todo.addTask(new Task("Todo 3", true));
+        assertEquals(1, todo.getNumCompleted());
+        assertEquals(2, todo.getNumOpen());
+
+        todo.removeTask(0);
+        assertEquals(1, todo.getNumCompleted());
+        todo.completeAllTasks();
+        assertEquals(2, todo.getNumCompleted());
+        assertEquals(0, todo.getNumOpen());
+    }
+
+    @Test
+    public void testCompleteTaskDirectly() {
+        addTwoTestTasks();
+        Task task = todo.getTasks().get(1);
+        List<ModelEvent> events = new ArrayList<>();
+        todo.addModelListener(events::add);
+        task.setComplete(true);
+        task.setComplete(true);
+        assertEquals(1, todo.getNumCompleted());
+        assertEquals(1, events.size());
+        assertEquals(ModelEvent.Type.TASK_COMPLETED, events.get(0).getType());
+        assertEquals(1, events.get(0).getIndex());
+        task.setComplete(false);
+        assertEquals(ModelEvent.Type.TASK_REOPENED, events.get(1).getType());
+        todo.removeTask(1);
+        task.setComplete(true);
+        assertTrue(task.getComplete());
+        task.setComplete(false);
+        assertEquals(0, todo.getNumCompleted());
+    }
+
+    @Test
+    public void testSnapshot() {
+        addTwoTestTasks();
+        ToDoList snapshot = todo.snapshot();
+        Task task = todo.getTasks().get(0);
+        task.setComplete(true);
+        todo.deleteCompletedTasks();
+        todo.addTask(new Task("Todo 3"));
+
+        assertEquals(Arrays.asList("Todo 1", "Todo 2"), snapshot.getAllTaskDescriptions());
+        assertEquals(0, snapshot.getNumCompleted());
+        assertFalse(snapshot.getTasks().get(0).getComplete());
+        assertEquals(Arrays.asList("Todo 2", "Todo 3"), todo.getAllTaskDescriptions());
+
+        ToDoList second = todo.snapshot();
+        todo.completeTask(0);
+        assertEquals(0, second.getNumCompleted());
+        assertSame(todo.getTasks().get(1), second.getTasks().get(1));
+    }
+
+    @Test
+    public void testInsertTask() {
+        addTwoTestTasks();
+        todo.completeTask(1);
+        todo.addTask(0, new Task("Todo 0"));
+        todo.addTask(2, new Task("Todo 1.5", true));
+
+        assertEquals(Arrays.asList("Todo 0", "Todo 1", "Todo 1.5", "Todo 2"), todo.getAllTaskDescriptions());
+        assertEquals(2, todo.getNumCompleted());
+        assertTrue(todo.getTasks().get(3).getComplete());
+        todo.completeTask("Todo 0");
+        assertTrue(todo.getTasks().get(0).getComplete());
+    }
+
+    @Test
+    public void testReopenTask() {
+        addTwoTestTasks();
+        List<ModelEvent> events = new ArrayList<>();
+        todo.addModelListener(events::add);
+        todo.completeTask(1);
+        todo.reopenTask(1);
+        todo.reopenTask(0);
+
+        assertEquals(0, todo.getNumCompleted());
+        assertFalse(todo.getTasks().get(1).getComplete());
+        assertEquals(2, events.size());
+        assertEquals(ModelEvent.Type.TASK_REOPENED, events.get(1).getType());
+        assertEquals(1, events.get(1).getIndex());
+    }
+
+    @Test
+    public void testAddTaskCompactly() {
+        todo.addTask("Todo 1", false);
+        todo.addTask("Todo 2", true);
+        todo.addTask(null, false);
+
+        assertEquals(3, todo.getNumToDos());
+        assertEquals("Todo 2", todo.getDescription(1));
+        assertTrue(todo.isComplete(1));
+        assertNull(todo.getDescription(2));
+        Task task = todo.getTasks().get(0);
+        assertSame(task, todo.getTasks().get(0));
+        assertEquals("Todo 1", task.getDescription());
+        task.setComplete(true);
+        assertEquals(2, todo.getNumCompleted());
+        assertTrue(todo.getTasks().get(1).getComplete());
+        assertEquals(Arrays.asList("Todo 1", "Todo 2", null), todo.getAllTaskDescriptions());
+    }
+
+    @Test
+    public void testManyTasksCompactly() {
+        for (int i = 0; i < 3000; i++) {
+            todo.addTask("Task \u00e9 " + i, i % 2 == 0);
+        }
+        Task kept = todo.getTasks().get(2999);
+        todo.deleteCompletedTasks();
+        for (int i = 0; i < 1000; i++) {
+            todo.removeTask(0);
+        }
+
+        assertEquals(500, todo.getNumToDos());
+        assertEquals(0, todo.getNumCompleted());
+        assertEquals("Task \u00e9 2001", todo.getDescription(0));
+        assertSame(kept, todo.getTasks().get(499));
+        todo.addTask(0, new Task("First"));
+        assertEquals("First", todo.getDescription(0));
+        assertEquals("Task \u00e9 2999", todo.getTasks().get(500).getDescription());
+    }
+
+    @Test
+    public void testSnapshotDoesNotKeepTasks() {
+        todo.addTask("Todo 1", false);
+        ToDoList snapshot = todo.snapshot();
+        Task task = snapshot.getTasks().get(0);
+        task.setComplete(true);
+
+        assertNotSame(task, snapshot.getTasks().get(0));
+        assertEquals(0, todo.getNumCompleted());
+        assertEquals(0, snapshot.getNumCompleted());
+        todo.getTasks().get(0).setComplete(true);
+        assertFalse(snapshot.isComplete(0));
+    }
+
+    @Test
+    public void testDeleteCompletedTasksEvents() {
+        for (int i = 0; i < 6; i++) {
+            todo.addTask(new Task("Todo " + i, i % 2 == 1));
+        }
+        List<ModelEvent> events = new ArrayList<>();
+        todo.addModelListener(events::add);
+        todo.deleteCompletedTasks();
+
+        assertEquals(Arrays.asList("Todo 0", "Todo 2", "Todo 4"), todo.getAllTaskDescriptions());
+        assertEquals(0, todo.getNumCompleted());
+        assertEquals(3, events.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ModelEvent.Type.TASK_REMOVED, events.get(i).getType());
+            assertEquals(5 - 2 * i, events.get(i).getIndex());
+            assertEquals("Todo " + (5 - 2 * i), ((Task) events.get(i).getElement()).getDescription());
+        }
+    }
+
+    @Test
+    public void testTaskDescriptionsView() {
+        List<String> descriptions = todo.getTaskDescriptions();
+        addTwoTestTasks();
+        todo.completeTask(0);
+
+        assertEquals(todo.getAllTaskDescriptions(), descriptions);
+        assertEquals(COMPLETED_TASK_PREFIX + "Todo 1", descriptions.get(0));
+        try {
+            descriptions.remove(0);
+            fail("UnsupportedOperationException was not thrown.");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testIterator() {
         addTwoTestTasks();
@@ -0,0 +1,196 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UndoHistoryTest {
+    WorkspaceApp workspace;
+    UndoHistory history;
+    Space math;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new WorkspaceApp();
+        history = workspace.getUndoHistory();
+        math = new Space("MATH 101");
+        math.getTodo().addTask(new Task("Webwork"));
+        workspace.addSpace(math);
+        history.clear();
+    }
+
+    @Test
+    public void testNothingToUndo() {
+        assertFalse(history.canUndo());
+        assertFalse(history.canRedo());
+        assertFalse(history.undo());
+        assertFalse(history.redo());
+    }
+
+    @Test
+    public void testUndoRedoSpaces() {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.removeSpace("MATH 101");
+        assertEquals(2, history.getNumChanges());
+
+        assertTrue(history.undo());
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110"), names());
+        assertSame(math, workspace.getSpaceOfName("MATH 101"));
+        assertTrue(history.undo());
+        assertEquals(Arrays.asList("MATH 101"), names());
+        assertFalse(history.canUndo());
+
+        assertTrue(history.redo());
+        assertTrue(history.redo());
+        assertEquals(Arrays.asList("ENGL 110"), names());
+        assertFalse(history.canRedo());
+        assertEquals(2, history.getNumChanges());
+    }
+
+    @Test
+    public void testUndoRedoResources() throws Exception {
+        Resource notes = new WebsiteLink("Notes", "https://www.math.ubc.ca/notes");
+        math.addResource(new WebsiteLink("Textbook", "https://www.math.ubc.ca/~CLP/CLP2/"));
+        math.addResource(0, notes);
+        math.removeResource("Textbook");
+
+        history.undo();
+        assertEquals(Arrays.asList("Notes", "Textbook"), math.getAllResourceNames());
+        history.undo();
+        assertEquals(Arrays.asList("Textbook"), math.getAllResourceNames());
+        history.redo();
+        assertSame(notes, math.getResources().get(0));
+        assertEquals(Arrays.asList("Notes", "Textbook"), math.getAllResourceNames());
+    }
+
+    @Test
+    public void testUndoRedoTasks() {
+        ToDoList todo = math.getTodo();
+        todo.addTask(new Task("Midterm"));
+        todo.completeTask("Webwork");
+        todo.removeTask("Midterm");
+
+        history.undo();
+        assertEquals(Arrays.asList("Webwork", "Midterm"), todo.getAllTaskDescriptions());
+        history.undo();
+        assertFalse(todo.getTasks().get(0).getComplete());
+        assertEquals(0, todo.getNumCompleted());
+        history.redo();
+        assertTrue(todo.getTasks().get(0).getComplete());
+        assertEquals(1, todo.getNumCompleted());
+    }
+
+    @Test
+    public void testUndoEditAsOne() {
+        ToDoList todo = math.getTodo();
+        for (int i = 0; i < 5; i++) {
+            todo.addTask(new Task("Quiz " + i, i % 2 == 0));
+        }
+        history.clear();
+
+        history.beginEdit();
+        history.beginEdit();
+        todo.deleteCompletedTasks();
+        history.endEdit();
+        assertFalse(history.canUndo());
+        todo.addTask(new Task("Midterm"));
+        history.endEdit();
+
+        assertEquals(4, history.getNumChanges());
+        history.undo();
+        assertEquals(Arrays.asList("Webwork", "Quiz 0", "Quiz 1", "Quiz 2", "Quiz 3", "Quiz 4"),
+                todo.getAllTaskDescriptions());
+        assertEquals(3, todo.getNumCompleted());
+        assertTrue(todo.getTasks().get(5).getComplete());
+        assertFalse(history.canUndo());
+
+        history.redo();
+        assertEquals(Arrays.asList("Webwork", "Quiz 1", "Quiz 3", "Midterm"), todo.getAllTaskDescriptions());
+    }
+
+    @Test
+    public void testUndoRedoOneSpace() {
+        Space english = new Space("ENGL 110");
+        workspace.addSpace(english);
+        math.getTodo().addTask(new Task("Midterm"));
+        english.getTodo().addTask(new Task("Essay"));
+
+        assertTrue(history.undo(math));
+        assertEquals(Arrays.asList("Webwork"), math.getTodo().getAllTaskDescriptions());
+        assertEquals(Arrays.asList("Essay"), english.getTodo().getAllTaskDescriptions());
+        assertFalse(history.undo(math));
+        assertTrue(history.undo(english));
+        assertFalse(history.undo(english));
+        assertEquals(Arrays.asList("ENGL 110"), names().subList(1, 2));
+
+        assertTrue(history.redo(math));
+        assertEquals(Arrays.asList("Webwork", "Midterm"), math.getTodo().getAllTaskDescriptions());
+        assertTrue(english.getTodo().getAllTaskDescriptions().isEmpty());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertFalse(history.redo(english));
+        assertTrue(history.redo());
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110"), names());
+    }
+
+    @Test
+    public void testChangeClearsRedo() {
+        math.getTodo().addTask(new Task("Midterm"));
+        history.undo();
+        assertTrue(history.canRedo());
+
+        math.getTodo().addTask(new Task("Final"));
+        assertFalse(history.canRedo());
+        assertEquals(1, history.getNumChanges());
+        history.undo();
+        assertEquals(Arrays.asList("Webwork"), math.getTodo().getAllTaskDescriptions());
+    }
+
+    @Test
+    public void testMaxChanges() {
+        UndoHistory small = new UndoHistory(workspace, 3);
+        workspace.addModelListener(small);
+        for (int i = 0; i < 10; i++) {
+            math.getTodo().addTask(new Task("Quiz " + i));
+        }
+        assertEquals(3, small.getNumChanges());
+        while (small.undo()) {
+            assertTrue(small.getNumChanges() <= 3);
+        }
+        assertEquals(8, math.getTodo().getNumToDos());
+
+        small.beginEdit();
+        math.getTodo().completeAllTasks();
+        small.endEdit();
+        assertEquals(8, small.getNumChanges());
+        small.undo();
+        assertEquals(0, math.getTodo().getNumCompleted());
+    }
+
+    @Test
+    public void testReplaceClearsHistory() {
+        math.getTodo().addTask(new Task("Midterm"));
+        math.setTodo(new ToDoList());
+        assertFalse(history.canUndo());
+
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.setSpaces(new ArrayList<>(Collections.singletonList(new Space("CHEM 121"))));
+        assertFalse(history.canUndo());
+        assertEquals(0, history.getNumChanges());
+    }
+
+    // EFFECTS: returns names of workspace's spaces, in order
+    private List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Space s : workspace.getSpaces()) {
+            names.add(s.getName());
+        }
+        return names;
+    }
+}
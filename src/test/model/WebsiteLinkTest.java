@@ -49,4 +49,27 @@ class WebsiteLinkTest {
         assertFalse(failed);
         assertEquals("http://ubc.ca", websiteLink.getPath());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNormalize() throws Exception {
+        assertEquals("https://piazza.com/class", new WebsiteLink("Piazza", "HTTPS://Piazza.COM:443/class").getPath());
+        assertEquals("http://www.ubc.ca/a/c", WebsiteLink.normalize("www.UBC.ca:80/a/./b/../c").toString());
+        assertEquals("http://www.ubc.ca:8080/", WebsiteLink.normalize("http://www.ubc.ca:8080/").toString());
+        assertEquals("http://x.ca/~a?q=%2F%25zz", WebsiteLink.normalize("x.ca/%7ea?q=%2f%zz").toString());
+        assertEquals("http://x.ca/a%5B1%5D#top%23", WebsiteLink.normalize("x.ca/a[1]#top#").toString());
+        assertEquals(WebsiteLink.normalize("https://canvas.ubc.ca/"),
+                ((WebsiteLink) websiteLink).getUri());
+    }
+
+    @Test
+    public void testInvalidCharacters() {
+        for (String url : new String[] {"ubc.ca/a b", "ubc.ca/<script>", "ubc.ca/\\", "ubc.ca/\"quoted\""}) {
+            try {
+                WebsiteLink.normalize(url);
+                fail("MalformedURLException was not thrown for " + url);
+            } catch (java.net.MalformedURLException e) {
+                // expected
+            }
+        }
+    }
+}
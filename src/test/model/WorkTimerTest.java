@@ -4,6 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,7 +52,7 @@ public class WorkTimerTest {
 
         timer.run();
         try {
-            Thread.sleep(DELAY*3);
+            Thread.sleep(DELAY * 3 + DELAY / 2);
         } catch (InterruptedException e) {
             fail("Thread should not have been interrupted.");
         }
@@ -86,6 +91,45 @@ public class WorkTimerTest {
         }
     }
 
+    @Test
+    public void testTimersShareOneThread() {
+        List<WorkTimer> timers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            WorkTimer t = new WorkTimer(0, 10);
+            t.setDelayForTesting(DELAY);
+            t.run();
+            t.run();
+            timers.add(t);
+        }
+
+        int threads = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("work-timer")) {
+                threads++;
+            }
+        }
+        for (WorkTimer t : timers) {
+            t.cancelTimer();
+        }
+        assertEquals(1, threads);
+    }
+
+    @Test
+    public void testCancelTimerNotRunning() {
+        timer.cancelTimer();
+        timer.run();
+        timer.cancelTimer();
+        timer.cancelTimer();
+        String time = timer.getTime();
+
+        try {
+            Thread.sleep(DELAY * 2);
+        } catch (InterruptedException e) {
+            fail("Thread should not have been interrupted.");
+        }
+        assertEquals(time, timer.getTime());
+    }
+
     @Test
     public void testTimeUp() {
         timer = new WorkTimer(0, 0);
@@ -124,4 +168,118 @@ public class WorkTimerTest {
         timer.addTime(5);
         assertEquals(15, timer.getMinutes());
     }
+
+    @Test
+    public void testAddTimeCarriesIntoHours() {
+        timer.setTime(1, 58);
+        timer.addTime(65);
+        assertEquals("3:03:00", timer.getTime());
+        assertEquals(3, timer.getHours());
+        assertEquals(3, timer.getMinutes());
+    }
+
+    @Test
+    public void testTimeLeftFollowsClock() {
+        AtomicLong nanos = new AtomicLong(0);
+        AtomicLong millis = new AtomicLong(0);
+        timer.setClocksForTesting(nanos::get, millis::get);
+
+        timer.run();
+        assertEquals("0:10:00", timer.getTime());
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(DELAY * 90 + 1));
+        assertEquals("0:08:30", timer.getTime());
+        timer.cancelTimer();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(DELAY * 1000));
+        assertEquals("0:08:30", timer.getTime());
+        assertEquals(510, timer.getSecondsLeft());
+    }
+
+    @Test
+    public void testSuspendTakenOffTime() {
+        AtomicLong nanos = new AtomicLong(0);
+        AtomicLong millis = new AtomicLong(0);
+        timer.setClocksForTesting(nanos::get, millis::get);
+
+        timer.run();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(DELAY));
+        millis.addAndGet(DELAY + 60000);
+        try {
+            Thread.sleep(DELAY * 2);
+        } catch (InterruptedException e) {
+            fail("Thread should not have been interrupted.");
+        }
+        timer.cancelTimer();
+
+        assertEquals(60000, timer.getSuspendedMillis());
+        assertEquals("0:04:59", timer.getTime());
+        assertTrue(timer.getNumTicks() > 0);
+    }
+
+    @Test
+    public void testFormatTime() {
+        char[] time = new char[WorkTimer.MAX_TIME_LENGTH];
+        assertEquals("0:00:00", new String(time, 0, WorkTimer.formatTime(0, time)));
+        assertEquals("0:59:59", new String(time, 0, WorkTimer.formatTime(3599, time)));
+        assertEquals("100:00:01", new String(time, 0, WorkTimer.formatTime(360001, time)));
+        assertEquals("2:46:40", new String(time, 0, WorkTimer.formatTime(10000, time)));
+    }
+
+    @Test
+    public void testTickEventReusedOnlyWhenTimeChanges() {
+        AtomicLong nanos = new AtomicLong(0);
+        timer.setDelayForTesting(10000);
+        timer.setClocksForTesting(nanos::get, () -> 0);
+        List<TimerEvent> events = new ArrayList<>();
+        List<String> times = new ArrayList<>();
+        addRecordingListener(events, times);
+
+        timer.run();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10000));
+        timer.tickForTesting();
+        timer.tickForTesting();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10000));
+        timer.tickForTesting();
+        timer.cancelTimer();
+
+        assertEquals(Arrays.asList("0:09:59", "0:09:58"), times);
+        assertSame(events.get(0), events.get(1));
+        assertEquals(598, events.get(1).getSecondsLeft());
+        assertEquals("0:09:58", events.get(1).getTimeString());
+    }
+
+    // MODIFIES: events, times
+    // EFFECTS: adds listener to timer which adds each tick event to events, and the time it was set to to times
+    private void addRecordingListener(List<TimerEvent> events, List<String> times) {
+        timer.addTimerListener(new TimerListener() {
+            @Override
+            public void timerTick(TimerEvent e) {
+                events.add(e);
+                times.add(e.getTimeText().toString());
+            }
+
+            @Override
+            public void timeUp(TimerEvent e) {
+                fail("Timer should not have fired time up event.");
+            }
+        });
+    }
+
+    @Test
+    public void testLatenessRecorded() {
+        AtomicLong nanos = new AtomicLong(0);
+        timer.setDelayForTesting(10000);
+        timer.setClocksForTesting(nanos::get, () -> 0);
+        assertEquals(0, timer.getAverageLatenessMillis());
+
+        timer.run();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10000 + 30));
+        timer.tickForTesting();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10000 - 20));
+        timer.tickForTesting();
+        timer.cancelTimer();
+
+        assertEquals(2, timer.getNumTicks());
+        assertEquals(30, timer.getMaxLatenessMillis());
+        assertEquals(20, timer.getAverageLatenessMillis());
+    }
 }
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import ui.gui.WorkspaceMenuBar;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +37,21 @@ public class WorkspaceAppTest {
         assertTrue(workspaceApp.getAllSpaceNames().contains("BIO"));
     }
 
+    @Test
+    public void testAddDuplicateSpace() {
+        Space english = new Space("ENGLISH");
+        assertTrue(workspaceApp.addSpace(english));
+        assertTrue(workspaceApp.addSpace(new Space("BIO")));
+        assertFalse(workspaceApp.addSpace(new Space("ENGLISH")));
+
+        assertEquals(2, workspaceApp.getSpaces().size());
+        assertSame(english, workspaceApp.getSpaceOfName("ENGLISH"));
+        workspaceApp.removeSpace("ENGLISH");
+        assertNull(workspaceApp.getSpaceOfName("ENGLISH"));
+        assertTrue(workspaceApp.addSpace(new Space("ENGLISH")));
+        assertEquals("ENGLISH", workspaceApp.getSpaces().get(1).getName());
+    }
+
     @Test
     public void testRemoveSpace() {
         workspaceApp.addSpace(new Space("ENGLISH"));
@@ -85,4 +104,100 @@ public class WorkspaceAppTest {
 
         assertEquals(2, newWorkspaceApp.getSpaces().size());
     }
+
+    @Test
+    public void testSaveWhileChanging() throws Exception {
+        Space bioSpace = new Space("BIO");
+        workspaceApp.addSpace(bioSpace);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread saver = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    workspaceApp.saveSpaces(TEST_SAVE_FILE);
+                }
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+
+        saver.start();
+        makeChanges(bioSpace);
+        done.set(true);
+        saver.join();
+        assertNull(error.get());
+
+        workspaceApp.saveSpaces(TEST_SAVE_FILE);
+        assertFalse(bioSpace.isDirty());
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_SAVE_FILE);
+        assertEquals(5000, loaded.getSpaceOfName("BIO").getTodo().getNumToDos());
+        assertEquals(0, loaded.getSpaceOfName("BIO").getTodo().getNumCompleted());
+        assertEquals(6, loaded.getSpaces().size());
+    }
+
+    @Test
+    public void testModelEvents() {
+        List<ModelEvent> events = new ArrayList<>();
+        workspaceApp.addModelListener(events::add);
+        Space bioSpace = new Space("BIO");
+        workspaceApp.addSpace(bioSpace);
+        bioSpace.getTodo().addTask(new Task("lab"));
+        bioSpace.getTodo().completeTask(0);
+        bioSpace.getTodo().completeTask(0);
+        workspaceApp.removeSpace("BIO");
+        bioSpace.getTodo().addTask(new Task("not recorded"));
+
+        assertEquals(4, events.size());
+        assertEquals(ModelEvent.Type.SPACE_ADDED, events.get(0).getType());
+        assertEquals(ModelEvent.Type.TASK_ADDED, events.get(1).getType());
+        assertEquals(bioSpace, events.get(1).getSource());
+        assertEquals(ModelEvent.Type.TASK_COMPLETED, events.get(2).getType());
+        assertEquals(0, events.get(2).getIndex());
+        assertEquals(ModelEvent.Type.SPACE_REMOVED, events.get(3).getType());
+    }
+
+    @Test
+    public void testSharedResources() throws Exception {
+        ResourcePool pool = workspaceApp.getResourcePool();
+        Space bio = new Space("BIO");
+        Space chem = new Space("CHEM");
+        Resource canvas = new WebsiteLink("Canvas", "https://canvas.ubc.ca");
+        bio.addResource(canvas);
+        chem.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca"));
+        workspaceApp.addSpace(bio);
+        workspaceApp.addSpace(chem);
+
+        assertSame(canvas, chem.getResourceOfName("Canvas"));
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.getReferences(canvas));
+
+        Space phys = new Space("PHYS");
+        workspaceApp.addSpace(phys);
+        phys.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca"));
+        assertSame(canvas, phys.getResourceOfName("Canvas"));
+        assertEquals(3, pool.getReferences(canvas));
+
+        phys.removeResource("Canvas");
+        workspaceApp.removeSpace("CHEM");
+        assertEquals(1, pool.getReferences(canvas));
+        workspaceApp.setSpaces(new ArrayList<>());
+        assertEquals(0, pool.size());
+    }
+
+    // EFFECTS: adds 10000 tasks to bioSpace, completing and deleting half of them, while adding and removing spaces,
+    //          so that 5 other spaces are left
+    private void makeChanges(Space bioSpace) {
+        for (int i = 0; i < 10000; i++) {
+            bioSpace.getTodo().addTask(new Task("task " + i));
+            if (i % 2 == 0) {
+                bioSpace.getTodo().completeTask(bioSpace.getTodo().getNumToDos() - 1);
+            }
+            if (i % 100 == 99) {
+                bioSpace.getTodo().deleteCompletedTasks();
+            }
+            workspaceApp.addSpace(new Space("SPACE " + i % 10));
+            workspaceApp.removeSpace("SPACE " + (i + 5) % 10);
+        }
+    }
 }
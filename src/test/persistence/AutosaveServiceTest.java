@@ -0,0 +1,161 @@
+package persistence;
+
+import model.Space;
+import model.Task;
+import model.WorkspaceApp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutosaveServiceTest {
+    private static final String TEST_DIRECTORY = "./data/test_autosave";
+
+    WorkspaceApp workspace;
+    AutosaveService autosave;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new WorkspaceApp();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (autosave != null) {
+            workspace.removeModelListener(autosave);
+            autosave.close();
+        }
+        workspace.stopAutosave();
+        delete(new File(TEST_DIRECTORY));
+    }
+
+    @Test
+    public void testBurstOfChangesIsSavedOnce() throws Exception {
+        start(200, 5000);
+        Space space = new Space("MATH 101");
+        workspace.addSpace(space);
+        for (int i = 0; i < 20; i++) {
+            space.getTodo().addTask(new Task("homework " + i));
+        }
+        assertTrue(autosave.hasUnsavedChanges());
+        assertEquals(0, autosave.getSaveCount());
+
+        waitForSaves(1);
+        assertFalse(autosave.hasUnsavedChanges());
+        assertEquals(1, autosave.getSaveCount());
+        assertTrue(autosave.getLastSaveLagMillis() >= 200);
+        assertTrue(autosave.getMaxSaveLagMillis() >= autosave.getLastSaveLagMillis());
+        assertTrue(autosave.getAverageSaveDurationMillis() >= 0);
+        assertEquals(20, load().getSpaceOfName("MATH 101").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testSteadyChangesAreSavedByMaxDelay() throws Exception {
+        start(300, 600);
+        Space space = new Space("MATH 101");
+        workspace.addSpace(space);
+        long start = System.currentTimeMillis();
+        while (autosave.getSaveCount() == 0 && System.currentTimeMillis() - start < 5000) {
+            space.getTodo().addTask(new Task("homework"));
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, autosave.getSaveCount());
+        assertTrue(autosave.getLastSaveLagMillis() < 2000);
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        start(60000, 60000);
+        workspace.addSpace(new Space("ENGL 110"));
+        autosave.flush();
+
+        assertEquals(1, autosave.getSaveCount());
+        assertNull(autosave.getLastError());
+        assertEquals(1, load().getSpaces().size());
+    }
+
+    @Test
+    public void testFailedSaveIsRetried() throws Exception {
+        File blocker = new File(TEST_DIRECTORY);
+        assertTrue(blocker.createNewFile());
+        autosave = new AutosaveService(workspace, TEST_DIRECTORY + "/workspace", 50, 1000);
+        workspace.addModelListener(autosave);
+        workspace.addSpace(new Space("CHEM 121"));
+
+        try {
+            autosave.flush();
+            fail("IOException not thrown while saving under a file.");
+        } catch (IOException e) {
+            // Expected to be thrown
+        }
+        assertTrue(autosave.hasUnsavedChanges());
+        assertTrue(autosave.getFailedSaveCount() >= 1);
+
+        blocker.delete();
+        waitForSaves(1);
+        assertFalse(autosave.hasUnsavedChanges());
+        assertNull(autosave.getLastError());
+    }
+
+    @Test
+    public void testCloseDropsPendingSave() throws Exception {
+        start(200, 1000);
+        workspace.addSpace(new Space("ENGL 110"));
+        autosave.close();
+        Thread.sleep(400);
+
+        assertEquals(0, autosave.getSaveCount());
+        assertFalse(new File(TEST_DIRECTORY).exists());
+    }
+
+    @Test
+    public void testWorkspaceAutosave() throws Exception {
+        workspace.startAutosave(TEST_DIRECTORY);
+        assertTrue(workspace.isAutosaving());
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.getAutosave().flush();
+        assertEquals(1, workspace.getAutosave().getSaveCount());
+
+        workspace.stopAutosave();
+        assertFalse(workspace.isAutosaving());
+        assertNull(workspace.getAutosave());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts autosaving workspace to test directory with given debounce window and maximum delay
+    private void start(long debounceMillis, long maxDelayMillis) {
+        autosave = new AutosaveService(workspace, TEST_DIRECTORY, debounceMillis, maxDelayMillis);
+        workspace.addModelListener(autosave);
+    }
+
+    // EFFECTS: waits up to 5 seconds for autosave to have saved at least given number of times
+    private void waitForSaves(int saves) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (autosave.getSaveCount() < saves && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(20);
+        }
+    }
+
+    // EFFECTS: deletes file, or directory and everything in it
+    private void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                delete(f);
+            }
+        }
+        file.delete();
+    }
+
+    // EFFECTS: returns workspace loaded from test directory
+    private WorkspaceApp load() throws Exception {
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_DIRECTORY);
+        return loaded;
+    }
+}
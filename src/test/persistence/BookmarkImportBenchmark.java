@@ -0,0 +1,69 @@
+package persistence;
+
+import model.WorkspaceApp;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+
+// Times importing a generated bookmark export into an empty workspace: reading and validating the bookmarks with one
+// thread and with the common fork/join pool, then adding them to spaces, one for each folder
+// usage: java persistence.BookmarkImportBenchmark [number of bookmarks...]   (default: 10000 50000)
+public class BookmarkImportBenchmark {
+    private static final String BENCHMARK_FILE = "./data/benchmark_bookmarks.html";
+    private static final int BOOKMARKS_PER_FOLDER = 200;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"10000", "50000"};
+        File file = new File(BENCHMARK_FILE);
+
+        System.out.printf("%-10s %-10s %12s %12s %8s%n", "bookmarks", "validate", "read (ms)", "add (ms)", "spaces");
+        try {
+            for (String size : sizes) {
+                writeExport(file, Integer.parseInt(size));
+                run(size, "1 thread", file, new ForkJoinPool(1));
+                run(size, "parallel", file, ForkJoinPool.commonPool());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    // EFFECTS: imports file into a new workspace several times, validating on pool, and prints the best times taken
+    //          to read it and to add its bookmarks
+    private static void run(String size, String name, File file, ForkJoinPool pool) throws Exception {
+        long bestRead = Long.MAX_VALUE;
+        long bestAdd = Long.MAX_VALUE;
+        int spaces = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            BookmarkImport bookmarks = BookmarkImport.read(file, "Bookmarks", (done, total) -> { }, pool);
+            long read = System.nanoTime();
+            WorkspaceApp workspace = new WorkspaceApp();
+            bookmarks.addTo(workspace);
+            bestRead = Math.min(bestRead, read - start);
+            bestAdd = Math.min(bestAdd, System.nanoTime() - read);
+            spaces = workspace.getSpaces().size();
+        }
+        System.out.printf("%-10s %-10s %12.1f %12.1f %8d%n", size, name, bestRead / 1e6, bestAdd / 1e6, spaces);
+    }
+
+    // EFFECTS: writes a bookmark export with given number of bookmarks to file, in folders of BOOKMARKS_PER_FOLDER
+    private static void writeExport(File file, int numBookmarks) throws IOException {
+        try (Writer out = new FileWriter(file)) {
+            out.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n<TITLE>Bookmarks</TITLE>\n<H1>Bookmarks</H1>\n<DL><p>\n");
+            for (int i = 0; i < numBookmarks; i++) {
+                if (i % BOOKMARKS_PER_FOLDER == 0) {
+                    out.write((i > 0 ? "    </DL><p>\n" : "") + "    <DT><H3>Folder " + i / BOOKMARKS_PER_FOLDER
+                            + "</H3>\n    <DL><p>\n");
+                }
+                out.write("        <DT><A HREF=\"https://www.Example" + i % 97 + ".com/path/" + i
+                        + "?q=a%2fb&amp;r=" + i + "\" ADD_DATE=\"1600000000\">Page &quot;" + i + "&quot;</A>\n");
+            }
+            out.write("    </DL><p>\n</DL><p>\n");
+        }
+    }
+}
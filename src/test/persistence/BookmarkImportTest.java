@@ -0,0 +1,219 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookmarkImportTest {
+    private static final String TEST_HTML_FILE = "./data/test_bookmarks.html";
+    private static final String TEST_CSV_FILE = "./data/test_bookmarks.csv";
+    private static final String TEST_MARKDOWN_FILE = "./data/test_bookmarks.md";
+    private static final String DEFAULT_FOLDER = "Bookmarks";
+    private static final String BOOKMARKS_HTML = "<!DOCTYPE NETSCAPE-Bookmark-file-1>\n"
+            + "<!-- This is an automatically generated file.\n     It will be read and overwritten.\n"
+            + "     DO NOT EDIT! -->\n"
+            + "<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n"
+            + "<TITLE>Bookmarks</TITLE>\n<H1>Bookmarks</H1>\n<DL><p>\n"
+            + "    <DT><A HREF=\"https://www.ubc.ca/\" ADD_DATE=\"1600000000\">UBC</A>\n"
+            + "    <DT><H3 ADD_DATE=\"1600000000\">MATH 101</H3>\n    <DL><p>\n"
+            + "        <DT><A HREF=\"https://canvas.ubc.ca/courses/1?a=1&amp;b=2\">Canvas &amp; notes</A>\n"
+            + "        <DT><H3>Practice</H3>\n        <DL><p>\n"
+            + "            <DT><A HREF='https://www.wolframalpha.com'>Wolfram</A>\n"
+            + "        </DL><p>\n"
+            + "        <DT><A HREF=\"javascript:alert(1)\">Bookmarklet</A>\n"
+            + "    </DL><p>\n"
+            + "    <DT><A HREF=\"https://piazza.com\">Piazza</A>\n"
+            + "</DL><p>\n";
+
+    @AfterEach
+    public void tearDown() {
+        for (String path : Arrays.asList(TEST_HTML_FILE, TEST_CSV_FILE, TEST_MARKDOWN_FILE)) {
+            new File(path).delete();
+        }
+    }
+
+    @Test
+    public void testReadHtml() throws IOException {
+        write(TEST_HTML_FILE, BOOKMARKS_HTML);
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_HTML_FILE), DEFAULT_FOLDER, (done, total) -> { });
+
+        assertEquals(5, bookmarks.getNumBookmarks());
+        assertEquals(1, bookmarks.getNumInvalid());
+        assertEquals(Arrays.asList(DEFAULT_FOLDER, "MATH 101", "Practice"),
+                new ArrayList<>(bookmarks.getFolders().keySet()));
+        List<WebsiteLink> math = bookmarks.getFolders().get("MATH 101");
+        assertEquals(1, math.size());
+        assertEquals("Canvas & notes", math.get(0).getName());
+        assertEquals("https://canvas.ubc.ca/courses/1?a=1&b=2", math.get(0).getPath());
+        assertEquals(Arrays.asList("UBC", "Piazza"), names(bookmarks.getFolders().get(DEFAULT_FOLDER)));
+        assertEquals("Wolfram", bookmarks.getFolders().get("Practice").get(0).getName());
+    }
+
+    @Test
+    public void testReadCsvWithHeader() throws IOException {
+        write(TEST_CSV_FILE, "folder,url,title\r\n"
+                + "MATH 101,https://canvas.ubc.ca,\"Canvas, \"\"main\"\" page\"\r\n"
+                + "\r\n"
+                + ",ubc.ca,UBC\r\n"
+                + "MATH 101,mailto:prof@ubc.ca,Email\r\n");
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_CSV_FILE), DEFAULT_FOLDER, (done, total) -> { });
+
+        assertEquals(3, bookmarks.getNumBookmarks());
+        assertEquals(1, bookmarks.getNumInvalid());
+        assertEquals("Canvas, \"main\" page", bookmarks.getFolders().get("MATH 101").get(0).getName());
+        assertEquals("http://ubc.ca", bookmarks.getFolders().get(DEFAULT_FOLDER).get(0).getPath());
+    }
+
+    @Test
+    public void testReadCsvWithoutHeader() throws IOException {
+        write(TEST_CSV_FILE, "Canvas,https://canvas.ubc.ca,MATH 101\nhttps://www.ubc.ca\n\"Multi\nline\",ubc.ca/x\n");
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_CSV_FILE), DEFAULT_FOLDER, (done, total) -> { });
+
+        assertEquals(3, bookmarks.getNumBookmarks());
+        assertEquals("Canvas", bookmarks.getFolders().get("MATH 101").get(0).getName());
+        assertEquals(Arrays.asList("https://www.ubc.ca", "Multi\nline"),
+                names(bookmarks.getFolders().get(DEFAULT_FOLDER)));
+    }
+
+    @Test
+    public void testReadMarkdown() throws IOException {
+        write(TEST_MARKDOWN_FILE, "Some links:\n"
+                + "- [UBC](https://www.ubc.ca \"home\")\n"
+                + "## MATH 101\n"
+                + "* [Canvas](<https://canvas.ubc.ca>) and <https://piazza.com>\n"
+                + "* also see https://www.wolframalpha.com, it's useful\n"
+                + "#\n"
+                + "[Library](library.ubc.ca)\n");
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_MARKDOWN_FILE), DEFAULT_FOLDER,
+                (done, total) -> { });
+
+        assertEquals(5, bookmarks.getNumBookmarks());
+        assertEquals(0, bookmarks.getNumInvalid());
+        assertEquals(Arrays.asList("UBC", "Library"), names(bookmarks.getFolders().get(DEFAULT_FOLDER)));
+        assertEquals(Arrays.asList("Canvas", "https://piazza.com", "https://www.wolframalpha.com"),
+                names(bookmarks.getFolders().get("MATH 101")));
+    }
+
+    @Test
+    public void testCancel() throws IOException {
+        writePages(BookmarkImport.CHUNK_SIZE * 4);
+        List<Integer> progress = new ArrayList<>();
+
+        assertThrows(CancellationException.class, () -> BookmarkImport.read(new File(TEST_CSV_FILE), DEFAULT_FOLDER,
+                new BookmarkImport.Progress() {
+                    @Override
+                    public void progress(int validated, int total) {
+                        progress.add(validated);
+                    }
+
+                    @Override
+                    public boolean isCanceled() {
+                        return !progress.isEmpty();
+                    }
+                }, new ForkJoinPool(1)));
+        assertEquals(Arrays.asList(BookmarkImport.CHUNK_SIZE), progress);
+    }
+
+    @Test
+    public void testProgressReportedForEachChunk() throws IOException {
+        int numBookmarks = BookmarkImport.CHUNK_SIZE * 2 + 10;
+        writePages(numBookmarks);
+        List<Integer> progress = new ArrayList<>();
+        List<Integer> totals = new ArrayList<>();
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_CSV_FILE), DEFAULT_FOLDER, (done, total) -> {
+            progress.add(done);
+            totals.add(total);
+        }, new ForkJoinPool(1));
+
+        assertEquals(Arrays.asList(BookmarkImport.CHUNK_SIZE, BookmarkImport.CHUNK_SIZE * 2, numBookmarks), progress);
+        assertTrue(totals.get(0) < numBookmarks);
+        assertEquals(numBookmarks, (int) totals.get(2));
+        List<WebsiteLink> folder = bookmarks.getFolders().get("Folder 1");
+        assertEquals((numBookmarks + 1) / 3, folder.size());
+        for (int i = 0; i < folder.size(); i++) {
+            assertEquals("Page " + (i * 3 + 1), folder.get(i).getName());
+        }
+    }
+
+    @Test
+    public void testAddToWorkspace() throws Exception {
+        WorkspaceApp workspace = new WorkspaceApp();
+        Space math = new Space("MATH 101");
+        math.addResource(new WebsiteLink("Canvas", "https://canvas.ubc.ca/"));
+        workspace.addSpace(math);
+        write(TEST_CSV_FILE, "title,url,folder\n"
+                + "Canvas,HTTPS://Canvas.UBC.ca:443/,MATH 101\n"
+                + "Canvas,https://canvas.ubc.ca/courses/1,MATH 101\n"
+                + "Piazza,https://piazza.com,MATH 101\n"
+                + "Piazza,https://piazza.com/,MATH 101\n"
+                + "UBC,https://www.ubc.ca,\n"
+                + "Bad,https://bad url,Empty\n");
+
+        BookmarkImport bookmarks = BookmarkImport.read(new File(TEST_CSV_FILE), DEFAULT_FOLDER, (done, total) -> { });
+        assertEquals(4, bookmarks.addTo(workspace));
+
+        assertEquals(1, bookmarks.getNumInvalid());
+        assertEquals(1, bookmarks.getNumDuplicates());
+        assertEquals(Arrays.asList("Canvas", "Canvas (2)", "Piazza", "Piazza (2)"), math.getAllResourceNames());
+        assertEquals(Arrays.asList("MATH 101", DEFAULT_FOLDER), workspace.getAllSpaceNames());
+        assertEquals(1, workspace.getSpaceOfName(DEFAULT_FOLDER).numResources());
+        assertEquals(Arrays.asList(workspace.getSpaceOfName(DEFAULT_FOLDER)),
+                workspace.getLinkIndex().getSpacesWithLink(WebsiteLink.normalize("https://www.ubc.ca")));
+
+        assertTrue(workspace.getUndoHistory().undo());
+        assertEquals(Arrays.asList("Canvas"), math.getAllResourceNames());
+        assertEquals(Arrays.asList("MATH 101"), workspace.getAllSpaceNames());
+    }
+
+    @Test
+    public void testFileNotFound() {
+        try {
+            BookmarkImport.read(new File("./data/no_such_bookmarks.html"), DEFAULT_FOLDER, (done, total) -> { });
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: returns names of links
+    private static List<String> names(List<WebsiteLink> links) {
+        List<String> names = new ArrayList<>();
+        for (WebsiteLink link : links) {
+            names.add(link.getName());
+        }
+        return names;
+    }
+
+    // EFFECTS: writes contents to file at path
+    private static void write(String path, String contents) throws IOException {
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write(contents);
+        }
+    }
+
+    // EFFECTS: writes numBookmarks generated bookmarks to the test CSV file, spread over three folders
+    private static void writePages(int numBookmarks) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < numBookmarks; i++) {
+            csv.append("Page ").append(i).append(",https://www.ubc.ca/page-").append(i).append(",Folder ")
+                    .append(i % 3).append('\n');
+        }
+        write(TEST_CSV_FILE, csv.toString());
+    }
+}
@@ -0,0 +1,230 @@
+package persistence;
+
+import model.*;
+import model.exception.InvalidFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeJournalTest {
+    private static final String TEST_SAVE_FILE = "./data/test_journal_save.json";
+
+    WorkspaceApp workspace;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workspace = new WorkspaceApp();
+        Space space = new Space("MATH 101");
+        space.getTodo().addTask(new Task("homework"));
+        workspace.addSpace(space);
+        workspace.saveSpaces(TEST_SAVE_FILE);
+        workspace.startJournal(TEST_SAVE_FILE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        workspace.stopJournal();
+        new File(TEST_SAVE_FILE).delete();
+        ChangeJournal.delete(TEST_SAVE_FILE);
+    }
+
+    @Test
+    public void testReplayUnsavedChanges() throws Exception {
+        Space math = workspace.getSpaceOfName("MATH 101");
+        math.addResource(new WebsiteLink("notes", "https://www.math.ubc.ca/notes"));
+        math.addResource(new WebsiteLink("old notes", "https://www.math.ubc.ca/old"));
+        math.removeResource(1);
+        math.getTodo().addTask(new Task("quiz"));
+        math.getTodo().completeTask(0);
+        math.getTodo().removeTask("quiz");
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("essay"));
+
+        WorkspaceApp recovered = load();
+        assertEquals(8, recovered.getRecoveredChanges());
+        assertEquals(2, recovered.getSpaces().size());
+
+        Space recoveredMath = recovered.getSpaceOfName("MATH 101");
+        assertEquals(1, recoveredMath.numResources());
+        assertEquals("notes", recoveredMath.getResources().get(0).getName());
+        assertEquals(1, recoveredMath.getTodo().getNumToDos());
+        assertTrue(recoveredMath.getTodo().getTasks().get(0).getComplete());
+        assertEquals("essay", recovered.getSpaceOfName("ENGL 110").getTodo().getTasks().get(0).getDescription());
+    }
+
+    @Test
+    public void testReplayRemovedAndReplacedSpaces() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.removeSpace("MATH 101");
+        assertEquals(1, load().getSpaces().size());
+
+        Space chem = new Space("CHEM 121");
+        chem.getTodo().addTask(new Task("lab report"));
+        workspace.setSpaces(new ArrayList<>(Collections.singletonList(chem)));
+        workspace.getSpaces().get(0).setTodo(new ToDoList());
+
+        WorkspaceApp recovered = load();
+        assertEquals(1, recovered.getSpaces().size());
+        assertEquals("CHEM 121", recovered.getSpaces().get(0).getName());
+        assertEquals(0, recovered.getSpaces().get(0).getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testReplayUndoneChanges() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.getSpaceOfName("MATH 101").getTodo().completeTask(0);
+        workspace.getSpaceOfName("MATH 101").getTodo().addTask(new Task("quiz"));
+        workspace.removeSpace("MATH 101");
+        workspace.getUndoHistory().undo();
+        workspace.getUndoHistory().undo();
+        workspace.getUndoHistory().undo();
+        workspace.getSpaceOfName("MATH 101").getTodo().addTask(0, new Task("reading"));
+
+        WorkspaceApp recovered = load();
+        assertEquals(8, recovered.getRecoveredChanges());
+        assertEquals("MATH 101", recovered.getSpaces().get(0).getName());
+        ToDoList todo = recovered.getSpaceOfName("MATH 101").getTodo();
+        assertEquals(Arrays.asList("reading", "homework"), todo.getAllTaskDescriptions());
+        assertEquals(0, todo.getNumCompleted());
+    }
+
+    @Test
+    public void testSaveClearsJournal() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.saveSpaces(TEST_SAVE_FILE);
+        workspace.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("essay"));
+
+        WorkspaceApp recovered = load();
+        assertEquals(1, recovered.getRecoveredChanges());
+        assertEquals(1, recovered.getSpaceOfName("ENGL 110").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testChangeMadeDuringSaveKept() throws Exception {
+        ToDoList todo = workspace.getSpaceOfName("MATH 101").getTodo();
+        todo.addTask(new Task("reading"));
+        workspace.setSaveCodec(new JsonCodec() {
+            @Override
+            public void encode(List<Space> spaces, OutputStream out) throws IOException {
+                todo.addTask(new Task("quiz"));
+                super.encode(spaces, out);
+            }
+        });
+        workspace.saveSpaces(TEST_SAVE_FILE);
+
+        WorkspaceApp recovered = load();
+        assertEquals(1, recovered.getRecoveredChanges());
+        assertEquals(Arrays.asList("homework", "reading", "quiz"),
+                recovered.getSpaceOfName("MATH 101").getTodo().getAllTaskDescriptions());
+    }
+
+    @Test
+    public void testFailedSaveKeepsJournal() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.setSaveCodec(new JsonCodec() {
+            @Override
+            public void encode(List<Space> spaces, OutputStream out) throws IOException {
+                throw new IOException();
+            }
+        });
+        assertThrows(IOException.class, () -> workspace.saveSpaces(TEST_SAVE_FILE));
+        workspace.addSpace(new Space("CHEM 121"));
+        assertThrows(IOException.class, () -> workspace.saveSpaces(TEST_SAVE_FILE));
+        String prefix = new File(TEST_SAVE_FILE).getName();
+        assertEquals(0, new File(TEST_SAVE_FILE).getParentFile().list((dir, name) -> name.startsWith(prefix)
+                && name.endsWith(".tmp")).length);
+
+        WorkspaceApp recovered = load();
+        assertEquals(2, recovered.getRecoveredChanges());
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "CHEM 121"), recovered.getAllSpaceNames());
+    }
+
+    @Test
+    public void testDiscardJournal() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.discardJournal();
+        workspace.addSpace(new Space("CHEM 121"));
+
+        assertFalse(workspace.isJournaling());
+        WorkspaceApp recovered = load();
+        assertEquals(0, recovered.getRecoveredChanges());
+        assertEquals(1, recovered.getSpaces().size());
+    }
+
+    @Test
+    public void testReplayStopsAtIncompleteEntry() throws Exception {
+        workspace.addSpace(new Space("ENGL 110"));
+        workspace.stopJournal();
+        try (FileWriter writer = new FileWriter(TEST_SAVE_FILE + ChangeJournal.JOURNAL_SUFFIX, true)) {
+            writer.write("{\"op\":\"SPACE_ADDED\",\"index\":2,\"data\":[{\"name\":\"CHE");
+        }
+
+        WorkspaceApp recovered = load();
+        assertEquals(1, recovered.getRecoveredChanges());
+        assertEquals(2, recovered.getSpaces().size());
+    }
+
+    @Test
+    public void testNoJournal() throws Exception {
+        workspace.stopJournal();
+        ChangeJournal.delete(TEST_SAVE_FILE);
+        assertFalse(new File(TEST_SAVE_FILE + ChangeJournal.JOURNAL_SUFFIX).exists());
+
+        WorkspaceApp recovered = load();
+        assertEquals(0, recovered.getRecoveredChanges());
+        assertEquals(1, recovered.getSpaces().size());
+    }
+
+    @Test
+    public void testIsJournalFor() throws IOException {
+        ChangeJournal journal = new ChangeJournal(workspace, TEST_SAVE_FILE);
+        assertTrue(journal.isJournalFor("data/test_journal_save.json"));
+        assertFalse(journal.isJournalFor("./data/other_save.json"));
+        journal.close();
+    }
+
+    @Test
+    public void testSaveReplacesFileOnlyWhenComplete() throws Exception {
+        String before = new String(Files.readAllBytes(new File(TEST_SAVE_FILE).toPath()));
+        Writer writer = new Writer(new File(TEST_SAVE_FILE));
+        writer.write("[{\"name\":\"half written");
+
+        assertEquals(before, new String(Files.readAllBytes(new File(TEST_SAVE_FILE).toPath())));
+        writer.write("\",\"resources\":[],\"tasks\":[]}]");
+        writer.close();
+        assertEquals("half written", load().getSpaces().get(0).getName());
+    }
+
+    @Test
+    public void testAbortLeavesFileUnchanged() throws Exception {
+        String before = new String(Files.readAllBytes(new File(TEST_SAVE_FILE).toPath()));
+        Writer writer = new Writer(new File(TEST_SAVE_FILE));
+        writer.write("[{\"name\":\"half written");
+        writer.abort();
+        writer.abort();
+
+        assertEquals(before, new String(Files.readAllBytes(new File(TEST_SAVE_FILE).toPath())));
+        String prefix = new File(TEST_SAVE_FILE).getName();
+        assertEquals(0, new File(TEST_SAVE_FILE).getParentFile().list((dir, name) -> name.startsWith(prefix)
+                && name.endsWith(".tmp")).length);
+    }
+
+    // EFFECTS: returns new workspace loaded from the test save file and its journal
+    private WorkspaceApp load() throws IOException, InvalidFormatException {
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_SAVE_FILE);
+        return loaded;
+    }
+}
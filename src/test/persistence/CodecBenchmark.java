@@ -0,0 +1,91 @@
+package persistence;
+
+import model.Space;
+import model.Task;
+import model.WebsiteLink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares file size and encode/decode throughput of the JSON and binary save codecs, uncompressed and compressed with
+// gzip at the fastest, default, and best compression levels
+// usage: java persistence.CodecBenchmark [number of spaces...]   (default: 10 100 1000)
+public class CodecBenchmark {
+    private static final int RESOURCES_PER_SPACE = 200;
+    private static final int TASKS_PER_SPACE = 200;
+    private static final int RUNS = 5;
+    private static final double MEGABYTE = 1024 * 1024;
+    private static final int[] GZIP_LEVELS = {1, 6, 9};
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"10", "100", "1000"};
+
+        System.out.printf("%-8s %-12s %12s %14s %14s%n", "spaces", "codec", "size (KB)", "encode (MB/s)",
+                "decode (MB/s)");
+        for (String size : sizes) {
+            List<Space> spaces = generateSpaces(Integer.parseInt(size));
+            for (SaveCodec codec : new SaveCodec[] {new JsonCodec(), new BinaryCodec()}) {
+                run(size, codec.getFileExtension(), codec, spaces);
+                for (int level : GZIP_LEVELS) {
+                    run(size, codec.getFileExtension() + GzipCodec.FILE_EXTENSION + "-" + level,
+                            new GzipCodec(codec, level), spaces);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: encodes and decodes spaces with codec, and prints encoded size and best throughput of several runs
+    //          throughput is measured against the size of the JSON encoding, so both codecs are compared on the
+    //          same amount of workspace data
+    private static void run(String size, String name, SaveCodec codec, List<Space> spaces) throws Exception {
+        long jsonBytes = encode(new JsonCodec(), spaces).length;
+        byte[] data = null;
+        long bestEncode = Long.MAX_VALUE;
+        long bestDecode = Long.MAX_VALUE;
+
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            data = encode(codec, spaces);
+            bestEncode = Math.min(bestEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int[] count = {0};
+            codec.decode(new ByteArrayInputStream(data), s -> count[0]++);
+            bestDecode = Math.min(bestDecode, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-8s %-12s %12d %14.1f %14.1f%n", size, name, data.length / 1024,
+                throughput(jsonBytes, bestEncode), throughput(jsonBytes, bestDecode));
+    }
+
+    // EFFECTS: returns spaces encoded with codec
+    private static byte[] encode(SaveCodec codec, List<Space> spaces) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(spaces, out);
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns megabytes per second for processing given number of bytes in given time
+    private static double throughput(long bytes, long nanos) {
+        return bytes / MEGABYTE / (nanos / 1e9);
+    }
+
+    // EFFECTS: returns given number of generated spaces, with course-style links and tasks
+    private static List<Space> generateSpaces(int numSpaces) throws Exception {
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < numSpaces; i++) {
+            Space space = new Space("SPACE " + i);
+            for (int j = 0; j < RESOURCES_PER_SPACE; j++) {
+                space.addResource(new WebsiteLink("Resource " + j % 20,
+                        "https://canvas.ubc.ca/courses/" + i + "/files/" + j + "?module_item_id=" + j));
+            }
+            for (int j = 0; j < TASKS_PER_SPACE; j++) {
+                space.getTodo().addTask(new Task("Task number " + j + " for space " + i, j % 3 == 0));
+            }
+            spaces.add(space);
+        }
+        return spaces;
+    }
+}
@@ -0,0 +1,317 @@
+package persistence;
+
+import model.*;
+import model.exception.InvalidFormatException;
+import org.json.simple.JSONArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecTest {
+    private static final String TEST_FILE_RESOURCE = "./data/test_file.txt";
+    private static final String TEST_BINARY_FILE = "./data/test_save_data.wsb";
+    private static final String TEST_COMPRESSED_FILE = "./data/test_save_data.json.gz";
+    private static final String TEST_COMPRESSED_DIRECTORY = "./data/test_compressed_workspace";
+
+    List<Space> spaces;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Space math = new Space("MATH 101");
+        math.addResource(new WebsiteLink("Textbook", "http://www.math.ubc.ca/~CLP/CLP2/clp_2_ic/"));
+        math.addResource(new WebsiteLink("Homework", "http://www.math.ubc.ca/~CLP/CLP2/homework/"));
+        math.addResource(new FilePath("Notes", TEST_FILE_RESOURCE));
+        math.getTodo().addTask(new Task("Quiz 1"));
+        math.getTodo().addTask(new Task("Webwork", true));
+
+        Space odd = new Space("Quotes \" slashes / \\ \u00E9 \u4E2D");
+        odd.getTodo().addTask(new Task(""));
+        odd.getTodo().addTask(new Task(null));
+        spaces = new ArrayList<>(Arrays.asList(math, odd, new Space("EMPTY")));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new File(TEST_BINARY_FILE).delete();
+        new File(TEST_COMPRESSED_FILE).delete();
+        File directory = new File(TEST_COMPRESSED_DIRECTORY);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        List<Space> decoded = decode(new BinaryCodec(), encode(new BinaryCodec()));
+
+        assertEquals(spaces.size(), decoded.size());
+        for (int i = 0; i < spaces.size(); i++) {
+            assertSameSpace(spaces.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        List<Space> decoded = decode(new JsonCodec(), encode(new JsonCodec()));
+
+        assertEquals(spaces.size(), decoded.size());
+        assertSameSpace(spaces.get(0), decoded.get(0));
+    }
+
+    @Test
+    public void testBinarySmallerThanJson() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            spaces.get(0).getTodo().addTask(new Task("Quiz 1"));
+        }
+        assertTrue(encode(new BinaryCodec()).length < encode(new JsonCodec()).length / 2);
+    }
+
+    @Test
+    public void testReaderDetectsFormat() throws Exception {
+        WorkspaceApp workspace = new WorkspaceApp();
+        workspace.setSpaces(spaces);
+        workspace.setSaveCodec(new BinaryCodec());
+        workspace.saveSpaces(TEST_BINARY_FILE);
+
+        List<Space> read = Reader.readSpaces(new File(TEST_BINARY_FILE));
+        assertEquals(3, read.size());
+        assertSameSpace(spaces.get(0), read.get(0));
+
+        workspace.setSaveCodec(new JsonCodec());
+        workspace.saveSpaces(TEST_BINARY_FILE);
+        assertEquals(3, Reader.readSpaces(new File(TEST_BINARY_FILE)).size());
+    }
+
+    @Test
+    public void testBinaryTruncated() throws IOException {
+        byte[] data = encode(new BinaryCodec());
+        for (int length : new int[] {BinaryCodec.MAGIC.length, data.length / 2, data.length - 1}) {
+            assertInvalid(Arrays.copyOf(data, length));
+        }
+    }
+
+    @Test
+    public void testReadUpTo() throws IOException {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        InputStream slow = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        assertArrayEquals(Arrays.copyOf(data, 4), BinaryCodec.readUpTo(slow, 4));
+        assertArrayEquals(Arrays.copyOfRange(data, 4, data.length), BinaryCodec.readUpTo(slow, 50000));
+        assertEquals(0, BinaryCodec.readUpTo(slow, 10).length);
+    }
+
+    @Test
+    public void testBinaryInvalid() throws IOException {
+        byte[] data = encode(new BinaryCodec());
+        byte[] trailing = Arrays.copyOf(data, data.length + 1);
+        assertInvalid(trailing);
+
+        byte[] badMagic = data.clone();
+        badMagic[3] = 9;
+        assertInvalid(badMagic);
+
+        byte[] badReference = {'W', 'S', 'B', 1, 1, 5};
+        assertInvalid(badReference);
+
+        byte[] badType = {'W', 'S', 'B', 1, 1, 0, 1, 7};
+        assertInvalid(badType);
+
+        byte[] longVarint = {'W', 'S', 'B', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1};
+        assertInvalid(longVarint);
+    }
+
+    @Test
+    public void testSharedResourcesWrittenOnce() throws Exception {
+        byte[] json = encode(new JsonCodec());
+        byte[] binary = encode(new BinaryCodec());
+        for (Space s : spaces.subList(1, 3)) {
+            s.addResource(new WebsiteLink("Textbook", "http://www.math.ubc.ca/~CLP/CLP2/clp_2_ic/"));
+            s.addResource(new FilePath("Notes", TEST_FILE_RESOURCE));
+        }
+
+        byte[] pooledJson = encode(new JsonCodec());
+        byte[] pooledBinary = encode(new BinaryCodec());
+        assertTrue(new String(pooledJson, StandardCharsets.UTF_8).startsWith("[{\"pool\":[{"));
+        assertTrue(pooledJson.length < json.length + 100);
+        assertTrue(pooledBinary.length < binary.length + 20);
+
+        for (List<Space> decoded : Arrays.asList(decode(new JsonCodec(), pooledJson),
+                decode(new BinaryCodec(), pooledBinary), Reader.parseContent(Reader.readFile(writeFile(pooledJson))),
+                Reader.readSpaces(writeFile(pooledJson)))) {
+            assertEquals(spaces.size(), decoded.size());
+            for (int i = 0; i < spaces.size(); i++) {
+                assertSameSpace(spaces.get(i), decoded.get(i));
+            }
+            Resource notes = decoded.get(0).getResourceOfName("Notes");
+            assertSame(notes, decoded.get(1).getResourceOfName("Notes"));
+            assertSame(notes, decoded.get(2).getResourceOfName("Notes"));
+            assertNotSame(decoded.get(0).getResourceOfName("Homework"), decoded.get(1).getResourceOfName("Textbook"));
+        }
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws Exception {
+        for (SaveCodec inner : new SaveCodec[] {new JsonCodec(), new BinaryCodec()}) {
+            List<Space> decoded = decode(new GzipCodec(inner), encode(new GzipCodec(inner, 1)));
+
+            assertEquals(spaces.size(), decoded.size());
+            for (int i = 0; i < spaces.size(); i++) {
+                assertSameSpace(spaces.get(i), decoded.get(i));
+            }
+        }
+        assertEquals(".json.gz", new GzipCodec(new JsonCodec()).getFileExtension());
+        assertEquals(".wsb.gz", new GzipCodec(new BinaryCodec()).getFileExtension());
+    }
+
+    @Test
+    public void testGzipSmallerThanJson() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            spaces.get(0).getTodo().addTask(new Task("Quiz 1"));
+        }
+        byte[] json = encode(new JsonCodec());
+        byte[] fast = encode(new GzipCodec(new JsonCodec(), 1));
+        byte[] best = encode(new GzipCodec(new JsonCodec(), 9));
+
+        assertTrue(fast.length < json.length / 4);
+        assertTrue(best.length <= fast.length);
+    }
+
+    @Test
+    public void testReaderDetectsCompressed() throws Exception {
+        WorkspaceApp workspace = new WorkspaceApp();
+        workspace.setSpaces(spaces);
+        workspace.setSaveCodec(new GzipCodec(new JsonCodec()));
+        workspace.saveSpaces(TEST_COMPRESSED_FILE);
+
+        List<Space> read = Reader.readSpaces(new File(TEST_COMPRESSED_FILE));
+        assertEquals(3, read.size());
+        assertSameSpace(spaces.get(0), read.get(0));
+
+        workspace.setSaveCodec(new GzipCodec(new BinaryCodec()));
+        workspace.saveSpaces(TEST_COMPRESSED_FILE);
+        read = new ArrayList<>();
+        Reader.readSpaces(new File(TEST_COMPRESSED_FILE), read::add);
+        assertEquals(3, read.size());
+        assertSameSpace(spaces.get(1), read.get(1));
+    }
+
+    @Test
+    public void testCompressedSegments() throws Exception {
+        WorkspaceApp workspace = new WorkspaceApp();
+        workspace.setSpaces(spaces);
+        workspace.setSaveCodec(new GzipCodec(new JsonCodec(), 9));
+        workspace.saveSpaces(TEST_COMPRESSED_DIRECTORY);
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_COMPRESSED_DIRECTORY);
+        assertEquals(3, loaded.getSpaces().size());
+        loaded.getSpaces().get(0).hydrate();
+        assertSameSpace(spaces.get(0), loaded.getSpaces().get(0));
+
+        JSONArray json = new SegmentedStore(new File(TEST_COMPRESSED_DIRECTORY)).readJson();
+        assertEquals(3, json.size());
+    }
+
+    @Test
+    public void testGzipInvalid() throws IOException {
+        byte[] data = encode(new GzipCodec(new JsonCodec()));
+        for (int length : new int[] {2, 10, data.length / 2, data.length - 1}) {
+            assertInvalid(new GzipCodec(new JsonCodec()), Arrays.copyOf(data, length));
+        }
+
+        byte[] corrupt = data.clone();
+        corrupt[data.length / 2] ^= 0x55;
+        assertInvalid(new GzipCodec(new JsonCodec()), corrupt);
+    }
+
+    @Test
+    public void testCompressHelpers() throws IOException {
+        byte[] data = "[{\"resources\":[],\"tasks\":[],\"name\":\"A\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = GzipCodec.compress(data, 6);
+
+        assertTrue(GzipCodec.hasMagic(compressed));
+        assertFalse(GzipCodec.hasMagic(data));
+        assertArrayEquals(data, GzipCodec.decompress(compressed));
+        try {
+            GzipCodec.decompress(data);
+            fail("IOException was not thrown.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: returns spaces encoded with codec
+    private byte[] encode(SaveCodec codec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(spaces, out);
+        return out.toByteArray();
+    }
+
+    // EFFECTS: writes data to a test file and returns the file
+    private File writeFile(byte[] data) throws IOException {
+        File file = new File(TEST_BINARY_FILE);
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    // EFFECTS: returns spaces decoded from data with codec
+    private List<Space> decode(SaveCodec codec, byte[] data) throws IOException, InvalidFormatException {
+        List<Space> decoded = new ArrayList<>();
+        codec.decode(new ByteArrayInputStream(data), decoded::add);
+        return decoded;
+    }
+
+    private void assertInvalid(byte[] data) throws IOException {
+        assertInvalid(new BinaryCodec(), data);
+    }
+
+    private void assertInvalid(SaveCodec codec, byte[] data) throws IOException {
+        try {
+            decode(codec, data);
+            fail("InvalidFormatException was not thrown.");
+        } catch (InvalidFormatException e) {
+            // expected
+        }
+    }
+
+    private void assertSameSpace(Space expected, Space actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.numResources(), actual.numResources());
+        for (int i = 0; i < expected.numResources(); i++) {
+            Resource r = expected.getResources().get(i);
+            assertEquals(r.getName(), actual.getResources().get(i).getName());
+            assertEquals(r.getPath(), actual.getResources().get(i).getPath());
+            assertEquals(r.getResourceType(), actual.getResources().get(i).getResourceType());
+        }
+        assertEquals(expected.getTodo().getAllTaskDescriptions(), actual.getTodo().getAllTaskDescriptions());
+        for (int i = 0; i < expected.getTodo().getNumToDos(); i++) {
+            assertEquals(expected.getTodo().getTasks().get(i).getComplete(),
+                    actual.getTodo().getTasks().get(i).getComplete());
+        }
+    }
+}
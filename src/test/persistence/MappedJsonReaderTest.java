@@ -0,0 +1,124 @@
+package persistence;
+
+import model.Space;
+import model.exception.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedJsonReaderTest {
+
+    @Test
+    public void testMatchesStreamingRead() throws Exception {
+        String[] contents = {"[]", " [ ] ",
+                "[{\"name\":\"BIO\",\"resources\":[{\"path\":\"http:\\/\\/www.ubc.ca\\/bio\",\"name\":\"UBC\","
+                        + "\"type\":\"LINK\"}],\"tasks\":[{\"complete?\":false,\"description\":\"Lab \\\"1\\\"\"}]}]",
+                "[\n  {\"tasks\" : [], \"resources\" : [], \"name\" : null},\r\n\t{\"name\":\"\u00E9\u4E2D\\u00e9\\n\","
+                        + "\"resources\":[],\"tasks\":[{\"description\":null,\"complete?\":true}]}\n]",
+                "[{\"n\\u0061me\":\"escaped key\",\"resources\":[],\"tasks\":[]}]",
+                "[{\"name\":\"BIO\",\"colour\":{\"r\":[1,-2.5e3,{\"x\":\"]}\"}],\"g\":true},\"resources\":[],"
+                        + "\"tasks\":[{\"description\":\"Lab\",\"complete?\":true,\"due\":null}],\"size\":0}]"};
+
+        for (String content : contents) {
+            List<Space> mapped = readMapped(content);
+            List<Space> streamed = readStreamed(content);
+
+            assertEquals(streamed.size(), mapped.size(), content);
+            for (int i = 0; i < streamed.size(); i++) {
+                assertEquals(streamed.get(i).getName(), mapped.get(i).getName());
+                assertEquals(streamed.get(i).getAllResourceNames(), mapped.get(i).getAllResourceNames());
+                assertEquals(streamed.get(i).getTodo().getAllTaskDescriptions(),
+                        mapped.get(i).getTodo().getAllTaskDescriptions());
+            }
+        }
+    }
+
+    @Test
+    public void testReadWrongStructure() {
+        String[] invalidContents = {"", "{}", "[1]", "[", "[]]", "[] x", "[{\"name\":\"BIO\",\"resources\":[]}]",
+                "[{\"name\":\"BIO\",\"resources\":{},\"tasks\":[]}]", "[{\"name\":5,\"resources\":[],\"tasks\":[]}]",
+                "[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[{\"description\":\"Lab\"}]}]",
+                "[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[{\"complete?\":\"yes\"}]}]",
+                "[{\"name\":\"BIO\",\"resources\":[{\"name\":\"x\",\"path\":\"y\"}],\"tasks\":[]}]",
+                "[{\"name\":\"unterminated,\"resources\":[],\"tasks\":[]}]",
+                "[{\"name\":\"BIO\",\"extra\":[1},\"resources\":[],\"tasks\":[]}]",
+                "[{\"name\":\"BIO\",\"extra\":nope,\"resources\":[],\"tasks\":[]}]",
+                "[{\"name\":\"\\u12\",\"resources\":[],\"tasks\":[]}]"};
+
+        for (String content : invalidContents) {
+            try {
+                readMapped(content);
+                fail("No exception thrown for invalid save data: " + content);
+            } catch (InvalidFormatException e) {
+                // Expected to be thrown
+            }
+        }
+    }
+
+    @Test
+    public void testReadPooledResources() throws Exception {
+        String content = "[{\"pool\":[{\"name\":\"UBC\",\"type\":\"LINK\",\"path\":\"http://www.ubc.ca\"}]},"
+                + "{\"name\":\"BIO\",\"resources\":[{\"ref\":0}],\"tasks\":[]},"
+                + "{\"name\":\"CHEM\",\"resources\":[{\"name\":\"Lab\",\"type\":\"LINK\",\"path\":\"http://lab.ca\"},"
+                + "{\"ref\" : 0}],\"tasks\":[]}]";
+        List<Space> split = new ArrayList<>();
+        for (SpaceBuilder<InvalidFormatException> builder
+                : new MappedJsonReader(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))).splitSpaces()) {
+            split.add(builder.build());
+        }
+
+        for (List<Space> spaces : Arrays.asList(readMapped(content), readStreamed(content), split)) {
+            assertEquals(2, spaces.size());
+            assertEquals("BIO", spaces.get(0).getName());
+            assertEquals(Arrays.asList("Lab", "UBC"), spaces.get(1).getAllResourceNames());
+            assertSame(spaces.get(0).getResources().get(0), spaces.get(1).getResources().get(1));
+        }
+    }
+
+    @Test
+    public void testReadInvalidPooledResources() throws IOException {
+        String pool = "{\"pool\":[{\"name\":\"UBC\",\"type\":\"LINK\",\"path\":\"http://www.ubc.ca\"}]}";
+        String[] invalidContents = {"[" + pool + ",{\"name\":\"BIO\",\"resources\":[{\"ref\":1}],\"tasks\":[]}]",
+                "[" + pool + ",{\"name\":\"BIO\",\"resources\":[{\"ref\":\"0\"}],\"tasks\":[]}]",
+                "[" + pool + ",{\"name\":\"BIO\",\"resources\":[{\"ref\":-1}],\"tasks\":[]}]",
+                "[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[]}," + pool + "]",
+                "[{\"name\":\"BIO\",\"resources\":[{\"ref\":0}],\"tasks\":[]}]"};
+
+        for (String content : invalidContents) {
+            try {
+                readMapped(content);
+                fail("No exception thrown for invalid save data: " + content);
+            } catch (InvalidFormatException e) {
+                // Expected to be thrown
+            }
+            try {
+                readStreamed(content);
+                fail("No exception thrown for invalid save data: " + content);
+            } catch (InvalidFormatException e) {
+                // Expected to be thrown
+            }
+        }
+    }
+
+    // EFFECTS: returns spaces parsed from content by the mapped reader
+    private List<Space> readMapped(String content) throws InvalidFormatException {
+        List<Space> spaces = new ArrayList<>();
+        new MappedJsonReader(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))).readSpaces(spaces::add);
+        return spaces;
+    }
+
+    // EFFECTS: returns spaces parsed from content by the streaming JSON reader
+    private List<Space> readStreamed(String content) throws IOException, InvalidFormatException {
+        List<Space> spaces = new ArrayList<>();
+        new JsonCodec().decode(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), spaces::add);
+        return spaces;
+    }
+}
@@ -9,8 +9,12 @@ import org.junit.jupiter.api.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,8 +76,12 @@ public class PersistenceTest {
         try {
             bufferedReader = new BufferedReader(new FileReader(file));
             Writer writer = new Writer(file);
-            writer.write("Test string");
-            writer.close();
+            try {
+                writer.write("Test string");
+                writer.close();
+            } finally {
+                writer.abort();
+            }
             assertEquals("Test string", bufferedReader.readLine());
             bufferedReader.close();
         } catch (IOException e) {
@@ -105,13 +113,232 @@ public class PersistenceTest {
         }
     }
 
+    @Test
+    public void testStreamingReadMatchesTreeRead() {
+        writeData();
+
+        try {
+            List<Space> streamed = Reader.readSpaces(new File(TEST_DATA_FILE));
+            List<Space> parsed = Reader.parseContent(Reader.readFile(new File(TEST_DATA_FILE)));
+
+            assertEquals(parsed.size(), streamed.size());
+            for (int i = 0; i < parsed.size(); i++) {
+                assertSameSpace(parsed.get(i), streamed.get(i));
+            }
+        } catch (Exception e) {
+            fail("Exception thrown while reading test data file.");
+        }
+    }
+
+    @Test
+    public void testReadSpacesInOrder() {
+        writeData();
+        List<String> names = new ArrayList<>();
+
+        try {
+            Reader.readSpaces(new File(TEST_DATA_FILE), s -> names.add(s.getName()));
+        } catch (Exception e) {
+            fail("Exception thrown while reading test data file.");
+        }
+
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110"), names);
+    }
+
+    @Test
+    public void testReadIgnoresUnknownFields() {
+        String content = "[{\"name\":\"BIO\",\"colour\":{\"r\":[1,2]},\"resources\":[],"
+                + "\"tasks\":[{\"description\":\"Lab\",\"complete?\":true,\"due\":null}]}]";
+
+        try {
+            List<Space> spaces = Reader.readSpaces(writeTempFile(content));
+            assertEquals(1, spaces.size());
+            assertEquals("BIO", spaces.get(0).getName());
+            assertTrue(spaces.get(0).getTodo().getTasks().get(0).getComplete());
+        } catch (Exception e) {
+            fail("Exception thrown for valid save data.");
+        }
+    }
+
+    @Test
+    public void testReadWrongStructure() {
+        String[] invalidContents = {"{\"name\":\"BIO\"}", "[1]", "[{\"name\":\"BIO\",\"resources\":[]}]",
+                "[{\"name\":\"BIO\",\"resources\":{},\"tasks\":[]}]", "",
+                "[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[{\"description\":\"Lab\"}]}]"};
+
+        for (String content : invalidContents) {
+            try {
+                Reader.readSpaces(writeTempFile(content));
+                fail("No exception thrown for invalid save data: " + content);
+            } catch (InvalidFormatException e) {
+                // Expected to be thrown
+            } catch (IOException e) {
+                fail("Expected InvalidFormatException, but IOException was thrown.");
+            }
+        }
+    }
+
+    @Test
+    public void testParallelReadPreservesOrder() throws Exception {
+        StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            content.append(i > 0 ? ",\n" : "").append("{\"name\":\"space ").append(i).append("\",\"resources\":[")
+                    .append("{\"type\":\"FILE\",\"name\":\"file\",\"path\":\"").append(TEST_FILE_RESOURCE)
+                    .append("\"}],\"tasks\":[{\"description\":\"task ").append(i).append("\",\"complete?\":false}]}");
+        }
+        File file = writeTempFile(content.append("]").toString());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Space> parallel = Reader.readSpaces(file, pool);
+        pool.shutdown();
+        List<Space> serial = new ArrayList<>();
+        Reader.readSpaces(file, serial::add);
+
+        assertEquals(200, parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals("space " + i, parallel.get(i).getName());
+            assertSameSpace(serial.get(i), parallel.get(i));
+        }
+        parallel.add(new Space("new space"));
+        assertEquals(201, parallel.size());
+    }
+
+    @Test
+    public void testReadFileCanBeReplacedAndDeleted() throws Exception {
+        File file = writeTempFile("[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[]},"
+                + "{\"name\":\"CHEM\",\"resources\":[],\"tasks\":[]}]");
+        assertEquals(2, Reader.readSpaces(file, new ForkJoinPool(2)).size());
+
+        Writer writer = new Writer(file);
+        try {
+            writer.write("[{\"name\":\"MATH\",\"resources\":[],\"tasks\":[]}]");
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+        List<Space> replaced = new ArrayList<>();
+        Reader.readSpaces(file, replaced::add);
+        assertEquals("MATH", replaced.get(0).getName());
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testParallelReadInvalidSpace() throws IOException {
+        String content = "[{\"name\":\"BIO\",\"resources\":[],\"tasks\":[]},"
+                + "{\"name\":\"CHEM\",\"resources\":[{\"type\":\"LINK\",\"name\":\"x\",\"path\":\"a b\"}],"
+                + "\"tasks\":[]},{\"name\":\"MATH\",\"resources\":[],\"tasks\":[]}]";
+
+        try {
+            Reader.readSpaces(writeTempFile(content), new ForkJoinPool(2));
+            fail("No exception thrown for space with invalid link.");
+        } catch (InvalidFormatException e) {
+            // Expected to be thrown
+        }
+    }
+
+    @Test
+    public void testReadDoesNotCheckFilesExist() throws Exception {
+        String content = "[{\"name\":\"CHEM\",\"resources\":[{\"type\":\"FILE\",\"name\":\"x\","
+                + "\"path\":\"./data/none\"},{\"type\":\"APP\",\"name\":\"y\",\"path\":\"./data/none.exe\"}],"
+                + "\"tasks\":[]}]";
+
+        List<Space> spaces = Reader.readSpaces(writeTempFile(content));
+        assertEquals(2, spaces.get(0).numResources());
+        assertEquals(Resource.Status.UNCHECKED, spaces.get(0).getResources().get(0).getStatus());
+        assertEquals(Resource.ResourceType.APP, spaces.get(0).getResources().get(1).getResourceType());
+    }
+
+    @Test
+    public void testLoadKeepsDuplicateNames() throws Exception {
+        String content = "[{\"name\":\"A\",\"resources\":[{\"type\":\"LINK\",\"name\":\"n\",\"path\":\"ubc.ca\"},"
+                + "{\"type\":\"FILE\",\"name\":\"n\",\"path\":\"./data/none\"}],\"tasks\":[]},"
+                + "{\"name\":\"A\",\"resources\":[],\"tasks\":[{\"description\":\"quiz\",\"complete?\":false}]}]";
+        File file = writeTempFile(content);
+
+        workspace.loadSpaces(file.getPath());
+        assertEquals(Arrays.asList("A", "A (2)"), workspace.getAllSpaceNames());
+        Space first = workspace.getSpaceOfName("A");
+        assertEquals(Arrays.asList("n", "n (2)"), first.getAllResourceNames());
+        assertEquals("./data/none", first.getResourceOfName("n (2)").getPath());
+        assertEquals(Resource.ResourceType.FILE, first.getResourceOfName("n (2)").getResourceType());
+        assertEquals(1, workspace.getSpaceOfName("A (2)").getTodo().getNumToDos());
+        assertTrue(workspace.getSpaceOfName("A (2)").isDirty());
+    }
+
+    @Test
+    public void testJsonWriterMatchesJsonSimple() {
+        initSpace();
+        Space oddSpace = new Space("Quotes \" slashes / \\ tabs \t\n \u0001 \u0085 \u2028 \u00E9");
+        oddSpace.getTodo().addTask(new Task("a/b \"c\""));
+        workspace.addSpace(oddSpace);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+            workspace.save(out);
+        } catch (IOException e) {
+            fail("IOException thrown while writing to string.");
+        }
+
+        assertEquals(toJsonArray(workspace.getSpaces()).toString(), new String(out.toByteArray(),
+                StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns spaces as a JSON array, built with json-simple objects
+    private JSONArray toJsonArray(List<Space> spaces) {
+        JSONArray spacesList = new JSONArray();
+        for (Space s : spaces) {
+            JSONObject spaceDetails = new JSONObject();
+            JSONArray resources = new JSONArray();
+            for (Resource r : s.getResources()) {
+                JSONObject resourceDetails = new JSONObject();
+                resourceDetails.put("type", r.getResourceType().name());
+                resourceDetails.put("name", r.getName());
+                resourceDetails.put("path", r.getPath());
+                resources.add(resourceDetails);
+            }
+            spaceDetails.put("name", s.getName());
+            spaceDetails.put("resources", resources);
+            spaceDetails.put("tasks", s.getTodo().getListAsJson());
+            spacesList.add(spaceDetails);
+        }
+        return spacesList;
+    }
+
+    private void assertSameSpace(Space expected, Space actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAllResourceNames(), actual.getAllResourceNames());
+        for (int i = 0; i < expected.numResources(); i++) {
+            Resource expectedResource = expected.getResources().get(i);
+            Resource actualResource = actual.getResources().get(i);
+            assertEquals(expectedResource.getPath(), actualResource.getPath());
+            assertEquals(expectedResource.getResourceType(), actualResource.getResourceType());
+        }
+        assertEquals(expected.getTodo().getAllTaskDescriptions(), actual.getTodo().getAllTaskDescriptions());
+    }
+
+    private File writeTempFile(String content) throws IOException {
+        File file = File.createTempFile("workspace", ".json");
+        file.deleteOnExit();
+        Writer writer = new Writer(file);
+        try {
+            writer.write(content);
+            writer.close();
+        } finally {
+            writer.abort();
+        }
+        return file;
+    }
+
     private void writeData() {
         initSpace();
 
         try {
             Writer writer = new Writer(new File(TEST_DATA_FILE));
-            writer.write(workspace);
-            writer.close();
+            try {
+                writer.write(workspace);
+                writer.close();
+            } finally {
+                writer.abort();
+            }
         } catch (Exception e) {
             fail("Writer was not able to find or create test data file.");
         }
@@ -0,0 +1,141 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+// Compares peak heap use and load time of the memory-mapped Reader, serially and building spaces in parallel, against
+// the streaming and tree-based (DOM) parses
+// each path is timed with the file in the page cache (warm) and, when run as root on Linux, after dropping the page
+// cache (cold); cold runs are skipped when the cache can't be dropped
+// usage: java -Xmx8g persistence.ReaderBenchmark [file sizes in MB...]   (default: 10 100 500)
+public class ReaderBenchmark {
+    private static final int RESOURCES_PER_SPACE = 200;
+    private static final int TASKS_PER_SPACE = 200;
+    private static final long MEGABYTE = 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"10", "100", "500"};
+
+        boolean canDropCache = dropPageCache();
+        if (!canDropCache) {
+            System.out.println("can't drop page cache (needs root on Linux), only timing warm reads");
+        }
+
+        System.out.printf("%-8s %-8s %-6s %12s %12s %14s%n", "size", "path", "cache", "load (ms)", "MB/s",
+                "peak heap (MB)");
+        for (String size : sizes) {
+            File file = generateFile(Integer.parseInt(size));
+            for (String path : new String[] {"dom", "stream", "mapped", "parallel"}) {
+                if (canDropCache) {
+                    dropPageCache();
+                    run(size + "MB", path, "cold", file);
+                }
+                run(size + "MB", path, "warm", file);
+            }
+            file.delete();
+        }
+    }
+
+    // EFFECTS: loads file using given path and prints load time, throughput, and peak heap use
+    private static void run(String size, String path, String cache, File file) throws Exception {
+        System.gc();
+        resetPeakHeap();
+        long start = System.nanoTime();
+        int[] count = {0};
+
+        if (path.equals("dom")) {
+            count[0] = Reader.parseContent(Reader.readFile(file)).size();
+        } else if (path.equals("stream")) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                new JsonCodec().decode(in, s -> count[0]++);
+            }
+        } else if (path.equals("mapped")) {
+            Reader.readSpaces(file, s -> count[0]++);
+        } else {
+            count[0] = Reader.readSpaces(file).size();
+        }
+
+        long nanos = System.nanoTime() - start;
+        double throughput = file.length() / (double) MEGABYTE / (nanos / 1e9);
+        System.out.printf("%-8s %-8s %-6s %12d %12.1f %14d   (%d spaces)%n", size, path, cache, nanos / 1000000,
+                throughput, peakHeap() / MEGABYTE, count[0]);
+    }
+
+    // EFFECTS: flushes dirty pages and drops the operating system's page cache, returns false if that isn't possible
+    private static boolean dropPageCache() {
+        try {
+            Process process = new ProcessBuilder("sh", "-c", "sync && echo 3 > /proc/sys/vm/drop_caches")
+                    .redirectErrorStream(true).start();
+            return process.waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: writes a save file of roughly the given size in megabytes and returns it
+    private static File generateFile(int megabytes) throws IOException {
+        File file = File.createTempFile("benchmark", ".json");
+        file.deleteOnExit();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("[");
+            for (int i = 0; file.length() < megabytes * MEGABYTE || i == 0; i++) {
+                if (i > 0) {
+                    writer.write(",");
+                }
+                writeSpace(writer, i);
+                writer.flush();
+            }
+            writer.write("]");
+        }
+
+        return file;
+    }
+
+    // EFFECTS: writes one generated space to writer
+    private static void writeSpace(BufferedWriter writer, int index) throws IOException {
+        writer.write("{\"name\":\"SPACE " + index + "\",\"resources\":[");
+        for (int i = 0; i < RESOURCES_PER_SPACE; i++) {
+            writer.write((i > 0 ? "," : "") + "{\"path\":\"https:\\/\\/canvas.ubc.ca\\/courses\\/" + index
+                    + "\\/files\\/" + i + "?module_item_id=" + i + "\",\"name\":\"Resource " + i
+                    + "\",\"type\":\"LINK\"}");
+        }
+        writer.write("],\"tasks\":[");
+        for (int i = 0; i < TASKS_PER_SPACE; i++) {
+            writer.write((i > 0 ? "," : "") + "{\"complete?\":" + (i % 3 == 0) + ",\"description\":\"Task number "
+                    + i + " for space " + index + "\"}");
+        }
+        writer.write("]}");
+    }
+
+    // EFFECTS: resets peak usage of all heap memory pools
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : heapPools()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    // EFFECTS: returns sum of peak usage of all heap memory pools since last reset
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        pools.removeIf(p -> p.getType() != MemoryType.HEAP);
+        return pools;
+    }
+}
@@ -0,0 +1,162 @@
+package persistence;
+
+import model.ModelEvent;
+import model.Space;
+import model.Task;
+import model.WorkspaceApp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveWatcherTest {
+    private static final String TEST_DIRECTORY = "./data/test_watched_save";
+    private static final String TEST_FILE = "./data/test_watched_save.json";
+
+    WorkspaceApp workspace;
+    WorkspaceApp other;
+    List<ModelEvent> events;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new WorkspaceApp();
+        for (String name : Arrays.asList("MATH 101", "ENGL 110", "CHEM 121")) {
+            Space space = new Space(name);
+            space.getTodo().addTask(new Task(name + " homework"));
+            workspace.addSpace(space);
+        }
+        other = new WorkspaceApp();
+        events = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        workspace.stopWatching();
+        File[] files = new File(TEST_DIRECTORY).listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        new File(TEST_DIRECTORY).delete();
+        new File(TEST_FILE).delete();
+    }
+
+    @Test
+    public void testReloadSegmentedChanges() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        Space math = workspace.getSpaceOfName("MATH 101");
+        Space chem = workspace.getSpaceOfName("CHEM 121");
+        editElsewhere(TEST_DIRECTORY);
+        workspace.addModelListener(events::add);
+
+        ExternalChanges changes = workspace.reloadChanges(TEST_DIRECTORY);
+        assertEquals(Arrays.asList("ENGL 110", "PHYS 117"), new ArrayList<>(changes.getUpdated().keySet()));
+        assertEquals(Arrays.asList("CHEM 121"), changes.getRemoved());
+        assertTrue(changes.getConflicts().isEmpty());
+
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "PHYS 117"), workspace.getAllSpaceNames());
+        assertSame(math, workspace.getSpaceOfName("MATH 101"));
+        assertEquals(2, workspace.getSpaceOfName("ENGL 110").getTodo().getNumToDos());
+        assertFalse(workspace.getSpaceOfName("ENGL 110").isDirty());
+        assertEquals(1, workspace.getSpaceOfName("PHYS 117").getTodo().getNumToDos());
+        assertNull(workspace.getSpaceOfName("CHEM 121"));
+        List<ModelEvent.Type> types = new ArrayList<>();
+        for (ModelEvent e : events) {
+            assertNotSame(math, e.getSource());
+            types.add(e.getType());
+        }
+        assertEquals(Arrays.asList(ModelEvent.Type.SPACE_REMOVED, ModelEvent.Type.RESOURCES_REPLACED,
+                ModelEvent.Type.TODO_REPLACED, ModelEvent.Type.SPACE_ADDED), types);
+        assertSame(chem, events.get(0).getElement());
+    }
+
+    @Test
+    public void testSaveAfterReloadKeepsChanges() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        editElsewhere(TEST_DIRECTORY);
+        workspace.reloadChanges(TEST_DIRECTORY);
+        workspace.getSpaceOfName("MATH 101").getTodo().addTask(new Task("Quiz"));
+        workspace.saveSpaces(TEST_DIRECTORY);
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_DIRECTORY);
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "PHYS 117"), loaded.getAllSpaceNames());
+        assertEquals(2, loaded.getSpaceOfName("MATH 101").getTodo().getNumToDos());
+        assertEquals(2, loaded.getSpaceOfName("ENGL 110").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testOwnSaveNotReloaded() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        workspace.getSpaceOfName("MATH 101").getTodo().addTask(new Task("Quiz"));
+        workspace.saveSpaces(TEST_DIRECTORY);
+        assertTrue(workspace.reloadChanges(TEST_DIRECTORY).isEmpty());
+
+        workspace.saveSpaces(TEST_FILE);
+        assertTrue(workspace.reloadChanges(TEST_FILE).isEmpty());
+    }
+
+    @Test
+    public void testUnsavedChangesKept() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        workspace.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("Reading"));
+        workspace.getSpaceOfName("CHEM 121").getTodo().addTask(new Task("Lab"));
+        editElsewhere(TEST_DIRECTORY);
+
+        ExternalChanges changes = workspace.reloadChanges(TEST_DIRECTORY);
+        assertEquals(Arrays.asList("CHEM 121", "ENGL 110"), changes.getConflicts());
+        assertEquals("Reading", workspace.getSpaceOfName("ENGL 110").getTodo().getTasks().get(1).getDescription());
+        assertNotNull(workspace.getSpaceOfName("CHEM 121"));
+        assertNotNull(workspace.getSpaceOfName("PHYS 117"));
+    }
+
+    @Test
+    public void testReloadSingleFileChanges() throws Exception {
+        workspace.saveSpaces(TEST_FILE);
+        editElsewhere(TEST_FILE);
+
+        ExternalChanges changes = workspace.reloadChanges(TEST_FILE);
+        assertEquals(Arrays.asList("ENGL 110", "PHYS 117"), new ArrayList<>(changes.getUpdated().keySet()));
+        assertEquals(Arrays.asList("CHEM 121"), changes.getRemoved());
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "PHYS 117"), workspace.getAllSpaceNames());
+        assertEquals(2, workspace.getSpaceOfName("ENGL 110").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testWatcherReloadsChanges() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        BlockingQueue<ExternalChanges> reloaded = new LinkedBlockingQueue<>();
+        workspace.startWatching(TEST_DIRECTORY, Runnable::run, reloaded::add);
+        assertTrue(workspace.isWatching());
+
+        editElsewhere(TEST_DIRECTORY);
+        ExternalChanges changes = reloaded.poll(10, TimeUnit.SECONDS);
+        assertNotNull(changes);
+        assertEquals(Arrays.asList("CHEM 121"), changes.getRemoved());
+        assertEquals(3, workspace.getSpaces().size());
+
+        workspace.stopWatching();
+        assertFalse(workspace.isWatching());
+    }
+
+    // EFFECTS: loads save at path in another workspace, changes ENGL 110, removes CHEM 121, adds PHYS 117, and saves
+    private void editElsewhere(String path) throws Exception {
+        other.loadSpaces(path);
+        other.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("Essay"));
+        other.removeSpace("CHEM 121");
+        Space physics = new Space("PHYS 117");
+        physics.getTodo().addTask(new Task("Problem set"));
+        other.addSpace(physics);
+        other.saveSpaces(path);
+    }
+}
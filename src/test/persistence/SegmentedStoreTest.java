@@ -0,0 +1,309 @@
+package persistence;
+
+import model.*;
+import model.exception.InvalidFormatException;
+import org.json.simple.JSONArray;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedStoreTest {
+    private static final String TEST_DIRECTORY = "./data/test_segmented_save";
+    private static final String TEST_DATA_FILE = "./data/test_save_data.json";
+    private static final String TEST_SINGLE_FILE = "./data/test_segmented_import.json";
+
+    File directory;
+    List<Space> spaces;
+    SegmentedStore store;
+
+    @BeforeEach
+    public void setUp() {
+        directory = new File(TEST_DIRECTORY);
+        spaces = new ArrayList<>();
+        for (String name : Arrays.asList("MATH 101", "ENGL 110", "CHEM 121")) {
+            Space space = new Space(name);
+            space.getTodo().addTask(new Task(name + " homework"));
+            spaces.add(space);
+        }
+        store = new SegmentedStore(directory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testSpaceChangedDuringSaveStaysDirty() throws Exception {
+        Space math = spaces.get(0);
+        SaveCodec changingCodec = new JsonCodec() {
+            @Override
+            public void encode(List<Space> toSave, java.io.OutputStream out) throws IOException {
+                super.encode(toSave, out);
+                if (toSave.get(0).getName().equals(math.getName()) && math.getTodo().getNumToDos() == 1) {
+                    math.getTodo().addTask(new Task("added while saving"));
+                }
+            }
+        };
+
+        assertEquals(3, store.save(spaces, changingCodec));
+        assertTrue(math.isDirty());
+        assertFalse(spaces.get(1).isDirty());
+        assertEquals(1, store.save(spaces, changingCodec));
+        assertFalse(math.isDirty());
+        assertEquals(2, new SegmentedStore(directory).load().get(0).getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        assertFalse(SegmentedStore.exists(directory));
+        assertEquals(3, store.save(spaces));
+        assertTrue(SegmentedStore.exists(directory));
+        assertFalse(spaces.get(0).isDirty());
+
+        List<Space> loaded = new SegmentedStore(directory).load();
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < spaces.size(); i++) {
+            assertEquals(spaces.get(i).getName(), loaded.get(i).getName());
+            assertEquals(1, loaded.get(i).getTodo().getNumToDos());
+            assertFalse(loaded.get(i).isDirty());
+        }
+    }
+
+    @Test
+    public void testSaveRewritesOnlyChangedSpaces() throws Exception {
+        store.save(spaces);
+        assertEquals(0, store.save(spaces));
+
+        spaces.get(1).getTodo().completeTask(0);
+        assertEquals(1, store.save(spaces));
+        assertEquals(4, directory.list().length);
+
+        spaces.remove(0);
+        spaces.add(new Space("PHYS 117"));
+        assertEquals(1, store.save(spaces));
+        assertEquals(4, directory.list().length);
+
+        List<Space> loaded = new SegmentedStore(directory).load();
+        assertEquals(Arrays.asList("ENGL 110", "CHEM 121", "PHYS 117"), names(loaded));
+        assertTrue(loaded.get(0).getTodo().getTasks().get(0).getComplete());
+    }
+
+    @Test
+    public void testLoadedSpacesNotRewritten() throws Exception {
+        store.save(spaces);
+        SegmentedStore newStore = new SegmentedStore(directory);
+        List<Space> loaded = newStore.load();
+
+        assertEquals(0, newStore.save(loaded));
+        loaded.get(2).addResource(new WebsiteLink("notes", "https://www.chem.ubc.ca/"));
+        assertEquals(1, newStore.save(loaded));
+        assertEquals(1, new SegmentedStore(directory).load().get(2).numResources());
+    }
+
+    @Test
+    public void testLoadIsLazy() throws Exception {
+        store.save(spaces);
+        SegmentedStore newStore = new SegmentedStore(directory);
+        List<Space> loaded = newStore.load();
+
+        assertEquals(names(spaces), names(loaded));
+        for (Space s : loaded) {
+            assertFalse(s.isHydrated());
+        }
+
+        assertEquals("ENGL 110 homework", loaded.get(1).getTodo().getTasks().get(0).getDescription());
+        assertTrue(loaded.get(1).isHydrated());
+        assertFalse(loaded.get(0).isHydrated());
+        assertEquals(0, newStore.save(loaded));
+        assertFalse(loaded.get(0).isHydrated());
+    }
+
+    @Test
+    public void testLazySpaceSegmentMissing() throws Exception {
+        store.save(spaces);
+        List<Space> loaded = new SegmentedStore(directory).load();
+        for (File f : directory.listFiles()) {
+            if (!f.getName().equals(SegmentedStore.MANIFEST_FILE)) {
+                f.delete();
+            }
+        }
+
+        try {
+            loaded.get(0).hydrate();
+            fail("IOException was not thrown.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNewStoreDoesNotOverwriteExistingSegments() throws Exception {
+        store.save(spaces);
+        List<Space> others = new ArrayList<>(Arrays.asList(new Space("PHYS 117")));
+        assertEquals(1, new SegmentedStore(directory).save(others));
+
+        assertEquals(Arrays.asList("PHYS 117"), names(new SegmentedStore(directory).load()));
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void testSaveRefusedAfterAnotherStoreSaved() throws Exception {
+        store.save(spaces);
+        SegmentedStore first = new SegmentedStore(directory);
+        List<Space> firstSpaces = first.load();
+        SegmentedStore second = new SegmentedStore(directory);
+        List<Space> secondSpaces = second.load();
+
+        secondSpaces.get(0).getTodo().addTask(new Task("quiz"));
+        assertEquals(1, second.save(secondSpaces));
+        firstSpaces.add(new Space("PHYS 117"));
+        assertThrows(IOException.class, () -> first.save(firstSpaces));
+
+        List<Space> loaded = new SegmentedStore(directory).load();
+        assertEquals(names(spaces), names(loaded));
+        assertEquals(2, loaded.get(0).getTodo().getNumToDos());
+        assertEquals(4, directory.list().length);
+    }
+
+    @Test
+    public void testWorkspaceSavesAfterReloadingOtherSave() throws Exception {
+        store.save(spaces);
+        WorkspaceApp first = new WorkspaceApp();
+        first.loadSpaces(TEST_DIRECTORY);
+        WorkspaceApp second = new WorkspaceApp();
+        second.loadSpaces(TEST_DIRECTORY);
+
+        second.getSpaceOfName("MATH 101").getTodo().addTask(new Task("quiz"));
+        second.saveSpaces(TEST_DIRECTORY);
+        first.addSpace(new Space("PHYS 117"));
+        assertThrows(IOException.class, () -> first.saveSpaces(TEST_DIRECTORY));
+        first.reloadChanges(TEST_DIRECTORY);
+        first.saveSpaces(TEST_DIRECTORY);
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_DIRECTORY);
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "CHEM 121", "PHYS 117"), loaded.getAllSpaceNames());
+        assertEquals(2, loaded.getSpaceOfName("MATH 101").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testSegmentOfAnotherSpaceNotLoaded() throws Exception {
+        store.save(spaces);
+        List<Space> loaded = new SegmentedStore(directory).load();
+        File math = store.getSegmentFile(spaces.get(0));
+        File engl = store.getSegmentFile(spaces.get(1));
+        assertTrue(engl.delete());
+        assertTrue(math.renameTo(engl));
+
+        assertThrows(InvalidFormatException.class, () -> loaded.get(1).hydrate());
+    }
+
+    @Test
+    public void testReplaceAndReadJson() throws Exception {
+        store.save(spaces);
+        StringWriter json = new StringWriter();
+        new SpaceJsonWriter(json).writeSpaces(spaces.subList(0, 2));
+        JSONArray data = (JSONArray) new JSONParser().parse(json.toString());
+        store.replace(data);
+
+        assertEquals(data, new SegmentedStore(directory).readJson());
+        assertEquals(data.size(), new SegmentedStore(directory).load().size());
+    }
+
+    @Test
+    public void testReadJsonOfPooledSegment() throws Exception {
+        for (Space s : spaces.subList(0, 2)) {
+            s.addResource(new WebsiteLink("UBC", "http://www.ubc.ca"));
+        }
+        StringWriter json = new StringWriter();
+        new SpaceJsonWriter(json).writeSpaces(spaces);
+        JSONArray pooled = (JSONArray) new JSONParser().parse(json.toString());
+        assertEquals(4, pooled.size());
+        store.replace(pooled);
+
+        JSONArray data = new SegmentedStore(directory).readJson();
+        assertEquals(3, data.size());
+        assertEquals(data, new JSONParser().parse(data.toJSONString()));
+        assertTrue(data.toJSONString().contains("\"path\":\"http:\\/\\/www.ubc.ca\""));
+        assertFalse(data.toJSONString().contains("\"ref\""));
+
+        List<Space> loaded = new SegmentedStore(directory).load();
+        assertSame(loaded.get(0).getResources().get(0), loaded.get(1).getResources().get(0));
+    }
+
+    @Test
+    public void testLoadInvalidManifest() throws IOException {
+        directory.mkdirs();
+        try (FileWriter writer = new FileWriter(new File(directory, SegmentedStore.MANIFEST_FILE))) {
+            writer.write("[\"../spaces.json\"]");
+        }
+
+        try {
+            store.load();
+            fail("InvalidFormatException was not thrown.");
+        } catch (InvalidFormatException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLoadMissingStore() throws InvalidFormatException {
+        try {
+            store.load();
+            fail("IOException was not thrown.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIsSegmented() {
+        assertTrue(SegmentedStore.isSegmented("./data"));
+        assertTrue(SegmentedStore.isSegmented(TEST_DIRECTORY));
+        assertFalse(SegmentedStore.isSegmented(TEST_DATA_FILE));
+        assertFalse(SegmentedStore.isSegmented("./data/new_save.json"));
+        assertFalse(SegmentedStore.isSegmented("./data/invalid_save_data.txt"));
+    }
+
+    @Test
+    public void testWorkspaceImportsSingleFileSave() throws Exception {
+        WorkspaceApp workspace = new WorkspaceApp();
+        workspace.setSpaces(spaces);
+        workspace.saveSpaces(TEST_SINGLE_FILE);
+        workspace = new WorkspaceApp();
+        workspace.loadSpaces(TEST_SINGLE_FILE);
+        new File(TEST_SINGLE_FILE).delete();
+        workspace.saveSpaces(TEST_DIRECTORY);
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_DIRECTORY);
+        assertEquals(names(spaces), loaded.getAllSpaceNames());
+    }
+
+    // EFFECTS: returns names of given spaces
+    private List<String> names(List<Space> spaces) {
+        List<String> names = new ArrayList<>();
+        for (Space s : spaces) {
+            names.add(s.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,94 @@
+package persistence;
+
+import model.Space;
+import model.WebsiteLink;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares the JSON save of a workspace whose spaces all link to the same sites written with every resource in each
+// space which has it, as saves used to be, against one with shared resources written once: file size, time to load
+// the file, and heap held by the loaded spaces before they are added to a workspace, which pools their resources
+// either way
+// usage: java persistence.SharedResourceBenchmark [number of spaces...]   (default: 100 1000)
+public class SharedResourceBenchmark {
+    private static final int SHARED_RESOURCES = 40;
+    private static final int OWN_RESOURCES = 5;
+    private static final int RUNS = 5;
+
+    // holds the spaces being measured, so they can't be collected before they have been measured
+    private static volatile List<Space> held;
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[] {"100", "1000"};
+
+        System.out.printf("%-8s %-10s %12s %12s %12s%n", "spaces", "save", "size (KB)", "load (ms)", "heap (KB)");
+        for (String size : sizes) {
+            List<Space> spaces = generateSpaces(Integer.parseInt(size));
+            run(size, "each", write(spaces, false));
+            run(size, "shared", write(spaces, true));
+        }
+    }
+
+    // EFFECTS: loads spaces from the save data several times, and prints its size, best load time, and the heap held
+    //          by the loaded spaces
+    private static void run(String size, String name, byte[] data) throws Exception {
+        long bestLoad = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            load(data);
+            bestLoad = Math.min(bestLoad, System.nanoTime() - start);
+        }
+
+        long before = usedHeap();
+        held = load(data);
+        long heap = usedHeap() - before;
+        held = null;
+        System.out.printf("%-8s %-10s %12d %12.1f %12d%n", size, name, data.length / 1024, bestLoad / 1e6,
+                heap / 1024);
+    }
+
+    // EFFECTS: returns spaces decoded from data
+    private static List<Space> load(byte[] data) throws Exception {
+        List<Space> spaces = new ArrayList<>();
+        new JsonCodec().decode(new ByteArrayInputStream(data), spaces::add);
+        return spaces;
+    }
+
+    // EFFECTS: returns spaces written as JSON, writing shared resources once if pooling is true
+    private static byte[] write(List<Space> spaces, boolean pooling) throws Exception {
+        StringWriter json = new StringWriter();
+        new SpaceJsonWriter(json, pooling).writeSpaces(spaces);
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns given number of generated spaces, each with links to the same course sites and a few of its own
+    private static List<Space> generateSpaces(int numSpaces) throws Exception {
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < numSpaces; i++) {
+            Space space = new Space("SPACE " + i);
+            for (int j = 0; j < SHARED_RESOURCES; j++) {
+                space.addResource(new WebsiteLink("Site " + j, "https://www.ubc.ca/student-services/page-" + j));
+            }
+            for (int j = 0; j < OWN_RESOURCES; j++) {
+                space.addResource(new WebsiteLink("Own " + j, "https://canvas.ubc.ca/courses/" + i + "/files/" + j));
+            }
+            spaces.add(space);
+        }
+        return spaces;
+    }
+
+    // EFFECTS: returns bytes of heap in use after collecting garbage
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
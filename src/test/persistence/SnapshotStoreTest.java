@@ -0,0 +1,174 @@
+package persistence;
+
+import model.Space;
+import model.Task;
+import model.WorkspaceApp;
+import model.exception.InvalidFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotStoreTest {
+    private static final String TEST_DIRECTORY = "./data/test_history_save";
+    private static final String TEST_FILE = "./data/test_history_save.json";
+
+    WorkspaceApp workspace;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new WorkspaceApp();
+        workspace.setKeepHistory(true);
+        for (String name : Arrays.asList("MATH 101", "ENGL 110", "CHEM 121")) {
+            Space space = new Space(name);
+            space.getTodo().addTask(new Task(name + " homework"));
+            workspace.addSpace(space);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        delete(new File(TEST_DIRECTORY));
+        delete(new File(TEST_FILE));
+        delete(SnapshotStore.historyFor(TEST_DIRECTORY));
+        delete(SnapshotStore.historyFor(TEST_FILE));
+    }
+
+    @Test
+    public void testOnlyChangedSpacesStored() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        assertEquals(3, numChunks(TEST_DIRECTORY));
+
+        workspace.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("Essay"));
+        workspace.saveSpaces(TEST_DIRECTORY);
+
+        List<SaveVersion> versions = workspace.listVersions(TEST_DIRECTORY);
+        assertEquals(2, versions.size());
+        assertEquals(4, numChunks(TEST_DIRECTORY));
+        assertEquals(versions.get(0).getChunk("MATH 101"), versions.get(1).getChunk("MATH 101"));
+        assertNotEquals(versions.get(0).getChunk("ENGL 110"), versions.get(1).getChunk("ENGL 110"));
+    }
+
+    @Test
+    public void testUnchangedSaveNotRecorded() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        workspace.saveSpaces(TEST_DIRECTORY);
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.setKeepHistory(true);
+        loaded.loadSpaces(TEST_DIRECTORY);
+        loaded.saveSpaces(TEST_DIRECTORY);
+
+        assertEquals(1, workspace.listVersions(TEST_DIRECTORY).size());
+        assertFalse(loaded.getSpaces().get(0).isHydrated());
+    }
+
+    @Test
+    public void testDiff() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        workspace.removeSpace("CHEM 121");
+        workspace.addSpace(new Space("PHYS 117"));
+        workspace.getSpaceOfName("MATH 101").getTodo().addTask(new Task("Quiz"));
+        workspace.saveSpaces(TEST_DIRECTORY);
+
+        VersionDiff diff = workspace.diffVersions(TEST_DIRECTORY, 1, 2);
+        assertEquals(Arrays.asList("PHYS 117"), diff.getAdded());
+        assertEquals(Arrays.asList("CHEM 121"), diff.getRemoved());
+        assertEquals(Arrays.asList("MATH 101"), diff.getChanged());
+        assertTrue(workspace.diffVersions(TEST_DIRECTORY, 2, 2).isEmpty());
+    }
+
+    @Test
+    public void testRestoreVersion() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        workspace.removeSpace("MATH 101");
+        workspace.getSpaceOfName("ENGL 110").getTodo().addTask(new Task("Essay"));
+        workspace.saveSpaces(TEST_DIRECTORY);
+        int chunks = numChunks(TEST_DIRECTORY);
+
+        workspace.restoreVersion(TEST_DIRECTORY, 1);
+        assertEquals(Arrays.asList("MATH 101", "ENGL 110", "CHEM 121"), workspace.getAllSpaceNames());
+        assertEquals(1, workspace.getSpaceOfName("ENGL 110").getTodo().getNumToDos());
+
+        List<SaveVersion> versions = workspace.listVersions(TEST_DIRECTORY);
+        assertEquals(3, versions.size());
+        assertTrue(versions.get(2).hasSameContents(versions.get(0)));
+        assertEquals(chunks, numChunks(TEST_DIRECTORY));
+
+        WorkspaceApp loaded = new WorkspaceApp();
+        loaded.loadSpaces(TEST_DIRECTORY);
+        assertEquals(3, loaded.getSpaces().size());
+    }
+
+    @Test
+    public void testSingleFileHistory() throws Exception {
+        workspace.saveSpaces(TEST_FILE);
+        workspace.getSpaceOfName("CHEM 121").getTodo().addTask(new Task("Lab"));
+        workspace.saveSpaces(TEST_FILE);
+
+        assertEquals(Arrays.asList("CHEM 121"), workspace.diffVersions(TEST_FILE, 1, 2).getChanged());
+        workspace.restoreVersion(TEST_FILE, 1);
+        assertEquals(1, workspace.getSpaceOfName("CHEM 121").getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testOldVersionsPruned() throws Exception {
+        SnapshotStore history = new SnapshotStore(SnapshotStore.historyFor(TEST_DIRECTORY), 2);
+        for (int i = 0; i < 4; i++) {
+            workspace.getSpaceOfName("MATH 101").getTodo().addTask(new Task("Quiz " + i));
+            history.snapshot(workspace.getSpaces(), null);
+        }
+
+        List<SaveVersion> versions = history.listVersions();
+        assertEquals(2, versions.size());
+        assertEquals(3, versions.get(0).getNumber());
+        assertEquals(4, numChunks(TEST_DIRECTORY));
+        assertEquals(5, history.readSpaces(4).get(0).getTodo().getNumToDos());
+    }
+
+    @Test
+    public void testInvalidVersion() throws Exception {
+        workspace.saveSpaces(TEST_DIRECTORY);
+        File version = new File(SnapshotStore.historyFor(TEST_DIRECTORY), "version-2.json");
+        try (FileWriter writer = new FileWriter(version)) {
+            writer.write("{\"time\":0,\"spaces\":[{\"name\":\"A\",\"chunk\":\"../../manifest.json\"}]}");
+        }
+
+        try {
+            workspace.restoreVersion(TEST_DIRECTORY, 2);
+            fail("InvalidFormatException was not thrown.");
+        } catch (InvalidFormatException e) {
+            // expected
+        }
+        try {
+            workspace.diffVersions(TEST_DIRECTORY, 1, 3);
+            fail("IOException was not thrown.");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(3, workspace.getSpaces().size());
+    }
+
+    // EFFECTS: returns number of chunks in the history of given save
+    private int numChunks(String savePath) {
+        return new File(SnapshotStore.historyFor(savePath), "chunks").list().length;
+    }
+
+    // EFFECTS: deletes file, and everything in it if it is a directory
+    private void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                delete(f);
+            }
+        }
+        file.delete();
+    }
+}